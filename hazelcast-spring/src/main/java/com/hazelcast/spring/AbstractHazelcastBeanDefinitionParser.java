@@ -541,6 +541,12 @@ public abstract class AbstractHazelcastBeanDefinitionParser extends AbstractBean
             IndexType type = IndexUtils.getIndexTypeFromXmlName(typeStr);
             indexConfBuilder.addPropertyValue("type", type);
 
+            // Resolve primitive keys.
+            Node primitiveKeysNode = attributes.getNamedItem("primitive-keys");
+            if (primitiveKeysNode != null) {
+                indexConfBuilder.addPropertyValue("primitiveKeys", getBooleanValue(getTextContent(primitiveKeysNode)));
+            }
+
             // Resolve columns.
             List<String> columns = new ArrayList<>();
 
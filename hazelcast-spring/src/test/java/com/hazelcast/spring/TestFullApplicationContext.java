@@ -338,15 +338,20 @@ public class TestFullApplicationContext extends HazelcastTestSupport {
         assertEquals(321, journalConfig.getTimeToLiveSeconds());
         assertEquals(MetadataPolicy.OFF, testMapConfig.getMetadataPolicy());
         assertTrue(testMapConfig.isReadBackupData());
-        assertEquals(2, testMapConfig.getIndexConfigs().size());
+        assertEquals(3, testMapConfig.getIndexConfigs().size());
         for (IndexConfig index : testMapConfig.getIndexConfigs()) {
             if ("name".equals(index.getAttributes().get(0))) {
                 assertEquals(IndexType.HASH, index.getType());
                 assertNull(index.getName());
+                assertFalse(index.isPrimitiveKeys());
             } else if ("age".equals(index.getAttributes().get(0))) {
                 assertEquals(IndexType.SORTED, index.getType());
                 assertEquals("sortedIndex", index.getName());
                 assertEquals("name", index.getAttributes().get(1));
+                assertFalse(index.isPrimitiveKeys());
+            } else if ("weight".equals(index.getAttributes().get(0))) {
+                assertEquals(IndexType.SORTED, index.getType());
+                assertTrue(index.isPrimitiveKeys());
             } else {
                 fail("unknown index!");
             }
@@ -80,6 +80,14 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
         }
     }
 
+    /**
+     * @return the attribute path of the accumulated values or {@code null}
+     * if the whole entry values are accumulated
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     /**
      * Extract the value of the given attributePath from the given entry.
      */
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Implemented by the built-in aggregators which are able to accumulate
+ * batches of primitive attribute values at once, as produced by columnar
+ * partition scans, instead of extracting and accumulating one entry at a
+ * time.
+ * <p>
+ * The batch methods must produce the same result as accumulating entries
+ * holding the boxed values of the given value class one by one would.
+ */
+public interface BatchAggregator {
+
+    /**
+     * @return the attribute path of the aggregated values or {@code null} if
+     * the whole entry values are aggregated
+     */
+    String getAttributePath();
+
+    /**
+     * Checks whether batches of the given value class can be accumulated.
+     *
+     * @param valueClass the boxed class of the values, one of {@link Long},
+     *                   {@link Integer}, {@link Short}, {@link Byte},
+     *                   {@link Double} or {@link Float}; or {@code null}
+     *                   if the batch carries only the number of entries
+     * @return {@code true} if batches of the class can be accumulated,
+     * {@code false} otherwise
+     */
+    boolean canAccumulateBatch(Class<?> valueClass);
+
+    /**
+     * Accumulates a batch of integral values.
+     *
+     * @param values     the values; meaningless if {@code valueClass} is {@code null}
+     * @param count      the number of values in the batch
+     * @param valueClass the boxed class of the values
+     */
+    void accumulateBatch(long[] values, int count, Class<?> valueClass);
+
+    /**
+     * Accumulates a batch of floating-point values.
+     *
+     * @param values     the values
+     * @param count      the number of values in the batch
+     * @param valueClass the boxed class of the values
+     */
+    void accumulateBatch(double[] values, int count, Class<?> valueClass);
+}
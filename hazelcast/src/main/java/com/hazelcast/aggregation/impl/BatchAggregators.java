@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Utility methods for {@link BatchAggregator} implementations.
+ */
+final class BatchAggregators {
+
+    private BatchAggregators() {
+    }
+
+    /**
+     * Boxes the given integral value into an instance of the given class.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R box(long value, Class<?> valueClass) {
+        if (valueClass == Long.class) {
+            return (R) Long.valueOf(value);
+        } else if (valueClass == Integer.class) {
+            return (R) Integer.valueOf((int) value);
+        } else if (valueClass == Short.class) {
+            return (R) Short.valueOf((short) value);
+        } else if (valueClass == Byte.class) {
+            return (R) Byte.valueOf((byte) value);
+        }
+        throw new IllegalArgumentException("Unexpected integral class: " + valueClass);
+    }
+
+    /**
+     * Boxes the given floating-point value into an instance of the given class.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R box(double value, Class<?> valueClass) {
+        if (valueClass == Double.class) {
+            return (R) Double.valueOf(value);
+        } else if (valueClass == Float.class) {
+            return (R) Float.valueOf((float) value);
+        }
+        throw new IllegalArgumentException("Unexpected floating-point class: " + valueClass);
+    }
+}
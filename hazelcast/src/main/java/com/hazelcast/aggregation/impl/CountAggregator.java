@@ -24,7 +24,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.util.Objects;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, BatchAggregator {
     private long count;
 
     public CountAggregator() {
@@ -40,6 +41,31 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return true;
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        this.count += count;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        this.count += count;
+    }
+
+    /**
+     * Accumulates the given number of entries at once. Used when the number
+     * of matching entries is known without visiting them, e.g. from an index.
+     *
+     * @param count the number of entries to accumulate.
+     */
+    public void accumulateCount(long count) {
+        this.count += count;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
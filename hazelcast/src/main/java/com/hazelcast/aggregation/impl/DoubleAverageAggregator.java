@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private double sum;
 
@@ -46,6 +46,28 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Numb
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null && (Numbers.isDoubleRepresentable(valueClass)
+                || Numbers.isLongRepresentable(valueClass) && valueClass != Long.class);
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += (double) values[i];
+        }
+        this.count += count;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        this.count += count;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleAverageAggregator doubleAverageAggregator = (DoubleAverageAggregator) aggregator;
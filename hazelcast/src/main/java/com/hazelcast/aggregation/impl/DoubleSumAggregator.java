@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private double sum;
 
@@ -43,6 +43,26 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Number,
         sum += Numbers.asDoubleExactly(value);
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null && (Numbers.isDoubleRepresentable(valueClass)
+                || Numbers.isLongRepresentable(valueClass) && valueClass != Long.class);
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += (double) values[i];
+        }
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
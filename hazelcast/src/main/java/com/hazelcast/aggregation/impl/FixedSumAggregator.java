@@ -20,11 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Numbers;
 
 import java.io.IOException;
 import java.util.Objects;
 
-public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long> implements IdentifiedDataSerializable {
+public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, Long>
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private long sum;
 
@@ -41,6 +43,26 @@ public final class FixedSumAggregator<I> extends AbstractAggregator<I, Number, L
         sum += value.longValue();
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null
+                && (Numbers.isLongRepresentable(valueClass) || Numbers.isDoubleRepresentable(valueClass));
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += (long) values[i];
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FixedSumAggregator longSumAggregator = (FixedSumAggregator) aggregator;
@@ -20,12 +20,13 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Numbers;
 
 import java.io.IOException;
 import java.util.Objects;
 
 public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private double sum;
 
@@ -42,6 +43,26 @@ public final class FloatingPointSumAggregator<I> extends AbstractAggregator<I, N
         sum += value.doubleValue();
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null
+                && (Numbers.isLongRepresentable(valueClass) || Numbers.isDoubleRepresentable(valueClass));
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += (double) values[i];
+        }
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         FloatingPointSumAggregator longSumAggregator = (FloatingPointSumAggregator) aggregator;
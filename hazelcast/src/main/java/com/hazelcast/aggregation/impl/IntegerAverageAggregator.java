@@ -26,7 +26,7 @@ import java.io.IOException;
 import java.util.Objects;
 
 public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private long sum;
 
@@ -46,6 +46,24 @@ public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Num
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null && Numbers.isLongRepresentable(valueClass) && valueClass != Long.class;
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        this.count += count;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        throw new UnsupportedOperationException("Floating-point values are not supported");
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerAverageAggregator integerAverageAggregator = (IntegerAverageAggregator) aggregator;
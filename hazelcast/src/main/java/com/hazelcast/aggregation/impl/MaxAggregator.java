@@ -21,12 +21,15 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.Numbers;
 
 import java.io.IOException;
 import java.util.Objects;
 
+import static com.hazelcast.aggregation.impl.BatchAggregators.box;
+
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, BatchAggregator {
 
     private R max;
 
@@ -45,6 +48,41 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         }
     }
 
+    @Override
+    public boolean canAccumulateBatch(Class<?> valueClass) {
+        return valueClass != null
+                && (Numbers.isLongRepresentable(valueClass) || Numbers.isDoubleRepresentable(valueClass));
+    }
+
+    @Override
+    public void accumulateBatch(long[] values, int count, Class<?> valueClass) {
+        if (count == 0) {
+            return;
+        }
+        long largest = values[0];
+        for (int i = 1; i < count; i++) {
+            if (values[i] > largest) {
+                largest = values[i];
+            }
+        }
+        accumulateExtracted(null, box(largest, valueClass));
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count, Class<?> valueClass) {
+        if (count == 0) {
+            return;
+        }
+        double largest = values[0];
+        for (int i = 1; i < count; i++) {
+            // Double.compare orders NaN and signed zeros as Double.compareTo does
+            if (Double.compare(values[i], largest) > 0) {
+                largest = values[i];
+            }
+        }
+        accumulateExtracted(null, box(largest, valueClass));
+    }
+
     private boolean isCurrentlyLessThan(R otherValue) {
         if (otherValue == null) {
             return false;
@@ -41,6 +41,7 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.compact.UnsupportedSchemaReplicator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.map.impl.MapService;
@@ -90,7 +91,7 @@ public class DefaultClientExtension implements ClientExtension {
             if (version > 0) {
                 builder.setVersion(version);
             }
-            return builder
+            InternalSerializationService ss = builder
                     .setClassLoader(configClassLoader)
                     .setConfig(serializationConfig)
                     .setManagedContext(new HazelcastClientManagedContext(client, config.getManagedContext()))
@@ -98,6 +99,9 @@ public class DefaultClientExtension implements ClientExtension {
                     .setHazelcastInstance(hazelcastInstance)
                     .setNotActiveExceptionSupplier(HazelcastClientNotActiveException::new)
                     .build();
+            // clients can't share compact schemas with the members
+            ss.getCompactSchemaRegistry().setReplicator(UnsupportedSchemaReplicator.INSTANCE);
+            return ss;
         } catch (Exception e) {
             throw rethrow(e);
         }
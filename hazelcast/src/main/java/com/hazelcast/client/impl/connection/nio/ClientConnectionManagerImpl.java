@@ -50,6 +50,8 @@ import com.hazelcast.instance.BuildInfoProvider;
 import com.hazelcast.internal.networking.Channel;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelInitializerProvider;
+import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingProviders;
 import com.hazelcast.internal.networking.nio.NioNetworking;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.nio.ConnectionListener;
@@ -100,7 +102,9 @@ import static com.hazelcast.client.config.ClientConnectionStrategyConfig.Reconne
 import static com.hazelcast.client.impl.management.ManagementCenterService.MC_CLIENT_MODE_PROP;
 import static com.hazelcast.client.impl.protocol.AuthenticationStatus.NOT_ALLOWED_IN_CLUSTER;
 import static com.hazelcast.client.properties.ClientProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.client.properties.ClientProperty.IO_GATHERING_WRITE_THRESHOLD;
 import static com.hazelcast.client.properties.ClientProperty.IO_INPUT_THREAD_COUNT;
+import static com.hazelcast.client.properties.ClientProperty.IO_NETWORKING_PROVIDER;
 import static com.hazelcast.client.properties.ClientProperty.IO_OUTPUT_THREAD_COUNT;
 import static com.hazelcast.client.properties.ClientProperty.IO_WRITE_THROUGH_ENABLED;
 import static com.hazelcast.client.properties.ClientProperty.SHUFFLE_MEMBER_LIST;
@@ -127,7 +131,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
     private final HazelcastClientInstanceImpl client;
     private final ConcurrentMap<Address, InetSocketAddress> inetSocketAddressCache = new ConcurrentHashMap<>();
     private final Collection<ConnectionListener> connectionListeners = new CopyOnWriteArrayList<>();
-    private final NioNetworking networking;
+    private final Networking networking;
     private final HeartbeatManager heartbeat;
     private final long authenticationTimeout;
     private final String connectionType;
@@ -231,11 +235,11 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         return AddressUtil.getOutboundPorts(outboundPorts, outboundPortDefinitions);
     }
 
-    public NioNetworking getNetworking() {
+    public Networking getNetworking() {
         return networking;
     }
 
-    protected NioNetworking initNetworking() {
+    protected Networking initNetworking() {
         HazelcastProperties properties = client.getProperties();
 
         int configuredInputThreads = properties.getInteger(IO_INPUT_THREAD_COUNT);
@@ -263,17 +267,19 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
             outputThreads = configuredOutputThreads;
         }
 
-        return new NioNetworking(
-                new NioNetworking.Context()
-                        .loggingService(client.getLoggingService())
-                        .metricsRegistry(client.getMetricsRegistry())
-                        .threadNamePrefix(client.getName())
-                        .errorHandler(new ClientConnectionChannelErrorHandler())
-                        .inputThreadCount(inputThreads)
-                        .outputThreadCount(outputThreads)
-                        .balancerIntervalSeconds(properties.getInteger(IO_BALANCER_INTERVAL_SECONDS))
-                        .writeThroughEnabled(properties.getBoolean(IO_WRITE_THROUGH_ENABLED))
-                        .concurrencyDetection(client.getConcurrencyDetection()));
+        NioNetworking.Context context = new NioNetworking.Context()
+                .loggingService(client.getLoggingService())
+                .metricsRegistry(client.getMetricsRegistry())
+                .threadNamePrefix(client.getName())
+                .errorHandler(new ClientConnectionChannelErrorHandler())
+                .inputThreadCount(inputThreads)
+                .outputThreadCount(outputThreads)
+                .balancerIntervalSeconds(properties.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                .writeThroughEnabled(properties.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                .gatheringWriteThreshold(properties.getInteger(IO_GATHERING_WRITE_THRESHOLD))
+                .concurrencyDetection(client.getConcurrencyDetection());
+        return NetworkingProviders.create(properties.getString(IO_NETWORKING_PROVIDER), context,
+                client.getClientConfig().getClassLoader(), logger);
     }
 
     private WaitStrategy initializeWaitStrategy(ClientConfig clientConfig) {
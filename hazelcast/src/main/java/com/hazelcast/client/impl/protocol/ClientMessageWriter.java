@@ -28,27 +28,61 @@ public class ClientMessageWriter {
     private transient ClientMessage.Frame currentFrame;
     //-1 means length is not written yet
     private transient int writeOffset = -1;
+    private transient ByteBuffer gatheredContent;
 
     public boolean writeTo(ByteBuffer dst, ClientMessage clientMessage) {
+        return writeTo(dst, clientMessage, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the frames of the message to the supplied {@code ByteBuffer}, up to the buffer's limit.
+     *
+     * If at least {@code gatheringThreshold} bytes of the content of a frame remain to be written once
+     * the frame header is written, the remaining content isn't copied into the buffer. Instead it is
+     * wrapped in a buffer that can be obtained using {@link #takeGatheredContent()} and that should be
+     * written directly after the supplied buffer. Writing stops after a gathered frame, so that the
+     * next frames end up behind the gathered content.
+     *
+     * @param dst                the destination byte buffer
+     * @param clientMessage      the message to write
+     * @param gatheringThreshold the minimum number of remaining content bytes for the content to be gathered
+     * @return {@code true} if all frames of the message are now written out or gathered; {@code false} otherwise.
+     */
+    public boolean writeTo(ByteBuffer dst, ClientMessage clientMessage, int gatheringThreshold) {
         if (currentFrame == null) {
             currentFrame = clientMessage.startFrame;
         }
         for (; ; ) {
             boolean isLastFrame = currentFrame.next == null;
-            if (writeFrame(dst, currentFrame, isLastFrame)) {
+            if (writeFrame(dst, currentFrame, isLastFrame, gatheringThreshold)) {
                 writeOffset = -1;
                 if (isLastFrame) {
                     currentFrame = null;
                     return true;
                 }
                 currentFrame = currentFrame.next;
+                if (gatheredContent != null) {
+                    return false;
+                }
             } else {
                 return false;
             }
         }
     }
 
-    private boolean writeFrame(ByteBuffer dst, ClientMessage.Frame frame, boolean isLastFrame) {
+    /**
+     * Returns the frame content gathered by the last {@link #writeTo(ByteBuffer, ClientMessage, int)} call
+     * and clears it.
+     *
+     * @return the gathered content in reading mode or {@code null} if no content was gathered
+     */
+    public ByteBuffer takeGatheredContent() {
+        ByteBuffer content = gatheredContent;
+        gatheredContent = null;
+        return content;
+    }
+
+    private boolean writeFrame(ByteBuffer dst, ClientMessage.Frame frame, boolean isLastFrame, int gatheringThreshold) {
         // the number of bytes that can be written to the bb
         int bytesWritable = dst.remaining();
         int frameContentLength = frame.content == null ? 0 : frame.content.length;
@@ -79,6 +113,12 @@ public class ClientMessageWriter {
         // the number of bytes that need to be written
         int bytesNeeded = frameContentLength - writeOffset;
 
+        if (bytesNeeded > 0 && bytesNeeded >= gatheringThreshold) {
+            gatheredContent = ByteBuffer.wrap(frame.content, writeOffset, bytesNeeded);
+            writeOffset = frameContentLength;
+            return true;
+        }
+
         int bytesWrite;
         boolean done;
         if (bytesWritable >= bytesNeeded) {
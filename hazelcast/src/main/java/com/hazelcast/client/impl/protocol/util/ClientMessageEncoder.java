@@ -18,8 +18,8 @@ package com.hazelcast.client.impl.protocol.util;
 
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.ClientMessageWriter;
+import com.hazelcast.internal.networking.GatheringOutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
-import com.hazelcast.internal.networking.OutboundHandler;
 
 import java.nio.ByteBuffer;
 import java.util.function.Supplier;
@@ -29,9 +29,12 @@ import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
 
 /**
- * A {@link OutboundHandler} for the new-client. It writes ClientMessages to the ByteBuffer.
+ * A {@link GatheringOutboundHandler} for the new-client. It writes ClientMessages to the ByteBuffer.
+ *
+ * Large frame contents are not copied into the ByteBuffer; they are gathered so the pipeline
+ * can write them directly to the socket.
  */
-public class ClientMessageEncoder extends OutboundHandler<Supplier<ClientMessage>, ByteBuffer> {
+public class ClientMessageEncoder extends GatheringOutboundHandler<Supplier<ClientMessage>> {
 
     private ClientMessage message;
     private final ClientMessageWriter clientMessageWriter = new ClientMessageWriter();
@@ -45,6 +48,11 @@ public class ClientMessageEncoder extends OutboundHandler<Supplier<ClientMessage
     public HandlerStatus onWrite() {
         compactOrClear(dst);
         try {
+            if (!flushGathered()) {
+                // the gathered frame content still needs to be written
+                return DIRTY;
+            }
+
             for (; ; ) {
                 if (message == null) {
                     message = src.get();
@@ -55,13 +63,21 @@ public class ClientMessageEncoder extends OutboundHandler<Supplier<ClientMessage
                     }
                 }
 
-                if (clientMessageWriter.writeTo(dst, message)) {
-                    // message got written, lets see if another message can be written
+                boolean written = clientMessageWriter.writeTo(dst, message, gatheringThreshold());
+                if (written) {
                     message = null;
-                } else {
+                }
+
+                ByteBuffer content = clientMessageWriter.takeGatheredContent();
+                if (content != null) {
+                    // the content gets written after the content of the dst buffer
+                    gather(content);
+                    return DIRTY;
+                } else if (!written) {
                     // the message didn't get written completely, so we are done.
                     return DIRTY;
                 }
+                // message got written, lets see if another message can be written
             }
         } finally {
             dst.flip();
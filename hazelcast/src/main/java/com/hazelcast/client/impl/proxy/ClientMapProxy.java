@@ -97,6 +97,7 @@ import com.hazelcast.client.impl.spi.impl.ClientInvocation;
 import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
 import com.hazelcast.client.impl.spi.impl.ListenerMessageCodec;
 import com.hazelcast.client.map.impl.iterator.ClientMapPartitionIterator;
+import com.hazelcast.client.map.impl.iterator.ClientMapQueryIterator;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterator;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.IndexConfig;
@@ -1753,6 +1754,16 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 predicate, projection);
     }
 
+    @Override
+    public <R> Iterator<R> queryIterator(int fetchSize, @Nonnull Predicate<K, V> predicate,
+                                         @Nonnull Projection<? super Entry<K, V>, R> projection) {
+        checkPositive(fetchSize, "fetchSize should be positive");
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "queryIterator");
+        return new ClientMapQueryIterator<>(this, getContext(), fetchSize, predicate, projection);
+    }
+
     @Override
     public InternalCompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl.iterator;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.impl.proxy.ClientMapProxy;
+import com.hazelcast.client.impl.spi.ClientContext;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.iterator.AbstractMapQueryIterator;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+
+import java.util.Map.Entry;
+
+import static com.hazelcast.internal.iteration.IterationPointer.decodePointers;
+import static com.hazelcast.internal.iteration.IterationPointer.encodePointers;
+
+/**
+ * Client-side iterator streaming the result of a query over all partitions
+ * of a map.
+ *
+ * @see AbstractMapQueryIterator
+ */
+public class ClientMapQueryIterator<K, V, R> extends AbstractMapQueryIterator<K, V, R> {
+
+    private final ClientContext context;
+    private final Data predicateData;
+    private final Data projectionData;
+
+    public ClientMapQueryIterator(ClientMapProxy<K, V> mapProxy,
+                                  ClientContext context,
+                                  int fetchSize,
+                                  Predicate<K, V> predicate,
+                                  Projection<? super Entry<K, V>, R> projection) {
+        super(mapProxy.getName(), fetchSize, context.getPartitionService().getPartitionCount(), predicate, projection);
+        this.context = context;
+        // serialized once, the same query is sent with every batch request
+        this.predicateData = context.getSerializationService().toData(query.getPredicate());
+        this.projectionData = context.getSerializationService().toData(query.getProjection());
+    }
+
+    @Override
+    protected InternalCompletableFuture<Batch> fetch(int partitionId, IterationPointer[] pointers) {
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        ClientMessage request = MapFetchWithQueryCodec.encodeRequest(
+                mapName, encodePointers(pointers), fetchSize, projectionData, predicateData);
+        return new ClientInvocation(client, request, mapName, partitionId).invoke().thenApply(response -> {
+            MapFetchWithQueryCodec.ResponseParameters parameters = MapFetchWithQueryCodec.decodeResponse(response);
+            return new Batch(parameters.results, decodePointers(parameters.iterationPointers));
+        });
+    }
+
+    @Override
+    protected int getPartitionId(Object key) {
+        return context.getPartitionService().getPartitionId(key);
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return context.getSerializationService();
+    }
+}
@@ -136,6 +136,18 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_OUTPUT_THREAD_COUNT
             = new HazelcastProperty("hazelcast.client.io.output.thread.count", -1);
 
+    /**
+     * The name of the networking provider used for the connections of the client.
+     * Providers are discovered with the Hazelcast ServiceLoader under the
+     * factory id {@code com.hazelcast.internal.networking.NetworkingProvider}.
+     * If the provider is not found or is not available in this JVM, the
+     * default selector based {@code nio} provider is used.
+     * <p>
+     * The default is {@code nio}.
+     */
+    public static final HazelcastProperty IO_NETWORKING_PROVIDER
+            = new HazelcastProperty("hazelcast.client.io.networking.provider", "nio");
+
     /**
      * The interval in seconds between {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer}
      * executions. The shorter intervals will catch I/O Imbalance faster, but they will cause higher overhead.
@@ -157,6 +169,18 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.client.io.write.through", true);
 
+    /**
+     * The minimum size in bytes of a serialized payload for it to be written
+     * to the socket directly from its byte array using a gathering write,
+     * instead of being copied into the send buffer of the connection first.
+     * This saves a copy of every large value. The value is ignored for
+     * connections that have another handler, e.g. TLS, behind the encoder.
+     *
+     * The default is 32 KB. A value of -1 disables gathering writes.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_THRESHOLD
+            = new HazelcastProperty("hazelcast.client.io.gathering.write.threshold", 32 * 1024);
+
     /**
      * Property needed for concurrency detection so that write through and dynamic response handling
      * can be done correctly. This property sets the window the concurrency detection will signalling
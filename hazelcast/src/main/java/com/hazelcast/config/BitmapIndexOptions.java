@@ -16,11 +16,13 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.internal.util.StringUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.query.QueryConstants;
 
 import javax.annotation.Nonnull;
@@ -31,7 +33,7 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 /**
  * Configures indexing options specific to bitmap indexes.
  */
-public class BitmapIndexOptions implements IdentifiedDataSerializable {
+public class BitmapIndexOptions implements IdentifiedDataSerializable, Versioned {
 
     /**
      * The default for {@link #getUniqueKey() unique key}.
@@ -44,6 +46,11 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
      */
     public static final UniqueKeyTransformation DEFAULT_UNIQUE_KEY_TRANSFORMATION = UniqueKeyTransformation.OBJECT;
 
+    /**
+     * The default for {@link #isCompressed() compressed}.
+     */
+    public static final boolean DEFAULT_COMPRESSED = false;
+
     /**
      * Defines an assortment of transformations which can be applied to {@link
      * BitmapIndexOptions#getUniqueKey() unique key} values.
@@ -134,6 +141,7 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
 
     private String uniqueKey;
     private UniqueKeyTransformation uniqueKeyTransformation;
+    private boolean compressed = DEFAULT_COMPRESSED;
 
     /**
      * Constructs a new bitmap index options instance with all options set to
@@ -151,6 +159,7 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
     public BitmapIndexOptions(BitmapIndexOptions bitmapIndexOptions) {
         this.uniqueKey = bitmapIndexOptions.uniqueKey;
         this.uniqueKeyTransformation = bitmapIndexOptions.uniqueKeyTransformation;
+        this.compressed = bitmapIndexOptions.compressed;
     }
 
     /**
@@ -158,7 +167,8 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
      * values, {@code false} otherwise.
      */
     boolean areDefault() {
-        return DEFAULT_UNIQUE_KEY.equals(uniqueKey) && DEFAULT_UNIQUE_KEY_TRANSFORMATION == uniqueKeyTransformation;
+        return DEFAULT_UNIQUE_KEY.equals(uniqueKey) && DEFAULT_UNIQUE_KEY_TRANSFORMATION == uniqueKeyTransformation
+                && DEFAULT_COMPRESSED == compressed;
     }
 
     /**
@@ -206,16 +216,53 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Returns whether the index stores its bitmaps compressed. Defaults to
+     * {@code false}.
+     *
+     * @return {@code true} if the bitmaps are compressed, {@code false}
+     * otherwise.
+     * @see #setCompressed(boolean)
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Sets whether the index stores its bitmaps compressed.
+     * <p>
+     * Compressed bitmaps are split into array, bitmap and run containers
+     * chosen by the density of the entry keys in every container. They take
+     * less memory than the default sparse bitmaps on dense or clustered keys,
+     * like the keys produced by the {@link UniqueKeyTransformation#OBJECT
+     * OBJECT} transformation, and evaluate {@code in}, {@code and} and
+     * {@code or} predicates and {@code count} aggregations faster.
+     *
+     * @param compressed {@code true} to compress the bitmaps.
+     * @return this bitmap index options instance.
+     * @since 4.1
+     */
+    public BitmapIndexOptions setCompressed(boolean compressed) {
+        this.compressed = compressed;
+        return this;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeUTF(uniqueKey);
         out.writeInt(uniqueKeyTransformation.getId());
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            out.writeBoolean(compressed);
+        }
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         uniqueKey = in.readUTF();
         uniqueKeyTransformation = UniqueKeyTransformation.fromId(in.readInt());
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            compressed = in.readBoolean();
+        }
     }
 
     @Override
@@ -230,7 +277,8 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
 
     @Override
     public String toString() {
-        return "BitmapIndexOptions{uniqueKey=" + uniqueKey + ", uniqueKeyTransformation=" + uniqueKeyTransformation + '}';
+        return "BitmapIndexOptions{uniqueKey=" + uniqueKey + ", uniqueKeyTransformation=" + uniqueKeyTransformation
+                + ", compressed=" + compressed + '}';
     }
 
     @Override
@@ -249,6 +297,10 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
             return false;
         }
 
+        if (compressed != that.compressed) {
+            return false;
+        }
+
         return uniqueKeyTransformation == that.uniqueKeyTransformation;
     }
 
@@ -256,6 +308,7 @@ public class BitmapIndexOptions implements IdentifiedDataSerializable {
     public int hashCode() {
         int result = uniqueKey.hashCode();
         result = 31 * result + uniqueKeyTransformation.hashCode();
+        result = 31 * result + (compressed ? 1 : 0);
         return result;
     }
 
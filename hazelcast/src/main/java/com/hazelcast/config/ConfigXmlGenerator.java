@@ -912,6 +912,7 @@ public class ConfigXmlGenerator {
             wanReplicationConfigXmlGenerator(gen, m.getWanReplicationRef());
             indexConfigXmlGenerator(gen, m);
             attributeConfigXmlGenerator(gen, m);
+            columnarAttributesXmlGenerator(gen, m);
             entryListenerConfigXmlGenerator(gen, m);
             mapPartitionLostListenerConfigXmlGenerator(gen, m);
             mapPartitionStrategyConfigXmlGenerator(gen, m);
@@ -1133,6 +1134,16 @@ public class ConfigXmlGenerator {
         }
     }
 
+    private static void columnarAttributesXmlGenerator(XmlGenerator gen, MapConfig m) {
+        if (!m.getColumnarAttributes().isEmpty()) {
+            gen.open("columnar-attributes");
+            for (String attribute : m.getColumnarAttributes()) {
+                gen.node("attribute", attribute);
+            }
+            gen.close();
+        }
+    }
+
     private static void wanReplicationConfigXmlGenerator(XmlGenerator gen, WanReplicationRef wan) {
         if (wan != null) {
             gen.open("wan-replication-ref", "name", wan.getName());
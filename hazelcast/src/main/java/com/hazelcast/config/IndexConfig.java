@@ -16,10 +16,12 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.query.impl.IndexUtils;
 
 import java.io.IOException;
@@ -42,7 +44,7 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
  * @see com.hazelcast.config.IndexType
  * @see com.hazelcast.config.MapConfig#setIndexConfigs(List)
  */
-public class IndexConfig implements IdentifiedDataSerializable {
+public class IndexConfig implements IdentifiedDataSerializable, Versioned {
     /** Default index type. */
     public static final IndexType DEFAULT_TYPE = IndexType.SORTED;
 
@@ -57,6 +59,8 @@ public class IndexConfig implements IdentifiedDataSerializable {
 
     private BitmapIndexOptions bitmapIndexOptions;
 
+    private boolean primitiveKeys;
+
     public IndexConfig() {
         // No-op.
     }
@@ -90,6 +94,7 @@ public class IndexConfig implements IdentifiedDataSerializable {
         this.name = other.name;
         this.type = other.type;
         this.bitmapIndexOptions = other.bitmapIndexOptions == null ? null : new BitmapIndexOptions(other.bitmapIndexOptions);
+        this.primitiveKeys = other.primitiveKeys;
 
         for (String attribute : other.getAttributes()) {
             addAttributeInternal(attribute);
@@ -218,6 +223,36 @@ public class IndexConfig implements IdentifiedDataSerializable {
         return this;
     }
 
+    /**
+     * Returns whether this index stores its keys as primitives.
+     *
+     * @return {@code true} if the keys are stored as primitives, {@code false} otherwise.
+     * @see #setPrimitiveKeys(boolean)
+     */
+    public boolean isPrimitiveKeys() {
+        return primitiveKeys;
+    }
+
+    /**
+     * Sets whether this index stores its keys as primitives.
+     * <p>
+     * Only applicable to non-composite {@link IndexType#SORTED sorted} indexes
+     * on numeric, boolean, char or {@link java.util.Date date} attributes.
+     * Such an index keeps the attribute values as primitive longs in a B+tree
+     * instead of boxed values in a skip list, which makes range queries on
+     * large maps considerably cheaper. Dates are stored as epoch milliseconds.
+     * Once a value that can't be stored this way is indexed, e.g. a value of
+     * any other type or a timestamp with sub-millisecond nanos, the index
+     * moves its entries to a regular sorted index store and keeps using it.
+     *
+     * @param primitiveKeys {@code true} to store the keys as primitives.
+     * @return this index config instance.
+     */
+    public IndexConfig setPrimitiveKeys(boolean primitiveKeys) {
+        this.primitiveKeys = primitiveKeys;
+        return this;
+    }
+
     @Override
     public int getFactoryId() {
         return ConfigDataSerializerHook.F_ID;
@@ -234,6 +269,9 @@ public class IndexConfig implements IdentifiedDataSerializable {
         out.writeInt(type.getId());
         writeNullableList(attributes, out);
         out.writeObject(bitmapIndexOptions);
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            out.writeBoolean(primitiveKeys);
+        }
     }
 
     @Override
@@ -242,6 +280,9 @@ public class IndexConfig implements IdentifiedDataSerializable {
         type = IndexType.getById(in.readInt());
         attributes = readNullableList(in);
         bitmapIndexOptions = in.readObject();
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            primitiveKeys = in.readBoolean();
+        }
     }
 
     @Override
@@ -268,6 +309,10 @@ public class IndexConfig implements IdentifiedDataSerializable {
             return false;
         }
 
+        if (primitiveKeys != that.primitiveKeys) {
+            return false;
+        }
+
         return getAttributes().equals(that.getAttributes());
     }
 
@@ -278,6 +323,7 @@ public class IndexConfig implements IdentifiedDataSerializable {
         result = 31 * result + (type != null ? type.hashCode() : 0);
         result = 31 * result + getAttributes().hashCode();
         result = 31 * result + getBitmapIndexOptions().hashCode();
+        result = 31 * result + (primitiveKeys ? 1 : 0);
 
         return result;
     }
@@ -288,6 +334,9 @@ public class IndexConfig implements IdentifiedDataSerializable {
         if (bitmapIndexOptions != null && !bitmapIndexOptions.areDefault()) {
             string += ", bitmapIndexOptions=" + bitmapIndexOptions;
         }
+        if (primitiveKeys) {
+            string += ", primitiveKeys=true";
+        }
         return string + '}';
     }
 }
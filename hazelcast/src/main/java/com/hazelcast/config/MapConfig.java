@@ -16,12 +16,14 @@
 
 package com.hazelcast.config;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.config.ConfigDataSerializerHook;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.map.IMap;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
@@ -34,13 +36,14 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeN
 import static com.hazelcast.internal.util.Preconditions.checkAsyncBackupCount;
 import static com.hazelcast.internal.util.Preconditions.checkBackupCount;
 import static com.hazelcast.internal.util.Preconditions.checkFalse;
+import static com.hazelcast.internal.util.Preconditions.checkHasText;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.Preconditions.isNotNull;
 
 /**
  * Contains the configuration for an {@link IMap}.
  */
-public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
+public class MapConfig implements IdentifiedDataSerializable, NamedConfig, Versioned {
 
     /**
      * The minimum number of backups
@@ -117,6 +120,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
     private List<MapPartitionLostListenerConfig> partitionLostListenerConfigs;
     private List<IndexConfig> indexConfigs;
     private List<AttributeConfig> attributeConfigs;
+    private List<String> columnarAttributes;
     private List<QueryCacheConfig> queryCacheConfigs;
     private PartitioningStrategyConfig partitioningStrategyConfig;
     private MetadataPolicy metadataPolicy = DEFAULT_METADATA_POLICY;
@@ -155,6 +159,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         this.partitionLostListenerConfigs = new ArrayList<>(config.getPartitionLostListenerConfigs());
         this.indexConfigs = new ArrayList<>(config.getIndexConfigs());
         this.attributeConfigs = new ArrayList<>(config.getAttributeConfigs());
+        this.columnarAttributes = new ArrayList<>(config.getColumnarAttributes());
         this.queryCacheConfigs = new ArrayList<>(config.getQueryCacheConfigs());
         this.partitioningStrategyConfig = config.partitioningStrategyConfig != null
                 ? new PartitioningStrategyConfig(config.getPartitioningStrategyConfig()) : null;
@@ -198,7 +203,8 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
      * <ul>
      * <li>BINARY (default): keys and values will be stored as binary data</li>
      * <li>OBJECT: values will be stored in their object forms</li>
-     * <li>NATIVE: values will be stored in non-heap region of JVM (Hazelcast Enterprise only)</li>
+     * <li>NATIVE: keys and values will be stored in non-heap region of JVM,
+     * {@link com.hazelcast.config.NativeMemoryConfig native memory} must be enabled</li>
      * </ul>
      *
      * @param inMemoryFormat the record type to set for this {@link IMap}
@@ -528,6 +534,56 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         return this;
     }
 
+    /**
+     * Adds an attribute to be kept in the columnar shadow store of this map.
+     *
+     * @param attribute the attribute path, e.g. {@code age} or {@code address.zip}
+     * @return this {@code MapConfig} instance
+     * @see #setColumnarAttributes(List)
+     */
+    public MapConfig addColumnarAttribute(String attribute) {
+        getColumnarAttributes().add(checkHasText(attribute, "Columnar attribute must contain text"));
+        return this;
+    }
+
+    /**
+     * Returns the attributes kept in the columnar shadow store of this map.
+     *
+     * @return the columnar attributes, an empty list if columnar scans are
+     * disabled for this map
+     * @see #setColumnarAttributes(List)
+     */
+    public List<String> getColumnarAttributes() {
+        if (columnarAttributes == null) {
+            columnarAttributes = new ArrayList<>();
+        }
+        return columnarAttributes;
+    }
+
+    /**
+     * Sets the attributes kept in the columnar shadow store of this map.
+     * <p>
+     * The values of the columnar attributes are extracted on every mutation
+     * and held per partition in primitive arrays. Full-partition scans of
+     * queries whose predicates consist of equality, range and between
+     * predicates on the columnar attributes and aggregations over a columnar
+     * attribute with one of the built-in aggregators are then evaluated over
+     * the arrays instead of deserializing every entry. Only attributes with
+     * numeric values benefit; an attribute holding values of any other or of
+     * mixed types silently falls back to the regular scan.
+     * <p>
+     * The columnar store is not used for maps with the {@link InMemoryFormat#NATIVE}
+     * in-memory format.
+     *
+     * @param columnarAttributes the attribute paths, an empty list disables
+     *                           the columnar store
+     * @return this {@code MapConfig} instance
+     */
+    public MapConfig setColumnarAttributes(List<String> columnarAttributes) {
+        this.columnarAttributes = columnarAttributes;
+        return this;
+    }
+
     /**
      * Returns {@link MetadataPolicy} for this map.
      *
@@ -770,6 +826,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         if (!getAttributeConfigs().equals(that.getAttributeConfigs())) {
             return false;
         }
+        if (!getColumnarAttributes().equals(that.getColumnarAttributes())) {
+            return false;
+        }
         if (!getQueryCacheConfigs().equals(that.getQueryCacheConfigs())) {
             return false;
         }
@@ -807,6 +866,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         result = 31 * result + getEntryListenerConfigs().hashCode();
         result = 31 * result + getIndexConfigs().hashCode();
         result = 31 * result + getAttributeConfigs().hashCode();
+        result = 31 * result + getColumnarAttributes().hashCode();
         result = 31 * result + getQueryCacheConfigs().hashCode();
         result = 31 * result + getPartitionLostListenerConfigs().hashCode();
         result = 31 * result + (statisticsEnabled ? 1 : 0);
@@ -840,6 +900,7 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
                 + ", entryListenerConfigs=" + entryListenerConfigs
                 + ", indexConfigs=" + indexConfigs
                 + ", attributeConfigs=" + attributeConfigs
+                + ", columnarAttributes=" + columnarAttributes
                 + ", splitBrainProtectionName=" + splitBrainProtectionName
                 + ", queryCacheConfigs=" + queryCacheConfigs
                 + ", cacheDeserializedValues=" + cacheDeserializedValues
@@ -883,6 +944,9 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         out.writeObject(merkleTreeConfig);
         out.writeObject(eventJournalConfig);
         out.writeShort(metadataPolicy.getId());
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            writeNullableList(columnarAttributes, out);
+        }
     }
 
     @Override
@@ -912,5 +976,8 @@ public class MapConfig implements IdentifiedDataSerializable, NamedConfig {
         merkleTreeConfig = in.readObject();
         eventJournalConfig = in.readObject();
         metadataPolicy = MetadataPolicy.getById(in.readShort());
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            columnarAttributes = readNullableList(in);
+        }
     }
 }
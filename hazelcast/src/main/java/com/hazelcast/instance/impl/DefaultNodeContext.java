@@ -24,8 +24,10 @@ import com.hazelcast.internal.cluster.Joiner;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingProviders;
 import com.hazelcast.internal.networking.ServerSocketRegistry;
 import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.internal.networking.nio.NioThreadHost;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.nio.NetworkingService;
 import com.hazelcast.internal.nio.NodeIOService;
@@ -42,9 +44,14 @@ import java.util.Properties;
 
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_GATHERING_WRITE_THRESHOLD;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_INPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_NETWORKING_PROVIDER;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_BATCH_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_BATCH_LINGER_MICROS;
 import static com.hazelcast.spi.properties.ClusterProperty.IO_WRITE_THROUGH_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.THREAD_PER_CORE_ENABLED;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 
@@ -168,16 +175,26 @@ public class DefaultNodeContext implements NodeContext {
 
         HazelcastProperties props = node.getProperties();
 
-        return new NioNetworking(
-                new NioNetworking.Context()
-                        .loggingService(loggingService)
-                        .metricsRegistry(node.nodeEngine.getMetricsRegistry())
-                        .threadNamePrefix(node.hazelcastInstance.getName())
-                        .errorHandler(errorHandler)
-                        .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
-                        .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
-                        .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
-                        .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
-                        .concurrencyDetection(node.nodeEngine.getConcurrencyDetection()));
+        NioThreadHost inputThreadHost = null;
+        if (props.getBoolean(THREAD_PER_CORE_ENABLED)) {
+            inputThreadHost = (NioThreadHost) node.nodeEngine.getOperationService().getOperationExecutor();
+        }
+
+        NioNetworking.Context context = new NioNetworking.Context()
+                .loggingService(loggingService)
+                .metricsRegistry(node.nodeEngine.getMetricsRegistry())
+                .threadNamePrefix(node.hazelcastInstance.getName())
+                .errorHandler(errorHandler)
+                .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
+                .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
+                .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                .writeThroughEnabled(props.getBoolean(IO_WRITE_THROUGH_ENABLED))
+                .gatheringWriteThreshold(props.getInteger(IO_GATHERING_WRITE_THRESHOLD))
+                .writeBatchLingerMicros(props.getInteger(IO_WRITE_BATCH_LINGER_MICROS))
+                .writeBatchBytes(props.getInteger(IO_WRITE_BATCH_BYTES))
+                .inputThreadHost(inputThreadHost)
+                .concurrencyDetection(node.nodeEngine.getConcurrencyDetection());
+        return NetworkingProviders.create(props.getString(IO_NETWORKING_PROVIDER), context, node.getConfigClassLoader(),
+                loggingService.getLogger(NetworkingProviders.class));
     }
 }
@@ -43,28 +43,47 @@ import static com.hazelcast.internal.util.UUIDSerializationUtil.writeUUID;
  * established yet. The {@code BindMessage} itself includes a
  * schema version so it can be extended in future versions without having
  * to use another packet type.
+ * <p>
+ * Since schema version {@value #COMPRESSION_SCHEMA_VERSION} it also advertises
+ * if the sender is able to decompress packets and which compression dictionary
+ * it uses. The fields added with a schema version are appended, so members
+ * with an older schema version ignore them.
  *
  * @since 3.12
  */
 public class BindMessage
         implements IdentifiedDataSerializable {
 
+    /**
+     * The schema version that added the packet compression fields.
+     */
+    public static final byte COMPRESSION_SCHEMA_VERSION = 2;
+
     private byte schemaVersion;
     private Map<ProtocolType, Collection<Address>> localAddresses;
     private Address targetAddress;
     private boolean reply;
     private UUID uuid;
+    private boolean compression;
+    private int dictionaryId;
 
     public BindMessage() {
     }
 
     public BindMessage(byte schemaVersion, Map<ProtocolType, Collection<Address>> localAddresses,
                        Address targetAddress, boolean reply, UUID uuid) {
+        this(schemaVersion, localAddresses, targetAddress, reply, uuid, false, 0);
+    }
+
+    public BindMessage(byte schemaVersion, Map<ProtocolType, Collection<Address>> localAddresses,
+                       Address targetAddress, boolean reply, UUID uuid, boolean compression, int dictionaryId) {
         this.schemaVersion = schemaVersion;
         this.localAddresses = new EnumMap<>(localAddresses);
         this.targetAddress = targetAddress;
         this.reply = reply;
         this.uuid = uuid;
+        this.compression = compression;
+        this.dictionaryId = dictionaryId;
     }
 
     byte getSchemaVersion() {
@@ -87,6 +106,20 @@ public class BindMessage
         return uuid;
     }
 
+    /**
+     * @return {@code true} if the sender is able to decompress packets
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    /**
+     * @return the id of the compression dictionary of the sender
+     */
+    public int getDictionaryId() {
+        return dictionaryId;
+    }
+
     @Override
     public int getFactoryId() {
         return ClusterDataSerializerHook.F_ID;
@@ -105,12 +138,15 @@ public class BindMessage
         writeUUID(out, uuid);
         int size = (localAddresses == null) ? 0 : localAddresses.size();
         out.writeInt(size);
-        if (size == 0) {
-            return;
+        if (size > 0) {
+            for (Map.Entry<ProtocolType, Collection<Address>> addressEntry : localAddresses.entrySet()) {
+                out.writeInt(addressEntry.getKey().ordinal());
+                writeCollection(addressEntry.getValue(), out);
+            }
         }
-        for (Map.Entry<ProtocolType, Collection<Address>> addressEntry : localAddresses.entrySet()) {
-            out.writeInt(addressEntry.getKey().ordinal());
-            writeCollection(addressEntry.getValue(), out);
+        if (schemaVersion >= COMPRESSION_SCHEMA_VERSION) {
+            out.writeBoolean(compression);
+            out.writeInt(dictionaryId);
         }
     }
 
@@ -123,20 +159,25 @@ public class BindMessage
         int size = in.readInt();
         if (size == 0) {
             localAddresses = Collections.emptyMap();
-            return;
+        } else {
+            Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
+            for (int i = 0; i < size; i++) {
+                ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
+                Collection<Address> addresses = readCollection(in);
+                addressesPerProtocolType.put(protocolType, addresses);
+            }
+            this.localAddresses = addressesPerProtocolType;
         }
-        Map<ProtocolType, Collection<Address>> addressesPerProtocolType = new EnumMap<>(ProtocolType.class);
-        for (int i = 0; i < size; i++) {
-            ProtocolType protocolType = ProtocolType.valueOf(in.readInt());
-            Collection<Address> addresses = readCollection(in);
-            addressesPerProtocolType.put(protocolType, addresses);
+        if (schemaVersion >= COMPRESSION_SCHEMA_VERSION) {
+            compression = in.readBoolean();
+            dictionaryId = in.readInt();
         }
-        this.localAddresses = addressesPerProtocolType;
     }
 
     @Override
     public String toString() {
         return "BindMessage{" + "schemaVersion=" + schemaVersion + ", localAddresses=" + localAddresses
-                + ", targetAddress=" + targetAddress + ", reply=" + reply + ", uuid=" + uuid + '}';
+                + ", targetAddress=" + targetAddress + ", reply=" + reply + ", uuid=" + uuid
+                + ", compression=" + compression + ", dictionaryId=" + dictionaryId + '}';
     }
 }
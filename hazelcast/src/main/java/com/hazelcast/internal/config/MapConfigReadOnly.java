@@ -176,6 +176,11 @@ public class MapConfigReadOnly extends MapConfig {
         return indexConfigReadOnly;
     }
 
+    @Override
+    public List<String> getColumnarAttributes() {
+        return Collections.unmodifiableList(super.getColumnarAttributes());
+    }
+
     @Override
     public PartitioningStrategyConfig getPartitioningStrategyConfig() {
         return partitioningStrategyConfigReadOnly;
@@ -344,6 +349,16 @@ public class MapConfigReadOnly extends MapConfig {
         throw throwReadOnly();
     }
 
+    @Override
+    public MapConfig addColumnarAttribute(String attribute) {
+        throw throwReadOnly();
+    }
+
+    @Override
+    public MapConfig setColumnarAttributes(List<String> columnarAttributes) {
+        throw throwReadOnly();
+    }
+
     private UnsupportedOperationException throwReadOnly() {
         throw new UnsupportedOperationException("This config is read-only");
     }
@@ -1767,6 +1767,8 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
                 mapIndexesHandle(node, mapConfig);
             } else if ("attributes".equals(nodeName)) {
                 attributesHandle(node, mapConfig);
+            } else if ("columnar-attributes".equals(nodeName)) {
+                columnarAttributesHandle(node, mapConfig);
             } else if ("entry-listeners".equals(nodeName)) {
                 handleEntryListeners(node, entryListenerConfig -> {
                     mapConfig.addEntryListenerConfig(entryListenerConfig);
@@ -2135,6 +2137,14 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
         }
     }
 
+    protected void columnarAttributesHandle(Node n, MapConfig mapConfig) {
+        for (Node attributeNode : childElements(n)) {
+            if ("attribute".equals(cleanNodeName(attributeNode))) {
+                mapConfig.addColumnarAttribute(getTextContent(attributeNode).trim());
+            }
+        }
+    }
+
     protected void mapPartitionLostListenerHandle(Node n, MapConfig mapConfig) {
         for (Node listenerNode : childElements(n)) {
             if ("partition-lost-listener".equals(cleanNodeName(listenerNode))) {
@@ -461,6 +461,13 @@ public class YamlMemberDomConfigProcessor extends MemberDomConfigProcessor {
         }
     }
 
+    @Override
+    protected void columnarAttributesHandle(Node n, MapConfig mapConfig) {
+        for (Node attributeNode : childElements(n)) {
+            mapConfig.addColumnarAttribute(getTextContent(attributeNode).trim());
+        }
+    }
+
     @Override
     protected void mapQueryCacheHandler(Node n, MapConfig mapConfig) {
         for (Node queryCacheNode : childElements(n)) {
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.memory.MemorySize.toPrettyString;
+
+/**
+ * {@link MemoryManager} which allocates each block straight from the operating
+ * system through {@code Unsafe.allocateMemory()} and accesses it through the
+ * default {@link com.hazelcast.internal.memory.GlobalMemoryAccessor}.
+ * <p>
+ * The manager enforces the configured capacity: an allocation which would push
+ * the amount of used memory above it fails with {@link NativeOutOfMemoryError}.
+ * Memory accounting is thread-safe, so a single instance may be shared by all
+ * partition threads of a member.
+ */
+public final class StandardMemoryManager implements MemoryManager {
+
+    private final long maxNative;
+    private final AtomicLong usedNative = new AtomicLong();
+    private final MemoryAllocator malloc = new UnsafeMalloc();
+
+    public StandardMemoryManager(MemorySize capacity) {
+        this(capacity.bytes());
+    }
+
+    public StandardMemoryManager(long capacity) {
+        if (!UNSAFE_AVAILABLE || !MEM_AVAILABLE) {
+            throw new UnsupportedOperationException("Native memory requires sun.misc.Unsafe,"
+                    + " which is not available on this JVM");
+        }
+        this.maxNative = checkPositive(capacity, "capacity must be positive");
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return malloc;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    /**
+     * @return the maximum number of bytes this manager is allowed to allocate
+     */
+    public long getMaxNative() {
+        return maxNative;
+    }
+
+    /**
+     * @return the number of bytes currently allocated through this manager
+     */
+    public long getUsedNative() {
+        return usedNative.get();
+    }
+
+    /**
+     * @return the number of bytes which can still be allocated through this manager
+     */
+    public long getFreeNative() {
+        return Math.max(0, maxNative - usedNative.get());
+    }
+
+    @Override
+    public void dispose() {
+        malloc.dispose();
+    }
+
+    private void reserve(long size) {
+        for (;;) {
+            long used = usedNative.get();
+            long newUsed = used + size;
+            if (newUsed > maxNative) {
+                throw new NativeOutOfMemoryError("Not enough native memory available! Cannot allocate "
+                        + toPrettyString(size) + "! Max native memory: " + toPrettyString(maxNative)
+                        + ", used native memory: " + toPrettyString(used));
+            }
+            if (usedNative.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+
+    private final class UnsafeMalloc implements MemoryAllocator {
+
+        @Override
+        public long allocate(long size) {
+            reserve(size);
+            long address;
+            try {
+                address = UNSAFE.allocateMemory(size);
+            } catch (OutOfMemoryError e) {
+                usedNative.addAndGet(-size);
+                throw new NativeOutOfMemoryError("Cannot allocate " + toPrettyString(size)
+                        + " from the operating system", e);
+            }
+            UNSAFE.setMemory(address, size, (byte) 0);
+            return address;
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            long diff = newSize - currentSize;
+            if (diff > 0) {
+                reserve(diff);
+            }
+            long newAddress;
+            try {
+                newAddress = UNSAFE.reallocateMemory(address, newSize);
+            } catch (OutOfMemoryError e) {
+                if (diff > 0) {
+                    usedNative.addAndGet(-diff);
+                }
+                throw new NativeOutOfMemoryError("Cannot reallocate " + toPrettyString(currentSize)
+                        + " to " + toPrettyString(newSize), e);
+            }
+            if (diff > 0) {
+                UNSAFE.setMemory(newAddress + currentSize, diff, (byte) 0);
+            } else {
+                usedNative.addAndGet(diff);
+            }
+            return newAddress;
+        }
+
+        @Override
+        public void free(long address, long size) {
+            UNSAFE.freeMemory(address);
+            usedNative.addAndGet(-size);
+        }
+
+        @Override
+        public void dispose() {
+            // blocks are owned and freed by the data structures which allocated them
+        }
+    }
+}
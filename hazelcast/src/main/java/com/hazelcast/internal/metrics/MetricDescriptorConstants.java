@@ -313,6 +313,9 @@ public final class MetricDescriptorConstants {
             "priorityWriteQueuePendingBytes";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES = "writes";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE = "framesPerWrite";
+    public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FRAMES = "coalescedFrames";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
@@ -392,6 +395,8 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_OPERATION_SERVICE_CALL_TIMEOUT_COUNT = "callTimeoutCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_RETRY_COUNT = "retryCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_FAILED_BACKUPS = "failedBackups";
+    public static final String OPERATION_METRIC_OPERATION_BATCHER_BATCHES_SENT = "batcher.batchesSent";
+    public static final String OPERATION_METRIC_OPERATION_BATCHER_PACKETS_BATCHED = "batcher.packetsBatched";
     // ===[/OPERATION]==================================================
 
     // ===[OS]==========================================================
@@ -506,6 +511,10 @@ public final class MetricDescriptorConstants {
     public static final String TCP_METRIC_ACCEPTOR_SELECTOR_RECREATE_COUNT = "selectorRecreateCount";
     public static final String TCP_METRIC_ACCEPTOR_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String TCP_METRIC_CONNECTION_CONNECTION_TYPE = "connectionType";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSED_PACKETS = "compressedPackets";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSION_INPUT_BYTES = "compressionInputBytes";
+    public static final String TCP_METRIC_CONNECTION_COMPRESSION_OUTPUT_BYTES = "compressionOutputBytes";
+    public static final String TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS = "decompressedPackets";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_IN_PROGRESS_COUNT = "inProgressCount";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_COUNT = "count";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_ACTIVE_COUNT = "activeCount";
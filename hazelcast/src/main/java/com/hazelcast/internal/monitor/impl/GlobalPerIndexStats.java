@@ -192,6 +192,12 @@ public class GlobalPerIndexStats implements PerIndexStats {
         VALUES_MEMORY_COST.addAndGet(this, operationStats.getMemoryCostDelta());
     }
 
+    @Override
+    public void onInsertAll(IndexOperationStats operationStats) {
+        ENTRY_COUNT.addAndGet(this, operationStats.getEntryCountDelta());
+        VALUES_MEMORY_COST.addAndGet(this, operationStats.getMemoryCostDelta());
+    }
+
     @Override
     public void onUpdate(long timestamp, IndexOperationStats operationStats, Index.OperationSource operationSource) {
         if (operationSource == Index.OperationSource.USER) {
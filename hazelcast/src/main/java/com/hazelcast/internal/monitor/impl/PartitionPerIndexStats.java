@@ -177,6 +177,11 @@ public class PartitionPerIndexStats implements PerIndexStats {
         ENTRY_COUNT.lazySet(this, entryCount + 1);
     }
 
+    @Override
+    public void onInsertAll(IndexOperationStats operationStats) {
+        ENTRY_COUNT.lazySet(this, entryCount + operationStats.getEntryCountDelta());
+    }
+
     @Override
     public void onUpdate(long timestamp, IndexOperationStats operationStats, Index.OperationSource operationSource) {
         if (operationSource == Index.OperationSource.USER) {
@@ -107,6 +107,11 @@ public interface PerIndexStats {
             // do nothing
         }
 
+        @Override
+        public void onInsertAll(IndexOperationStats operationStats) {
+            // do nothing
+        }
+
         @Override
         public void onUpdate(long timestamp, IndexOperationStats operationStats, Index.OperationSource operationSource) {
             // do nothing
@@ -256,6 +261,18 @@ public interface PerIndexStats {
      */
     void onInsert(long timestamp, IndexOperationStats operationStats, Index.OperationSource operationSource);
 
+    /**
+     * Invoked by the associated index after a bulk insert of new entries.
+     * <p>
+     * Bulk inserts are performed by the system only, so they are not
+     * accounted as insert operations; the entry count grows by the entry
+     * count delta of the given operation stats.
+     *
+     * @param operationStats the operation stats to track the stats.
+     * @see com.hazelcast.query.impl.InternalIndex#putEntries
+     */
+    void onInsertAll(IndexOperationStats operationStats);
+
     /**
      * Invoked by the associated index after every update operation.
      *
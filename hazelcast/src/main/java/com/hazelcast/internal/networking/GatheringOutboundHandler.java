@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import java.nio.ByteBuffer;
+
+import static java.lang.Math.min;
+
+/**
+ * An {@link OutboundHandler} that writes to a ByteBuffer and that is able to
+ * hand out large payloads as a separate 'gathered' buffer instead of copying
+ * them into its dst buffer.
+ *
+ * When the handler is the last handler in the pipeline, the pipeline writes the
+ * dst buffer and the gathered buffer to the socket using a single gathering
+ * write. So the bytes of a large payload are written directly from the array
+ * they got serialized into.
+ *
+ * As long as a gathered buffer is pending, the handler is not allowed to write
+ * anything to the dst buffer since that would change the order of the bytes on
+ * the wire.
+ *
+ * @param <S> the type of the source. E.g. a ByteBuffer or a
+ *            {@link java.util.function.Supplier}.
+ */
+public abstract class GatheringOutboundHandler<S> extends OutboundHandler<S, ByteBuffer> {
+
+    /**
+     * Value of the gathering threshold that disables gathering.
+     */
+    public static final int GATHERING_DISABLED = -1;
+
+    private int gatheringThreshold = GATHERING_DISABLED;
+    private ByteBuffer gathered;
+
+    /**
+     * Sets the minimum number of payload bytes for which the payload is gathered
+     * instead of copied into the dst buffer. Only the owning pipeline should
+     * call this method.
+     *
+     * @param gatheringThreshold the threshold in bytes or {@link #GATHERING_DISABLED}
+     */
+    public final void gatheringThreshold(int gatheringThreshold) {
+        this.gatheringThreshold = gatheringThreshold;
+    }
+
+    /**
+     * Returns the gathering threshold to pass to the writer of the payload.
+     *
+     * @return the threshold in bytes, or {@link Integer#MAX_VALUE} if gathering
+     * is disabled.
+     */
+    protected final int gatheringThreshold() {
+        return gatheringThreshold == GATHERING_DISABLED ? Integer.MAX_VALUE : gatheringThreshold;
+    }
+
+    /**
+     * Returns the pending gathered buffer. The buffer is in reading mode and
+     * should be written after the dst buffer.
+     *
+     * This method should only be called from the thread that owns this
+     * ChannelHandler.
+     *
+     * @return the gathered buffer or {@code null} if there is nothing pending.
+     */
+    public final ByteBuffer gathered() {
+        ByteBuffer buffer = gathered;
+        if (buffer != null && !buffer.hasRemaining()) {
+            gathered = null;
+            return null;
+        }
+        return buffer;
+    }
+
+    /**
+     * Sets the gathered buffer to be written after the current content of the
+     * dst buffer.
+     *
+     * @param buffer the buffer in reading mode.
+     */
+    protected final void gather(ByteBuffer buffer) {
+        this.gathered = buffer;
+    }
+
+    /**
+     * Makes sure the pending gathered buffer gets written before anything else
+     * is written to the dst buffer. If gathering got disabled in the meantime,
+     * e.g. because a handler got added behind this handler, the remaining bytes
+     * are copied into the dst buffer instead.
+     *
+     * The dst buffer is expected to be in writing mode.
+     *
+     * @return {@code true} if nothing is pending anymore and the handler can
+     * continue writing to the dst buffer, {@code false} otherwise.
+     */
+    protected final boolean flushGathered() {
+        ByteBuffer buffer = gathered();
+        if (buffer == null) {
+            return true;
+        }
+
+        if (gatheringThreshold != GATHERING_DISABLED) {
+            return false;
+        }
+
+        int bytes = min(buffer.remaining(), dst.remaining());
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + bytes);
+        dst.put(buffer);
+        buffer.limit(limit);
+        return gathered() == null;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.util.ConcurrencyDetection;
+import com.hazelcast.logging.LoggingService;
+
+/**
+ * The settings a {@link NetworkingProvider} creates a {@link Networking} with.
+ *
+ * Only the settings every transport understands are defined here. A
+ * transport can extend this class with its own tuning, like the built-in
+ * {@link com.hazelcast.internal.networking.nio.NioNetworking.Context}.
+ * Providers of other transports only see the settings defined here.
+ */
+public class NetworkingContext {
+
+    private LoggingService loggingService;
+    private MetricsRegistry metricsRegistry;
+    private String threadNamePrefix = "hz";
+    private ChannelErrorHandler errorHandler;
+    private int inputThreadCount = 1;
+    private int outputThreadCount = 1;
+    private ConcurrencyDetection concurrencyDetection;
+
+    public NetworkingContext loggingService(LoggingService loggingService) {
+        this.loggingService = loggingService;
+        return this;
+    }
+
+    public NetworkingContext metricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
+    public NetworkingContext threadNamePrefix(String threadNamePrefix) {
+        this.threadNamePrefix = threadNamePrefix;
+        return this;
+    }
+
+    public NetworkingContext errorHandler(ChannelErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    public NetworkingContext inputThreadCount(int inputThreadCount) {
+        this.inputThreadCount = inputThreadCount;
+        return this;
+    }
+
+    public NetworkingContext outputThreadCount(int outputThreadCount) {
+        this.outputThreadCount = outputThreadCount;
+        return this;
+    }
+
+    public NetworkingContext concurrencyDetection(ConcurrencyDetection concurrencyDetection) {
+        this.concurrencyDetection = concurrencyDetection;
+        return this;
+    }
+
+    public LoggingService getLoggingService() {
+        return loggingService;
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public ChannelErrorHandler getErrorHandler() {
+        return errorHandler;
+    }
+
+    public int getInputThreadCount() {
+        return inputThreadCount;
+    }
+
+    public int getOutputThreadCount() {
+        return outputThreadCount;
+    }
+
+    public ConcurrencyDetection getConcurrencyDetection() {
+        return concurrencyDetection;
+    }
+}
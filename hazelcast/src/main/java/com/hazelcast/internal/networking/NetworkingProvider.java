@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+/**
+ * Service provider interface for {@link Networking} implementations.
+ *
+ * Providers are discovered using the Hazelcast ServiceLoader under the
+ * factory id {@code com.hazelcast.internal.networking.NetworkingProvider} and
+ * selected by their {@link #name()}. This makes it possible to plug in a
+ * different transport, e.g. one based on a native epoll library, without any
+ * changes to the {@link ChannelInitializer} or the channel handlers.
+ *
+ * @see NetworkingProviders
+ */
+public interface NetworkingProvider {
+
+    /**
+     * Returns the name used to select this provider, e.g. {@code nio}.
+     *
+     * @return the name of the provider
+     */
+    String name();
+
+    /**
+     * Checks if the transport can be used in this JVM. A native transport for
+     * example could check the operating system and if its library can be
+     * loaded. An unavailable provider is never used to create a Networking.
+     *
+     * @return {@code true} if the transport is available, {@code false} otherwise
+     */
+    boolean isAvailable();
+
+    /**
+     * Creates the Networking.
+     *
+     * @param context the networking settings like the logging service, the
+     *                number of threads and the error handler. The context
+     *                can be an extension with settings of a specific
+     *                transport, which other transports can ignore.
+     * @return the created Networking
+     */
+    Networking create(NetworkingContext context);
+}
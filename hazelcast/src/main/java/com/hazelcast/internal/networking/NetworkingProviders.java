@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.internal.networking.nio.NioNetworkingProvider;
+import com.hazelcast.internal.util.ServiceLoader;
+import com.hazelcast.logging.ILogger;
+
+import java.util.Iterator;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * Creates {@link Networking} instances using the {@link NetworkingProvider}
+ * selected by name.
+ */
+public final class NetworkingProviders {
+
+    private static final String NETWORKING_PROVIDER_FACTORY_ID = "com.hazelcast.internal.networking.NetworkingProvider";
+
+    private NetworkingProviders() {
+    }
+
+    /**
+     * Creates a Networking using the provider with the given name.
+     *
+     * If there is no provider with the given name or if it isn't available,
+     * a warning is logged and the {@link NioNetworking} is used instead.
+     * <p>
+     * NIO input threads hosted by the partition threads, as used by the
+     * thread-per-core mode, are only supported by the {@link NioNetworking}.
+     * Other providers are rejected for such a context rather than silently
+     * running dedicated input threads.
+     *
+     * @param name        the name of the provider
+     * @param context     the networking settings
+     * @param classLoader the class loader used to discover the providers
+     * @param logger      the logger for the fallback warning
+     * @return the created Networking
+     */
+    public static Networking create(String name, NetworkingContext context, ClassLoader classLoader, ILogger logger) {
+        NetworkingProvider provider = find(name, classLoader);
+        if (provider == null) {
+            logger.warning("Networking provider '" + name + "' is not found, falling back to "
+                    + NioNetworkingProvider.NAME);
+            provider = new NioNetworkingProvider();
+        } else if (!provider.isAvailable()) {
+            logger.warning("Networking provider '" + name + "' is not available, falling back to "
+                    + NioNetworkingProvider.NAME);
+            provider = new NioNetworkingProvider();
+        } else if (!NioNetworkingProvider.NAME.equals(provider.name())) {
+            if (context instanceof NioNetworking.Context && ((NioNetworking.Context) context).hasInputThreadHost()) {
+                throw new InvalidConfigurationException("Networking provider '" + provider.name()
+                        + "' can't be used in the thread-per-core mode, which requires the "
+                        + NioNetworkingProvider.NAME + " provider");
+            }
+            logger.info("Using networking provider '" + provider.name() + "'");
+        }
+        return provider.create(context);
+    }
+
+    static NetworkingProvider find(String name, ClassLoader classLoader) {
+        try {
+            Iterator<NetworkingProvider> iterator
+                    = ServiceLoader.iterator(NetworkingProvider.class, NETWORKING_PROVIDER_FACTORY_ID, classLoader);
+            while (iterator.hasNext()) {
+                NetworkingProvider provider = iterator.next();
+                if (provider.name().equalsIgnoreCase(name)) {
+                    return provider;
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+}
@@ -117,8 +117,9 @@ public final class NioChannel extends AbstractChannel {
             }
         }
 
-        if (Thread.currentThread() instanceof NioThread) {
-            // we don't want to do any tasks on an io thread; we offload it instead
+        if (Thread.currentThread() instanceof NioThread
+                || (inboundPipeline != null && inboundPipeline.isOwnerThread())) {
+            // we don't want to do any tasks on an io thread (or a thread hosting one); we offload it instead
             try {
                 closeListenerExecutor.execute(() -> {
                     try {
@@ -43,7 +43,6 @@ import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.System.currentTimeMillis;
-import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_READ;
 
 /**
@@ -175,7 +174,7 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
 
     @Override
     void publishMetrics() {
-        if (currentThread() != owner) {
+        if (!isOwnerThread()) {
             return;
         }
         // since this is executed by the owner, the owner field can't change while
@@ -30,6 +30,7 @@ import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.ChannelInitializerProvider;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingContext;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
 import com.hazelcast.internal.util.ConcurrencyDetection;
@@ -70,6 +71,7 @@ import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
 import static com.hazelcast.internal.util.concurrent.BackoffIdleStrategy.createBackoffIdleStrategy;
 import static java.util.Collections.newSetFromMap;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Level.FINE;
 
@@ -100,6 +102,9 @@ import static java.util.logging.Level.FINE;
  */
 public final class NioNetworking implements Networking, DynamicMetricsProvider {
 
+    private static final int DEFAULT_GATHERING_WRITE_THRESHOLD = 32 * 1024;
+    private static final int DEFAULT_WRITE_BATCH_BYTES = 16 * 1024;
+
     private final AtomicBoolean started = new AtomicBoolean();
     private final AtomicInteger nextInputThreadIndex = new AtomicInteger();
     private final AtomicInteger nextOutputThreadIndex = new AtomicInteger();
@@ -120,6 +125,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile ExecutorService closeListenerExecutor;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
+    private final int gatheringWriteThreshold;
+    private final long writeBatchLingerNanos;
+    private final int writeBatchBytes;
+    private final NioThreadHost inputThreadHost;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
     private volatile NioThread[] outputThreads;
@@ -138,24 +147,28 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
     private volatile long packetsReceived;
 
     public NioNetworking(Context ctx) {
-        this.threadNamePrefix = ctx.threadNamePrefix;
-        this.metricsRegistry = ctx.metricsRegistry;
-        this.loggingService = ctx.loggingService;
-        this.inputThreadCount = ctx.inputThreadCount;
-        this.outputThreadCount = ctx.outputThreadCount;
+        this.threadNamePrefix = ctx.getThreadNamePrefix();
+        this.metricsRegistry = ctx.getMetricsRegistry();
+        this.loggingService = ctx.getLoggingService();
+        this.inputThreadHost = ctx.inputThreadHost;
+        this.inputThreadCount = inputThreadHost != null ? inputThreadHost.hostThreadCount() : ctx.getInputThreadCount();
+        this.outputThreadCount = ctx.getOutputThreadCount();
         this.logger = loggingService.getLogger(NioNetworking.class);
-        this.errorHandler = ctx.errorHandler;
+        this.errorHandler = ctx.getErrorHandler();
         this.balancerIntervalSeconds = ctx.balancerIntervalSeconds;
         this.selectorMode = ctx.selectorMode;
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
-        this.concurrencyDetection = ctx.concurrencyDetection;
+        this.concurrencyDetection = ctx.getConcurrencyDetection();
         // selector mode SELECT_WITH_FIX requires that a single thread
         // accesses a selector & its selectionKeys. Selection key wake-up
         // and write through break this requirement, therefore must be
         // disabled with SELECT_WITH_FIX.
         this.writeThroughEnabled = ctx.writeThroughEnabled && selectorMode != SELECT_WITH_FIX;
         this.selectionKeyWakeupEnabled = ctx.selectionKeyWakeupEnabled && selectorMode != SELECT_WITH_FIX;
+        this.gatheringWriteThreshold = ctx.gatheringWriteThreshold;
+        this.writeBatchLingerNanos = MICROSECONDS.toNanos(ctx.writeBatchLingerMicros);
+        this.writeBatchBytes = ctx.writeBatchBytes;
         if (selectorMode == SELECT_WITH_FIX
                 && (ctx.writeThroughEnabled || ctx.selectionKeyWakeupEnabled)) {
             logger.warning("Selector mode SELECT_WITH_FIX is incompatible with write-through and selection key wakeup "
@@ -196,6 +209,9 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                     + inputThreadCount + " input threads and "
                     + outputThreadCount + " output threads");
             logger.fine("write through enabled:" + writeThroughEnabled);
+            logger.fine("gathering write threshold:" + gatheringWriteThreshold);
+            logger.fine("write batch linger nanos:" + writeBatchLingerNanos + ", bytes:" + writeBatchBytes);
+            logger.fine("input threads hosted:" + (inputThreadHost != null));
         }
 
         logger.log(selectorMode != SELECT ? Level.INFO : FINE, "IO threads selector mode is " + selectorMode);
@@ -219,7 +235,11 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
             inThreads[i] = thread;
-            thread.start();
+            if (inputThreadHost != null) {
+                inputThreadHost.host(i, thread);
+            } else {
+                thread.start();
+            }
         }
         this.inputThreads = inThreads;
 
@@ -332,7 +352,10 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
                 ioBalancer,
                 concurrencyDetection,
                 writeThroughEnabled,
-                selectionKeyWakeupEnabled);
+                selectionKeyWakeupEnabled,
+                gatheringWriteThreshold,
+                writeBatchLingerNanos,
+                writeBatchBytes);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -472,14 +495,13 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         }
     }
 
-    public static class Context {
+    /**
+     * The settings of the {@link NioNetworking}. Besides the settings of
+     * every transport, it contains the tuning of the selector based
+     * input and output threads.
+     */
+    public static class Context extends NetworkingContext {
         private BackoffIdleStrategy idleStrategy;
-        private LoggingService loggingService;
-        private MetricsRegistry metricsRegistry;
-        private String threadNamePrefix = "hz";
-        private ChannelErrorHandler errorHandler;
-        private int inputThreadCount = 1;
-        private int outputThreadCount = 1;
         private int balancerIntervalSeconds;
         // The selector mode determines how IO threads will block (or not) on the Selector:
         //  select:         this is the default mode, uses Selector.select(long timeout)
@@ -493,12 +515,23 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
         private boolean selectorWorkaroundTest = Boolean.getBoolean("hazelcast.io.selector.workaround.test");
         private boolean selectionKeyWakeupEnabled
                 = Boolean.parseBoolean(System.getProperty("hazelcast.io.selectionKeyWakeupEnabled", "true"));
-        private ConcurrencyDetection concurrencyDetection;
 
         // if the calling thread is allowed to write through to the socket if that is possible.
         // this is an optimization that can speed up low threaded setups
         private boolean writeThroughEnabled;
 
+        // the minimum payload size in bytes for a payload to be written directly to the socket instead
+        // of being copied into the send buffer first; -1 disables gathering writes
+        private int gatheringWriteThreshold = DEFAULT_GATHERING_WRITE_THRESHOLD;
+
+        // the maximum time the IO thread waits for more frames before writing a small batch to the socket;
+        // 0 disables the lingering. The batch is written as soon as it reaches writeBatchBytes
+        private int writeBatchLingerMicros;
+        private int writeBatchBytes = DEFAULT_WRITE_BATCH_BYTES;
+
+        // if set, the select loops of the input threads are run by the host instead of dedicated threads
+        private NioThreadHost inputThreadHost;
+
         public Context() {
             String selectorModeString = SelectorMode.getConfiguredString();
             if (selectorModeString.startsWith(SELECT_NOW_STRING + ",")) {
@@ -516,8 +549,37 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        public Context gatheringWriteThreshold(int gatheringWriteThreshold) {
+            this.gatheringWriteThreshold = gatheringWriteThreshold;
+            return this;
+        }
+
+        public Context writeBatchLingerMicros(int writeBatchLingerMicros) {
+            this.writeBatchLingerMicros = writeBatchLingerMicros;
+            return this;
+        }
+
+        public Context writeBatchBytes(int writeBatchBytes) {
+            this.writeBatchBytes = writeBatchBytes;
+            return this;
+        }
+
+        public Context inputThreadHost(NioThreadHost inputThreadHost) {
+            this.inputThreadHost = inputThreadHost;
+            return this;
+        }
+
+        /**
+         * @return {@code true} if the select loops of the input threads are
+         * run by a host, which only the NIO transport supports
+         */
+        public boolean hasInputThreadHost() {
+            return inputThreadHost != null;
+        }
+
+        @Override
         public Context concurrencyDetection(ConcurrencyDetection concurrencyDetection) {
-            this.concurrencyDetection = concurrencyDetection;
+            super.concurrencyDetection(concurrencyDetection);
             return this;
         }
 
@@ -531,33 +593,39 @@ public final class NioNetworking implements Networking, DynamicMetricsProvider {
             return this;
         }
 
+        @Override
         public Context loggingService(LoggingService loggingService) {
-            this.loggingService = loggingService;
+            super.loggingService(loggingService);
             return this;
         }
 
+        @Override
         public Context metricsRegistry(MetricsRegistry metricsRegistry) {
-            this.metricsRegistry = metricsRegistry;
+            super.metricsRegistry(metricsRegistry);
             return this;
         }
 
+        @Override
         public Context threadNamePrefix(String threadNamePrefix) {
-            this.threadNamePrefix = threadNamePrefix;
+            super.threadNamePrefix(threadNamePrefix);
             return this;
         }
 
+        @Override
         public Context errorHandler(ChannelErrorHandler errorHandler) {
-            this.errorHandler = errorHandler;
+            super.errorHandler(errorHandler);
             return this;
         }
 
+        @Override
         public Context inputThreadCount(int inputThreadCount) {
-            this.inputThreadCount = inputThreadCount;
+            super.inputThreadCount(inputThreadCount);
             return this;
         }
 
+        @Override
         public Context outputThreadCount(int outputThreadCount) {
-            this.outputThreadCount = outputThreadCount;
+            super.outputThreadCount(outputThreadCount);
             return this;
         }
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.networking.Networking;
+import com.hazelcast.internal.networking.NetworkingContext;
+import com.hazelcast.internal.networking.NetworkingProvider;
+
+/**
+ * The {@link NetworkingProvider} of the {@link NioNetworking}. It is always
+ * available and is used as the fallback for unavailable providers.
+ */
+public class NioNetworkingProvider implements NetworkingProvider {
+
+    /**
+     * The name of this provider.
+     */
+    public static final String NAME = "nio";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Networking create(NetworkingContext context) {
+        if (context instanceof NioNetworking.Context) {
+            return new NioNetworking((NioNetworking.Context) context);
+        }
+        // a context without NIO tuning runs with the NIO defaults
+        return new NioNetworking(new NioNetworking.Context()
+                .loggingService(context.getLoggingService())
+                .metricsRegistry(context.getMetricsRegistry())
+                .threadNamePrefix(context.getThreadNamePrefix())
+                .errorHandler(context.getErrorHandler())
+                .inputThreadCount(context.getInputThreadCount())
+                .outputThreadCount(context.getOutputThreadCount())
+                .concurrencyDetection(context.getConcurrencyDetection()));
+    }
+}
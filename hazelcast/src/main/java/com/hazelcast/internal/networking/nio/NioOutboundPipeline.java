@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
 import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.GatheringOutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.networking.OutboundHandler;
@@ -37,6 +38,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FRAMES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_NORMAL_FRAMES_WRITTEN;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN;
@@ -44,25 +47,30 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_PENDING_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITE_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.GatheringOutboundHandler.GATHERING_DISABLED;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.collection.ArrayUtils.append;
 import static com.hazelcast.internal.util.collection.ArrayUtils.replaceFirst;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
-import static java.lang.Thread.currentThread;
+import static java.lang.System.nanoTime;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 
 public final class NioOutboundPipeline
         extends NioPipeline
         implements Supplier<OutboundFrame>, OutboundPipeline {
 
+    static final int MAX_LINGER_BACKOFF = 64;
+
     public enum State {
         /*
          * The pipeline isn't scheduled (nothing to do).
@@ -112,6 +120,9 @@ public final class NioOutboundPipeline
 
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // the last handler if it is able to gather payloads; null otherwise
+    private GatheringOutboundHandler gatheringHandler;
+    private final ByteBuffer[] gatheringBuffers = new ByteBuffer[2];
 
     private final AtomicReference<State> scheduled = new AtomicReference<>(State.SCHEDULED);
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_BYTES_WRITTEN, unit = BYTES)
@@ -120,6 +131,12 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_PRIORITY_FRAMES_WRITTEN)
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_WRITES)
+    private final SwCounter writes = newSwCounter();
+    // the number of frames that got written by a write they would not have been part of without lingering;
+    // so the number of writes that got saved
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_COALESCED_FRAMES)
+    private final SwCounter coalescedFrames = newSwCounter();
 
     private volatile long lastWriteTime;
 
@@ -130,6 +147,21 @@ public final class NioOutboundPipeline
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
     private final boolean selectionKeyWakeupEnabled;
+    private final int gatheringWriteThreshold;
+    private final long writeBatchLingerNanos;
+    private final int writeBatchBytes;
+    // the number of processing rounds lingering is skipped for, after lingering didn't coalesce any frames
+    private int lingerBackoff;
+    private int lingerSkips;
+    private boolean lingering;
+    private long lingerDeadline;
+    private long lingerFramesBefore;
+    // processes the pipeline again once the linger time has passed, unless lingering has ended in the meantime
+    private final Runnable lingerTimeout = () -> {
+        if (lingering && isOwnerThread() && !channel.isClosed()) {
+            run();
+        }
+    };
 
     NioOutboundPipeline(NioChannel channel,
                         NioThread owner,
@@ -138,11 +170,17 @@ public final class NioOutboundPipeline
                         IOBalancer balancer,
                         ConcurrencyDetection concurrencyDetection,
                         boolean writeThroughEnabled,
-                        boolean selectionKeyWakeupEnabled) {
+                        boolean selectionKeyWakeupEnabled,
+                        int gatheringWriteThreshold,
+                        long writeBatchLingerNanos,
+                        int writeBatchBytes) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
         this.concurrencyDetection = concurrencyDetection;
         this.writeThroughEnabled = writeThroughEnabled;
         this.selectionKeyWakeupEnabled = selectionKeyWakeupEnabled;
+        this.gatheringWriteThreshold = gatheringWriteThreshold;
+        this.writeBatchLingerNanos = writeBatchLingerNanos;
+        this.writeBatchBytes = writeBatchBytes;
     }
 
     @Override
@@ -153,7 +191,7 @@ public final class NioOutboundPipeline
             case LOAD_BALANCING_BYTE:
                 return bytesWritten.get();
             case LOAD_BALANCING_FRAME:
-                return normalFramesWritten.get() + priorityFramesWritten.get();
+                return framesWritten();
             default:
                 throw new RuntimeException();
         }
@@ -195,6 +233,12 @@ public final class NioOutboundPipeline
         return scheduled.get().ordinal();
     }
 
+    @Probe(name = NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_FRAMES_PER_WRITE, level = DEBUG)
+    double framesPerWrite() {
+        long writeCount = writes.get();
+        return writeCount == 0 ? 0 : (double) framesWritten() / writeCount;
+    }
+
     public void write(OutboundFrame frame) {
         if (frame.isUrgent()) {
             priorityWriteQueue.offer(frame);
@@ -286,25 +330,13 @@ public final class NioOutboundPipeline
 
     // is never called concurrently!
     @Override
-    @SuppressWarnings("unchecked")
     public void process() throws Exception {
         processCount.inc();
 
-        OutboundHandler[] localHandlers = handlers;
-        HandlerStatus pipelineStatus = CLEAN;
-        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
-            OutboundHandler handler = localHandlers[handlerIndex];
-
-            HandlerStatus handlerStatus = handler.onWrite();
-
-            if (localHandlers != handlers) {
-                // change in the pipeline detected, therefor the loop is restarted.
-                localHandlers = handlers;
-                pipelineStatus = CLEAN;
-                handlerIndex = -1;
-            } else if (handlerStatus != CLEAN) {
-                pipelineStatus = handlerStatus;
-            }
+        HandlerStatus pipelineStatus = processHandlers();
+        if (linger(pipelineStatus)) {
+            // the pipeline remains scheduled; the linger timeout continues the batch
+            return;
         }
 
         flushToSocket();
@@ -316,7 +348,7 @@ public final class NioOutboundPipeline
             return;
         }
 
-        if (sendBuffer.remaining() > 0) {
+        if (sendBuffer.remaining() > 0 || (gatheringHandler != null && gatheringHandler.gathered() != null)) {
             pipelineStatus = DIRTY;
         }
 
@@ -335,6 +367,96 @@ public final class NioOutboundPipeline
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private HandlerStatus processHandlers() throws Exception {
+        OutboundHandler[] localHandlers = handlers;
+        HandlerStatus pipelineStatus = CLEAN;
+        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
+            OutboundHandler handler = localHandlers[handlerIndex];
+
+            HandlerStatus handlerStatus = handler.onWrite();
+
+            if (localHandlers != handlers) {
+                // change in the pipeline detected, therefor the loop is restarted.
+                localHandlers = handlers;
+                pipelineStatus = CLEAN;
+                handlerIndex = -1;
+            } else if (handlerStatus != CLEAN) {
+                pipelineStatus = handlerStatus;
+            }
+        }
+        return pipelineStatus;
+    }
+
+    /**
+     * Delays the write to the socket for at most the linger time so that frames
+     * written to this pipeline in the meantime end up in the same write. Instead
+     * of waiting, the pipeline stops listening to OP_WRITE, remains scheduled and
+     * schedules itself on the owning {@link NioThread} for the end of the linger
+     * time; so the IO thread keeps serving its other pipelines or blocks on the
+     * selector in the meantime. The frames written in the meantime get picked up
+     * when the pipeline is processed again. Lingering stops at that point, or
+     * earlier if the pipeline gets processed for another reason and the batch is
+     * big enough or the handlers can't take any more frames.
+     *
+     * If lingering didn't coalesce any frame, it is skipped for an exponentially
+     * growing number of processing rounds, so idle connections and connections
+     * with a single writer don't pay the linger time on every write.
+     *
+     * @return {@code true} if the write to the socket should be delayed
+     */
+    private boolean linger(HandlerStatus pipelineStatus) {
+        if (lingering) {
+            if (pipelineStatus == CLEAN && canLinger() && nanoTime() - lingerDeadline < 0) {
+                return true;
+            }
+            lingering = false;
+            onLingerEnd();
+            return false;
+        }
+
+        if (pipelineStatus != CLEAN || !canLinger() || !isOwnerThread() || sendBuffer.remaining() == 0) {
+            return false;
+        }
+
+        if (lingerSkips > 0) {
+            lingerSkips--;
+            return false;
+        }
+
+        lingering = true;
+        lingerDeadline = nanoTime() + writeBatchLingerNanos;
+        lingerFramesBefore = framesWritten();
+        unregisterOp(OP_WRITE);
+        owner.addDelayedTask(lingerTimeout, lingerDeadline);
+        return true;
+    }
+
+    // Lingering only makes sense on the owning IO thread; a thread doing a write through should return
+    // as soon as possible. It also is pointless if the batch is big enough already, or if the pipeline
+    // is about to migrate or has a gathered payload to write.
+    private boolean canLinger() {
+        return writeBatchLingerNanos > 0
+                && sendBuffer.remaining() < writeBatchBytes
+                && !migrationRequested()
+                && (gatheringHandler == null || gatheringHandler.gathered() == null);
+    }
+
+    private void onLingerEnd() {
+        long coalesced = framesWritten() - lingerFramesBefore;
+        if (coalesced == 0) {
+            lingerBackoff = min(max(lingerBackoff << 1, 1), MAX_LINGER_BACKOFF);
+            lingerSkips = lingerBackoff;
+        } else {
+            lingerBackoff = 0;
+            coalescedFrames.inc(coalesced);
+        }
+    }
+
+    long framesWritten() {
+        return normalFramesWritten.get() + priorityFramesWritten.get();
+    }
+
     private void postProcessBlocked() throws IOException {
         // pipeline is blocked; no point in receiving OP_WRITE events.
         unregisterOp(OP_WRITE);
@@ -422,9 +544,28 @@ public final class NioOutboundPipeline
 
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        ByteBuffer gathered = gatheringHandler == null ? null : gatheringHandler.gathered();
+        long written = gathered == null ? socketChannel.write(sendBuffer) : gatheringWrite(gathered);
         bytesWritten.inc(written);
-        //System.out.println(channel + " bytes written:" + written);
+        if (written > 0) {
+            writes.inc();
+        }
+    }
+
+    private long gatheringWrite(ByteBuffer gathered) throws IOException {
+        // A heap buffer is copied into a temporary direct buffer by the JDK before it is written.
+        // The copy is bounded to the size of the send buffer; otherwise the whole remainder of a
+        // large payload would be copied on every write.
+        int limit = gathered.limit();
+        gathered.limit(gathered.position() + min(gathered.remaining(), sendBuffer.capacity()));
+        gatheringBuffers[0] = sendBuffer;
+        gatheringBuffers[1] = gathered;
+        try {
+            return socketChannel.write(gatheringBuffers);
+        } finally {
+            gathered.limit(limit);
+            gatheringBuffers[1] = null;
+        }
     }
 
     void drainWriteQueues() {
@@ -436,9 +577,21 @@ public final class NioOutboundPipeline
         return bytesWritten.get();
     }
 
+    long writes() {
+        return writes.get();
+    }
+
+    long coalescedFrames() {
+        return coalescedFrames.get();
+    }
+
+    int lingerBackoff() {
+        return lingerBackoff;
+    }
+
     @Override
     protected void publishMetrics() {
-        if (currentThread() != owner) {
+        if (!isOwnerThread()) {
             return;
         }
 
@@ -499,9 +652,20 @@ public final class NioOutboundPipeline
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
         this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        this.gatheringHandler = null;
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
+            if (handler instanceof GatheringOutboundHandler) {
+                // only the last handler can have its payloads written directly to the socket
+                GatheringOutboundHandler gathering = (GatheringOutboundHandler) handler;
+                if (handler == newHandlers[newHandlers.length - 1] && gatheringWriteThreshold != GATHERING_DISABLED) {
+                    gathering.gatheringThreshold(gatheringWriteThreshold);
+                    gatheringHandler = gathering;
+                } else {
+                    gathering.gatheringThreshold(GATHERING_DISABLED);
+                }
+            }
             if (prev == null) {
                 handler.src(this);
             } else {
@@ -165,6 +165,15 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
      */
     abstract void process() throws Exception;
 
+    /**
+     * Checks if the calling thread runs the select loop of the current
+     * {@link NioThread owner}.
+     */
+    final boolean isOwnerThread() {
+        NioThread localOwner = owner;
+        return localOwner != null && localOwner.isCarrierThread();
+    }
+
     /**
      * Adds a task to be executed on the {@link NioThread owner}.
      * <p>
@@ -225,7 +234,7 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
 
     @Override
     public final void run() {
-        if (owner == currentThread()) {
+        if (isOwnerThread()) {
             try {
                 process();
             } catch (Throwable t) {
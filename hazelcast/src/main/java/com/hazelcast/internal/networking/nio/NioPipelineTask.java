@@ -16,7 +16,6 @@
 
 package com.hazelcast.internal.networking.nio;
 
-import static java.lang.Thread.currentThread;
 
 /**
  * A {@link Runnable} that gets executed on the {@link NioThread} owning the pipeline.
@@ -41,7 +40,7 @@ abstract class NioPipelineTask implements Runnable {
 
     @Override
     public final void run() {
-        if (pipeline.owner() == currentThread()) {
+        if (pipeline.isOwnerThread()) {
             // the task is executed by the proper thread
             try {
                 run0();
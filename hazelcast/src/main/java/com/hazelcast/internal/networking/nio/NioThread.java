@@ -30,6 +30,7 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -53,7 +54,10 @@ import static com.hazelcast.internal.networking.nio.SelectorOptimizer.newSelecto
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @ExcludedMetricTargets(MANAGEMENT_CENTER)
 public class NioThread extends Thread implements OperationHostileThread {
@@ -88,6 +92,9 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE)
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
+
+    // tasks waiting for their deadline; only accessed by the thread running the select loop
+    private final PriorityQueue<DelayedTask> delayedTasks = new PriorityQueue<>();
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_EVENT_COUNT)
     private final SwCounter eventCount = newSwCounter();
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_SELECTOR_IO_EXCEPTION_COUNT)
@@ -113,6 +120,9 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private volatile boolean stop;
 
+    // the thread running the select loop; this thread unless the loop is hosted by another thread
+    private volatile Thread carrier = this;
+
     // set to true while testing
     private boolean selectorWorkaroundTest;
 
@@ -201,6 +211,64 @@ public class NioThread extends Thread implements OperationHostileThread {
         return max(currentTimeMillis() - lastSelectTimeMs, 0);
     }
 
+    /**
+     * Hands the select loop of this NioThread over to the given thread. A
+     * hosted NioThread is never started; its host drives the loop instead by
+     * calling {@link #selectOnce(boolean)}.
+     *
+     * @param host the thread hosting the select loop
+     */
+    public void setHost(Thread host) {
+        this.carrier = host;
+    }
+
+    /**
+     * Checks if the calling thread is the one running the select loop of this
+     * NioThread, which is either this thread or its host.
+     *
+     * @return {@code true} if the calling thread runs the select loop
+     */
+    public boolean isCarrierThread() {
+        return currentThread() == carrier;
+    }
+
+    /**
+     * Wakes up the select loop if it is blocked on the selector.
+     */
+    public void wakeup() {
+        selector.wakeup();
+    }
+
+    /**
+     * Runs a single iteration of the select loop on the calling thread; the
+     * pending tasks are processed and then the ready selection keys. May only
+     * be called by the host of this NioThread.
+     * <p>
+     * Once this NioThread is shut down, the call closes the selector and
+     * returns {@code false}; the host should stop calling it from then on.
+     *
+     * @param block {@code true} if the call can block on the selector until a
+     *              key is selected or {@link #wakeup()} is called
+     * @return {@code false} if this NioThread has been shut down
+     */
+    public boolean selectOnce(boolean block) {
+        if (stop) {
+            closeSelector();
+            return false;
+        }
+        try {
+            boolean tasksProcessed = processTaskQueue();
+            int selectedKeys = block && !tasksProcessed ? select() : selector.selectNow();
+            if (selectedKeys > 0) {
+                processSelectionKeys();
+            }
+        } catch (IOException nonFatalException) {
+            selectorIOExceptionCount.inc();
+            logger.warning(getName() + " " + nonFatalException.toString(), nonFatalException);
+        }
+        return true;
+    }
+
     /**
      * Adds a task to this NioThread without notifying the thread.
      *
@@ -211,6 +279,20 @@ public class NioThread extends Thread implements OperationHostileThread {
         taskQueue.add(task);
     }
 
+    /**
+     * Schedules a task to be executed by the NioThread once the given deadline
+     * has passed. The select loop doesn't block beyond the deadline of the
+     * earliest delayed task, but as the selector waits with millisecond
+     * resolution the task can run up to a millisecond late. May only be called
+     * by the thread running the select loop.
+     *
+     * @param task          the task to add
+     * @param deadlineNanos the {@link System#nanoTime()} after which the task is executed
+     */
+    void addDelayedTask(Runnable task, long deadlineNanos) {
+        delayedTasks.add(new DelayedTask(task, deadlineNanos));
+    }
+
     /**
      * Adds a task to be executed by the NioThread and wakes up the selector so that it will
      * eventually pick up the task.
@@ -288,7 +370,7 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select();
             if (selectedKeys > 0) {
                 processSelectionKeys();
             }
@@ -301,11 +383,12 @@ public class NioThread extends Thread implements OperationHostileThread {
             processTaskQueue();
 
             long before = currentTimeMillis();
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select();
             if (selectedKeys > 0) {
                 idleCount = 0;
                 processSelectionKeys();
-            } else if (!taskQueue.isEmpty()) {
+            } else if (!taskQueue.isEmpty() || !delayedTasks.isEmpty()) {
+                // woken up by a task, or by the deadline of a delayed task
                 idleCount = 0;
             } else {
                 // no keys were selected, not interrupted by wakeup therefore we hit an issue with JDK/network stack
@@ -355,9 +438,46 @@ public class NioThread extends Thread implements OperationHostileThread {
             completedTaskCount.inc();
             tasksProcessed = true;
         }
+        return processDelayedTasks() || tasksProcessed;
+    }
+
+    private boolean processDelayedTasks() {
+        if (delayedTasks.isEmpty()) {
+            return false;
+        }
+        boolean tasksProcessed = false;
+        long now = nanoTime();
+        while (!stop) {
+            DelayedTask delayedTask = delayedTasks.peek();
+            if (delayedTask == null || delayedTask.deadlineNanos - now > 0) {
+                break;
+            }
+            delayedTasks.poll();
+            delayedTask.task.run();
+            completedTaskCount.inc();
+            tasksProcessed = true;
+        }
         return tasksProcessed;
     }
 
+    /**
+     * Blocks on the selector, at most until the deadline of the earliest
+     * delayed task.
+     */
+    private int select() throws IOException {
+        DelayedTask delayedTask = delayedTasks.peek();
+        if (delayedTask == null) {
+            return selector.select(SELECT_WAIT_TIME_MILLIS);
+        }
+        long remainingNanos = delayedTask.deadlineNanos - nanoTime();
+        if (remainingNanos <= 0) {
+            return selector.selectNow();
+        }
+        // rounded up, a timeout of 0 would block indefinitely
+        long timeoutMillis = (remainingNanos + MILLISECONDS.toNanos(1) - 1) / MILLISECONDS.toNanos(1);
+        return selector.select(min(timeoutMillis, SELECT_WAIT_TIME_MILLIS));
+    }
+
     private void processSelectionKeys() {
         lastSelectTimeMs = currentTimeMillis();
         Iterator<SelectionKey> it = selector.selectedKeys().iterator();
@@ -400,7 +520,11 @@ public class NioThread extends Thread implements OperationHostileThread {
     public void shutdown() {
         stop = true;
         taskQueue.clear();
-        interrupt();
+        if (carrier == this) {
+            interrupt();
+        } else {
+            selector.wakeup();
+        }
     }
 
     // this method is always invoked in this thread
@@ -437,4 +561,19 @@ public class NioThread extends Thread implements OperationHostileThread {
     public String toString() {
         return getName();
     }
+
+    private static final class DelayedTask implements Comparable<DelayedTask> {
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        DelayedTask(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int compareTo(DelayedTask that) {
+            return Long.signum(deadlineNanos - that.deadlineNanos);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+/**
+ * Hosts the select loops of the input {@link NioThread}s of a
+ * {@link NioNetworking} on threads that are not owned by the networking.
+ * <p>
+ * The networking does not start hosted NioThreads; it hands each of them to
+ * the host instead, which drives its select loop using
+ * {@link NioThread#selectOnce(boolean)} and stops doing so once the NioThread
+ * has been shut down.
+ */
+public interface NioThreadHost {
+
+    /**
+     * @return the number of threads hosting input NioThreads; this is also
+     * the number of input NioThreads of the networking
+     */
+    int hostThreadCount();
+
+    /**
+     * Hands the given input NioThread over to the host thread with the given
+     * index. Called every time the networking is (re)started.
+     *
+     * @param index  the index of the host thread
+     * @param thread the NioThread to host
+     */
+    void host(int index, NioThread thread);
+}
@@ -26,6 +26,7 @@ import com.hazelcast.internal.ascii.TextCommandService;
 import com.hazelcast.internal.auditlog.AuditlogService;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.tcp.PacketCompressor;
 import com.hazelcast.internal.nio.tcp.TcpIpConnection;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.LoggingService;
@@ -120,6 +121,13 @@ public interface IOService {
 
     OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier, TcpIpConnection connection);
 
+    /**
+     * Creates the compressor of the packets of a new connection.
+     *
+     * @return the compressor or {@code null} if packet compression is disabled
+     */
+    PacketCompressor createPacketCompressor();
+
     AuditlogService getAuditLogService();
 
     /**
@@ -28,6 +28,7 @@ import com.hazelcast.config.SSLConfig;
 import com.hazelcast.config.SocketInterceptorConfig;
 import com.hazelcast.config.SymmetricEncryptionConfig;
 import com.hazelcast.instance.EndpointQualifier;
+import com.hazelcast.instance.ProtocolType;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.instance.impl.NodeState;
 import com.hazelcast.internal.ascii.TextCommandService;
@@ -36,6 +37,7 @@ import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.nio.tcp.PacketCompressor;
 import com.hazelcast.internal.nio.tcp.TcpIpConnection;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.AddressUtil;
@@ -59,6 +61,7 @@ import java.util.concurrent.TimeUnit;
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.instance.EndpointQualifier.MEMCACHE;
 import static com.hazelcast.instance.EndpointQualifier.REST;
+import static com.hazelcast.internal.nio.tcp.PacketCompressor.newPacketCompressor;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 
 @SuppressWarnings({"checkstyle:methodcount"})
@@ -68,12 +71,16 @@ public class NodeIOService implements IOService {
     private final NodeEngineImpl nodeEngine;
     private final RestApiConfig restApiConfig;
     private final MemcacheProtocolConfig memcacheProtocolConfig;
+    private final boolean packetCompression;
+    private final byte[] compressionDictionary;
 
     public NodeIOService(Node node, NodeEngineImpl nodeEngine) {
         this.node = node;
         this.nodeEngine = nodeEngine;
         restApiConfig = initRestApiConfig(node.getConfig());
         memcacheProtocolConfig = initMemcacheProtocolConfig(node.getConfig());
+        packetCompression = node.getProperties().getBoolean(ClusterProperty.IO_COMPRESSION_ENABLED);
+        compressionDictionary = packetCompression ? PacketCompressor.readDictionary(node.getProperties()) : null;
     }
 
     private static RestApiConfig initRestApiConfig(Config config) {
@@ -311,14 +318,31 @@ public class NodeIOService implements IOService {
 
     @Override
     public InboundHandler[] createInboundHandlers(EndpointQualifier qualifier, TcpIpConnection connection) {
+        initPacketCompressor(qualifier, connection);
         return node.getNodeExtension().createInboundHandlers(qualifier, connection, this);
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier, TcpIpConnection connection) {
+        initPacketCompressor(qualifier, connection);
         return node.getNodeExtension().createOutboundHandlers(qualifier, connection, this);
     }
 
+    /**
+     * The member protocol handlers are created once the connection is known
+     * to be a member connection, the compressor is created at the same time.
+     */
+    private static void initPacketCompressor(EndpointQualifier qualifier, TcpIpConnection connection) {
+        if (qualifier != null && qualifier.getType() == ProtocolType.MEMBER) {
+            connection.initPacketCompressor();
+        }
+    }
+
+    @Override
+    public PacketCompressor createPacketCompressor() {
+        return packetCompression ? newPacketCompressor(node.getProperties(), compressionDictionary) : null;
+    }
+
     @Override
     public Collection<Integer> getOutboundPorts(EndpointQualifier endpointQualifier) {
         final AdvancedNetworkConfig advancedNetworkConfig = node.getConfig().getAdvancedNetworkConfig();
@@ -40,17 +40,23 @@ public final class Packet extends HeapData implements OutboundFrame {
     //             PACKET HEADER FLAGS
     //
     // Flags are dispatched against in a cascade:
-    // 1. URGENT (bit 4)
+    // 1. URGENT and COMPRESSED (bits 4, 3)
     // 2. Packet type (bits 0, 2, 5)
-    // 3. Flags specific to a given packet type (bits 1, 6)
+    // 3. Flags specific to a given packet type (bits 1, 6, 7)
 
 
-    // 1. URGENT flag
+    // 1. URGENT and COMPRESSED flags
 
     /**
      * Marks the packet as Urgent
      */
     public static final int FLAG_URGENT = 1 << 4;
+    /**
+     * Marks the packet payload as compressed. Compressed packets never leave
+     * the connection: the receiving side restores the original payload before
+     * the packet is dispatched.
+     */
+    public static final int FLAG_COMPRESSED = 1 << 3;
 
 
     // 2. Packet type flags, encode up to 7 packet types.
@@ -87,6 +93,11 @@ public final class Packet extends HeapData implements OutboundFrame {
      * Marks an Operation packet as Operation control (like invocation-heartbeats)
      */
     public static final int FLAG_OP_CONTROL = 1 << 6;
+    /**
+     * Marks an Operation packet as a batch of Operation packets (operations and/or responses)
+     * that were coalesced into a single packet for the same connection.
+     */
+    public static final int FLAG_OP_BATCH = 1 << 7;
 
 
     // 3.b Jet packet flags
@@ -281,7 +292,8 @@ public final class Packet extends HeapData implements OutboundFrame {
             @Override
             public String describeFlags(char flags) {
                 return "[isResponse=" + isFlagRaised(flags, FLAG_OP_RESPONSE)
-                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL) + ']';
+                        + ", isOpControl=" + isFlagRaised(flags, FLAG_OP_CONTROL)
+                        + ", isOpBatch=" + isFlagRaised(flags, FLAG_OP_BATCH) + ']';
             }
         },
         /**
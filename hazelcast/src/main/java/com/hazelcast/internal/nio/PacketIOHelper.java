@@ -44,6 +44,7 @@ public class PacketIOHelper {
     private char flags;
     private int partitionId;
     private byte[] payload;
+    private ByteBuffer gatheredValue;
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -53,6 +54,22 @@ public class PacketIOHelper {
      * @return {@code true} if all the packet's data is now written out; {@code false} otherwise.
      */
     public boolean writeTo(Packet packet, ByteBuffer dst) {
+        return writeTo(packet, dst, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
+     * it should be called again to write the remaining data.
+     *
+     * If at least {@code gatheringThreshold} bytes of the value remain to be written once the header is written, the
+     * remaining value isn't copied into the buffer. Instead it is wrapped in a buffer that can be obtained using
+     * {@link #takeGatheredValue()} and that should be written directly after the supplied buffer.
+     *
+     * @param dst                the destination byte buffer
+     * @param gatheringThreshold the minimum number of remaining value bytes for the value to be gathered
+     * @return {@code true} if all the packet's data is now written out or gathered; {@code false} otherwise.
+     */
+    public boolean writeTo(Packet packet, ByteBuffer dst, int gatheringThreshold) {
         if (!headerComplete) {
             if (dst.remaining() < HEADER_SIZE) {
                 return false;
@@ -66,6 +83,13 @@ public class PacketIOHelper {
             headerComplete = true;
         }
 
+        int bytesNeeded = size - valueOffset;
+        if (bytesNeeded > 0 && bytesNeeded >= gatheringThreshold) {
+            gatheredValue = ByteBuffer.wrap(packet.toByteArray(), valueOffset, bytesNeeded);
+            reset();
+            return true;
+        }
+
         if (writeValue(packet, dst)) {
             reset();
             return true;
@@ -105,6 +129,17 @@ public class PacketIOHelper {
         return true;
     }
 
+    /**
+     * Returns the value gathered by the last {@link #writeTo(Packet, ByteBuffer, int)} call and clears it.
+     *
+     * @return the gathered value in reading mode or {@code null} if the value wasn't gathered
+     */
+    public ByteBuffer takeGatheredValue() {
+        ByteBuffer value = gatheredValue;
+        gatheredValue = null;
+        return value;
+    }
+
     /**
      * Reads the packet data from the supplied {@code ByteBuffer}. The buffer may not contain the complete packet.
      * If this method returns {@code false}, it should be called again to read more packet data.
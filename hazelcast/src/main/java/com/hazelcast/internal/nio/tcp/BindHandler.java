@@ -59,6 +59,7 @@ final class BindHandler {
         TcpIpConnection connection = (TcpIpConnection) packet.getConn();
         if (connection.setBinding()) {
             BindMessage bindMessage = (BindMessage) bind;
+            enableCompression(connection, bindMessage);
             bind(connection, bindMessage);
         } else {
             if (logger.isFinestEnabled()) {
@@ -67,6 +68,20 @@ final class BindHandler {
         }
     }
 
+    /**
+     * Enables the compression of the packets sent over the connection if both
+     * sides of the connection support it.
+     */
+    private void enableCompression(TcpIpConnection connection, BindMessage bindMessage) {
+        PacketCompressor compressor = connection.getPacketCompressor();
+        if (compressor != null && bindMessage.isCompression()) {
+            compressor.enable(bindMessage.getDictionaryId());
+            if (logger.isFinestEnabled()) {
+                logger.finest("Enabled packet compression on " + connection);
+            }
+        }
+    }
+
     private synchronized boolean bind(TcpIpConnection connection, BindMessage bindMessage) {
         if (logger.isFinestEnabled()) {
             logger.finest("Binding " + connection + ", complete message is " + bindMessage);
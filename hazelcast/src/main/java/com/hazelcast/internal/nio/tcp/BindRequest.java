@@ -29,6 +29,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.hazelcast.internal.cluster.impl.BindMessage.COMPRESSION_SCHEMA_VERSION;
+import static com.hazelcast.internal.nio.tcp.PacketCompressor.NO_DICTIONARY;
+
 public class BindRequest {
 
     private final ILogger logger;
@@ -54,7 +57,9 @@ public class BindRequest {
         if (logger.isFinestEnabled()) {
             logger.finest("Sending bind packet to " + remoteEndPoint);
         }
-        BindMessage bind = new BindMessage((byte) 1, getConfiguredLocalAddresses(), remoteEndPoint, reply, ioService.getUuid());
+        PacketCompressor compressor = connection.getPacketCompressor();
+        BindMessage bind = new BindMessage(COMPRESSION_SCHEMA_VERSION, getConfiguredLocalAddresses(), remoteEndPoint, reply,
+                ioService.getUuid(), compressor != null, compressor != null ? compressor.dictionaryId() : NO_DICTIONARY);
         byte[] bytes = ioService.getSerializationService().toBytes(bind);
         Packet packet = new Packet(bytes).setPacketType(Packet.Type.BIND);
         connection.write(packet);
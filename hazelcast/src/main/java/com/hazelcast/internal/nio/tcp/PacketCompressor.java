@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio.tcp;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_DICTIONARY_FILE;
+import static com.hazelcast.spi.properties.ClusterProperty.IO_COMPRESSION_THRESHOLD;
+
+/**
+ * Compresses and decompresses the payloads of the {@link Packet} instances
+ * sent over a member connection.
+ *
+ * Each member connection has its own compressor, client and REST
+ * connections have none. Compression is done by the
+ * {@link PacketEncoder} and decompression by the {@link PacketDecoder}, so
+ * the compressing side is only accessed by the output thread and the
+ * decompressing side only by the input thread of the connection.
+ *
+ * A compressed packet contains the length of the original payload followed
+ * by the deflated payload and it has the {@link Packet#FLAG_COMPRESSED} flag
+ * raised. Compression is only enabled once the bind handshake has shown the
+ * other side supports it, see {@link #enable(int)}. The preset dictionary is
+ * only used when both sides are configured with the same dictionary; the
+ * decompressing side finds out if the dictionary was used from the deflated
+ * stream itself.
+ */
+public final class PacketCompressor {
+
+    /**
+     * The dictionary id advertised by members that have no dictionary configured.
+     */
+    public static final int NO_DICTIONARY = 0;
+
+    /**
+     * The size of the largest compression buffer kept between packets.
+     * Larger payloads get a buffer of their own, so a single large packet
+     * doesn't grow the heap cost of the connection for its lifetime.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final int threshold;
+    private final byte[] dictionary;
+    private final int dictionaryId;
+    private final SwCounter compressedPackets = newSwCounter();
+    private final SwCounter compressionInputBytes = newSwCounter();
+    private final SwCounter compressionOutputBytes = newSwCounter();
+    private final SwCounter decompressedPackets = newSwCounter();
+
+    // only accessed by the output thread
+    private Deflater deflater;
+    private byte[] compressBuffer;
+    // only accessed by the input thread
+    private Inflater inflater;
+
+    private boolean useDictionary;
+    private volatile boolean enabled;
+
+    public PacketCompressor(int threshold, byte[] dictionary) {
+        this.threshold = threshold;
+        this.dictionary = dictionary;
+        this.dictionaryId = dictionaryId(dictionary);
+    }
+
+    /**
+     * Reads the preset dictionary configured with
+     * {@link com.hazelcast.spi.properties.ClusterProperty#IO_COMPRESSION_DICTIONARY_FILE}.
+     *
+     * @param properties the properties to read the dictionary file from
+     * @return the dictionary or {@code null} if no dictionary is configured
+     * @throws HazelcastException if the dictionary file can't be read
+     */
+    public static byte[] readDictionary(HazelcastProperties properties) {
+        String file = properties.getString(IO_COMPRESSION_DICTIONARY_FILE);
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(new File(file).toPath());
+        } catch (IOException e) {
+            throw new HazelcastException("Failed to read the packet compression dictionary " + file, e);
+        }
+    }
+
+    /**
+     * Creates a compressor configured by the given properties.
+     *
+     * @param properties the properties to read the threshold from
+     * @param dictionary the preset dictionary, see {@link #readDictionary(HazelcastProperties)}
+     * @return the created compressor
+     */
+    public static PacketCompressor newPacketCompressor(HazelcastProperties properties, byte[] dictionary) {
+        return new PacketCompressor(properties.getInteger(IO_COMPRESSION_THRESHOLD), dictionary);
+    }
+
+    private static int dictionaryId(byte[] dictionary) {
+        if (dictionary == null) {
+            return NO_DICTIONARY;
+        }
+        Adler32 adler32 = new Adler32();
+        adler32.update(dictionary, 0, dictionary.length);
+        return (int) adler32.getValue();
+    }
+
+    /**
+     * Returns the id of the preset dictionary, which is advertised to the
+     * other side of the connection in the bind handshake.
+     *
+     * @return the dictionary id or {@link #NO_DICTIONARY}
+     */
+    public int dictionaryId() {
+        return dictionaryId;
+    }
+
+    /**
+     * Enables the compression of the outgoing packets, once the other side
+     * of the connection has advertised it is able to decompress them.
+     *
+     * @param remoteDictionaryId the dictionary id of the other side
+     */
+    public void enable(int remoteDictionaryId) {
+        useDictionary = dictionary != null && remoteDictionaryId == dictionaryId;
+        enabled = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long compressedPackets() {
+        return compressedPackets.get();
+    }
+
+    public long compressionInputBytes() {
+        return compressionInputBytes.get();
+    }
+
+    public long compressionOutputBytes() {
+        return compressionOutputBytes.get();
+    }
+
+    public long decompressedPackets() {
+        return decompressedPackets.get();
+    }
+
+    /**
+     * Compresses the payload of the packet.
+     *
+     * The given packet is returned as is if compression isn't enabled, if
+     * the payload is smaller than the threshold or if compression doesn't
+     * shrink it. The given packet is never modified since packets can be
+     * shared between connections.
+     *
+     * @param packet the packet to compress
+     * @return the compressed packet or the given packet
+     */
+    public Packet compress(Packet packet) {
+        if (!enabled || packet.totalSize() < threshold || packet.isFlagRaised(FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        byte[] payload = packet.toByteArray();
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        byte[] buffer = compressBuffer(payload.length);
+
+        deflater.reset();
+        if (useDictionary) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(payload);
+        deflater.finish();
+        int length = INT_SIZE_IN_BYTES;
+        while (!deflater.finished() && length < payload.length) {
+            length += deflater.deflate(buffer, length, payload.length - length);
+        }
+        if (!deflater.finished()) {
+            // the compressed payload is not smaller than the original one
+            return packet;
+        }
+
+        writeIntB(buffer, 0, payload.length);
+        compressedPackets.inc();
+        compressionInputBytes.inc(payload.length);
+        compressionOutputBytes.inc(length);
+        return new Packet(Arrays.copyOf(buffer, length), packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() | FLAG_COMPRESSED);
+    }
+
+    private byte[] compressBuffer(int size) {
+        if (size > MAX_RETAINED_BUFFER_SIZE) {
+            return new byte[size];
+        }
+        if (compressBuffer == null || compressBuffer.length < size) {
+            compressBuffer = new byte[size];
+        }
+        return compressBuffer;
+    }
+
+    int retainedBufferSize() {
+        return compressBuffer == null ? 0 : compressBuffer.length;
+    }
+
+    /**
+     * Restores the original payload of a packet with the
+     * {@link Packet#FLAG_COMPRESSED} flag raised.
+     *
+     * @param packet the compressed packet
+     * @return the packet with the original payload
+     * @throws DataFormatException if the payload is corrupt or it was compressed
+     *                             with a dictionary that isn't available
+     */
+    public Packet decompress(Packet packet) throws DataFormatException {
+        byte[] payload = packet.toByteArray();
+        byte[] original = new byte[readIntB(payload, 0)];
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+
+        inflater.reset();
+        inflater.setInput(payload, INT_SIZE_IN_BYTES, payload.length - INT_SIZE_IN_BYTES);
+        int length = 0;
+        while (length < original.length) {
+            int inflated = inflater.inflate(original, length, original.length - length);
+            if (inflated == 0) {
+                if (!inflater.needsDictionary() || dictionary == null) {
+                    throw new DataFormatException("Failed to decompress " + packet);
+                }
+                inflater.setDictionary(dictionary);
+            }
+            length += inflated;
+        }
+
+        decompressedPackets.inc();
+        return new Packet(original, packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() & ~FLAG_COMPRESSED);
+    }
+}
@@ -24,16 +24,19 @@ import com.hazelcast.internal.nio.PacketIOHelper;
 
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 
 /**
  * The {@link InboundHandler} for member to member communication.
  *
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
- * each of the Packets is send to the destination.
+ * each of the Packets is send to the destination. Compressed packets are
+ * decompressed by the {@link PacketCompressor} of the connection first.
  *
  * @see Consumer
  * @see PacketEncoder
@@ -62,6 +65,9 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
                 if (packet == null) {
                     break;
                 }
+                if (packet.isFlagRaised(FLAG_COMPRESSED)) {
+                    packet = decompress(packet);
+                }
                 onPacketComplete(packet);
             }
 
@@ -71,6 +77,14 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
         }
     }
 
+    private Packet decompress(Packet packet) throws DataFormatException {
+        PacketCompressor compressor = connection.getPacketCompressor();
+        if (compressor == null) {
+            throw new IllegalStateException("Received a compressed packet, but compression is disabled: " + packet);
+        }
+        return compressor.decompress(packet);
+    }
+
     protected void onPacketComplete(Packet packet) {
         if (packet.isFlagRaised(FLAG_URGENT)) {
             priorityPacketsRead.inc();
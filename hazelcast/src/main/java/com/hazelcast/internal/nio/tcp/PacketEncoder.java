@@ -16,7 +16,7 @@
 
 package com.hazelcast.internal.nio.tcp;
 
-import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.internal.networking.GatheringOutboundHandler;
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
@@ -29,7 +29,7 @@ import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
 
 /**
- * A {@link OutboundHandler} that for member to member communication.
+ * A {@link GatheringOutboundHandler} that for member to member communication.
  *
  * It writes {@link Packet} instances to the {@link ByteBuffer}.
  *
@@ -37,14 +37,30 @@ import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
  * multiple connections. The flyweight contains the actual 'position' state of
  * what has been written.
  *
+ * Large packet values are not copied into the {@link ByteBuffer}; they are
+ * gathered so the pipeline can write them directly to the socket.
+ *
+ * If the encoder has a {@link PacketCompressor}, large packets are compressed
+ * before they are written once compression has been negotiated for the
+ * connection.
+ *
  * @see PacketDecoder
  */
-public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer> {
+public class PacketEncoder extends GatheringOutboundHandler<Supplier<Packet>> {
 
     private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final PacketCompressor compressor;
 
     private Packet packet;
 
+    public PacketEncoder() {
+        this(null);
+    }
+
+    public PacketEncoder(PacketCompressor compressor) {
+        this.compressor = compressor;
+    }
+
     @Override
     public void handlerAdded() {
         initDstBuffer();
@@ -54,6 +70,11 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
     public HandlerStatus onWrite() {
         compactOrClear(dst);
         try {
+            if (!flushGathered()) {
+                // the gathered value of the previous packet still needs to be written
+                return DIRTY;
+            }
+
             for (; ; ) {
                 if (packet == null) {
                     packet = src.get();
@@ -62,11 +83,21 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
                         // everything is processed, so we are done
                         return CLEAN;
                     }
+
+                    if (compressor != null) {
+                        packet = compressor.compress(packet);
+                    }
                 }
 
-                if (packetWriter.writeTo(packet, dst)) {
-                    // packet got written, lets see if another packet can be written
+                if (packetWriter.writeTo(packet, dst, gatheringThreshold())) {
                     packet = null;
+                    ByteBuffer value = packetWriter.takeGatheredValue();
+                    if (value != null) {
+                        // the value gets written after the content of the dst buffer
+                        gather(value);
+                        return DIRTY;
+                    }
+                    // packet got written, lets see if another packet can be written
                 } else {
                     // the packet didn't get written completely, so we are done.
                     return DIRTY;
@@ -37,7 +37,12 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSED_PACKETS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSION_INPUT_BYTES;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_COMPRESSION_OUTPUT_BYTES;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_CONNECTION_TYPE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.ENUM;
 import static com.hazelcast.internal.nio.ConnectionType.MEMBER;
 import static com.hazelcast.internal.nio.ConnectionType.NONE;
@@ -69,6 +74,8 @@ public class TcpIpConnection implements Connection {
 
     private final IOService ioService;
 
+    private volatile PacketCompressor packetCompressor;
+
     private Address endPoint;
 
     private TcpIpConnectionErrorHandler errorHandler;
@@ -124,6 +131,49 @@ public class TcpIpConnection implements Connection {
         }
     }
 
+    /**
+     * Creates the compressor of the packets sent and received over this
+     * connection if packet compression is enabled. Called once the connection
+     * is known to carry the member protocol, so client and REST connections
+     * never get a compressor. Calling it again has no effect.
+     */
+    public synchronized void initPacketCompressor() {
+        if (packetCompressor == null) {
+            packetCompressor = ioService.createPacketCompressor();
+        }
+    }
+
+    /**
+     * Returns the compressor of the packets sent and received over this
+     * connection.
+     *
+     * @return the compressor or {@code null} if packet compression is disabled
+     * or this is not a member connection
+     */
+    public PacketCompressor getPacketCompressor() {
+        return packetCompressor;
+    }
+
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSED_PACKETS)
+    private long compressedPackets() {
+        return packetCompressor == null ? 0 : packetCompressor.compressedPackets();
+    }
+
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSION_INPUT_BYTES, unit = BYTES)
+    private long compressionInputBytes() {
+        return packetCompressor == null ? 0 : packetCompressor.compressionInputBytes();
+    }
+
+    @Probe(name = TCP_METRIC_CONNECTION_COMPRESSION_OUTPUT_BYTES, unit = BYTES)
+    private long compressionOutputBytes() {
+        return packetCompressor == null ? 0 : packetCompressor.compressionOutputBytes();
+    }
+
+    @Probe(name = TCP_METRIC_CONNECTION_DECOMPRESSED_PACKETS)
+    private long decompressedPackets() {
+        return packetCompressor == null ? 0 : packetCompressor.decompressedPackets();
+    }
+
     public TcpIpEndpointManager getEndpointManager() {
         return endpointManager;
     }
@@ -16,6 +16,8 @@
 
 package com.hazelcast.internal.nio.tcp;
 
+import com.hazelcast.instance.EndpointQualifier;
+import com.hazelcast.instance.ProtocolType;
 import com.hazelcast.internal.networking.Channel;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.cluster.Address;
@@ -67,6 +69,15 @@ class TcpIpConnector {
         ioService.executeAsync(new ConnectTask(address, silent));
     }
 
+    /**
+     * @return {@code true} if the connections carry the member protocol; the
+     * unified endpoint manager has no qualifier
+     */
+    private boolean isMemberEndpoint() {
+        EndpointQualifier qualifier = endpointManager.getEndpointQualifier();
+        return qualifier == null || qualifier.getType() == ProtocolType.MEMBER;
+    }
+
     private boolean useAnyOutboundPort() {
         return outboundPortCount == 0;
     }
@@ -187,6 +198,10 @@ class TcpIpConnector {
                     ioService.interceptSocket(endpointManager.getEndpointQualifier(), socketChannel.socket(), false);
 
                     connection = endpointManager.newConnection(channel, address);
+                    if (isMemberEndpoint()) {
+                        // outgoing connections carry the member protocol, the bind request advertises compression
+                        connection.initPacketCompressor();
+                    }
                     BindRequest request = new BindRequest(logger, ioService, connection, address, true);
                     request.send();
                 } catch (Exception e) {
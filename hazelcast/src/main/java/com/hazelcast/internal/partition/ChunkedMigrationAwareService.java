@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.properties.ClusterProperty;
+
+/**
+ * {@code ChunkedMigrationAwareService} is an extension to the {@link FragmentedMigrationAwareService}
+ * which allows migrating a single replica fragment as a sequence of bounded chunks.
+ * <p>
+ * When chunked migration is enabled using {@link ClusterProperty#PARTITION_MIGRATION_CHUNK_MAX_BYTES},
+ * the migration source asks the service for a {@link ChunkSupplier} of each namespace and sends
+ * the operations it supplies one by one. The next chunk is prepared only after the previous one has
+ * been applied by the migration destination, so neither side has to hold the whole fragment in memory
+ * and the partition thread is not blocked for the whole fragment at once.
+ * <p>
+ * Chunks of a namespace are applied on the destination in the order they were supplied. Since the
+ * partition is migrating while the chunks are being sent, the namespace data does not change between
+ * the chunks.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see ChunkSupplier
+ */
+public interface ChunkedMigrationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns a supplier of the operations which replicate the data of the given namespace in chunks.
+     * This method is called on the migration source, on the partition thread.
+     * <p>
+     * Returning null is allowed and means the namespace is replicated with the operation returned by
+     * {@link #prepareReplicationOperation(PartitionReplicationEvent, java.util.Collection)}.
+     *
+     * @param event         replication event
+     * @param namespace     replica fragment namespace to replicate
+     * @param maxChunkBytes the approximate maximum size of the data in a single chunk
+     * @return the chunk supplier or null if the namespace shouldn't be migrated in chunks
+     */
+    ChunkSupplier newChunkSupplier(PartitionReplicationEvent event, ServiceNamespace namespace, int maxChunkBytes);
+
+    /**
+     * Supplies the chunks of a replica fragment. Every chunk is an operation which is executed on the
+     * migration destination, in the order the chunks were supplied.
+     */
+    interface ChunkSupplier {
+
+        /**
+         * @return {@code true} if there are more chunks to send
+         */
+        boolean hasNext();
+
+        /**
+         * Prepares the next chunk. Called on the partition thread of the migration source.
+         *
+         * @return the operation which applies the chunk on the migration destination
+         */
+        Operation next();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
+
+/**
+ * {@code DeltaReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService}
+ * which allows a backup replica to be synchronized by transferring only the data it is missing.
+ * <p>
+ * When a backup replica asks its owner for the data of a namespace during replica sync, it attaches
+ * the Merkle tree the service maintains for that namespace. The owner compares it with its own tree
+ * and, if the service supports it, sends only the entries of the differing leaves instead of the
+ * whole namespace. Since both trees are maintained incrementally by the replicas, a backup which
+ * missed only a few updates is repaired by transferring only a few leaves.
+ *
+ * @see FragmentedMigrationAwareService
+ */
+public interface DeltaReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns the Merkle tree of the given partition replica namespace. This method is called on
+     * the backup replica which requests the replica sync, on the partition thread.
+     *
+     * @param partitionId the partition ID
+     * @param namespace   replica fragment namespace
+     * @return the Merkle tree or null if the service doesn't maintain a tree for the namespace
+     */
+    MerkleTreeView getMerkleTree(int partitionId, ServiceNamespace namespace);
+
+    /**
+     * Returns an operation which replicates only the data of the given namespace which differs
+     * from the data described by the Merkle tree of the backup replica. This method is called on
+     * the partition owner, on the partition thread.
+     * <p>
+     * Returning null is allowed and means the namespace is replicated with the operation returned by
+     * {@link #prepareReplicationOperation(PartitionReplicationEvent, java.util.Collection)}.
+     *
+     * @param event       replication event
+     * @param namespace   replica fragment namespace to replicate
+     * @param replicaTree the Merkle tree of the backup replica
+     * @return the delta replication operation or null if the whole namespace should be replicated
+     */
+    Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                               MerkleTreeView replicaTree);
+}
@@ -23,6 +23,7 @@ import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
@@ -123,6 +124,7 @@ public class MigrationManager {
     private final Lock partitionServiceLock;
     private final MigrationPlanner migrationPlanner;
     private final boolean fragmentedMigrationEnabled;
+    private final int migrationChunkMaxBytes;
     private final long memberHeartbeatTimeoutMillis;
     private boolean triggerRepartitioningWhenClusterStateAllowsMigration;
     private final Set<MigrationInfo> finalizingMigrationsRegistry = Collections.newSetFromMap(new ConcurrentHashMap<>());
@@ -138,6 +140,7 @@ public class MigrationManager {
         partitionMigrationInterval = properties.getPositiveMillisOrDefault(ClusterProperty.PARTITION_MIGRATION_INTERVAL, 0);
         partitionMigrationTimeout = properties.getMillis(ClusterProperty.PARTITION_MIGRATION_TIMEOUT);
         fragmentedMigrationEnabled = properties.getBoolean(ClusterProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED);
+        migrationChunkMaxBytes = properties.getInteger(ClusterProperty.PARTITION_MIGRATION_CHUNK_MAX_BYTES);
         partitionStateManager = partitionService.getPartitionStateManager();
         ILogger migrationThreadLogger = node.getLogger(MigrationThread.class);
         String hzName = nodeEngine.getHazelcastInstance().getName();
@@ -1072,8 +1075,11 @@ public class MigrationManager {
             long start = System.nanoTime();
             List<MigrationInfo> completedMigrations = getCompletedMigrationsCopy();
             int partitionStateVersion = partitionStateManager.getVersion();
+            // a 4.0 destination doesn't know the chunk operations
+            int maxChunkBytes = nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V4_1)
+                    ? migrationChunkMaxBytes : 0;
             Operation op = new MigrationRequestOperation(migrationInfo, completedMigrations, partitionStateVersion,
-                    fragmentedMigrationEnabled);
+                    fragmentedMigrationEnabled, maxChunkBytes);
             Future future = nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, op, fromMember.getAddress())
                     .setCallTimeout(partitionMigrationTimeout)
                     .invoke();
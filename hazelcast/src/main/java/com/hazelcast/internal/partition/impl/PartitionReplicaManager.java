@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.impl;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.PartitionReplica;
@@ -36,10 +37,12 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -47,6 +50,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -55,6 +59,7 @@ import java.util.concurrent.TimeUnit;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static java.util.Collections.newSetFromMap;
 
 /**
@@ -228,10 +233,46 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
-        PartitionReplicaSyncRequest syncRequest = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex);
+        Map<ServiceNamespace, MerkleTreeView> merkleTrees = collectMerkleTrees(partitionId, namespaces);
+        PartitionReplicaSyncRequest syncRequest =
+                new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex, merkleTrees);
         nodeEngine.getOperationService().send(syncRequest, target.address());
     }
 
+    /**
+     * Collects the Merkle trees of the namespaces which support delta replication, so the partition
+     * owner can replicate only the data which differs from this replica. The trees are confined to
+     * the partition thread, they are not collected if the sync is requested from another thread.
+     */
+    private Map<ServiceNamespace, MerkleTreeView> collectMerkleTrees(int partitionId, List<ServiceNamespace> namespaces) {
+        if (!(Thread.currentThread() instanceof PartitionOperationThread)) {
+            return Collections.emptyMap();
+        }
+
+        Collection<DeltaReplicationAwareService> services = nodeEngine.getServices(DeltaReplicationAwareService.class);
+        if (services.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<ServiceNamespace, MerkleTreeView> merkleTrees = createHashMap(namespaces.size());
+        for (ServiceNamespace namespace : namespaces) {
+            if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
+                continue;
+            }
+            for (DeltaReplicationAwareService service : services) {
+                if (!service.isKnownServiceNamespace(namespace)) {
+                    continue;
+                }
+                MerkleTreeView merkleTree = service.getMerkleTree(partitionId, namespace);
+                if (merkleTree != null) {
+                    merkleTrees.put(namespace, merkleTree);
+                    break;
+                }
+            }
+        }
+        return merkleTrees;
+    }
+
     private List<ServiceNamespace> registerSyncInfoForNamespaces(int partitionId,
             Collection<ServiceNamespace> requestedNamespaces, int replicaIndex, PartitionReplica target, int permits) {
 
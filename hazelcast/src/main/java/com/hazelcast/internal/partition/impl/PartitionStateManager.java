@@ -212,7 +212,7 @@ public class PartitionStateManager {
                     foundReplica |= replicas[i] != null;
                 }
             }
-            partition.reset(localReplica);
+            resetPartition(partition, localReplica);
             partition.setInitialReplicas(replicas);
         }
         stateVersion.set(partitionTable.getVersion());
@@ -326,6 +326,7 @@ public class PartitionStateManager {
             logger.finest("Clearing partition-migrating flag. partitionId=" + partitionId);
         }
         partitions[partitionId].resetMigrating();
+        node.getNodeEngine().getOperationService().onPartitionMigrationFinished(partitionId);
     }
 
     public boolean isMigrating(int partitionId) {
@@ -375,7 +376,19 @@ public class PartitionStateManager {
         // local member uuid changes during ClusterService reset
         PartitionReplica localReplica = PartitionReplica.from(node.getLocalMember());
         for (InternalPartitionImpl partition : partitions) {
-            partition.reset(localReplica);
+            resetPartition(partition, localReplica);
+        }
+    }
+
+    /**
+     * Resets the partition and, if it was migrating, replays the operations parked
+     * during the migration, which would otherwise wait for a flag clear that never comes.
+     */
+    private void resetPartition(InternalPartitionImpl partition, PartitionReplica localReplica) {
+        boolean migrating = partition.isMigrating();
+        partition.reset(localReplica);
+        if (migrating) {
+            node.getNodeEngine().getOperationService().onPartitionMigrationFinished(partition.getPartitionId());
         }
     }
 
@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.operation;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
 import com.hazelcast.internal.partition.MigrationAwareService;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
@@ -26,6 +27,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -79,13 +81,23 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
             FragmentedMigrationAwareService service = nodeEngine.getService(serviceName);
             assert service.isKnownServiceNamespace(ns) : ns + " should be known by " + service;
 
-            operations = prepareAndAppendReplicationOperation(event, ns, service, serviceName, operations);
+            operations = prepareAndAppendReplicationOperation(event, ns, service, serviceName, null, operations);
         }
 
         return operations;
     }
 
     final Collection<Operation> createFragmentReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns) {
+        return createFragmentReplicationOperations(event, ns, (MerkleTreeView) null);
+    }
+
+    /**
+     * Creates the replication operations of the given namespace. If the Merkle tree of the destination
+     * replica is given, the services supporting delta replication are asked to replicate only the
+     * data which differs from it.
+     */
+    final Collection<Operation> createFragmentReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns,
+            MerkleTreeView replicaTree) {
         assert !(ns instanceof NonFragmentedServiceNamespace) : ns + " should be used only for non-fragmented services!";
 
         Collection<Operation> operations = emptySet();
@@ -98,15 +110,23 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
                 continue;
             }
 
-            operations = prepareAndAppendReplicationOperation(event, ns, service, serviceInfo.getName(), operations);
+            operations = prepareAndAppendReplicationOperation(event, ns, service, serviceInfo.getName(), replicaTree,
+                    operations);
         }
         return operations;
     }
 
     private Collection<Operation> prepareAndAppendReplicationOperation(PartitionReplicationEvent event, ServiceNamespace ns,
-            FragmentedMigrationAwareService service, String serviceName, Collection<Operation> operations) {
+            FragmentedMigrationAwareService service, String serviceName, MerkleTreeView replicaTree,
+            Collection<Operation> operations) {
 
-        Operation op = service.prepareReplicationOperation(event, singleton(ns));
+        Operation op = null;
+        if (replicaTree != null && service instanceof DeltaReplicationAwareService) {
+            op = ((DeltaReplicationAwareService) service).prepareDeltaReplicationOperation(event, ns, replicaTree);
+        }
+        if (op == null) {
+            op = service.prepareReplicationOperation(event, singleton(ns));
+        }
         if (op == null) {
             return operations;
         }
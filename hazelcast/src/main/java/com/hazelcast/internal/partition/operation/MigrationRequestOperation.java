@@ -18,6 +18,9 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.cluster.Address;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService.ChunkSupplier;
 import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
@@ -36,6 +39,7 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
@@ -47,6 +51,7 @@ import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -68,19 +73,33 @@ import static java.util.Collections.singleton;
  * sending them to the destination. A response with a value equal to {@link Boolean#TRUE} indicates a successful migration.
  * It runs on the migration source and transfers the partition with multiple shots.
  * It divides the partition data into fragments and send a group of fragments within each shot.
+ * When chunked migration is enabled, the fragments of {@link ChunkedMigrationAwareService}s
+ * are further divided into bounded chunks and each chunk is sent within its own shot.
  */
-public class MigrationRequestOperation extends BaseMigrationOperation {
+public class MigrationRequestOperation extends BaseMigrationOperation implements Versioned {
 
     private boolean fragmentedMigrationEnabled;
+    private int maxChunkBytes;
     private transient ServiceNamespacesContext namespacesContext;
+    // supplies the remaining chunks of the namespace being migrated in chunks
+    private transient ChunkSupplier chunkSupplier;
+    private transient ServiceNamespace chunkedNamespace;
+    private transient String chunkedServiceName;
+    private transient int chunkCount;
 
     public MigrationRequestOperation() {
     }
 
     public MigrationRequestOperation(MigrationInfo migrationInfo, List<MigrationInfo> completedMigrations,
             int partitionStateVersion, boolean fragmentedMigrationEnabled) {
+        this(migrationInfo, completedMigrations, partitionStateVersion, fragmentedMigrationEnabled, 0);
+    }
+
+    public MigrationRequestOperation(MigrationInfo migrationInfo, List<MigrationInfo> completedMigrations,
+            int partitionStateVersion, boolean fragmentedMigrationEnabled, int maxChunkBytes) {
         super(migrationInfo, completedMigrations, partitionStateVersion);
         this.fragmentedMigrationEnabled = fragmentedMigrationEnabled;
+        this.maxChunkBytes = maxChunkBytes;
     }
 
     @Override
@@ -133,7 +152,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
      * Invokes the {@link MigrationOperation} on the migration destination.
      */
     private void invokeMigrationOperation(ReplicaFragmentMigrationState migrationState, boolean firstFragment) {
-        boolean lastFragment = !namespacesContext.hasNext();
+        boolean lastFragment = !namespacesContext.hasNext() && chunkSupplier == null;
         Operation operation = new MigrationOperation(migrationInfo,
                 firstFragment ? completedMigrations : Collections.emptyList(),
                 partitionStateVersion, migrationState, firstFragment, lastFragment);
@@ -175,7 +194,7 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
             if (migrationState != null) {
                 invokeMigrationOperation(migrationState, false);
             } else {
-                getLogger().finest("All migration fragments done for " + migrationInfo);
+                getLogger().finest("All migration fragments done for " + migrationInfo + ", chunks: " + chunkCount);
                 completeMigration(true);
             }
         } catch (Throwable e) {
@@ -194,6 +213,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     }
 
     private ReplicaFragmentMigrationState createNextReplicaFragmentMigrationState() {
+        if (chunkSupplier != null) {
+            return createNextChunkMigrationState();
+        }
+
         if (!namespacesContext.hasNext()) {
             return null;
         }
@@ -210,9 +233,73 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         if (namespace.equals(NonFragmentedServiceNamespace.INSTANCE)) {
             return createNonFragmentedReplicaFragmentMigrationState();
         }
+        if (maxChunkBytes > 0) {
+            ReplicaFragmentMigrationState migrationState = createFirstChunkMigrationStateFor(namespace);
+            if (migrationState != null) {
+                return migrationState;
+            }
+        }
         return createReplicaFragmentMigrationStateFor(namespace);
     }
 
+    /**
+     * Creates the migration state of the first chunk of the namespace if one of its services is
+     * a {@link ChunkedMigrationAwareService} which supports chunked migration of the namespace.
+     * The replication operations of the other services of the namespace are sent with the first chunk.
+     *
+     * @return the migration state or null if the namespace can't be migrated in chunks
+     */
+    private ReplicaFragmentMigrationState createFirstChunkMigrationStateFor(ServiceNamespace ns) {
+        PartitionReplicationEvent event = getPartitionReplicationEvent();
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        Collection<String> otherServiceNames = new ArrayList<>();
+        for (String serviceName : namespacesContext.getServiceNames(ns)) {
+            Object service = nodeEngine.getService(serviceName);
+            if (chunkSupplier == null && service instanceof ChunkedMigrationAwareService) {
+                chunkSupplier = ((ChunkedMigrationAwareService) service).newChunkSupplier(event, ns, maxChunkBytes);
+                if (chunkSupplier != null) {
+                    chunkedServiceName = serviceName;
+                    continue;
+                }
+            }
+            otherServiceNames.add(serviceName);
+        }
+
+        if (chunkSupplier == null) {
+            return null;
+        }
+        chunkedNamespace = ns;
+        Collection<Operation> operations = new ArrayList<>(createFragmentReplicationOperations(event, ns, otherServiceNames));
+        return createNextChunkMigrationState(operations);
+    }
+
+    /**
+     * Creates the migration state of the next chunk of the namespace being migrated in chunks.
+     * The replica versions of the namespace are sent with its last chunk, so that the destination
+     * doesn't consider the namespace up to date before all of its chunks have been applied.
+     */
+    private ReplicaFragmentMigrationState createNextChunkMigrationState() {
+        return createNextChunkMigrationState(new ArrayList<>(1));
+    }
+
+    private ReplicaFragmentMigrationState createNextChunkMigrationState(Collection<Operation> operations) {
+        if (chunkSupplier.hasNext()) {
+            Operation chunk = chunkSupplier.next();
+            chunk.setServiceName(chunkedServiceName);
+            operations.add(chunk);
+            chunkCount++;
+        }
+
+        Collection<ServiceNamespace> namespaces = emptySet();
+        if (!chunkSupplier.hasNext()) {
+            namespaces = singleton(chunkedNamespace);
+            chunkSupplier = null;
+            chunkedNamespace = null;
+            chunkedServiceName = null;
+        }
+        return createReplicaFragmentMigrationState(namespaces, operations);
+    }
+
     private ReplicaFragmentMigrationState createNonFragmentedReplicaFragmentMigrationState() {
         PartitionReplicationEvent event = getPartitionReplicationEvent();
         Collection<Operation> operations = createNonFragmentedReplicationOperations(event);
@@ -295,12 +382,18 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         super.writeInternal(out);
         out.writeBoolean(fragmentedMigrationEnabled);
+        if (out.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            out.writeInt(maxChunkBytes);
+        }
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
         super.readInternal(in);
         fragmentedMigrationEnabled = in.readBoolean();
+        if (in.getVersion().isGreaterOrEqual(Versions.V4_1)) {
+            maxChunkBytes = in.readInt();
+        }
     }
 
     /**
@@ -122,4 +122,12 @@ public interface Data {
      */
     boolean isJson();
 
+    /**
+     * Returns true if this Data is created from a {@link com.hazelcast.nio.serialization.Compact} object,
+     * false otherwise
+     *
+     * @return true if source object is <code>Compact</code>, false otherwise.
+     */
+    boolean isCompact();
+
 }
@@ -167,6 +167,11 @@ public class HeapData implements Data {
         return SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE == getType();
     }
 
+    @Override
+    public boolean isCompact() {
+        return SerializationConstants.TYPE_COMPACT == getType();
+    }
+
     @Override
     public String toString() {
         return "HeapData{"
@@ -31,6 +31,7 @@ import com.hazelcast.nio.serialization.Serializer;
 import com.hazelcast.nio.serialization.StreamSerializer;
 import com.hazelcast.nio.serialization.VersionedPortable;
 import com.hazelcast.partition.PartitioningStrategy;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
 
 import javax.annotation.Nonnull;
 import java.io.ByteArrayInputStream;
@@ -100,6 +101,10 @@ public final class SerializationUtil {
         if (e instanceof HazelcastSerializationException) {
             throw (HazelcastSerializationException) e;
         }
+        if (e instanceof RetryableHazelcastException) {
+            // e.g. an unknown compact schema being fetched, the operation is retried
+            throw (RetryableHazelcastException) e;
+        }
         throw new HazelcastSerializationException(e);
     }
 
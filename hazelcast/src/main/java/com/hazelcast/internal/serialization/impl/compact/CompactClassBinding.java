@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds a class to the {@link Schema} derived from its fields, keeping the
+ * reflective accessors in the serialized field order.
+ */
+final class CompactClassBinding {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final Constructor<?> constructor;
+
+    private CompactClassBinding(Schema schema, Field[] fields, Constructor<?> constructor) {
+        this.schema = schema;
+        this.fields = fields;
+        this.constructor = constructor;
+    }
+
+    Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the accessors of the fields, in the order of {@link Schema#getFields()}
+     */
+    Field[] getFields() {
+        return fields;
+    }
+
+    Object newInstance() {
+        try {
+            return constructor.newInstance();
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Cannot create an instance of " + schema.getTypeName(), e);
+        }
+    }
+
+    static CompactClassBinding of(Class<?> clazz) {
+        Map<String, Field> fieldsByName = new LinkedHashMap<>();
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                // a field of a subclass hides the field with the same name of its superclasses
+                fieldsByName.putIfAbsent(field.getName(), field);
+            }
+        }
+
+        Map<String, FieldKind> fieldKinds = new LinkedHashMap<>();
+        for (Field field : fieldsByName.values()) {
+            fieldKinds.put(field.getName(), FieldKind.of(field.getType()));
+        }
+        Schema schema = new Schema(clazz.getName(), fieldKinds);
+
+        List<FieldDescriptor> descriptors = schema.getFields();
+        Field[] fields = new Field[descriptors.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fieldsByName.get(descriptors.get(i).getName());
+            fields[i].setAccessible(true);
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new HazelcastSerializationException("Compact class " + clazz.getName()
+                    + " must have a no-arguments constructor", e);
+        }
+        return new CompactClassBinding(schema, fields, constructor);
+    }
+}
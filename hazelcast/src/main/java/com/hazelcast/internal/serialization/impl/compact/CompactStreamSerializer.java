@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.nio.ClassLoaderUtil;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Reflective serializer of {@link Compact} objects, see {@link Schema} for
+ * the serialized layout.
+ */
+public final class CompactStreamSerializer implements StreamSerializer<Compact> {
+
+    private final SchemaRegistry registry;
+    private final ClassLoader classLoader;
+    private final ConcurrentMap<Long, CompactClassBinding> bindingsBySchemaId = new ConcurrentHashMap<>();
+
+    public CompactStreamSerializer(SchemaRegistry registry, ClassLoader classLoader) {
+        this.registry = registry;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.TYPE_COMPACT;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Compact object) throws IOException {
+        if (!(out instanceof BufferObjectDataOutput)) {
+            throw new IllegalArgumentException("ObjectDataOutput must be instance of BufferObjectDataOutput!");
+        }
+        BufferObjectDataOutput output = (BufferObjectDataOutput) out;
+        CompactClassBinding binding = registry.bindingFor(object.getClass());
+        Schema schema = binding.getSchema();
+        List<FieldDescriptor> descriptors = schema.getFields();
+        Field[] fields = binding.getFields();
+        int variableFieldCount = schema.getVariableFieldCount();
+        int fixedFieldCount = fields.length - variableFieldCount;
+
+        output.writeLong(schema.getSchemaId());
+        int lengthPosition = output.position();
+        output.writeInt(0);
+        int base = output.position();
+        try {
+            for (int i = 0; i < fixedFieldCount; i++) {
+                writeFixedSizeField(output, descriptors.get(i).getKind(), fields[i], object);
+            }
+            int[] offsets = new int[variableFieldCount];
+            for (int i = 0; i < variableFieldCount; i++) {
+                FieldDescriptor descriptor = descriptors.get(fixedFieldCount + i);
+                Object value = fields[fixedFieldCount + i].get(object);
+                if (value == null) {
+                    offsets[i] = -1;
+                    continue;
+                }
+                offsets[i] = output.position() - base;
+                if (descriptor.getKind() == FieldKind.STRING) {
+                    output.writeUTF((String) value);
+                } else {
+                    output.writeObject(value);
+                }
+            }
+            for (int offset : offsets) {
+                output.writeInt(offset);
+            }
+        } catch (IllegalAccessException e) {
+            throw new HazelcastSerializationException(e);
+        }
+        output.writeInt(lengthPosition, output.position() - base);
+    }
+
+    @Override
+    public Compact read(ObjectDataInput in) throws IOException {
+        if (!(in instanceof BufferObjectDataInput)) {
+            throw new IllegalArgumentException("ObjectDataInput must be instance of BufferObjectDataInput!");
+        }
+        BufferObjectDataInput input = (BufferObjectDataInput) in;
+        long schemaId = input.readLong();
+        int length = input.readInt();
+        int base = input.position();
+        Schema schema = registry.getSchema(schemaId);
+        CompactClassBinding binding = bindingFor(schema);
+        Object object = binding.newInstance();
+
+        List<FieldDescriptor> localDescriptors = binding.getSchema().getFields();
+        Field[] fields = binding.getFields();
+        boolean sameSchema = binding.getSchema().getSchemaId() == schemaId;
+        int tablePosition = base + length - INT_SIZE_IN_BYTES * schema.getVariableFieldCount();
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                FieldDescriptor localDescriptor = localDescriptors.get(i);
+                FieldDescriptor descriptor = sameSchema ? localDescriptor : schema.getField(localDescriptor.getName());
+                if (descriptor == null || descriptor.getKind() != localDescriptor.getKind()) {
+                    // the field was added or its type changed in the local version of the class
+                    continue;
+                }
+                readField(input, descriptor, base, tablePosition, fields[i], object);
+            }
+        } catch (IllegalAccessException e) {
+            throw new HazelcastSerializationException(e);
+        }
+        input.position(base + length);
+        return (Compact) object;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private CompactClassBinding bindingFor(Schema schema) {
+        CompactClassBinding binding = bindingsBySchemaId.get(schema.getSchemaId());
+        if (binding == null) {
+            Class<?> clazz;
+            try {
+                clazz = ClassLoaderUtil.loadClass(classLoader, schema.getTypeName());
+            } catch (ClassNotFoundException e) {
+                throw new HazelcastSerializationException("Cannot find class " + schema.getTypeName()
+                        + " of compact schema " + schema.getSchemaId(), e);
+            }
+            binding = registry.bindingFor(clazz);
+            bindingsBySchemaId.put(schema.getSchemaId(), binding);
+        }
+        return binding;
+    }
+
+    private static void writeFixedSizeField(BufferObjectDataOutput out, FieldKind kind, Field field, Object object)
+            throws IOException, IllegalAccessException {
+        switch (kind) {
+            case BOOLEAN:
+                out.writeBoolean(field.getBoolean(object));
+                break;
+            case BYTE:
+                out.writeByte(field.getByte(object));
+                break;
+            case CHAR:
+                out.writeChar(field.getChar(object));
+                break;
+            case SHORT:
+                out.writeShort(field.getShort(object));
+                break;
+            case INT:
+                out.writeInt(field.getInt(object));
+                break;
+            case FLOAT:
+                out.writeFloat(field.getFloat(object));
+                break;
+            case LONG:
+                out.writeLong(field.getLong(object));
+                break;
+            case DOUBLE:
+                out.writeDouble(field.getDouble(object));
+                break;
+            default:
+                throw new IllegalArgumentException("Not a fixed-size field kind: " + kind);
+        }
+    }
+
+    private static void readField(BufferObjectDataInput in, FieldDescriptor descriptor, int base, int tablePosition,
+                                  Field field, Object object) throws IOException, IllegalAccessException {
+        int position = base + descriptor.getOffset();
+        switch (descriptor.getKind()) {
+            case BOOLEAN:
+                field.setBoolean(object, in.readBoolean(position));
+                break;
+            case BYTE:
+                field.setByte(object, in.readByte(position));
+                break;
+            case CHAR:
+                field.setChar(object, in.readChar(position));
+                break;
+            case SHORT:
+                field.setShort(object, in.readShort(position));
+                break;
+            case INT:
+                field.setInt(object, in.readInt(position));
+                break;
+            case FLOAT:
+                field.setFloat(object, in.readFloat(position));
+                break;
+            case LONG:
+                field.setLong(object, in.readLong(position));
+                break;
+            case DOUBLE:
+                field.setDouble(object, in.readDouble(position));
+                break;
+            default:
+                int offset = in.readInt(tablePosition + INT_SIZE_IN_BYTES * descriptor.getOffset());
+                if (offset < 0) {
+                    field.set(object, null);
+                    return;
+                }
+                in.position(base + offset);
+                field.set(object, descriptor.getKind() == FieldKind.STRING ? in.readUTF() : in.readObject());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
+
+import java.io.IOException;
+
+/**
+ * Looks up a compact schema on the target member. Responds with
+ * {@code null} if the schema is not known there.
+ */
+public class FetchSchemaOperation extends Operation
+        implements IdentifiedDataSerializable, ReadonlyOperation, UrgentSystemOperation {
+
+    private long schemaId;
+    private transient Schema response;
+
+    public FetchSchemaOperation() {
+    }
+
+    public FetchSchemaOperation(long schemaId) {
+        this.schemaId = schemaId;
+    }
+
+    @Override
+    public void run() {
+        MemberSchemaService service = getService();
+        response = service.getLocalSchema(schemaId);
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MemberSchemaService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SchemaDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SchemaDataSerializerHook.FETCH_SCHEMA;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(schemaId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        schemaId = in.readLong();
+    }
+}
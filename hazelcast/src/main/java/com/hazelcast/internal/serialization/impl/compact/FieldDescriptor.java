@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Describes a single field of a compact {@link Schema}.
+ * <p>
+ * For fixed-size fields the {@link #getOffset() offset} is the byte offset
+ * of the field within the fixed-size section. For variable-size fields it is
+ * the index of the field in the offset table.
+ */
+public final class FieldDescriptor {
+
+    private final String name;
+    private final FieldKind kind;
+    private final int offset;
+
+    public FieldDescriptor(String name, FieldKind kind, int offset) {
+        this.name = name;
+        this.kind = kind;
+        this.offset = offset;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public FieldKind getKind() {
+        return kind;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FieldDescriptor that = (FieldDescriptor) o;
+        return offset == that.offset && name.equals(that.name) && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + kind.hashCode();
+        result = 31 * result + offset;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldDescriptor{"
+                + "name='" + name + '\''
+                + ", kind=" + kind
+                + ", offset=" + offset
+                + '}';
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Kind of a field in a compact {@link Schema}. Fixed-size kinds are stored at
+ * a fixed offset of the fixed-size section, variable-size kinds are located
+ * through the offset table at the end of the serialized object.
+ */
+public enum FieldKind {
+
+    BOOLEAN(1),
+    BYTE(1),
+    CHAR(2),
+    SHORT(2),
+    INT(4),
+    FLOAT(4),
+    LONG(8),
+    DOUBLE(8),
+    STRING(-1),
+    OBJECT(-1);
+
+    private static final FieldKind[] ALL = values();
+
+    private final int size;
+
+    FieldKind(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the size in bytes of a field of this kind or {@code -1} if the
+     * field is variable-size
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isFixedSize() {
+        return size > 0;
+    }
+
+    public static FieldKind of(Class<?> type) {
+        if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == byte.class) {
+            return BYTE;
+        } else if (type == char.class) {
+            return CHAR;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == double.class) {
+            return DOUBLE;
+        } else if (type == String.class) {
+            return STRING;
+        } else {
+            return OBJECT;
+        }
+    }
+
+    public static FieldKind get(int ordinal) {
+        return ALL[ordinal];
+    }
+}
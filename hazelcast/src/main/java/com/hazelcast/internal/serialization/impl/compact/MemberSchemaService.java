@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.services.CoreService;
+import com.hazelcast.internal.services.ManagedService;
+import com.hazelcast.internal.services.PostJoinAwareService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.exception.TargetNotMemberException;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Replicates the compact schemas registered on this member to the rest of
+ * the cluster and fetches the schemas this member does not know yet.
+ * <p>
+ * Schemas are pushed to the other members when they are registered, and
+ * the serializing thread waits for the acknowledgements, so the data never
+ * leaves the member before its schema. Joining members receive all the known
+ * schemas as a post-join operation. Operation threads must not wait for
+ * remote calls: they push the schemas they register asynchronously, and
+ * when they meet an unknown schema, it is fetched asynchronously and the
+ * operation is retried.
+ */
+public class MemberSchemaService implements ManagedService, CoreService, PostJoinAwareService, SchemaReplicator {
+
+    public static final String SERVICE_NAME = "hz:impl:schemaService";
+
+    private static final long REPLICATION_TIMEOUT_SECONDS = 30;
+    private static final long FETCH_TIMEOUT_SECONDS = 30;
+
+    private final Set<Long> pendingFetches = ConcurrentHashMap.newKeySet();
+
+    private NodeEngine nodeEngine;
+    private SchemaRegistry registry;
+    private ILogger logger;
+
+    @Override
+    public void init(NodeEngine nodeEngine, Properties properties) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(getClass());
+        this.registry = ((InternalSerializationService) nodeEngine.getSerializationService()).getCompactSchemaRegistry();
+        registry.setReplicator(this);
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void shutdown(boolean terminate) {
+        registry.setReplicator(null);
+    }
+
+    public SchemaRegistry getRegistry() {
+        return registry;
+    }
+
+    public Schema getLocalSchema(long schemaId) {
+        return registry.getLocalSchema(schemaId);
+    }
+
+    @Override
+    public void replicate(Schema schema) {
+        OperationService operationService = nodeEngine.getOperationService();
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (!member.localMember()) {
+                futures.add(operationService.invokeOnTarget(SERVICE_NAME,
+                        new PutSchemasOperation(singletonList(schema)), member.getAddress()));
+            }
+        }
+        if (isOperationThread()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + SECONDS.toNanos(REPLICATION_TIMEOUT_SECONDS);
+        for (Future<Object> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HazelcastSerializationException("Interrupted while replicating compact schema "
+                        + schema.getTypeName(), e);
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof MemberLeftException || e.getCause() instanceof TargetNotMemberException)) {
+                    throw new HazelcastSerializationException("Could not replicate compact schema "
+                            + schema.getTypeName(), e.getCause());
+                }
+            } catch (TimeoutException e) {
+                throw new HazelcastSerializationException("Timed out replicating compact schema "
+                        + schema.getTypeName(), e);
+            }
+        }
+    }
+
+    @Override
+    public Schema fetch(long schemaId) {
+        if (isOperationThread()) {
+            if (pendingFetches.add(schemaId)) {
+                List<CompletableFuture<Schema>> futures = fetchFromMembers(schemaId);
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                        .whenCompleteAsync((ignored, t) -> pendingFetches.remove(schemaId), CALLER_RUNS);
+            }
+            throw new RetryableHazelcastException("Compact schema " + schemaId + " is being fetched");
+        }
+
+        long deadline = System.nanoTime() + SECONDS.toNanos(FETCH_TIMEOUT_SECONDS);
+        for (CompletableFuture<Schema> future : fetchFromMembers(schemaId)) {
+            try {
+                Schema schema = future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+                if (schema != null) {
+                    return schema;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | TimeoutException e) {
+                logger.fine("Could not fetch compact schema " + schemaId, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Asks all the other members for the schema in parallel. The schema is
+     * registered locally as soon as one of them responds with it.
+     */
+    private List<CompletableFuture<Schema>> fetchFromMembers(long schemaId) {
+        OperationService operationService = nodeEngine.getOperationService();
+        List<CompletableFuture<Schema>> futures = new ArrayList<>();
+        for (Member member : nodeEngine.getClusterService().getMembers()) {
+            if (!member.localMember()) {
+                CompletableFuture<Schema> future = operationService.invokeOnTarget(SERVICE_NAME,
+                        new FetchSchemaOperation(schemaId), member.getAddress());
+                future.whenCompleteAsync((schema, t) -> {
+                    if (schema != null) {
+                        registry.putSchema(schema);
+                    }
+                }, CALLER_RUNS);
+                futures.add(future);
+            }
+        }
+        return futures;
+    }
+
+    private static boolean isOperationThread() {
+        return Thread.currentThread() instanceof OperationThread;
+    }
+
+    @Override
+    public Operation getPostJoinOperation() {
+        Collection<Schema> schemas = new ArrayList<>(registry.getSchemas());
+        return schemas.isEmpty() ? null : new PutSchemasOperation(schemas);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.internal.util.HashUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Schema of a compact serialized type.
+ * <p>
+ * The serialized form of a compact object is laid out as:
+ * <pre>
+ * | schema ID (8) | length (4) | fixed-size fields | variable-size fields | offset table (4 * variable-size field count) |
+ * </pre>
+ * where the length covers everything after the length itself. Fixed-size
+ * fields are sorted by decreasing size and then by name, so each of them
+ * resides at a fixed offset. Variable-size fields are sorted by name and
+ * their offsets relative to the start of the fixed-size section are kept in
+ * the offset table; {@code -1} denotes a {@code null} value.
+ * <p>
+ * The layout is derived solely from the type name and the field names and
+ * kinds, so only those are replicated and the schema ID is a fingerprint of
+ * them.
+ */
+public final class Schema implements IdentifiedDataSerializable {
+
+    /**
+     * Offset of the length relative to the start of a serialized compact object.
+     */
+    public static final int LENGTH_OFFSET = 8;
+
+    /**
+     * Offset of the fixed-size section relative to the start of a serialized
+     * compact object. Offsets in the offset table are relative to it.
+     */
+    public static final int FIELDS_OFFSET = 12;
+
+    private static final Comparator<FieldDescriptor> FIXED_SIZE_ORDER = (f1, f2) -> {
+        int result = Integer.compare(f2.getKind().size(), f1.getKind().size());
+        return result != 0 ? result : f1.getName().compareTo(f2.getName());
+    };
+
+    private String typeName;
+    private FieldDescriptor[] fields;
+    private Map<String, FieldDescriptor> fieldsByName;
+    private long schemaId;
+    private int fixedSize;
+    private int variableFieldCount;
+
+    public Schema() {
+    }
+
+    public Schema(String typeName, Map<String, FieldKind> fieldKinds) {
+        this.typeName = typeName;
+        layout(fieldKinds);
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public long getSchemaId() {
+        return schemaId;
+    }
+
+    /**
+     * @return the fields in their serialized order: the fixed-size fields
+     * first followed by the variable-size fields
+     */
+    public List<FieldDescriptor> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    /**
+     * @return the field with the given name or {@code null} if this schema
+     * has no such field
+     */
+    public FieldDescriptor getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    public int getVariableFieldCount() {
+        return variableFieldCount;
+    }
+
+    private void layout(Map<String, FieldKind> fieldKinds) {
+        List<FieldDescriptor> fixedSizeFields = new ArrayList<>();
+        List<String> variableSizeFields = new ArrayList<>();
+        for (Map.Entry<String, FieldKind> entry : fieldKinds.entrySet()) {
+            if (entry.getValue().isFixedSize()) {
+                fixedSizeFields.add(new FieldDescriptor(entry.getKey(), entry.getValue(), 0));
+            } else {
+                variableSizeFields.add(entry.getKey());
+            }
+        }
+        fixedSizeFields.sort(FIXED_SIZE_ORDER);
+        Collections.sort(variableSizeFields);
+
+        fields = new FieldDescriptor[fieldKinds.size()];
+        fieldsByName = createHashMap(fieldKinds.size());
+        int index = 0;
+        int offset = 0;
+        for (FieldDescriptor field : fixedSizeFields) {
+            addField(index++, new FieldDescriptor(field.getName(), field.getKind(), offset));
+            offset += field.getKind().size();
+        }
+        fixedSize = offset;
+        variableFieldCount = variableSizeFields.size();
+        for (int i = 0; i < variableFieldCount; i++) {
+            String name = variableSizeFields.get(i);
+            addField(index++, new FieldDescriptor(name, fieldKinds.get(name), i));
+        }
+        schemaId = fingerprint();
+    }
+
+    private void addField(int index, FieldDescriptor field) {
+        fields[index] = field;
+        fieldsByName.put(field.getName(), field);
+    }
+
+    private long fingerprint() {
+        StringBuilder sb = new StringBuilder(typeName);
+        for (FieldDescriptor field : fields) {
+            sb.append('|').append(field.getName()).append(':').append(field.getKind().ordinal());
+        }
+        byte[] bytes = sb.toString().getBytes(UTF_8);
+        return HashUtil.MurmurHash3_x64_64(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SchemaDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SchemaDataSerializerHook.SCHEMA;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(typeName);
+        out.writeInt(fields.length);
+        for (FieldDescriptor field : fields) {
+            out.writeUTF(field.getName());
+            out.writeByte(field.getKind().ordinal());
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        typeName = in.readUTF();
+        int fieldCount = in.readInt();
+        Map<String, FieldKind> fieldKinds = createHashMap(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            String name = in.readUTF();
+            fieldKinds.put(name, FieldKind.get(in.readByte()));
+        }
+        layout(fieldKinds);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Schema that = (Schema) o;
+        return schemaId == that.schemaId && typeName.equals(that.typeName) && Arrays.equals(fields, that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (schemaId ^ (schemaId >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "Schema{"
+                + "typeName='" + typeName + '\''
+                + ", schemaId=" + schemaId
+                + ", fields=" + Arrays.toString(fields)
+                + '}';
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the compact {@link Schema schemas} known to a serialization
+ * service.
+ * <p>
+ * Schemas of local classes are registered when an instance of the class is
+ * serialized for the first time and published through the
+ * {@link SchemaReplicator}, if one is set, before the serialized form is
+ * handed out. Unknown schemas met during deserialization or field access
+ * are fetched through the replicator.
+ */
+public final class SchemaRegistry {
+
+    private final ConcurrentMap<Long, Schema> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, CompactClassBinding> bindings = new ConcurrentHashMap<>();
+    private volatile SchemaReplicator replicator;
+
+    public void setReplicator(SchemaReplicator replicator) {
+        this.replicator = replicator;
+    }
+
+    /**
+     * Returns the schema with the given ID, fetching it through the
+     * replicator if it is not known locally.
+     *
+     * @throws HazelcastSerializationException if the schema is not known
+     */
+    public Schema getSchema(long schemaId) {
+        Schema schema = schemas.get(schemaId);
+        if (schema != null) {
+            return schema;
+        }
+        SchemaReplicator replicator = this.replicator;
+        if (replicator != null) {
+            schema = replicator.fetch(schemaId);
+            if (schema != null) {
+                putSchema(schema);
+                return schema;
+            }
+        }
+        throw new HazelcastSerializationException("Unknown compact schema ID " + schemaId);
+    }
+
+    /**
+     * @return the schema with the given ID or {@code null} if it is not
+     * known locally
+     */
+    public Schema getLocalSchema(long schemaId) {
+        return schemas.get(schemaId);
+    }
+
+    /**
+     * Registers the given schema locally without publishing it.
+     *
+     * @return {@code true} if the schema was not known before
+     */
+    public boolean putSchema(Schema schema) {
+        return schemas.putIfAbsent(schema.getSchemaId(), schema) == null;
+    }
+
+    public Collection<Schema> getSchemas() {
+        return schemas.values();
+    }
+
+    CompactClassBinding bindingFor(Class<?> clazz) {
+        CompactClassBinding binding = bindings.get(clazz);
+        if (binding != null) {
+            return binding;
+        }
+        binding = CompactClassBinding.of(clazz);
+        Schema schema = binding.getSchema();
+        putSchema(schema);
+        SchemaReplicator replicator = this.replicator;
+        if (replicator != null) {
+            // the binding is cached only once the schema is published, so a
+            // failed publication is retried by the next serialization
+            replicator.replicate(schema);
+        }
+        CompactClassBinding current = bindings.putIfAbsent(clazz, binding);
+        return current != null ? current : binding;
+    }
+}
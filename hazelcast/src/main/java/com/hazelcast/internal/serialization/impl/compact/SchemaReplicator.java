@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+/**
+ * Makes compact schemas registered on one cluster member available on the
+ * others.
+ */
+public interface SchemaReplicator {
+
+    /**
+     * Publishes a schema that has just been registered locally. Returns once
+     * the other members have acknowledged the schema, so that the data
+     * serialized with it never reaches a member that doesn't know it. The
+     * only exception is a call from an operation thread, which must not
+     * wait for remote calls; the schema is then published asynchronously.
+     *
+     * @param schema the registered schema
+     * @throws com.hazelcast.nio.serialization.HazelcastSerializationException if the schema could not be published
+     */
+    void replicate(Schema schema);
+
+    /**
+     * Looks up a schema that is not known locally. On operation threads,
+     * which must not wait for remote calls, the lookup is started
+     * asynchronously and a {@link com.hazelcast.spi.exception.RetryableException}
+     * is thrown so that the operation is retried once the schema arrives.
+     *
+     * @param schemaId the ID of the schema
+     * @return the schema or {@code null} if it is not known anywhere
+     */
+    Schema fetch(long schemaId);
+}
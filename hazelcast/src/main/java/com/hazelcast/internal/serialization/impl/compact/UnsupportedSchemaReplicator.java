@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+/**
+ * Rejects compact serialization where the schemas can't be shared with the
+ * cluster members, that is on clients.
+ */
+public final class UnsupportedSchemaReplicator implements SchemaReplicator {
+
+    public static final UnsupportedSchemaReplicator INSTANCE = new UnsupportedSchemaReplicator();
+
+    private UnsupportedSchemaReplicator() {
+    }
+
+    @Override
+    public void replicate(Schema schema) {
+        throw new HazelcastSerializationException("Compact serialization is supported on members only, "
+                + "can't serialize " + schema.getTypeName() + " on a client");
+    }
+
+    @Override
+    public Schema fetch(long schemaId) {
+        throw new HazelcastSerializationException("Compact serialization is supported on members only, "
+                + "can't deserialize the data of compact schema " + schemaId + " on a client");
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.util;
 
+import com.hazelcast.internal.util.collection.TopKCollector;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.impl.CachedQueryEntry;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -148,6 +149,24 @@ public final class SortingUtil {
         return list;
     }
 
+    /**
+     * Creates a collector of the entries which may appear on the requested
+     * page of the given paging predicate or on the pages between the nearest
+     * anchor and the requested one. Collecting the entries instead of sorting
+     * all of them bounds the memory and time spent on entries which can't
+     * appear on the page.
+     *
+     * @param pagingPredicate    the paging predicate
+     * @param nearestAnchorEntry the nearest anchor entry of the paging predicate
+     * @return the created collector
+     */
+    public static TopKCollector<QueryableEntry> newTopKCollector(PagingPredicate pagingPredicate,
+                                                                 Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        PagingPredicateImpl pagingPredicateImpl = (PagingPredicateImpl) pagingPredicate;
+        long limit = pagingPredicate.getPageSize() * ((long) pagingPredicate.getPage() - nearestAnchorEntry.getKey());
+        return new TopKCollector<>(newComparator(pagingPredicateImpl), (int) Math.min(limit, Integer.MAX_VALUE));
+    }
+
     @SuppressWarnings("unchecked")
     public static ResultSet getSortedQueryResultSet(List<Map.Entry> list,
                                                     PagingPredicate pagingPredicate, IterationType iterationType) {
@@ -0,0 +1,563 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util.collection;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * B+tree of {@code (long value, int id)} pairs ordered by the value first and
+ * by the id second, so the same value may be stored with many ids.
+ * <p>
+ * Nodes keep their keys in primitive arrays: no object is allocated per
+ * entry, and range scans walk the linked leaves sequentially instead of
+ * chasing a reference per entry.
+ * <p>
+ * Not thread-safe.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class LongIntBPlusTree {
+
+    /**
+     * Default maximum number of keys per node.
+     */
+    public static final int DEFAULT_NODE_CAPACITY = 64;
+
+    private static final int MIN_NODE_CAPACITY = 4;
+
+    private final int nodeCapacity;
+    private final int minNodeSize;
+
+    private Node root;
+    private int size;
+
+    // the result of the last split, kept in fields to avoid allocating per split
+    private Node splitNode;
+    private long splitValue;
+    private int splitId;
+
+    public LongIntBPlusTree() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    public LongIntBPlusTree(int nodeCapacity) {
+        checkTrue(nodeCapacity >= MIN_NODE_CAPACITY, "nodeCapacity must be at least " + MIN_NODE_CAPACITY);
+        this.nodeCapacity = nodeCapacity;
+        this.minNodeSize = nodeCapacity / 2;
+        this.root = new Leaf(nodeCapacity);
+    }
+
+    /**
+     * @return the number of pairs in this tree
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return {@code true} if the given pair is in this tree, {@code false} otherwise
+     */
+    public boolean contains(long value, int id) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(value, id)];
+        }
+        return node.search(value, id) >= 0;
+    }
+
+    /**
+     * Inserts the given pair.
+     *
+     * @return {@code true} if the pair was inserted, {@code false} if it was already present
+     */
+    public boolean insert(long value, int id) {
+        if (!insert(root, value, id)) {
+            return false;
+        }
+        if (splitNode != null) {
+            Inner newRoot = new Inner(nodeCapacity);
+            newRoot.children[0] = root;
+            newRoot.insertAt(0, splitValue, splitId, splitNode);
+            root = newRoot;
+            splitNode = null;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the given pair.
+     *
+     * @return {@code true} if the pair was removed, {@code false} if it was not present
+     */
+    public boolean remove(long value, int id) {
+        if (!remove(root, value, id)) {
+            return false;
+        }
+        if (root instanceof Inner && root.size == 0) {
+            root = ((Inner) root).children[0];
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Passes the ids of all pairs with a value within the given range to the
+     * given consumer, in ascending order.
+     */
+    public void forEachInRange(long from, boolean fromInclusive, long to, boolean toInclusive, IntConsumer consumer) {
+        int fromId = fromInclusive ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(from, fromId)];
+        }
+
+        Leaf leaf = (Leaf) node;
+        int pos = leaf.search(from, fromId);
+        pos = pos >= 0 ? pos : -pos - 1;
+        while (leaf != null) {
+            for (; pos < leaf.size; pos++) {
+                long value = leaf.values[pos];
+                if (value > to || value == to && !toInclusive) {
+                    return;
+                }
+                if (value != from || fromInclusive) {
+                    consumer.accept(leaf.ids[pos]);
+                }
+            }
+            leaf = leaf.next;
+            pos = 0;
+        }
+    }
+
+    /**
+     * Passes the ids of all pairs with the given value to the given consumer.
+     */
+    public void forEachEqual(long value, IntConsumer consumer) {
+        forEachInRange(value, true, value, true, consumer);
+    }
+
+    /**
+     * Passes the ids of all pairs to the given consumer, ordered by value.
+     */
+    public void forEach(IntConsumer consumer) {
+        forEachInRange(Long.MIN_VALUE, true, Long.MAX_VALUE, true, consumer);
+    }
+
+    /**
+     * Passes the ids of all pairs with a value greater or equal to the given
+     * one to the given visitor, in ascending order, until the visitor returns
+     * {@code false}.
+     *
+     * @return {@code false} if the visitor stopped the walk, {@code true} otherwise
+     */
+    public boolean forEachAscending(long from, IntPredicate visitor) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(from, Integer.MIN_VALUE)];
+        }
+
+        Leaf leaf = (Leaf) node;
+        int pos = leaf.search(from, Integer.MIN_VALUE);
+        pos = pos >= 0 ? pos : -pos - 1;
+        while (leaf != null) {
+            for (; pos < leaf.size; pos++) {
+                if (!visitor.test(leaf.ids[pos])) {
+                    return false;
+                }
+            }
+            leaf = leaf.next;
+            pos = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Passes the ids of all pairs with a value less or equal to the given one
+     * to the given visitor, in descending order, until the visitor returns
+     * {@code false}.
+     * <p>
+     * Leaves are linked in the ascending direction only, so the walk descends
+     * from the root for every leaf it visits.
+     *
+     * @return {@code false} if the visitor stopped the walk, {@code true} otherwise
+     */
+    public boolean forEachDescending(long from, IntPredicate visitor) {
+        return forEachDescending(root, from, visitor);
+    }
+
+    /**
+     * Passes all pairs to the given visitor, ordered by value, until the
+     * visitor returns {@code false}.
+     *
+     * @return {@code false} if the visitor stopped the walk, {@code true} otherwise
+     */
+    public boolean forEachPair(PairVisitor visitor) {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.next) {
+            for (int pos = 0; pos < leaf.size; pos++) {
+                if (!visitor.visit(leaf.values[pos], leaf.ids[pos])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        root = new Leaf(nodeCapacity);
+        size = 0;
+    }
+
+    private boolean insert(Node node, long value, int id) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int pos = leaf.search(value, id);
+            if (pos >= 0) {
+                return false;
+            }
+            leaf.insertAt(-pos - 1, value, id);
+            if (leaf.size > nodeCapacity) {
+                Leaf right = leaf.split();
+                splitNode = right;
+                splitValue = right.values[0];
+                splitId = right.ids[0];
+            }
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = inner.childIndex(value, id);
+        if (!insert(inner.children[childIndex], value, id)) {
+            return false;
+        }
+        if (splitNode != null) {
+            inner.insertAt(childIndex, splitValue, splitId, splitNode);
+            splitNode = null;
+            if (inner.size > nodeCapacity) {
+                // split() stores the separator pushed up into splitValue and splitId
+                splitNode = inner.split();
+            }
+        }
+        return true;
+    }
+
+    private boolean remove(Node node, long value, int id) {
+        if (node instanceof Leaf) {
+            int pos = node.search(value, id);
+            if (pos < 0) {
+                return false;
+            }
+            ((Leaf) node).removeAt(pos);
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int childIndex = inner.childIndex(value, id);
+        Node child = inner.children[childIndex];
+        if (!remove(child, value, id)) {
+            return false;
+        }
+        if (child.size < minNodeSize) {
+            rebalance(inner, childIndex);
+        }
+        return true;
+    }
+
+    private void rebalance(Inner parent, int childIndex) {
+        if (childIndex > 0 && parent.children[childIndex - 1].size > minNodeSize) {
+            borrowFromLeft(parent, childIndex);
+        } else if (childIndex < parent.size && parent.children[childIndex + 1].size > minNodeSize) {
+            borrowFromRight(parent, childIndex);
+        } else if (childIndex > 0) {
+            merge(parent, childIndex - 1);
+        } else if (childIndex < parent.size) {
+            merge(parent, childIndex);
+        }
+    }
+
+    private static void borrowFromLeft(Inner parent, int childIndex) {
+        Node left = parent.children[childIndex - 1];
+        Node child = parent.children[childIndex];
+        int last = left.size - 1;
+        if (child instanceof Leaf) {
+            ((Leaf) child).insertAt(0, left.values[last], left.ids[last]);
+            left.size--;
+            parent.values[childIndex - 1] = child.values[0];
+            parent.ids[childIndex - 1] = child.ids[0];
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner childInner = (Inner) child;
+            childInner.insertFirst(parent.values[childIndex - 1], parent.ids[childIndex - 1],
+                    leftInner.children[last + 1]);
+            parent.values[childIndex - 1] = left.values[last];
+            parent.ids[childIndex - 1] = left.ids[last];
+            leftInner.children[last + 1] = null;
+            left.size--;
+        }
+    }
+
+    private static void borrowFromRight(Inner parent, int childIndex) {
+        Node child = parent.children[childIndex];
+        Node right = parent.children[childIndex + 1];
+        if (child instanceof Leaf) {
+            ((Leaf) child).insertAt(child.size, right.values[0], right.ids[0]);
+            ((Leaf) right).removeAt(0);
+            parent.values[childIndex] = right.values[0];
+            parent.ids[childIndex] = right.ids[0];
+        } else {
+            Inner childInner = (Inner) child;
+            Inner rightInner = (Inner) right;
+            childInner.insertAt(child.size, parent.values[childIndex], parent.ids[childIndex], rightInner.children[0]);
+            parent.values[childIndex] = right.values[0];
+            parent.ids[childIndex] = right.ids[0];
+            rightInner.removeFirst();
+        }
+    }
+
+    /**
+     * Merges the child at {@code leftIndex + 1} into the child at {@code leftIndex}.
+     */
+    private static void merge(Inner parent, int leftIndex) {
+        Node left = parent.children[leftIndex];
+        Node right = parent.children[leftIndex + 1];
+        if (left instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            System.arraycopy(right.values, 0, left.values, left.size, right.size);
+            System.arraycopy(right.ids, 0, left.ids, left.size, right.size);
+            left.size += right.size;
+            leftLeaf.next = ((Leaf) right).next;
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            left.values[left.size] = parent.values[leftIndex];
+            left.ids[left.size] = parent.ids[leftIndex];
+            System.arraycopy(right.values, 0, left.values, left.size + 1, right.size);
+            System.arraycopy(right.ids, 0, left.ids, left.size + 1, right.size);
+            System.arraycopy(rightInner.children, 0, leftInner.children, left.size + 1, right.size + 1);
+            left.size += right.size + 1;
+        }
+        parent.removeAt(leftIndex);
+    }
+
+    private boolean forEachDescending(Node node, long from, IntPredicate visitor) {
+        if (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            for (int i = inner.childIndex(from, Integer.MAX_VALUE); i >= 0; i--) {
+                if (!forEachDescending(inner.children[i], from, visitor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int pos = node.search(from, Integer.MAX_VALUE);
+        // the last pair less or equal to (from, Integer.MAX_VALUE)
+        pos = pos >= 0 ? pos : -pos - 2;
+        for (; pos >= 0; pos--) {
+            if (!visitor.test(node.ids[pos])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int compare(long value1, int id1, long value2, int id2) {
+        int order = Long.compare(value1, value2);
+        return order != 0 ? order : Integer.compare(id1, id2);
+    }
+
+    /**
+     * Visitor of the (value, id) pairs of a tree.
+     */
+    @FunctionalInterface
+    public interface PairVisitor {
+
+        /**
+         * @return {@code true} to continue the walk, {@code false} to stop it
+         */
+        boolean visit(long value, int id);
+    }
+
+    private abstract static class Node {
+
+        // one spare slot, so a node can overflow before it's split
+        final long[] values;
+        final int[] ids;
+        int size;
+
+        Node(int capacity) {
+            values = new long[capacity + 1];
+            ids = new int[capacity + 1];
+        }
+
+        /**
+         * @return the index of the given pair if found, otherwise {@code -(insertion point) - 1}
+         */
+        int search(long value, int id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(values[mid], ids[mid], value, id);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private static final class Leaf extends Node {
+
+        Leaf next;
+
+        Leaf(int capacity) {
+            super(capacity);
+        }
+
+        void insertAt(int pos, long value, int id) {
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            values[pos] = value;
+            ids[pos] = id;
+            size++;
+        }
+
+        void removeAt(int pos) {
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+
+        Leaf split() {
+            Leaf right = new Leaf(values.length - 1);
+            int leftSize = size / 2;
+            right.size = size - leftSize;
+            System.arraycopy(values, leftSize, right.values, 0, right.size);
+            System.arraycopy(ids, leftSize, right.ids, 0, right.size);
+            size = leftSize;
+            right.next = next;
+            next = right;
+            return right;
+        }
+    }
+
+    /**
+     * Inner node with {@code size} separators and {@code size + 1} children.
+     * All pairs of {@code children[i]} are less than {@code values[i], ids[i]},
+     * all pairs of {@code children[i + 1]} are greater or equal.
+     */
+    private final class Inner extends Node {
+
+        final Node[] children;
+
+        Inner(int capacity) {
+            super(capacity);
+            children = new Node[capacity + 2];
+        }
+
+        int childIndex(long value, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(values[mid], ids[mid], value, id) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Inserts the separator at {@code pos} and the child right of it at {@code pos + 1}.
+         */
+        void insertAt(int pos, long value, int id, Node rightChild) {
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            System.arraycopy(children, pos + 1, children, pos + 2, size - pos);
+            values[pos] = value;
+            ids[pos] = id;
+            children[pos + 1] = rightChild;
+            size++;
+        }
+
+        void insertFirst(long value, int id, Node leftChild) {
+            System.arraycopy(values, 0, values, 1, size);
+            System.arraycopy(ids, 0, ids, 1, size);
+            System.arraycopy(children, 0, children, 1, size + 1);
+            values[0] = value;
+            ids[0] = id;
+            children[0] = leftChild;
+            size++;
+        }
+
+        /**
+         * Removes the separator at {@code pos} and the child right of it.
+         */
+        void removeAt(int pos) {
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            System.arraycopy(children, pos + 2, children, pos + 1, size - pos - 1);
+            children[size] = null;
+            size--;
+        }
+
+        void removeFirst() {
+            System.arraycopy(values, 1, values, 0, size - 1);
+            System.arraycopy(ids, 1, ids, 0, size - 1);
+            System.arraycopy(children, 1, children, 0, size);
+            children[size] = null;
+            size--;
+        }
+
+        Inner split() {
+            Inner right = new Inner(nodeCapacity);
+            int mid = size / 2;
+            splitValue = values[mid];
+            splitId = ids[mid];
+            right.size = size - mid - 1;
+            System.arraycopy(values, mid + 1, right.values, 0, right.size);
+            System.arraycopy(ids, mid + 1, right.ids, 0, right.size);
+            System.arraycopy(children, mid + 1, right.children, 0, right.size + 1);
+            for (int i = mid + 1; i <= size; i++) {
+                children[i] = null;
+            }
+            size = mid;
+            return right;
+        }
+    }
+}
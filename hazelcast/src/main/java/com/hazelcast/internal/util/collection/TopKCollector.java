@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * Collects the smallest {@code limit} elements offered to it according to
+ * the given comparator.
+ * <p>
+ * The collected elements are kept in a max-heap, so offering an element
+ * takes {@code O(log limit)} time and the memory footprint is bounded by the
+ * limit regardless of the number of offered elements.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <E> the type of the collected elements
+ */
+public final class TopKCollector<E> {
+
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    private final Comparator<? super E> comparator;
+    private final int limit;
+    private final PriorityQueue<E> heap;
+
+    public TopKCollector(Comparator<? super E> comparator, int limit) {
+        checkPositive(limit, "limit must be positive");
+        this.comparator = comparator;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(Math.min(limit, INITIAL_HEAP_CAPACITY), Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Offers the given element to this collector.
+     *
+     * @return {@code true} if the element was collected, {@code false} if
+     * {@code limit} smaller elements were already collected
+     */
+    public boolean offer(E element) {
+        if (heap.size() < limit) {
+            heap.offer(element);
+            return true;
+        }
+        if (comparator.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(element);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of collected elements
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the collected elements in ascending order
+     */
+    public List<E> toSortedList() {
+        List<E> list = new ArrayList<>(heap);
+        list.sort(comparator);
+        return list;
+    }
+}
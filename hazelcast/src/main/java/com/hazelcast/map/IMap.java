@@ -26,6 +26,7 @@ import com.hazelcast.core.ReadOnly;
 import com.hazelcast.map.listener.MapListener;
 import com.hazelcast.map.listener.MapPartitionLostListener;
 import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.IndexUtils;
 import com.hazelcast.spi.properties.ClusterProperty;
@@ -33,12 +34,17 @@ import com.hazelcast.spi.properties.ClusterProperty;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Concurrent, distributed, observable and queryable map.
@@ -2345,6 +2351,98 @@ public interface IMap<K, V> extends ConcurrentMap<K, V>, BaseMap<K, V> {
      */
     Collection<V> values(@Nonnull Predicate<K, V> predicate);
 
+    /**
+     * Queries the map based on the specified predicate and returns an iterator
+     * streaming the projections of the matching entries.
+     * <p>
+     * Unlike {@link #entrySet(Predicate)} and {@link #values(Predicate)}, the
+     * result is never materialized as a whole, neither on the members nor on
+     * the caller. The partitions are scanned one after another and the results
+     * are fetched in batches of about {@code fetchSize} entries. The request for
+     * the next batch is sent as soon as the previous batch arrives, and no more
+     * than a single request is in flight at any time, so the memory used by the
+     * iteration is bounded by the batch size instead of the result size. The
+     * underlying implementation may send more results in one batch than
+     * {@code fetchSize} if it needs to get to a "safepoint" to later resume
+     * iteration.
+     * <p>
+     * Predicates of type {@link com.hazelcast.query.PagingPredicate} are not
+     * supported. If the predicate is a
+     * {@link com.hazelcast.query.PartitionPredicate}, only the partition owning
+     * its partition key is scanned. The {@link Iterator#remove()} method is not
+     * supported and will throw an {@link UnsupportedOperationException}.
+     * <p>
+     * <b>NOTE</b>
+     * The iteration may be done when the map is being mutated or when there are
+     * membership changes. The iterator does not reflect the state when it has
+     * been constructed - it may return some entries that were added after the
+     * iteration has started and may not return some entries that were removed
+     * after iteration has started.
+     * The iterator will not, however, skip an entry if it has not been changed
+     * and will not return an entry twice.
+     * <p>
+     * The default implementation does not stream: it runs the query with
+     * {@link #project(Projection, Predicate)} and iterates over the complete
+     * result. The Hazelcast member and client proxies override it to fetch
+     * the results in batches.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param predicate  specified query criteria
+     * @param projection the projection to apply to the matching entries
+     * @param <R>        the type of the projected results
+     * @return the iterator for the projected results of the query
+     * @throws NullPointerException     if the predicate or the projection is {@code null}
+     * @throws IllegalArgumentException if the predicate is of type {@link com.hazelcast.query.PagingPredicate}
+     *                                  or the {@code fetchSize} is not positive
+     * @since 4.1
+     */
+    default <R> Iterator<R> queryIterator(int fetchSize, @Nonnull Predicate<K, V> predicate,
+                                          @Nonnull Projection<? super Map.Entry<K, V>, R> projection) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("fetchSize should be positive");
+        }
+        return project(projection, predicate).iterator();
+    }
+
+    /**
+     * Queries the map based on the specified predicate and returns an iterator
+     * streaming the matching entries, see
+     * {@link #queryIterator(int, Predicate, Projection)}.
+     *
+     * @param fetchSize the size of the batches which will be sent when iterating the data
+     * @param predicate specified query criteria
+     * @return the iterator for the matching entries
+     * @throws NullPointerException     if the predicate is {@code null}
+     * @throws IllegalArgumentException if the predicate is of type {@link com.hazelcast.query.PagingPredicate}
+     *                                  or the {@code fetchSize} is not positive
+     * @since 4.1
+     */
+    default Iterator<Map.Entry<K, V>> queryIterator(int fetchSize, @Nonnull Predicate<K, V> predicate) {
+        return queryIterator(fetchSize, predicate, Projections.identity());
+    }
+
+    /**
+     * Queries the map based on the specified predicate and returns a sequential
+     * stream of the projections of the matching entries. The stream is backed by
+     * {@link #queryIterator(int, Predicate, Projection)}, so the results are
+     * fetched lazily in batches while the stream is consumed.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param predicate  specified query criteria
+     * @param projection the projection to apply to the matching entries
+     * @param <R>        the type of the projected results
+     * @return the stream of the projected results of the query
+     * @throws NullPointerException     if the predicate or the projection is {@code null}
+     * @throws IllegalArgumentException if the predicate is of type {@link com.hazelcast.query.PagingPredicate}
+     *                                  or the {@code fetchSize} is not positive
+     * @since 4.1
+     */
+    default <R> Stream<R> queryStream(int fetchSize, @Nonnull Predicate<K, V> predicate,
+                                      @Nonnull Projection<? super Map.Entry<K, V>, R> projection) {
+        Iterator<R> iterator = queryIterator(fetchSize, predicate, projection);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
     /**
      * Returns the locally owned immutable set of keys.
      * <p>
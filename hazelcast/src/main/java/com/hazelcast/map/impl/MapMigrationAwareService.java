@@ -17,7 +17,8 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
-import com.hazelcast.internal.partition.FragmentedMigrationAwareService;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DeltaReplicationAwareService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
 import com.hazelcast.internal.partition.PartitionReplicationEvent;
@@ -25,6 +26,8 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
 import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.impl.operation.IndexKeyRuns;
+import com.hazelcast.map.impl.operation.MapChunkSupplier;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
@@ -37,6 +40,9 @@ import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeView;
 
 import java.util.Collection;
 import java.util.function.Predicate;
@@ -46,13 +52,14 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sendEndOfSequenceEvents;
+import static java.util.Collections.singleton;
 
 /**
  * Defines migration behavior of map service.
  *
  * @see MapService
  */
-class MapMigrationAwareService implements FragmentedMigrationAwareService {
+class MapMigrationAwareService implements ChunkedMigrationAwareService, DeltaReplicationAwareService {
 
     protected final PartitionContainer[] containers;
     protected final MapServiceContext mapServiceContext;
@@ -134,6 +141,55 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
         return operation;
     }
 
+    @Override
+    public ChunkSupplier newChunkSupplier(PartitionReplicationEvent event, ServiceNamespace namespace, int maxChunkBytes) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        PartitionContainer container = containers[event.getPartitionId()];
+        RecordStore<Record> recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null || recordStore.getMapContainer().getTotalBackupCount() < event.getReplicaIndex()) {
+            return null;
+        }
+        return new MapChunkSupplier(mapServiceContext, container, namespace, recordStore, event.getReplicaIndex(),
+                maxChunkBytes);
+    }
+
+    @Override
+    public MerkleTreeView getMerkleTree(int partitionId, ServiceNamespace namespace) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        RecordStore recordStore = containers[partitionId].getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        return recordStore == null ? null : recordStore.getMerkleTree();
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      MerkleTreeView replicaTree) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        PartitionContainer container = containers[event.getPartitionId()];
+        RecordStore recordStore = container.getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (recordStore == null || recordStore.getMapContainer().getTotalBackupCount() < event.getReplicaIndex()) {
+            return null;
+        }
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        if (merkleTree == null || merkleTree.depth() != replicaTree.depth()) {
+            return null;
+        }
+
+        Collection<Integer> deltaLeaves = MerkleTreeUtil.compareTrees(merkleTree, replicaTree);
+        int[] deltaLeafOrders = new int[deltaLeaves.size()];
+        int i = 0;
+        for (int leafOrder : deltaLeaves) {
+            deltaLeafOrders[i++] = leafOrder;
+        }
+        Operation operation = new MapReplicationOperation(container, singleton(namespace), event.getPartitionId(),
+                event.getReplicaIndex(), deltaLeafOrders);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        return operation;
+    }
+
     private boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
@@ -145,6 +201,7 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
     public void commitMigration(PartitionMigrationEvent event) {
         if (event.getMigrationEndpoint() == DESTINATION) {
             populateIndexes(event, TargetIndexes.GLOBAL);
+            mapServiceContext.getPartitionContainer(event.getPartitionId()).clearIndexKeyRuns();
         } else {
             depopulateIndexes(event);
         }
@@ -190,6 +247,7 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
             removeRecordStoresHavingLesserBackupCountThan(event.getPartitionId(),
                     event.getCurrentReplicaIndex());
             getMetaDataGenerator().removeUuidAndSequence(event.getPartitionId());
+            mapServiceContext.getPartitionContainer(event.getPartitionId()).clearIndexKeyRuns();
         }
 
         mapServiceContext.reloadOwnedPartitions();
@@ -277,15 +335,28 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
 
             InternalIndex[] indexesSnapshot = indexes.getIndexes();
 
-            recordStore.forEach((key, record) -> {
-                Object value = Records.getValueOrCachedValue(record, serializationService);
-                if (value != null) {
-                    QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
-                    queryEntry.setRecord(record);
-                    queryEntry.setStoreAdapter(storeAdapter);
-                    indexes.putEntry(queryEntry, null, Index.OperationSource.SYSTEM);
-                }
-            }, false);
+            InternalIndex[] unpopulatedIndexes = indexesSnapshot;
+            IndexKeyRuns keyRuns = container.removeIndexKeyRuns(recordStore.getName());
+            if (keyRuns != null && indexes.isGlobal()) {
+                // bulk-load the attribute values shipped by the migration source
+                unpopulatedIndexes = keyRuns.load(recordStore, mapContainer, storeAdapter, indexesSnapshot,
+                        serializationService);
+            }
+
+            if (unpopulatedIndexes.length > 0) {
+                InternalIndex[] populatedIndexes = unpopulatedIndexes;
+                recordStore.forEach((key, record) -> {
+                    Object value = Records.getValueOrCachedValue(record, serializationService);
+                    if (value != null) {
+                        QueryableEntry queryEntry = mapContainer.newQueryEntry(key, value);
+                        queryEntry.setRecord(record);
+                        queryEntry.setStoreAdapter(storeAdapter);
+                        for (InternalIndex index : populatedIndexes) {
+                            index.putEntry(queryEntry, null, Index.OperationSource.SYSTEM);
+                        }
+                    }
+                }, false);
+            }
 
             Indexes.markPartitionAsIndexed(event.getPartitionId(), indexesSnapshot);
         }
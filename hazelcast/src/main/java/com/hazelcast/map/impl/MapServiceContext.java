@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.internal.util.comparators.ValueComparator;
@@ -150,6 +151,15 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     MapEventJournal getEventJournal();
 
+    /**
+     * Returns the memory manager which backs the storage of
+     * {@link InMemoryFormat#NATIVE} maps on this member, it is
+     * created on first use with the configured native memory size.
+     *
+     * @return the native memory manager of this member
+     */
+    StandardMemoryManager getNativeMemoryManager();
+
     QueryEngine getQueryEngine(String name);
 
     QueryRunner getMapQueryRunner(String name);
@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.DataType;
@@ -58,6 +59,7 @@ import com.hazelcast.map.impl.query.AggregationResultProcessor;
 import com.hazelcast.map.impl.query.CallerRunsAccumulationExecutor;
 import com.hazelcast.map.impl.query.CallerRunsPartitionScanExecutor;
 import com.hazelcast.map.impl.query.ParallelAccumulationExecutor;
+import com.hazelcast.map.impl.query.ParallelIndexResultExecutor;
 import com.hazelcast.map.impl.query.ParallelPartitionScanExecutor;
 import com.hazelcast.map.impl.query.PartitionScanExecutor;
 import com.hazelcast.map.impl.query.PartitionScanRunner;
@@ -104,12 +106,14 @@ import static com.hazelcast.internal.util.SetUtil.immutablePartitionIdSet;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.isCostBased;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITION_ID;
 import static com.hazelcast.spi.properties.ClusterProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COPY_BEHAVIOR;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.QUERY_INDEX_PARALLELISM;
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
 import static java.lang.Thread.currentThread;
 
@@ -142,11 +146,12 @@ class MapServiceContextImpl implements MapServiceContext {
     private final PartitioningStrategyFactory partitioningStrategyFactory;
     private final NodeWideUsedCapacityCounter nodeWideUsedCapacityCounter;
     private final ConstructorFunction<String, MapContainer> mapConstructor;
-    private final IndexProvider indexProvider = new DefaultIndexProvider();
+    private final IndexProvider indexProvider;
     private final ContextMutexFactory contextMutexFactory = new ContextMutexFactory();
     private final AtomicReference<PartitionIdSet> ownedPartitions = new AtomicReference<>();
     private final ConcurrentMap<String, MapContainer> mapContainers = new ConcurrentHashMap<>();
 
+    private volatile StandardMemoryManager nativeMemoryManager;
     private MapService mapService;
 
     @SuppressWarnings("checkstyle:executablestatementcount")
@@ -163,6 +168,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.mapEventPublisher = createMapEventPublisherSupport();
         this.eventJournal = createEventJournal();
         this.queryOptimizer = newOptimizer(nodeEngine.getProperties());
+        this.indexProvider = new DefaultIndexProvider(isCostBased(nodeEngine.getProperties()));
         this.resultProcessorRegistry = createResultProcessorRegistry(serializationService);
         this.partitionScanRunner = createPartitionScanRunner();
         this.queryEngine = createMapQueryEngine();
@@ -243,7 +249,14 @@ class MapServiceContextImpl implements MapServiceContext {
     }
 
     private QueryResultProcessor createQueryResultProcessor(SerializationService ss) {
-        return new QueryResultProcessor(ss);
+        int parallelism = nodeEngine.getProperties().getInteger(QUERY_INDEX_PARALLELISM);
+        if (parallelism <= 1) {
+            return new QueryResultProcessor(ss);
+        }
+        int opTimeoutInMillis = nodeEngine.getProperties().getInteger(OPERATION_CALL_TIMEOUT_MILLIS);
+        ManagedExecutorService queryExecutorService = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
+        return new QueryResultProcessor(ss,
+                new ParallelIndexResultExecutor(queryExecutorService, parallelism, opTimeoutInMillis));
     }
 
     private AggregationResultProcessor createAggregationResultProcessor(SerializationService ss) {
@@ -447,6 +460,9 @@ class MapServiceContextImpl implements MapServiceContext {
         mapNearCacheManager.shutdown();
         mapContainers.clear();
         expirationManager.onShutdown();
+        if (nativeMemoryManager != null) {
+            nativeMemoryManager.dispose();
+        }
     }
 
     @Override
@@ -513,6 +529,20 @@ class MapServiceContextImpl implements MapServiceContext {
         return eventJournal;
     }
 
+    @Override
+    public StandardMemoryManager getNativeMemoryManager() {
+        StandardMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager != null) {
+            return memoryManager;
+        }
+        synchronized (this) {
+            if (nativeMemoryManager == null) {
+                nativeMemoryManager = new StandardMemoryManager(nodeEngine.getConfig().getNativeMemoryConfig().getSize());
+            }
+            return nativeMemoryManager;
+        }
+    }
+
     @Override
     public QueryEngine getQueryEngine(String mapName) {
         return queryEngine;
@@ -25,6 +25,7 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.ConcurrencyUtil;
 import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.internal.util.ContextMutexFactory;
+import com.hazelcast.map.impl.operation.IndexKeyRuns;
 import com.hazelcast.map.impl.operation.MapClearExpiredOperation;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.query.impl.Indexes;
@@ -37,7 +38,9 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -77,6 +80,12 @@ public class PartitionContainer {
      */
     private long lastCleanupTimeCopy;
 
+    /**
+     * Index key runs shipped by an incoming primary replica migration, staged
+     * until the migration is committed. Accessed by the partition thread only.
+     */
+    private final Map<String, IndexKeyRuns> indexKeyRuns = new HashMap<>();
+
     public PartitionContainer(final MapService mapService, final int partitionId) {
         this.mapService = mapService;
         this.partitionId = partitionId;
@@ -108,6 +117,18 @@ public class PartitionContainer {
         return recordStore;
     }
 
+    public void putIndexKeyRuns(String mapName, IndexKeyRuns runs) {
+        indexKeyRuns.put(mapName, runs);
+    }
+
+    public IndexKeyRuns removeIndexKeyRuns(String mapName) {
+        return indexKeyRuns.isEmpty() ? null : indexKeyRuns.remove(mapName);
+    }
+
+    public void clearIndexKeyRuns() {
+        indexKeyRuns.clear();
+    }
+
     public ConcurrentMap<String, RecordStore> getMaps() {
         return maps;
     }
@@ -54,6 +54,7 @@ public class EvictionChecker {
     private final ClusterService clusterService;
     private final PartitionContainer[] containers;
     private final MemoryInfoAccessor memoryInfoAccessor;
+    private final MapServiceContext mapServiceContext;
     private final MapNearCacheManager mapNearCacheManager;
     private final AtomicBoolean misconfiguredPerNodeMaxSizeWarningLogged;
 
@@ -68,6 +69,7 @@ public class EvictionChecker {
         this.partitionCount = nodeEngine.getPartitionService().getPartitionCount();
         this.mapNearCacheManager = mapServiceContext.getMapNearCacheManager();
         this.memoryInfoAccessor = givenMemoryInfoAccessor;
+        this.mapServiceContext = mapServiceContext;
 
         if (logger.isFinestEnabled()) {
             logger.finest("Used memoryInfoAccessor=" + this.memoryInfoAccessor.getClass().getCanonicalName());
@@ -101,6 +103,16 @@ public class EvictionChecker {
                 return (usedHeapInBytes(mapName) * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) > maxConfiguredSize;
             case FREE_HEAP_PERCENTAGE:
                 return (availableMemoryInBytes() * ONE_HUNDRED / Math.max(maxMemoryInBytes(), 1)) < maxConfiguredSize;
+            case USED_NATIVE_MEMORY_SIZE:
+                return ownedEntryCostInBytes(mapName) > MEGABYTES.toBytes(maxConfiguredSize);
+            case FREE_NATIVE_MEMORY_SIZE:
+                return freeNativeMemoryInBytes() < MEGABYTES.toBytes(maxConfiguredSize);
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return (ownedEntryCostInBytes(mapName) * ONE_HUNDRED / Math.max(maxNativeMemoryInBytes(), 1))
+                        > maxConfiguredSize;
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                return (freeNativeMemoryInBytes() * ONE_HUNDRED / Math.max(maxNativeMemoryInBytes(), 1))
+                        < maxConfiguredSize;
             default:
                 throw new IllegalArgumentException("Not an appropriate max size policy [" + maximumSizePolicy + ']');
         }
@@ -140,10 +152,7 @@ public class EvictionChecker {
     }
 
     private long usedHeapInBytes(String mapName) {
-        long usedHeapInBytes = 0L;
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
-            usedHeapInBytes += getRecordStoreHeapCost(mapName, containers[partitionId]);
-        }
+        long usedHeapInBytes = ownedEntryCostInBytes(mapName);
 
         NearCache nearCache = mapNearCacheManager.getNearCache(mapName);
         if (nearCache != null) {
@@ -154,6 +163,14 @@ public class EvictionChecker {
         return usedHeapInBytes;
     }
 
+    private long ownedEntryCostInBytes(String mapName) {
+        long ownedEntryCostInBytes = 0L;
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            ownedEntryCostInBytes += getRecordStoreHeapCost(mapName, containers[partitionId]);
+        }
+        return ownedEntryCostInBytes;
+    }
+
     private long getRecordStoreHeapCost(String mapName, PartitionContainer container) {
         RecordStore existingRecordStore = container.getExistingRecordStore(mapName);
         if (existingRecordStore == null) {
@@ -177,4 +194,12 @@ public class EvictionChecker {
     private long availableMemoryInBytes() {
         return freeMemoryInBytes() + maxMemoryInBytes() - totalMemoryInBytes();
     }
+
+    private long maxNativeMemoryInBytes() {
+        return mapServiceContext.getNativeMemoryManager().getMaxNative();
+    }
+
+    private long freeNativeMemoryInBytes() {
+        return mapServiceContext.getNativeMemoryManager().getFreeNative();
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.PartitionPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+
+/**
+ * Iterator streaming the result of a query over all partitions of a map.
+ * <p>
+ * Instead of materializing the whole query result on the members and on
+ * the caller, the partitions are scanned one after another and the matching
+ * entries are fetched in batches of roughly {@code fetchSize} results, in
+ * the same way as the single-partition {@link AbstractMapQueryPartitionIterator}
+ * does. As soon as a batch arrives the request for the following batch is
+ * sent, so the next batch is being prepared by the partition owner while the
+ * current one is consumed. There is never more than a single request in
+ * flight, which means the memory held by the iterator is bounded by two
+ * batches, regardless of the size of the whole result.
+ * <p>
+ * If the predicate is a {@link PartitionPredicate}, only the partition
+ * owning its partition key is scanned.
+ * <p>
+ * The {@link Iterator#remove()} method is not supported and will throw an
+ * {@link UnsupportedOperationException}.
+ * <b>NOTE</b>
+ * The iteration may be done when the map is being mutated or when there are
+ * membership changes. The iterator does not reflect the state when it has
+ * been constructed - it may return some entries that were added after the
+ * iteration has started and may not return some entries that were removed
+ * after iteration has started.
+ * The iterator will not, however, skip an entry if it has not been changed
+ * and will not return an entry twice.
+ *
+ * @param <K> the type of the map keys
+ * @param <V> the type of the map values
+ * @param <R> the type of the projected results
+ */
+public abstract class AbstractMapQueryIterator<K, V, R> implements Iterator<R> {
+
+    protected final String mapName;
+    protected final int fetchSize;
+    protected final Query query;
+
+    private final int partitionCount;
+    private final Object partitionKey;
+    private int[] partitionIds;
+    private int partitionIndex;
+    private boolean started;
+    private InternalCompletableFuture<Batch> pending;
+
+    private List<Data> segment;
+    private int index;
+
+    protected AbstractMapQueryIterator(String mapName, int fetchSize, int partitionCount,
+                                       Predicate<K, V> predicate,
+                                       Projection<? super Entry<K, V>, R> projection) {
+        this.mapName = mapName;
+        this.fetchSize = fetchSize;
+        this.partitionCount = partitionCount;
+        if (predicate instanceof PartitionPredicate) {
+            PartitionPredicate<K, V> partitionPredicate = (PartitionPredicate<K, V>) predicate;
+            this.partitionKey = partitionPredicate.getPartitionKey();
+            predicate = partitionPredicate.getTarget();
+        } else {
+            this.partitionKey = null;
+        }
+        this.query = Query.of()
+                          .mapName(mapName)
+                          .iterationType(IterationType.VALUE)
+                          .predicate(predicate)
+                          .projection(projection)
+                          .build();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (segment == null || index >= segment.size()) {
+            if (!advance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return getSerializationService().toObject(segment.get(index++));
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+    /**
+     * Waits for the pending batch, makes it the current segment and sends
+     * the request for the batch following it.
+     *
+     * @return {@code false} if all partitions have been exhausted,
+     * {@code true} otherwise
+     */
+    private boolean advance() {
+        if (!started) {
+            started = true;
+            partitionIds = partitionIds();
+            if (partitionIds.length > 0) {
+                pending = fetch(partitionIds[0], initialPointers());
+            }
+        }
+        if (pending == null) {
+            segment = null;
+            return false;
+        }
+
+        Batch batch = pending.joinInternal();
+        pending = null;
+        segment = batch.results;
+        index = 0;
+
+        IterationPointer[] pointers = batch.pointers;
+        if (isEmpty(segment) || pointers[pointers.length - 1].getIndex() < 0) {
+            if (++partitionIndex < partitionIds.length) {
+                pending = fetch(partitionIds[partitionIndex], initialPointers());
+            }
+        } else {
+            pending = fetch(partitionIds[partitionIndex], pointers);
+        }
+        return true;
+    }
+
+    private int[] partitionIds() {
+        if (partitionKey != null) {
+            return new int[]{getPartitionId(partitionKey)};
+        }
+        int[] ids = new int[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    private static IterationPointer[] initialPointers() {
+        return new IterationPointer[]{new IterationPointer(Integer.MAX_VALUE, -1)};
+    }
+
+    /**
+     * Sends the request for the next batch of query results of the given
+     * partition.
+     *
+     * @param partitionId the partition to fetch the results from
+     * @param pointers    the iteration state the batch starts from
+     * @return the future of the fetched batch
+     */
+    protected abstract InternalCompletableFuture<Batch> fetch(int partitionId, IterationPointer[] pointers);
+
+    protected abstract int getPartitionId(Object key);
+
+    protected abstract SerializationService getSerializationService();
+
+    /**
+     * A single batch of serialized query results along with the iteration
+     * state to resume the partition scan from.
+     */
+    protected static final class Batch {
+
+        final List<Data> results;
+        final IterationPointer[] pointers;
+
+        public Batch(List<Data> results, IterationPointer[] pointers) {
+            this.results = results;
+            this.pointers = pointers;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.operationservice.impl.InvocationFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * Member-side iterator streaming the result of a query over all partitions
+ * of a map.
+ *
+ * @see AbstractMapQueryIterator
+ */
+public class MapQueryIterator<K, V, R> extends AbstractMapQueryIterator<K, V, R> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+
+    public MapQueryIterator(MapProxyImpl<K, V> mapProxy, int fetchSize,
+                            Predicate<K, V> predicate,
+                            Projection<? super Entry<K, V>, R> projection) {
+        super(mapProxy.getName(), fetchSize, mapProxy.getNodeEngine().getPartitionService().getPartitionCount(),
+                predicate, projection);
+        this.mapProxy = mapProxy;
+    }
+
+    @Override
+    protected InternalCompletableFuture<Batch> fetch(int partitionId, IterationPointer[] pointers) {
+        MapOperation op = mapProxy.getOperationProvider()
+                                  .createFetchWithQueryOperation(mapName, pointers, fetchSize, query);
+        InvocationFuture<ResultSegment> future = mapProxy.getOperationService()
+                .createInvocationBuilder(mapProxy.getServiceName(), op, partitionId)
+                .invoke();
+        return future.thenApply(segment -> {
+            QueryResult queryResult = (QueryResult) segment.getResult();
+            List<Data> results = new ArrayList<>(queryResult.size());
+            for (QueryResultRow row : queryResult) {
+                results.add(row.getValue());
+            }
+            return new Batch(results, segment.getPointers());
+        });
+    }
+
+    @Override
+    protected int getPartitionId(Object key) {
+        return mapProxy.getNodeEngine().getPartitionService().getPartitionId(key);
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return mapProxy.getNodeEngine().getSerializationService();
+    }
+}
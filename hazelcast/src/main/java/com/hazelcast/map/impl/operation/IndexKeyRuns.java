@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Values of the indexed attributes of the entries of a single map partition,
+ * shipped by primary replica migrations alongside the records.
+ * <p>
+ * The migration destination stages the runs until the migration is committed
+ * and then bulk-loads them into its global indexes, instead of deserializing
+ * every migrated value and extracting the indexed attributes from it entry by
+ * entry while the migration is being finalized.
+ * <p>
+ * For every index the entries are grouped by their attribute value, so every
+ * distinct value is looked up in the index store just once; the groups of
+ * sorted indexes come in ascending value order. Entries are referenced by
+ * their ordinal in the replicated record sequence of the map.
+ * <p>
+ * Only non-composite hash and sorted indexes on attributes having plain
+ * scalar values are shipped, the rest of the indexes are populated the usual
+ * way.
+ */
+public final class IndexKeyRuns {
+
+    private static final Set<Class<?>> SHIPPABLE_TYPES = new HashSet<>(Arrays.asList(String.class, Boolean.class,
+            Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, UUID.class, Date.class, LocalDate.class, LocalTime.class,
+            LocalDateTime.class, OffsetDateTime.class));
+
+    private static final Object UNSHIPPABLE = new Object();
+
+    private final int entryCount;
+    private final String[] indexNames;
+    private final Object[][] values;
+    private final int[][] groupSizes;
+    private final int[][] ordinals;
+
+    private Data[] keys;
+
+    private IndexKeyRuns(int entryCount, String[] indexNames, Object[][] values, int[][] groupSizes, int[][] ordinals) {
+        this.entryCount = entryCount;
+        this.indexNames = indexNames;
+        this.values = values;
+        this.groupSizes = groupSizes;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * @return {@code true} if the given index can be shipped by migrations,
+     * {@code false} otherwise.
+     */
+    static boolean isShippable(InternalIndex index) {
+        IndexType type = index.getConfig().getType();
+        return (type == IndexType.HASH || type == IndexType.SORTED) && index.getComponents().length == 1;
+    }
+
+    /**
+     * Attaches the keys of the replicated records, so the runs can be
+     * resolved to the records once the migration is committed.
+     *
+     * @param keyRecords the replicated keys and records of the map, keys at
+     *                   even positions.
+     */
+    void attachKeys(List keyRecords) {
+        int count = keyRecords.size() / 2;
+        keys = new Data[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (Data) keyRecords.get(i * 2);
+        }
+    }
+
+    /**
+     * Bulk-loads the shipped attribute values into the given indexes.
+     * <p>
+     * Nothing is loaded if the record store doesn't hold exactly the
+     * replicated records anymore, for instance if some of them were evicted
+     * while the migration was being applied.
+     *
+     * @param recordStore          the record store of the migrated map.
+     * @param mapContainer         the map container of the migrated map.
+     * @param storeAdapter         the store adapter to attach to the indexed
+     *                             entries.
+     * @param indexes              the indexes to load.
+     * @param serializationService the serialization service.
+     * @return the indexes which were not loaded and have to be populated the
+     * usual way.
+     */
+    public InternalIndex[] load(RecordStore<Record> recordStore, MapContainer mapContainer, StoreAdapter storeAdapter,
+                                InternalIndex[] indexes, SerializationService serializationService) {
+        if (keys == null || keys.length != entryCount || recordStore.size() != entryCount) {
+            return indexes;
+        }
+
+        QueryableEntry[] entries = new QueryableEntry[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            Record record = recordStore.getRecord(keys[i]);
+            Object value = record == null ? null : Records.getValueOrCachedValue(record, serializationService);
+            if (value == null) {
+                return indexes;
+            }
+            QueryableEntry entry = mapContainer.newQueryEntry(keys[i], value);
+            entry.setRecord(record);
+            entry.setStoreAdapter(storeAdapter);
+            entries[i] = entry;
+        }
+
+        List<InternalIndex> remaining = new ArrayList<>();
+        for (InternalIndex index : indexes) {
+            int run = indexOf(index.getName());
+            if (run == -1 || !isShippable(index)) {
+                remaining.add(index);
+                continue;
+            }
+
+            int offset = 0;
+            for (int group = 0; group < values[run].length; group++) {
+                int size = groupSizes[run][group];
+                List<QueryableEntry> groupEntries = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    groupEntries.add(entries[ordinals[run][offset++]]);
+                }
+                index.putEntries(values[run][group], groupEntries);
+            }
+        }
+        return remaining.toArray(new InternalIndex[0]);
+    }
+
+    void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(entryCount);
+        out.writeInt(indexNames.length);
+        for (int run = 0; run < indexNames.length; run++) {
+            out.writeUTF(indexNames[run]);
+            out.writeInt(values[run].length);
+            for (Object value : values[run]) {
+                out.writeObject(value);
+            }
+            out.writeIntArray(groupSizes[run]);
+            out.writeIntArray(ordinals[run]);
+        }
+    }
+
+    static IndexKeyRuns readData(ObjectDataInput in) throws IOException {
+        int entryCount = in.readInt();
+        int runCount = in.readInt();
+        String[] indexNames = new String[runCount];
+        Object[][] values = new Object[runCount][];
+        int[][] groupSizes = new int[runCount][];
+        int[][] ordinals = new int[runCount][];
+        for (int run = 0; run < runCount; run++) {
+            indexNames[run] = in.readUTF();
+            values[run] = new Object[in.readInt()];
+            for (int group = 0; group < values[run].length; group++) {
+                values[run][group] = in.readObject();
+            }
+            groupSizes[run] = in.readIntArray();
+            ordinals[run] = in.readIntArray();
+        }
+        return new IndexKeyRuns(entryCount, indexNames, values, groupSizes, ordinals);
+    }
+
+    private int indexOf(String indexName) {
+        for (int run = 0; run < indexNames.length; run++) {
+            if (indexNames[run].equals(indexName)) {
+                return run;
+            }
+        }
+        return -1;
+    }
+
+    private static Object extractShippableValue(QueryableEntry entry, InternalIndex index) {
+        if (entry == null) {
+            return UNSHIPPABLE;
+        }
+        Object value;
+        try {
+            value = entry.getAttributeValue(index.getComponents()[0]);
+        } catch (RuntimeException e) {
+            // let the destination report the extraction failure
+            return UNSHIPPABLE;
+        }
+        return value == null || SHIPPABLE_TYPES.contains(value.getClass()) ? value : UNSHIPPABLE;
+    }
+
+    /**
+     * Collects the attribute values of the replicated records on the
+     * migration source.
+     */
+    static final class Builder {
+
+        private final MapContainer mapContainer;
+        private final InternalIndex[] indexes;
+        private final List<Map<Object, Group>> groups;
+
+        private int entryCount;
+
+        Builder(MapContainer mapContainer, InternalIndex[] candidates) {
+            this.mapContainer = mapContainer;
+            List<InternalIndex> indexes = new ArrayList<>(candidates.length);
+            for (InternalIndex index : candidates) {
+                if (isShippable(index)) {
+                    indexes.add(index);
+                }
+            }
+            this.indexes = indexes.toArray(new InternalIndex[0]);
+            this.groups = new ArrayList<>(this.indexes.length);
+            for (int i = 0; i < this.indexes.length; i++) {
+                groups.add(new HashMap<>());
+            }
+        }
+
+        /**
+         * Adds the next replicated record.
+         *
+         * @param key   the key of the record.
+         * @param value the value of the record.
+         */
+        void add(Data key, Object value) {
+            int ordinal = entryCount++;
+            QueryableEntry entry = value == null ? null : mapContainer.newQueryEntry(key, value);
+            for (int i = 0; i < indexes.length; i++) {
+                Map<Object, Group> indexGroups = groups.get(i);
+                if (indexGroups == null) {
+                    continue;
+                }
+
+                Object attributeValue = extractShippableValue(entry, indexes[i]);
+                if (attributeValue == UNSHIPPABLE) {
+                    // the index is populated the usual way on the destination
+                    groups.set(i, null);
+                } else {
+                    indexGroups.computeIfAbsent(attributeValue, v -> new Group()).add(ordinal);
+                }
+            }
+        }
+
+        /**
+         * @return the collected runs or {@code null} if there is nothing to
+         * ship.
+         */
+        IndexKeyRuns build() {
+            List<String> indexNames = new ArrayList<>(indexes.length);
+            List<Object[]> values = new ArrayList<>(indexes.length);
+            List<int[]> groupSizes = new ArrayList<>(indexes.length);
+            List<int[]> ordinals = new ArrayList<>(indexes.length);
+            for (int i = 0; i < indexes.length; i++) {
+                Map<Object, Group> indexGroups = groups.get(i);
+                if (indexGroups == null) {
+                    continue;
+                }
+
+                Object[] indexValues = indexGroups.keySet().toArray();
+                if (indexes[i].isOrdered() && !sort(indexValues)) {
+                    continue;
+                }
+
+                int[] indexGroupSizes = new int[indexValues.length];
+                int[] indexOrdinals = new int[entryCount];
+                int offset = 0;
+                for (int group = 0; group < indexValues.length; group++) {
+                    Group g = indexGroups.get(indexValues[group]);
+                    System.arraycopy(g.ordinals, 0, indexOrdinals, offset, g.size);
+                    indexGroupSizes[group] = g.size;
+                    offset += g.size;
+                }
+
+                indexNames.add(indexes[i].getName());
+                values.add(indexValues);
+                groupSizes.add(indexGroupSizes);
+                ordinals.add(indexOrdinals);
+            }
+
+            if (indexNames.isEmpty()) {
+                return null;
+            }
+            return new IndexKeyRuns(entryCount, indexNames.toArray(new String[0]), values.toArray(new Object[0][]),
+                    groupSizes.toArray(new int[0][]), ordinals.toArray(new int[0][]));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static boolean sort(Object[] values) {
+            try {
+                Arrays.sort(values, (lhs, rhs) -> {
+                    if (lhs == null || rhs == null) {
+                        return lhs == null ? (rhs == null ? 0 : -1) : 1;
+                    }
+                    return Comparables.compare((Comparable) lhs, (Comparable) rhs);
+                });
+                return true;
+            } catch (ClassCastException | IllegalArgumentException e) {
+                // mutually incomparable values, let the destination report them
+                return false;
+            }
+        }
+    }
+
+    private static final class Group {
+
+        private int[] ordinals = new int[1];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size << 1);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+}
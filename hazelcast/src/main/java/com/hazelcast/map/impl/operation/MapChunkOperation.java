@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.nio.IOUtil;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replicates a chunk of the records of a map partition during a chunked
+ * migration. The chunks of a map are preceded by a {@link MapReplicationOperation}
+ * which replicates everything but the records of the map.
+ *
+ * @see MapChunkSupplier
+ */
+public class MapChunkOperation extends Operation implements IdentifiedDataSerializable {
+
+    private String mapName;
+    // [key, record, value] triples on the migration source
+    private transient List<Object> entries;
+    // [key, record] pairs on the migration destination
+    private transient List<Object> keyRecords;
+
+    private transient NativeOutOfMemoryError oome;
+
+    public MapChunkOperation() {
+    }
+
+    MapChunkOperation(String mapName, List<Object> entries, int partitionId, int replicaIndex) {
+        this.mapName = mapName;
+        this.entries = entries;
+        setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+    }
+
+    @Override
+    public void run() {
+        try {
+            applyChunk();
+        } catch (Throwable e) {
+            getLogger().severe("map chunk operation failed for partitionId=" + getPartitionId(), e);
+
+            dispose();
+
+            if (e instanceof NativeOutOfMemoryError) {
+                oome = (NativeOutOfMemoryError) e;
+            }
+        }
+    }
+
+    private void applyChunk() {
+        RecordStore recordStore = getRecordStore();
+        Indexes indexes = recordStore.getMapContainer().getIndexes(getPartitionId());
+        // global indexes are populated during migration finalization and backup partitions have no indexes to populate
+        boolean populateIndexes = getReplicaIndex() == 0 && indexes.haveAtLeastOneIndex() && !indexes.isGlobal();
+
+        long nowInMillis = Clock.currentTimeMillis();
+        for (int i = 0; i < keyRecords.size(); i += 2) {
+            Data dataKey = (Data) keyRecords.get(i);
+            Record record = (Record) keyRecords.get(i + 1);
+
+            recordStore.putReplicatedRecord(dataKey, record, nowInMillis, populateIndexes);
+
+            if (recordStore.shouldEvict()) {
+                // we are already over eviction threshold, each put record will cause another eviction
+                recordStore.evictEntries(dataKey);
+                break;
+            }
+            recordStore.disposeDeferredBlocks();
+        }
+    }
+
+    @Override
+    public void afterRun() throws Exception {
+        dispose();
+
+        if (oome != null) {
+            getLogger().warning(oome.getMessage());
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        dispose();
+        super.onExecutionFailure(e);
+    }
+
+    private void dispose() {
+        MapService mapService = getService();
+        RecordStore recordStore = mapService.getMapServiceContext().getExistingRecordStore(getPartitionId(), mapName);
+        if (recordStore != null) {
+            recordStore.disposeDeferredBlocks();
+        }
+    }
+
+    private RecordStore getRecordStore() {
+        MapService mapService = getService();
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getRecordStore(getPartitionId(), mapName, true);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(mapName);
+        out.writeInt(entries.size() / 3);
+        for (int i = 0; i < entries.size(); i += 3) {
+            IOUtil.writeData(out, (Data) entries.get(i));
+            Records.writeRecord(out, (Record) entries.get(i + 1), (Data) entries.get(i + 2));
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        mapName = in.readUTF();
+        int size = in.readInt();
+        keyRecords = new ArrayList<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            keyRecords.add(IOUtil.readData(in));
+            keyRecords.add(Records.readRecord(in));
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.MAP_CHUNK;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService.ChunkSupplier;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Supplies the chunks of a map partition for chunked migration.
+ * <p>
+ * The first chunk is a {@link MapReplicationOperation} carrying everything
+ * but the records of the map: the index definitions, the write-behind queue
+ * and the near cache metadata. It resets the record store on the destination.
+ * The records follow in {@link MapChunkOperation}s of at most
+ * {@code maxChunkBytes} serialized bytes each. The record store is iterated
+ * with a key cursor which is kept between the chunks, so the records are
+ * serialized only when their chunk is prepared.
+ */
+public class MapChunkSupplier implements ChunkSupplier {
+
+    private static final int KEY_FETCH_SIZE = 1000;
+
+    private final MapServiceContext mapServiceContext;
+    private final PartitionContainer container;
+    private final ServiceNamespace namespace;
+    private final String mapName;
+    private final int replicaIndex;
+    private final int maxChunkBytes;
+    private final RecordStore<Record> recordStore;
+    private final SerializationService serializationService;
+    private final ArrayDeque<Data> pendingKeys = new ArrayDeque<>();
+    private IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+    private boolean replicationOperationSupplied;
+
+    public MapChunkSupplier(MapServiceContext mapServiceContext, PartitionContainer container, ServiceNamespace namespace,
+                            RecordStore<Record> recordStore, int replicaIndex, int maxChunkBytes) {
+        this.mapServiceContext = mapServiceContext;
+        this.container = container;
+        this.namespace = namespace;
+        this.mapName = recordStore.getName();
+        this.replicaIndex = replicaIndex;
+        this.maxChunkBytes = maxChunkBytes;
+        this.recordStore = recordStore;
+        this.serializationService = mapServiceContext.getNodeEngine().getSerializationService();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !replicationOperationSupplied || !pendingKeys.isEmpty() || hasMoreKeys();
+    }
+
+    @Override
+    public Operation next() {
+        Operation operation;
+        if (!replicationOperationSupplied) {
+            replicationOperationSupplied = true;
+            operation = new MapReplicationOperation(container, singleton(namespace), container.getPartitionId(),
+                    replicaIndex, true);
+        } else {
+            operation = new MapChunkOperation(mapName, nextChunk(), container.getPartitionId(), replicaIndex);
+        }
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        return operation;
+    }
+
+    private List<Object> nextChunk() {
+        List<Object> entries = new ArrayList<>();
+        long chunkBytes = 0;
+        while (chunkBytes < maxChunkBytes) {
+            if (pendingKeys.isEmpty()) {
+                if (!hasMoreKeys()) {
+                    break;
+                }
+                fetchKeys();
+                continue;
+            }
+
+            Data key = pendingKeys.poll();
+            Record record = recordStore.getRecord(key);
+            if (record == null) {
+                continue;
+            }
+            Data value = serializationService.toData(record.getValue());
+            entries.add(key);
+            entries.add(record);
+            entries.add(value);
+            chunkBytes += key.totalSize() + (value == null ? 0 : value.totalSize());
+        }
+        return entries;
+    }
+
+    private boolean hasMoreKeys() {
+        return pointers[pointers.length - 1].getIndex() >= 0;
+    }
+
+    private void fetchKeys() {
+        MapKeysWithCursor cursor = recordStore.fetchKeys(pointers, KEY_FETCH_SIZE);
+        pendingKeys.addAll(cursor.getBatch());
+        pointers = cursor.getIterationPointers();
+    }
+}
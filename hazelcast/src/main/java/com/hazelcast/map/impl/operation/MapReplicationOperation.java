@@ -48,12 +48,35 @@ public class MapReplicationOperation extends Operation
 
     public MapReplicationOperation(PartitionContainer container,
                                    Collection<ServiceNamespace> namespaces, int partitionId, int replicaIndex) {
+        this(container, namespaces, partitionId, replicaIndex, false);
+    }
+
+    /**
+     * @param recordsExcluded {@code true} if the records of the maps are not sent with
+     *                        this operation but in the {@link MapChunkOperation}s following it
+     */
+    public MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
+                                   int partitionId, int replicaIndex, boolean recordsExcluded) {
+        this(container, namespaces, partitionId, replicaIndex, recordsExcluded, null);
+    }
+
+    /**
+     * @param deltaLeafOrders the Merkle tree leaves which differ on the destination replica,
+     *                        only the records of these leaves are replicated
+     */
+    public MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
+                                   int partitionId, int replicaIndex, int[] deltaLeafOrders) {
+        this(container, namespaces, partitionId, replicaIndex, false, deltaLeafOrders);
+    }
+
+    private MapReplicationOperation(PartitionContainer container, Collection<ServiceNamespace> namespaces,
+                                    int partitionId, int replicaIndex, boolean recordsExcluded, int[] deltaLeafOrders) {
 
         setPartitionId(partitionId).setReplicaIndex(replicaIndex);
 
         this.mapReplicationStateHolder = new MapReplicationStateHolder();
         this.mapReplicationStateHolder.setOperation(this);
-        this.mapReplicationStateHolder.prepare(container, namespaces, replicaIndex);
+        this.mapReplicationStateHolder.prepare(container, namespaces, replicaIndex, recordsExcluded, deltaLeafOrders);
 
         this.writeBehindStateHolder = new WriteBehindStateHolder();
         this.writeBehindStateHolder.setMapReplicationOperation(this);
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.nio.IOUtil;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.services.ObjectNamespace;
@@ -37,10 +38,13 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.MapIndexInfo;
+import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -57,7 +61,7 @@ import static com.hazelcast.internal.util.MapUtil.isNullOrEmpty;
  * Holder for raw IMap key-value pairs and their metadata.
  */
 // keep this `protected`, extended in another context.
-public class MapReplicationStateHolder implements IdentifiedDataSerializable {
+public class MapReplicationStateHolder implements IdentifiedDataSerializable, Versioned {
 
     // holds recordStore-references of this partitions' maps
     protected transient Map<String, RecordStore<Record>> storesByMapName;
@@ -76,6 +80,17 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
     // operations, which meant that the index did not include some data.
     protected transient List<MapIndexInfo> mapIndexInfos;
 
+    // values of the indexed attributes of each map, shipped by primary replica migrations
+    // to bulk-load the global indexes on the destination
+    protected transient Map<String, IndexKeyRuns> indexKeyRuns;
+
+    // when true, only the metadata of the maps is written and the records are sent in chunks
+    protected transient boolean recordsExcluded;
+
+    // when not null, only the records in these Merkle tree leaves are sent and
+    // the other records of the destination replica are kept
+    protected transient int[] deltaLeafOrders;
+
     private MapReplicationOperation operation;
 
     /**
@@ -89,7 +104,15 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         this.operation = operation;
     }
 
-    void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex) {
+    void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                 boolean recordsExcluded) {
+        prepare(container, namespaces, replicaIndex, recordsExcluded, null);
+    }
+
+    void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                 boolean recordsExcluded, int[] deltaLeafOrders) {
+        this.recordsExcluded = recordsExcluded;
+        this.deltaLeafOrders = deltaLeafOrders;
         storesByMapName = createHashMap(namespaces.size());
 
         loaded = createHashMap(namespaces.size());
@@ -146,7 +169,11 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
                 String mapName = dataEntry.getKey();
                 List keyRecord = dataEntry.getValue();
                 RecordStore recordStore = operation.getRecordStore(mapName);
-                recordStore.reset();
+                if (deltaLeafOrders == null) {
+                    recordStore.reset();
+                } else {
+                    removeRecordsMissingFromDelta(recordStore, keyRecord);
+                }
                 recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
                 StoreAdapter storeAdapter = new RecordStoreAdapter(recordStore);
 
@@ -185,10 +212,45 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
                 if (populateIndexes) {
                     Indexes.markPartitionAsIndexed(partitionContainer.getPartitionId(), indexesSnapshot);
                 }
+
+                IndexKeyRuns keyRuns = indexKeyRuns == null ? null : indexKeyRuns.get(mapName);
+                if (keyRuns != null && indexes.isGlobal()) {
+                    // global indexes are populated during migration finalization
+                    keyRuns.attachKeys(keyRecord);
+                    partitionContainer.putIndexKeyRuns(mapName, keyRuns);
+                }
             }
         }
     }
 
+    /**
+     * Removes the records of the delta leaves which the partition owner
+     * doesn't have anymore. The other records of these leaves are
+     * overwritten by the received ones.
+     */
+    private void removeRecordsMissingFromDelta(RecordStore recordStore, List keyRecord) {
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        if (merkleTree == null) {
+            return;
+        }
+
+        Set<Data> receivedKeys = new HashSet<>();
+        for (int i = 0; i < keyRecord.size(); i += 2) {
+            receivedKeys.add((Data) keyRecord.get(i));
+        }
+        List<Data> staleKeys = new ArrayList<>();
+        for (int leafOrder : deltaLeafOrders) {
+            merkleTree.forEachKeyOfNode(leafOrder, key -> {
+                if (!receivedKeys.contains(key)) {
+                    staleKeys.add((Data) key);
+                }
+            });
+        }
+        for (Data staleKey : staleKeys) {
+            recordStore.removeBackup(staleKey, CallerProvenance.NOT_WAN);
+        }
+    }
+
     private void applyIndexesState() {
         if (mapIndexInfos != null) {
             for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
@@ -226,24 +288,34 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
 
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
+        // members older than 4.1 expect neither index key runs nor Merkle tree deltas
+        boolean atLeastV41 = out.getVersion().isGreaterOrEqual(Versions.V4_1);
+        boolean writeDelta = deltaLeafOrders != null && atLeastV41;
         out.writeInt(storesByMapName.size());
 
         for (Map.Entry<String, RecordStore<Record>> entry : storesByMapName.entrySet()) {
             String mapName = entry.getKey();
             out.writeUTF(mapName);
 
-            SerializationService ss = getSerializationService(operation.getRecordStore(mapName).getMapContainer());
-            RecordStore<Record> recordStore = entry.getValue();
-            out.writeInt(recordStore.size());
-            // No expiration should be done in forEach, since we have serialized size before.
-            recordStore.forEach((dataKey, record) -> {
-                try {
-                    IOUtil.writeData(out, dataKey);
-                    Records.writeRecord(out, record, ss.toData(record.getValue()));
-                } catch (IOException e) {
-                    throw ExceptionUtil.rethrow(e);
+            IndexKeyRuns keyRuns = null;
+            if (recordsExcluded) {
+                out.writeInt(0);
+            } else {
+                SerializationService ss = getSerializationService(operation.getRecordStore(mapName).getMapContainer());
+                RecordStore<Record> recordStore = entry.getValue();
+                if (writeDelta) {
+                    writeDeltaRecords(out, recordStore, ss);
+                } else {
+                    keyRuns = writeRecords(out, recordStore, ss, atLeastV41);
+                }
+            }
+
+            if (atLeastV41) {
+                out.writeBoolean(keyRuns != null);
+                if (keyRuns != null) {
+                    keyRuns.writeData(out);
                 }
-            }, operation.getReplicaIndex() != 0, true);
+            }
         }
 
         out.writeInt(loaded.size());
@@ -256,6 +328,77 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         for (MapIndexInfo mapIndexInfo : mapIndexInfos) {
             out.writeObject(mapIndexInfo);
         }
+
+        if (atLeastV41) {
+            out.writeBoolean(writeDelta);
+            if (writeDelta) {
+                out.writeIntArray(deltaLeafOrders);
+            }
+        }
+    }
+
+    /**
+     * Writes all records of the given record store and returns the index key
+     * runs collected while iterating them, or {@code null} if there are none
+     * to ship.
+     */
+    private IndexKeyRuns writeRecords(ObjectDataOutput out, RecordStore<Record> recordStore,
+                                      SerializationService ss, boolean collectIndexKeyRuns) throws IOException {
+        IndexKeyRuns.Builder keyRunsBuilder = collectIndexKeyRuns
+                ? newIndexKeyRunsBuilder(recordStore.getMapContainer()) : null;
+        out.writeInt(recordStore.size());
+        // No expiration should be done in forEach, since we have serialized size before.
+        recordStore.forEach((dataKey, record) -> {
+            try {
+                IOUtil.writeData(out, dataKey);
+                Records.writeRecord(out, record, ss.toData(record.getValue()));
+                if (keyRunsBuilder != null) {
+                    keyRunsBuilder.add(dataKey, record.getValue());
+                }
+            } catch (IOException e) {
+                throw ExceptionUtil.rethrow(e);
+            }
+        }, operation.getReplicaIndex() != 0, true);
+        return keyRunsBuilder == null ? null : keyRunsBuilder.build();
+    }
+
+    private void writeDeltaRecords(ObjectDataOutput out, RecordStore<Record> recordStore,
+                                   SerializationService ss) throws IOException {
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        // collect the records first since the count is written before them
+        List<Data> keys = new ArrayList<>();
+        List<Record> records = new ArrayList<>();
+        for (int leafOrder : deltaLeafOrders) {
+            merkleTree.forEachKeyOfNode(leafOrder, key -> {
+                Record record = recordStore.getRecord((Data) key);
+                if (record != null) {
+                    keys.add((Data) key);
+                    records.add(record);
+                }
+            });
+        }
+
+        out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Record record = records.get(i);
+            IOUtil.writeData(out, keys.get(i));
+            Records.writeRecord(out, record, ss.toData(record.getValue()));
+        }
+    }
+
+    private IndexKeyRuns.Builder newIndexKeyRunsBuilder(MapContainer mapContainer) {
+        if (operation.getReplicaIndex() != 0 || !mapContainer.isGlobalIndexEnabled()) {
+            // backup partitions have no indexes to populate, partitioned indexes are populated on replication
+            return null;
+        }
+
+        InternalIndex[] indexes = mapContainer.getIndexes().getIndexes();
+        for (InternalIndex index : indexes) {
+            if (IndexKeyRuns.isShippable(index)) {
+                return new IndexKeyRuns.Builder(mapContainer, indexes);
+            }
+        }
+        return null;
     }
 
     private static SerializationService getSerializationService(MapContainer mapContainer) {
@@ -265,6 +408,7 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
+        boolean atLeastV41 = in.getVersion().isGreaterOrEqual(Versions.V4_1);
         int size = in.readInt();
         data = createHashMap(size);
 
@@ -280,6 +424,13 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
                 keyRecord.add(record);
             }
             data.put(name, keyRecord);
+
+            if (atLeastV41 && in.readBoolean()) {
+                if (indexKeyRuns == null) {
+                    indexKeyRuns = createHashMap(size);
+                }
+                indexKeyRuns.put(name, IndexKeyRuns.readData(in));
+            }
         }
 
         int loadedSize = in.readInt();
@@ -294,6 +445,10 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
             MapIndexInfo mapIndexInfo = in.readObject();
             mapIndexInfos.add(mapIndexInfo);
         }
+
+        if (atLeastV41 && in.readBoolean()) {
+            deltaLeafOrders = in.readIntArray();
+        }
     }
 
     @Override
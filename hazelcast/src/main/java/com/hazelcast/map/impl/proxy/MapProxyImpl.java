@@ -24,14 +24,17 @@ import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
 import com.hazelcast.internal.journal.EventJournalReader;
 import com.hazelcast.internal.util.CollectionUtil;
 import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.EventJournalMapEvent;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.QueryCache;
+import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
@@ -49,6 +52,8 @@ import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.predicates.QueryPlan;
 import com.hazelcast.ringbuffer.ReadResultSet;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngine;
@@ -912,6 +917,49 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryPartitionIterator<>(this, fetchSize, partitionId, predicate, projection);
     }
 
+    @Override
+    public <R> Iterator<R> queryIterator(int fetchSize, @Nonnull Predicate<K, V> predicate,
+                                         @Nonnull Projection<? super Map.Entry<K, V>, R> projection) {
+        checkPositive(fetchSize, "fetchSize should be positive");
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "queryIterator");
+        // HazelcastInstanceAware handled by cloning
+        projection = serializationService.toObject(serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        return new MapQueryIterator<>(this, fetchSize, predicate, projection);
+    }
+
+    /**
+     * Explains how this member evaluates the given predicate against its
+     * indexes: which parts of the predicate use which index, how many rows
+     * they are estimated to match and which parts are evaluated as filters.
+     * The estimates are available with the cost based query optimizer only,
+     * see {@link com.hazelcast.spi.properties.ClusterProperty#QUERY_OPTIMIZER_TYPE}.
+     * <p>
+     * For partitioned indexes the predicate is explained against the indexes
+     * of a single partition owned by this member (partition 0 if it owns
+     * none), so the estimates are those of that partition rather than of
+     * the whole map.
+     * <p>
+     * This is an internal diagnostic method, it is not part of {@link IMap}
+     * or the client proxy and is meant for tests and troubleshooting only.
+     *
+     * @param predicate the predicate to explain
+     * @return the plan of the predicate on this member
+     */
+    public QueryPlan explain(@Nonnull Predicate<K, V> predicate) {
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        MapContainer mapContainer = mapServiceContext.getMapContainer(name);
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null) {
+            PartitionIdSet ownedPartitions = mapServiceContext.getOwnedPartitions();
+            indexes = mapContainer.getIndexes(ownedPartitions.isEmpty() ? 0 : ownedPartitions.iterator().next());
+        }
+        Predicate<K, V> optimized = mapServiceContext.getQueryOptimizer().optimize(predicate, indexes);
+        return QueryPlan.of(optimized, indexes);
+    }
+
     @Override
     public CompletionStage<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final MapEventJournalSubscribeOperation op = new MapEventJournalSubscribeOperation(name);
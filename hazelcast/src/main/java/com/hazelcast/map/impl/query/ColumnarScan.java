@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.BatchAggregator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.query.ColumnarStore.Column;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.BetweenPredicate;
+import com.hazelcast.query.impl.predicates.BoundedRangePredicate;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.GreaterLessPredicate;
+import com.hazelcast.query.impl.predicates.RangePredicate;
+import com.hazelcast.query.impl.predicates.TruePredicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Evaluates predicates and aggregations over a {@link ColumnarStore}.
+ * <p>
+ * Rows are processed in batches: the filters of the predicate narrow down a
+ * selection vector of row numbers, then the values of the aggregated column
+ * are gathered into a primitive buffer and handed to the aggregator in one
+ * call. Supported are conjunctions of equality, range and between
+ * predicates on columnar attributes and the aggregators implementing
+ * {@link BatchAggregator}. For anything else the methods of this class
+ * return {@code null} or {@code false} and the caller falls back to the
+ * regular per-entry scan.
+ */
+final class ColumnarScan {
+
+    static final int BATCH_SIZE = 1024;
+
+    private final ColumnarStore store;
+    private final Filter[] filters;
+    private final int[] selection = new int[BATCH_SIZE];
+
+    private ColumnarScan(ColumnarStore store, Filter[] filters) {
+        this.store = store;
+        this.filters = filters;
+    }
+
+    /**
+     * Aggregates the values of the rows matching the given predicate.
+     *
+     * @return {@code true} if the aggregation was performed, {@code false} if
+     * the predicate or the aggregator are not supported by columnar scans
+     */
+    static boolean aggregate(ColumnarStore store, Predicate predicate, Aggregator aggregator) {
+        if (!(aggregator instanceof BatchAggregator)) {
+            return false;
+        }
+        BatchAggregator batchAggregator = (BatchAggregator) aggregator;
+
+        long stamp = store.readLock();
+        try {
+            ColumnarScan scan = compile(store, predicate);
+            return scan != null && scan.aggregate(batchAggregator);
+        } finally {
+            store.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Selects the keys of the rows matching the given predicate.
+     *
+     * @return the matching keys or {@code null} if the predicate is not
+     * supported by columnar scans
+     */
+    static List<Data> selectKeys(ColumnarStore store, Predicate predicate) {
+        long stamp = store.readLock();
+        try {
+            ColumnarScan scan = compile(store, predicate);
+            return scan == null ? null : scan.selectKeys();
+        } finally {
+            store.unlockRead(stamp);
+        }
+    }
+
+    private boolean aggregate(BatchAggregator aggregator) {
+        String attributePath = aggregator.getAttributePath();
+        Column column = null;
+        Class<?> valueClass = null;
+        if (attributePath != null) {
+            column = store.column(attributePath);
+            if (column == null || !column.usable || column.nullCount > 0) {
+                return false;
+            }
+            valueClass = column.valueClass;
+        }
+        if (!aggregator.canAccumulateBatch(valueClass)) {
+            return false;
+        }
+        if (filters == null) {
+            // the predicate matches nothing
+            return true;
+        }
+
+        boolean floating = valueClass != null && column.floating;
+        long[] longBuffer = floating ? null : new long[BATCH_SIZE];
+        double[] doubleBuffer = floating ? new double[BATCH_SIZE] : null;
+        int rowCount = store.rowCount();
+        for (int start = 0; start < rowCount; start += BATCH_SIZE) {
+            int end = Math.min(start + BATCH_SIZE, rowCount);
+            int count = select(start, end);
+            if (count == 0) {
+                continue;
+            }
+            if (valueClass == null) {
+                aggregator.accumulateBatch(longBuffer, count, null);
+            } else if (floating) {
+                gather(column.doubles, start, end, count, doubleBuffer);
+                aggregator.accumulateBatch(doubleBuffer, count, valueClass);
+            } else {
+                gather(column.longs, start, end, count, longBuffer);
+                aggregator.accumulateBatch(longBuffer, count, valueClass);
+            }
+        }
+        return true;
+    }
+
+    private List<Data> selectKeys() {
+        if (filters == null) {
+            return Collections.emptyList();
+        }
+        List<Data> keys = new ArrayList<>();
+        int rowCount = store.rowCount();
+        for (int start = 0; start < rowCount; start += BATCH_SIZE) {
+            int count = select(start, Math.min(start + BATCH_SIZE, rowCount));
+            for (int i = 0; i < count; i++) {
+                keys.add(store.keyAt(selection[i]));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Fills the selection vector with the matching rows of the given range.
+     *
+     * @return the number of selected rows
+     */
+    private int select(int start, int end) {
+        if (filters.length == 0) {
+            for (int row = start; row < end; row++) {
+                selection[row - start] = row;
+            }
+            return end - start;
+        }
+        int count = filters[0].select(start, end, selection);
+        for (int i = 1; i < filters.length && count > 0; i++) {
+            count = filters[i].refine(selection, count);
+        }
+        return count;
+    }
+
+    private void gather(long[] values, int start, int end, int count, long[] buffer) {
+        if (count == end - start) {
+            System.arraycopy(values, start, buffer, 0, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[i] = values[selection[i]];
+            }
+        }
+    }
+
+    private void gather(double[] values, int start, int end, int count, double[] buffer) {
+        if (count == end - start) {
+            System.arraycopy(values, start, buffer, 0, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[i] = values[selection[i]];
+            }
+        }
+    }
+
+    /**
+     * Compiles the given predicate into filters.
+     *
+     * @return the compiled scan, a scan with {@code null} filters if the
+     * predicate can't match any row, or {@code null} if the predicate is not
+     * supported
+     */
+    private static ColumnarScan compile(ColumnarStore store, Predicate predicate) {
+        List<Filter> filters = new ArrayList<>();
+        Boolean supported = compile(store, predicate, filters);
+        if (supported == null) {
+            return null;
+        }
+        return new ColumnarScan(store, supported ? filters.toArray(new Filter[0]) : null);
+    }
+
+    /**
+     * @return {@code true} if the predicate was compiled into the given
+     * filters, {@code false} if it can't match any row and {@code null} if it
+     * is not supported
+     */
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    private static Boolean compile(ColumnarStore store, Predicate predicate, List<Filter> filters) {
+        if (predicate instanceof TruePredicate) {
+            return true;
+        }
+        if (predicate instanceof AndPredicate) {
+            boolean matchesAny = true;
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                Boolean supported = compile(store, subPredicate, filters);
+                if (supported == null) {
+                    return null;
+                }
+                matchesAny &= supported;
+            }
+            return matchesAny;
+        }
+
+        // NotEqualPredicate extends EqualPredicate, hence the exact class checks
+        Class<?> predicateClass = predicate.getClass();
+        if (predicateClass != EqualPredicate.class && predicateClass != GreaterLessPredicate.class
+                && predicateClass != BetweenPredicate.class && predicateClass != BoundedRangePredicate.class) {
+            return null;
+        }
+        RangePredicate range = (RangePredicate) predicate;
+        Column column = store.column(range.getAttribute());
+        if (column == null || !column.usable) {
+            return null;
+        }
+        Comparable from = isNull(range.getFrom()) ? null : range.getFrom();
+        Comparable to = isNull(range.getTo()) ? null : range.getTo();
+        if (from == null && to == null || predicateClass != GreaterLessPredicate.class && (from == null || to == null)) {
+            // null bounds have their own semantics in every predicate, leave them to the predicates
+            return null;
+        }
+        if (column.valueClass == null) {
+            // all values are null, which never match non-null bounds
+            return false;
+        }
+
+        Number fromNumber = from == null ? null : convert(column, from);
+        Number toNumber = to == null ? null : convert(column, to);
+        if (from != null && fromNumber == null || to != null && toNumber == null) {
+            return null;
+        }
+        Filter filter = column.floating
+                ? DoubleRangeFilter.create(column, fromNumber, range.isFromInclusive(), toNumber, range.isToInclusive())
+                : LongRangeFilter.create(column, fromNumber, range.isFromInclusive(), toNumber, range.isToInclusive());
+        if (filter == null) {
+            return null;
+        }
+        filters.add(filter);
+        return true;
+    }
+
+    /**
+     * Converts the given bound to the type of the column values exactly as
+     * predicates do it.
+     *
+     * @return the converted bound or {@code null} if it's not a number
+     */
+    private static Number convert(Column column, Comparable bound) {
+        Comparable converted = column.valueClass.isAssignableFrom(bound.getClass())
+                ? bound : column.attributeType.getConverter().convert(bound);
+        return converted instanceof Number ? (Number) converted : null;
+    }
+
+    /**
+     * Narrows down the rows of a batch.
+     */
+    private abstract static class Filter {
+
+        final Column column;
+
+        Filter(Column column) {
+            this.column = column;
+        }
+
+        /**
+         * Stores the matching rows of the given range into the selection.
+         *
+         * @return the number of selected rows
+         */
+        abstract int select(int start, int end, int[] selection);
+
+        /**
+         * Removes the non-matching rows from the selection.
+         *
+         * @return the number of remaining rows
+         */
+        abstract int refine(int[] selection, int count);
+    }
+
+    /**
+     * Matches integral values in {@code [from, to]}.
+     */
+    private static final class LongRangeFilter extends Filter {
+
+        private final long[] values;
+        private final long from;
+        private final long to;
+
+        private LongRangeFilter(Column column, long from, long to) {
+            super(column);
+            this.values = column.longs;
+            this.from = from;
+            this.to = to;
+        }
+
+        static Filter create(Column column, Number from, boolean fromInclusive, Number to, boolean toInclusive) {
+            if (from != null && !Numbers.isLongRepresentable(from.getClass())
+                    || to != null && !Numbers.isLongRepresentable(to.getClass())) {
+                // comparing integral values with floating-point bounds is left to predicates
+                return null;
+            }
+            long lower = Long.MIN_VALUE;
+            if (from != null) {
+                lower = from.longValue();
+                if (!fromInclusive) {
+                    if (lower == Long.MAX_VALUE) {
+                        return new LongRangeFilter(column, 1, 0);
+                    }
+                    lower++;
+                }
+            }
+            long upper = Long.MAX_VALUE;
+            if (to != null) {
+                upper = to.longValue();
+                if (!toInclusive) {
+                    if (upper == Long.MIN_VALUE) {
+                        return new LongRangeFilter(column, 1, 0);
+                    }
+                    upper--;
+                }
+            }
+            return new LongRangeFilter(column, lower, upper);
+        }
+
+        @Override
+        int select(int start, int end, int[] selection) {
+            int count = 0;
+            for (int row = start; row < end; row++) {
+                long value = values[row];
+                if (value >= from && value <= to && !column.isNull(row)) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        int refine(int[] selection, int count) {
+            int remaining = 0;
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                long value = values[row];
+                if (value >= from && value <= to && !column.isNull(row)) {
+                    selection[remaining++] = row;
+                }
+            }
+            return remaining;
+        }
+    }
+
+    /**
+     * Matches floating-point values between the bounds, ordered as by
+     * {@link Double#compare}.
+     */
+    private static final class DoubleRangeFilter extends Filter {
+
+        private final double[] values;
+        private final double from;
+        private final boolean hasFrom;
+        private final boolean fromInclusive;
+        private final double to;
+        private final boolean hasTo;
+        private final boolean toInclusive;
+
+        @SuppressWarnings("checkstyle:parameternumber")
+        private DoubleRangeFilter(Column column, double from, boolean hasFrom, boolean fromInclusive,
+                                  double to, boolean hasTo, boolean toInclusive) {
+            super(column);
+            this.values = column.doubles;
+            this.from = from;
+            this.hasFrom = hasFrom;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.hasTo = hasTo;
+            this.toInclusive = toInclusive;
+        }
+
+        static Filter create(Column column, Number from, boolean fromInclusive, Number to, boolean toInclusive) {
+            if (from != null && !Numbers.isDoubleRepresentable(from.getClass())
+                    || to != null && !Numbers.isDoubleRepresentable(to.getClass())) {
+                // comparing floating-point values with integral bounds is left to predicates
+                return null;
+            }
+            return new DoubleRangeFilter(column, from == null ? 0.0 : from.doubleValue(), from != null, fromInclusive,
+                    to == null ? 0.0 : to.doubleValue(), to != null, toInclusive);
+        }
+
+        @Override
+        int select(int start, int end, int[] selection) {
+            int count = 0;
+            for (int row = start; row < end; row++) {
+                if (matches(values[row]) && !column.isNull(row)) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        int refine(int[] selection, int count) {
+            int remaining = 0;
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                if (matches(values[row]) && !column.isNull(row)) {
+                    selection[remaining++] = row;
+                }
+            }
+            return remaining;
+        }
+
+        private boolean matches(double value) {
+            if (hasFrom) {
+                int order = Double.compare(value, from);
+                if (order < 0 || order == 0 && !fromInclusive) {
+                    return false;
+                }
+            }
+            if (hasTo) {
+                int order = Double.compare(value, to);
+                return order < 0 || order == 0 && toInclusive;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.AttributeType;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import static com.hazelcast.query.impl.IndexUtils.canonicalizeAttribute;
+
+/**
+ * Columnar shadow copy of the configured attributes of a single map
+ * partition.
+ * <p>
+ * Every row holds the key of an entry and the values of the columnar
+ * attributes extracted from its value, stored in one primitive array per
+ * attribute. Rows are kept dense: removing a row moves the last row into its
+ * place, so scans never have to skip holes.
+ * <p>
+ * A column supports a single numeric value type, fixed by the first non-null
+ * value written to it. A column which receives a value of any other type, a
+ * multi-value result, or can't be extracted from some value at all, becomes
+ * unusable until the store is cleared and queries on it fall back to regular
+ * partition scans.
+ * <p>
+ * The store is mutated by the partition thread only, while scans may run on
+ * query threads. Mutations take an exclusive lock and scans take a shared
+ * one, so a scan always sees a consistent snapshot of the partition.
+ */
+public final class ColumnarStore {
+
+    private static final long NO_ROW = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final Column[] columns;
+    private final Object2LongHashMap<Data> rowsByKey = new Object2LongHashMap<>(NO_ROW);
+
+    private Data[] keys = new Data[INITIAL_CAPACITY];
+    private int size;
+
+    public ColumnarStore(List<String> attributes) {
+        this.columns = new Column[attributes.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(canonicalizeAttribute(attributes.get(i)), INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Inserts or replaces the row of the given entry.
+     *
+     * @param key   the key of the entry
+     * @param entry the entry to extract the columnar attribute values from
+     */
+    public void put(Data key, QueryableEntry entry) {
+        Object[] values = new Object[columns.length];
+        boolean[] failed = null;
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].usable) {
+                continue;
+            }
+            try {
+                values[i] = entry.getAttributeValue(columns[i].attribute);
+            } catch (QueryException e) {
+                // the value has no such attribute, queries on it are left to predicates
+                failed = failed == null ? new boolean[columns.length] : failed;
+                failed[i] = true;
+            }
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (failed != null) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (failed[i]) {
+                        columns[i].disable();
+                    }
+                }
+            }
+            int row = (int) rowsByKey.getValue(key);
+            if (row == NO_ROW) {
+                row = size++;
+                ensureCapacity(size);
+                keys[row] = key;
+                rowsByKey.put(key, row);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].set(row, values[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the row of the given key, if there is one.
+     *
+     * @param key the key of the removed entry
+     */
+    public void remove(Data key) {
+        long stamp = lock.writeLock();
+        try {
+            int row = (int) rowsByKey.removeKey(key);
+            if (row == NO_ROW) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                keys[row] = keys[last];
+                rowsByKey.put(keys[row], row);
+                for (Column column : columns) {
+                    column.move(last, row);
+                }
+            }
+            keys[last] = null;
+            for (Column column : columns) {
+                column.clearRow(last);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all rows and makes all columns usable again.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            rowsByKey.clear();
+            keys = new Data[INITIAL_CAPACITY];
+            size = 0;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new Column(columns[i].attribute, INITIAL_CAPACITY);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the number of rows in this store
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    long readLock() {
+        return lock.readLock();
+    }
+
+    void unlockRead(long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    // the methods below must be called while holding the read lock
+
+    int rowCount() {
+        return size;
+    }
+
+    Data keyAt(int row) {
+        return keys[row];
+    }
+
+    Column column(String attribute) {
+        String canonical = canonicalizeAttribute(attribute);
+        for (Column column : columns) {
+            if (column.attribute.equals(canonical)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= keys.length) {
+            return;
+        }
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        for (Column column : columns) {
+            column.grow(capacity);
+        }
+    }
+
+    /**
+     * Values of a single attribute, one slot per row. Integral values are
+     * kept in a {@code long[]}, floating-point values in a {@code double[]};
+     * the array is chosen by the first non-null value.
+     */
+    static final class Column {
+
+        final String attribute;
+
+        Class<?> valueClass;
+        AttributeType attributeType;
+        boolean floating;
+        boolean usable = true;
+        long[] longs;
+        double[] doubles;
+        BitSet nulls = new BitSet();
+        int nullCount;
+
+        private int capacity;
+
+        Column(String attribute, int capacity) {
+            this.attribute = attribute;
+            this.capacity = capacity;
+        }
+
+        boolean isNull(int row) {
+            return nullCount > 0 && nulls.get(row);
+        }
+
+        void set(int row, Object value) {
+            if (!usable) {
+                return;
+            }
+            if (nulls.get(row)) {
+                nulls.clear(row);
+                nullCount--;
+            }
+            if (value == null) {
+                nulls.set(row);
+                nullCount++;
+                if (valueClass != null) {
+                    write(row, 0L, 0.0);
+                }
+                return;
+            }
+
+            Class<?> clazz = value.getClass();
+            if (valueClass == null) {
+                if (!init(clazz, value)) {
+                    return;
+                }
+            } else if (clazz != valueClass) {
+                disable();
+                return;
+            }
+            if (floating) {
+                write(row, 0L, ((Number) value).doubleValue());
+            } else {
+                write(row, ((Number) value).longValue(), 0.0);
+            }
+        }
+
+        void move(int from, int to) {
+            if (!usable) {
+                return;
+            }
+            if (nulls.get(to)) {
+                nulls.clear(to);
+                nullCount--;
+            }
+            if (nulls.get(from)) {
+                nulls.set(to);
+                nullCount++;
+            }
+            if (longs != null) {
+                longs[to] = longs[from];
+            } else if (doubles != null) {
+                doubles[to] = doubles[from];
+            }
+        }
+
+        void clearRow(int row) {
+            if (!usable) {
+                return;
+            }
+            if (nulls.get(row)) {
+                nulls.clear(row);
+                nullCount--;
+            }
+            write(row, 0L, 0.0);
+        }
+
+        void grow(int newCapacity) {
+            capacity = newCapacity;
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, newCapacity);
+            } else if (doubles != null) {
+                doubles = Arrays.copyOf(doubles, newCapacity);
+            }
+        }
+
+        private boolean init(Class<?> clazz, Object value) {
+            if (clazz == Long.class || clazz == Integer.class || clazz == Short.class || clazz == Byte.class) {
+                longs = new long[capacity];
+            } else if (clazz == Double.class || clazz == Float.class) {
+                floating = true;
+                doubles = new double[capacity];
+            } else {
+                disable();
+                return false;
+            }
+            valueClass = clazz;
+            attributeType = QueryableEntry.extractAttributeType(value);
+            return true;
+        }
+
+        private void write(int row, long longValue, double doubleValue) {
+            if (longs != null) {
+                longs[row] = longValue;
+            } else if (doubles != null) {
+                doubles[row] = doubleValue;
+            }
+        }
+
+        void disable() {
+            usable = false;
+            longs = null;
+            doubles = null;
+            nulls = new BitSet();
+            nullCount = 0;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.util.executor.ManagedExecutorService;
+import com.hazelcast.query.impl.IndexResultSplitter;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.internal.util.FutureUtil.RETHROW_EVERYTHING;
+import static com.hazelcast.internal.util.FutureUtil.returnWithDeadline;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.estimatedSizeOf;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Populates query results from the entries produced by index queries in a
+ * multi-threaded way.
+ * <p>
+ * The entries are split into chunks by the {@link IndexResultSplitter}, the
+ * chunks are processed by the underlying executor and by the calling thread,
+ * each into its own sub-result, and the sub-results are merged into the
+ * final result at the end. This parallelizes the evaluation of non-indexed
+ * predicates, the de-duplication of unions and the conversion of the entries
+ * into result rows, which dominate the cost of large index queries.
+ * <p>
+ * Results which are too small to benefit from the parallel execution are
+ * populated by the calling thread.
+ */
+public class ParallelIndexResultExecutor {
+
+    /**
+     * The minimal estimated number of entries per chunk.
+     */
+    static final int MIN_CHUNK_SIZE = 1024;
+
+    private final ManagedExecutorService executor;
+    private final int parallelism;
+    private final int callTimeoutInMillis;
+
+    public ParallelIndexResultExecutor(ManagedExecutorService executor, int parallelism, int callTimeoutInMillis) {
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.callTimeoutInMillis = callTimeoutInMillis;
+    }
+
+    /**
+     * Adds the given index query entries into the given result.
+     *
+     * @param result  the result to populate
+     * @param entries the entries produced by the index query
+     */
+    public void populate(QueryResult result, Collection<QueryableEntry> entries) {
+        int chunkCount = Math.min(parallelism, estimatedSizeOf(entries) / MIN_CHUNK_SIZE);
+        if (chunkCount < 2) {
+            for (QueryableEntry entry : entries) {
+                result.add(entry);
+            }
+            return;
+        }
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(entries, chunkCount);
+        List<Future<QueryResult>> futures = new ArrayList<>(chunks.size() - 1);
+        for (int i = 1; i < chunks.size(); i++) {
+            futures.add(executor.submit(new PopulateChunkCallable(result.createSubResult(), chunks.get(i))));
+        }
+        // the calling thread takes the first chunk
+        QueryResult firstSubResult = new PopulateChunkCallable(result.createSubResult(), chunks.get(0)).call();
+
+        Collection<QueryResult> subResults = returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS,
+                RETHROW_EVERYTHING);
+        result.addAll(firstSubResult);
+        for (QueryResult subResult : subResults) {
+            result.addAll(subResult);
+        }
+    }
+
+    private static final class PopulateChunkCallable implements Callable<QueryResult> {
+
+        private final QueryResult result;
+        private final Collection<QueryableEntry> entries;
+
+        private PopulateChunkCallable(QueryResult result, Collection<QueryableEntry> entries) {
+            this.result = result;
+            this.entries = entries;
+        }
+
+        @Override
+        public QueryResult call() {
+            for (QueryableEntry entry : entries) {
+                result.add(entry);
+            }
+            return result;
+        }
+    }
+}
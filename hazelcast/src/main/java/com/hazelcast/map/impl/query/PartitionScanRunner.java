@@ -23,6 +23,9 @@ import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.SortingUtil;
+import com.hazelcast.internal.util.collection.TopKCollector;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.MapContainer;
@@ -33,6 +36,7 @@ import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStoreAdapter;
+import com.hazelcast.map.impl.recordstore.Storage;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Metadata;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
@@ -91,6 +95,16 @@ public class PartitionScanRunner {
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry =
                 pagingPredicate == null ? null : pagingPredicate.getNearestAnchorEntry();
 
+        ColumnarStore columnarStore = recordStore.getColumnarStore();
+        if (columnarStore != null && pagingPredicate == null
+                && runColumnar(columnarStore, recordStore, predicate, result, useCachedValues, extractors, storeAdapter)) {
+            return;
+        }
+
+        // a paging query needs only the entries which may appear on the requested page
+        TopKCollector<QueryableEntry> collector =
+                pagingPredicate == null ? null : SortingUtil.newTopKCollector(pagingPredicate, nearestAnchorEntry);
+
         recordStore.forEachAfterLoad(new BiConsumer<Data, Record>() {
             LazyMapEntry queryEntry = new LazyMapEntry();
 
@@ -112,7 +126,12 @@ public class PartitionScanRunner {
 
                     // always copy key&value to heap if map is backed by native memory
                     value = nativeMemory ? toHeapData((Data) value) : value;
-                    result.add(queryEntry.init(ss, toHeapData(key), value, extractors));
+                    queryEntry.init(ss, toHeapData(key), value, extractors);
+                    if (collector == null) {
+                        result.add(queryEntry);
+                    } else {
+                        collector.offer(queryEntry);
+                    }
 
                     // We can't reuse the existing entry after it was added to the
                     // result. Allocate the new one.
@@ -120,9 +139,62 @@ public class PartitionScanRunner {
                 }
             }
         }, false);
+        if (collector != null) {
+            for (QueryableEntry entry : collector.toSortedList()) {
+                result.add(entry);
+            }
+        }
         result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
     }
 
+    /**
+     * Runs the scan over the columnar store of the partition. Aggregations
+     * are accumulated straight from the columns when possible; otherwise
+     * only the entries selected by the columns are materialized and the
+     * predicate is applied to them once more, so the result never contains
+     * an entry changed after it was selected.
+     *
+     * @return {@code true} if the scan was performed, {@code false} if the
+     * predicate is not supported by columnar scans
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    private boolean runColumnar(ColumnarStore columnarStore, RecordStore<Record> recordStore, Predicate predicate,
+                                Result result, boolean useCachedValues, Extractors extractors, StoreAdapter storeAdapter) {
+        recordStore.checkIfLoaded();
+        if (result instanceof AggregationResult && !recordStore.isExpirable()
+                && ColumnarScan.aggregate(columnarStore, predicate, ((AggregationResult) result).getAggregator())) {
+            return true;
+        }
+
+        List<Data> keys = ColumnarScan.selectKeys(columnarStore, predicate);
+        if (keys == null) {
+            return false;
+        }
+        Storage<Data, Record> storage = recordStore.getStorage();
+        long now = Clock.currentTimeMillis();
+        for (Data key : keys) {
+            Record record = storage.get(key);
+            if (record == null || recordStore.isExpired(record, now, false)) {
+                continue;
+            }
+            Object value = useCachedValues ? getValueOrCachedValue(record, ss) : record.getValue();
+            if (value == null) {
+                continue;
+            }
+
+            LazyMapEntry queryEntry = new LazyMapEntry();
+            queryEntry.init(ss, key, value, extractors);
+            queryEntry.setRecord(record);
+            queryEntry.setStoreAdapter(storeAdapter);
+            queryEntry.setMetadata(getMetadataFromRecord(recordStore, key, record));
+            if (predicate.apply(queryEntry)) {
+                result.add(queryEntry.init(ss, toHeapData(key), value, extractors));
+            }
+        }
+        result.orderAndLimit(null, null);
+        return true;
+    }
+
     // overridden in ee
     protected Metadata getMetadataFromRecord(RecordStore recordStore, Data dataKey, Record record) {
         return record.getMetadata();
@@ -157,6 +157,22 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         rows.add(orderAndLimitExpected ? entry : convertEntryToRow(entry));
     }
 
+    /**
+     * Moves the rows of the given sub-result into this result.
+     *
+     * @param subResult the sub-result created by {@link #createSubResult}.
+     * @throws QueryResultSizeExceededException if the size of this result
+     *                                          exceeds the result size limit.
+     */
+    void addAll(QueryResult subResult) {
+        resultSize += subResult.resultSize;
+        if (resultSize > resultLimit) {
+            throw new QueryResultSizeExceededException();
+        }
+
+        rows.addAll(subResult.rows);
+    }
+
     @Override
     public QueryResult createSubResult() {
         return new QueryResult(iterationType, projection, serializationService, resultLimit, orderAndLimitExpected);
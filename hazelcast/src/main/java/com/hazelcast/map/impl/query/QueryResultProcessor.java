@@ -28,9 +28,22 @@ import java.util.Collection;
 public class QueryResultProcessor implements ResultProcessor<QueryResult> {
 
     private final SerializationService serializationService;
+    private final ParallelIndexResultExecutor indexResultExecutor;
 
     public QueryResultProcessor(SerializationService serializationService) {
+        this(serializationService, null);
+    }
+
+    /**
+     * @param serializationService the serialization service
+     * @param indexResultExecutor  the executor to populate the results in
+     *                             parallel or {@code null} to populate them
+     *                             in the calling thread
+     */
+    public QueryResultProcessor(SerializationService serializationService,
+                                ParallelIndexResultExecutor indexResultExecutor) {
         this.serializationService = serializationService;
+        this.indexResultExecutor = indexResultExecutor;
     }
 
     @Override
@@ -38,8 +51,12 @@ public class QueryResultProcessor implements ResultProcessor<QueryResult> {
                                       PartitionIdSet partitionIds) {
         QueryResult result = new QueryResult(query.getIterationType(), query.getProjection(), serializationService, resultLimit,
                 false);
-        for (QueryableEntry entry : entries) {
-            result.add(entry);
+        if (indexResultExecutor != null) {
+            indexResultExecutor.populate(result, entries);
+        } else {
+            for (QueryableEntry entry : entries) {
+                result.add(entry);
+            }
         }
         result.setPartitionIds(partitionIds);
         return result;
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -26,8 +28,11 @@ import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.EvaluatePredicate;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -117,6 +122,13 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
+        // count aggregations may be answered by an index without visiting the entries
+        Result countResult = runCountUsingGlobalIndexSafely(query, predicate, mapContainer, migrationStamp,
+                initialPartitions);
+        if (countResult != null) {
+            return countResult;
+        }
+
         // then we try to run using an index, but if that doesn't work, we'll try a full table scan
         Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer,
                 migrationStamp, initialPartitions.size());
@@ -165,6 +177,13 @@ public class QueryRunner {
         // first we optimize the query
         Predicate predicate = queryOptimizer.optimize(query.getPredicate(), indexes);
 
+        // count aggregations may be answered by an index without visiting the entries
+        Result countResult = runCountUsingGlobalIndexSafely(query, predicate, mapContainer, migrationStamp,
+                initialPartitions);
+        if (countResult != null) {
+            return countResult;
+        }
+
         // then we try to run using an index
         Collection<QueryableEntry> entries = runUsingGlobalIndexSafely(predicate, mapContainer,
                 migrationStamp, initialPartitions.size());
@@ -224,6 +243,49 @@ public class QueryRunner {
                 initialPartitions);
     }
 
+    /**
+     * Performs the given count aggregation query using the count of entries
+     * matching the predicate reported by a global index, without visiting the
+     * entries. Applicable only if the whole predicate is evaluated by a single
+     * index able to count the matching entries.
+     *
+     * @return the result of the query or {@code null} if the query can't be
+     * performed this way.
+     */
+    protected Result runCountUsingGlobalIndexSafely(Query query, Predicate predicate, MapContainer mapContainer,
+                                                    int migrationStamp, PartitionIdSet partitions) {
+        Aggregator aggregator = query.getAggregator();
+        if (!(predicate instanceof EvaluatePredicate) || !(aggregator instanceof CountAggregator)
+                || ((CountAggregator) aggregator).getAttributePath() != null) {
+            return null;
+        }
+        if (!validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        Indexes indexes = mapContainer.getIndexes();
+        if (indexes == null || !indexes.isGlobal()) {
+            return null;
+        }
+        EvaluatePredicate evaluatePredicate = (EvaluatePredicate) predicate;
+        InternalIndex index = indexes.matchIndex(evaluatePredicate.getIndexName(), QueryContext.IndexMatchHint.EXACT_NAME,
+                partitions.size());
+        if (index == null) {
+            return null;
+        }
+        long count = index.count(evaluatePredicate.getPredicate());
+        if (count < 0 || !validateMigrationStamp(migrationStamp)) {
+            return null;
+        }
+
+        CountAggregator resultAggregator = serializationService.toObject(serializationService.toData(aggregator));
+        resultAggregator.accumulateCount(count);
+        resultAggregator.onAccumulationFinished();
+        AggregationResult result = new AggregationResult(resultAggregator, serializationService);
+        result.setPartitionIds(partitions);
+        return result;
+    }
+
     protected Collection<QueryableEntry> runUsingGlobalIndexSafely(Predicate predicate, MapContainer mapContainer,
                                                                    int migrationStamp, int ownedPartitionCount) {
 
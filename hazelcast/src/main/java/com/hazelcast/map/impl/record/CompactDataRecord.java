@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.impl.Metadata;
+
+import java.util.Objects;
+
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_READER_WRITER;
+import static com.hazelcast.map.impl.record.RecordSlab.BASIC_COLUMN_COUNT;
+import static com.hazelcast.map.impl.record.RecordSlab.CREATION_TIME;
+import static com.hazelcast.map.impl.record.RecordSlab.HITS;
+import static com.hazelcast.map.impl.record.RecordSlab.LAST_ACCESS_TIME;
+import static com.hazelcast.map.impl.record.RecordSlab.LAST_UPDATE_TIME;
+import static com.hazelcast.map.impl.record.RecordSlab.MAX_IDLE;
+import static com.hazelcast.map.impl.record.RecordSlab.TTL;
+
+/**
+ * Flyweight counterpart of {@link DataRecord}: only the value is held by the
+ * record itself, all other fields live in a slot of a {@link RecordSlab}.
+ * <p>
+ * A new record owns a private single-record slab until it is {@link #attach
+ * attached} to the slab of the partition which stores it. A removed record
+ * moves its fields back into a private slab before its slot is released.
+ * Records may be read by threads other than the partition thread, which
+ * validate each read against the generation of the slot, so they never
+ * return the fields of another record which reused the slot.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class CompactDataRecord implements Record<Data> {
+
+    private volatile RecordSlab slab;
+    /**
+     * The slot in the slab and its generation, packed so that readers get
+     * both consistently.
+     */
+    private volatile long position;
+    private volatile Data value;
+
+    CompactDataRecord(Data value) {
+        this.slab = RecordSlab.newRecordSlab();
+        this.value = value;
+    }
+
+    /**
+     * Moves the fields of this record into a newly allocated slot of the given slab.
+     * Does nothing if the record already lives in that slab.
+     *
+     * @return {@code true} if the record was moved, otherwise {@code false}
+     */
+    public boolean attach(RecordSlab partitionSlab) {
+        if (slab == partitionSlab) {
+            return false;
+        }
+        if (!slab.isSingleRecord()) {
+            // the position changes, readers must not combine it with the old slab
+            detach();
+        }
+        int newSlot = partitionSlab.allocate();
+        slab.copy(getSlot(), partitionSlab, newSlot, columnCount());
+        position = ((long) partitionSlab.getGeneration(newSlot) << Integer.SIZE) | (newSlot & 0xFFFFFFFFL);
+        slab = partitionSlab;
+        return true;
+    }
+
+    /**
+     * Moves the fields of this record into a private slab and hands its slot
+     * back to the partition slab once the current operation completes.
+     */
+    public void release() {
+        RecordSlab partitionSlab = slab;
+        int slot = getSlot();
+        detach();
+        partitionSlab.releaseLater(slot);
+    }
+
+    public RecordSlab getSlab() {
+        return slab;
+    }
+
+    int getSlot() {
+        return (int) position;
+    }
+
+    int columnCount() {
+        return BASIC_COLUMN_COUNT;
+    }
+
+    int readInt(int column) {
+        while (true) {
+            RecordSlab slab = this.slab;
+            long position = this.position;
+            int result = slab.getInt(column, (int) position);
+            if (isCurrent(slab, position)) {
+                return result;
+            }
+        }
+    }
+
+    void writeInt(int column, int value) {
+        slab.setInt(column, getSlot(), value);
+    }
+
+    private void detach() {
+        RecordSlab detached = RecordSlab.newRecordSlab();
+        slab.copy(getSlot(), detached, 0, columnCount());
+        slab = detached;
+    }
+
+    /**
+     * Checks that the fields read from the given slab at the given position
+     * belong to this record, i.e. the slot has not been released and reused
+     * since and the record has not moved.
+     */
+    private boolean isCurrent(RecordSlab slab, long position) {
+        return slab.isLive((int) position, (int) (position >>> Integer.SIZE))
+                && slab == this.slab && position == this.position;
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_READER_WRITER;
+    }
+
+    @Override
+    public Data getValue() {
+        return value;
+    }
+
+    @Override
+    public void setValue(Data value) {
+        this.value = value;
+    }
+
+    /**
+     * The cost of the slot in the slab is accounted by the owning storage, so
+     * only the flyweight itself and the value are reported here.
+     */
+    @Override
+    public long getCost() {
+        return 2 * REFERENCE_COST_IN_BYTES + LONG_SIZE_IN_BYTES
+                + (value == null ? 0 : value.getHeapCost());
+    }
+
+    @Override
+    public long getVersion() {
+        while (true) {
+            RecordSlab slab = this.slab;
+            long position = this.position;
+            long result = slab.getVersion((int) position);
+            if (isCurrent(slab, position)) {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public void setVersion(long version) {
+        slab.setVersion(getSlot(), version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return readInt(HITS);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        writeInt(HITS, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return UNSET;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return UNSET;
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+    }
+
+    @Override
+    public long getSequence() {
+        return UNSET;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    @Override
+    public void setMetadata(Metadata metadata) {
+        slab.setMetadata(getSlot(), metadata);
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        while (true) {
+            RecordSlab slab = this.slab;
+            long position = this.position;
+            Metadata result = slab.getMetadata((int) position);
+            if (isCurrent(slab, position)) {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public int getRawTtl() {
+        return readInt(TTL);
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return readInt(MAX_IDLE);
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return readInt(CREATION_TIME);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return readInt(LAST_ACCESS_TIME);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return readInt(LAST_UPDATE_TIME);
+    }
+
+    @Override
+    public void setRawTtl(int ttl) {
+        writeInt(TTL, ttl);
+    }
+
+    @Override
+    public void setRawMaxIdle(int maxIdle) {
+        writeInt(MAX_IDLE, maxIdle);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        writeInt(CREATION_TIME, creationTime);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        writeInt(LAST_ACCESS_TIME, lastAccessTime);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        writeInt(LAST_UPDATE_TIME, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CompactDataRecord that = (CompactDataRecord) o;
+        return getRawTtl() == that.getRawTtl()
+                && getRawMaxIdle() == that.getRawMaxIdle()
+                && getVersion() == that.getVersion()
+                && getHits() == that.getHits()
+                && getRawLastAccessTime() == that.getRawLastAccessTime()
+                && getRawLastUpdateTime() == that.getRawLastUpdateTime()
+                && getRawCreationTime() == that.getRawCreationTime()
+                && Objects.equals(getMetadata(), that.getMetadata())
+                && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        long version = getVersion();
+        Metadata metadata = getMetadata();
+        int result = 31 * getRawTtl() + getRawMaxIdle();
+        result = 31 * result + (int) (version ^ (version >>> 32));
+        result = 31 * result + getHits();
+        result = 31 * result + getRawLastAccessTime();
+        result = 31 * result + getRawLastUpdateTime();
+        result = 31 * result + getRawCreationTime();
+        result = 31 * result + (metadata != null ? metadata.hashCode() : 0);
+        result = 31 * result + (value != null ? value.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{"
+                + "value=" + value
+                + ", slot=" + getSlot()
+                + ", ttl=" + getRawTtl()
+                + ", maxIdle=" + getRawMaxIdle()
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + ", metadata=" + getMetadata()
+                + '}';
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.serialization.Data;
+
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+import static com.hazelcast.map.impl.record.RecordSlab.EXPIRATION_TIME;
+import static com.hazelcast.map.impl.record.RecordSlab.INT_COLUMN_COUNT;
+import static com.hazelcast.map.impl.record.RecordSlab.LAST_STORED_TIME;
+
+/**
+ * Flyweight counterpart of {@link DataRecordWithStats}.
+ */
+public class CompactDataRecordWithStats extends CompactDataRecord {
+
+    CompactDataRecordWithStats(Data value) {
+        super(value);
+    }
+
+    @Override
+    int columnCount() {
+        return INT_COLUMN_COUNT;
+    }
+
+    @Override
+    public long getExpirationTime() {
+        int expirationTime = getRawExpirationTime();
+        if (expirationTime == UNSET) {
+            return 0L;
+        }
+
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        setRawExpirationTime(expirationTime == Long.MAX_VALUE
+                ? Integer.MAX_VALUE
+                : stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return readInt(LAST_STORED_TIME);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        writeInt(LAST_STORED_TIME, time);
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        return readInt(EXPIRATION_TIME);
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        writeInt(EXPIRATION_TIME, time);
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        CompactDataRecordWithStats that = (CompactDataRecordWithStats) o;
+        return getRawLastStoredTime() == that.getRawLastStoredTime()
+                && getRawExpirationTime() == that.getRawExpirationTime();
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + getRawLastStoredTime();
+        result = 31 * result + getRawExpirationTime();
+        return result;
+    }
+}
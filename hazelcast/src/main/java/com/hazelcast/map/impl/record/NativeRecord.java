@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.query.impl.Metadata;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.HeapMemoryAccessor.ARRAY_BYTE_BASE_OFFSET;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+
+/**
+ * Flyweight {@link Record} whose metadata lives in an off-heap block and whose
+ * value is kept in a separately allocated off-heap block.
+ * <p>
+ * A record starts its life <i>detached</i>: it is created by the {@link
+ * NativeRecordFactory} with its metadata held in a small heap buffer, so a
+ * record which never makes it into a storage costs nothing but garbage. Once
+ * the storage takes ownership of it, {@link #attach} moves the metadata and
+ * the value off-heap and from then on every accessor reads and writes the
+ * off-heap block directly. Any number of flyweights may point to the same
+ * block, they all observe the same state.
+ * <p>
+ * The value is always returned as an on-heap copy, therefore values never
+ * escape the off-heap block. The record block itself is only valid until the
+ * storage which owns it disposes its deferred blocks.
+ * <p>
+ * Record block layout:
+ * <pre>
+ * 0  value address (long)
+ * 8  version (long)
+ * 16 value size, ttl, max-idle, creation time, last access time,
+ *    last update time, hits, last stored time, expiration time (int each)
+ * </pre>
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeRecord implements Record<Data> {
+
+    /**
+     * Size of the off-heap record block in bytes.
+     */
+    public static final int SIZE = 56;
+
+    private static final int VALUE_ADDRESS_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int VALUE_SIZE_OFFSET = 16;
+    private static final int TTL_OFFSET = 20;
+    private static final int MAX_IDLE_OFFSET = 24;
+    private static final int CREATION_TIME_OFFSET = 28;
+    private static final int LAST_ACCESS_TIME_OFFSET = 32;
+    private static final int LAST_UPDATE_TIME_OFFSET = 36;
+    private static final int HITS_OFFSET = 40;
+    private static final int LAST_STORED_TIME_OFFSET = 44;
+    private static final int EXPIRATION_TIME_OFFSET = 48;
+
+    private Object base;
+    private long address;
+    private MemoryAllocator malloc;
+    private Long2ObjectHashMap<Metadata> metadataStore;
+
+    // used only while detached
+    private Data detachedValue;
+    private Metadata detachedMetadata;
+
+    NativeRecord(Data value) {
+        this.base = new byte[SIZE];
+        this.address = ARRAY_BYTE_BASE_OFFSET;
+        this.detachedValue = value;
+        putInt(TTL_OFFSET, UNSET);
+        putInt(MAX_IDLE_OFFSET, UNSET);
+        putInt(CREATION_TIME_OFFSET, UNSET);
+        putInt(LAST_ACCESS_TIME_OFFSET, UNSET);
+        putInt(LAST_UPDATE_TIME_OFFSET, UNSET);
+        putInt(LAST_STORED_TIME_OFFSET, UNSET);
+        putInt(EXPIRATION_TIME_OFFSET, UNSET);
+    }
+
+    /**
+     * Creates a flyweight over an attached record block.
+     *
+     * @param address       address of the record block
+     * @param malloc        allocator which owns the record block
+     * @param metadataStore heap side-table holding {@link Metadata} of records by address
+     */
+    public NativeRecord(long address, MemoryAllocator malloc, Long2ObjectHashMap<Metadata> metadataStore) {
+        this.address = address;
+        this.malloc = malloc;
+        this.metadataStore = metadataStore;
+    }
+
+    /**
+     * Moves a detached record into the supplied record block. After this call
+     * this instance is a flyweight over {@code recordAddress}.
+     *
+     * @throws IllegalStateException if this record is already attached
+     * @throws com.hazelcast.memory.NativeOutOfMemoryError if the value block cannot be allocated,
+     *                                                     in which case the record stays detached
+     */
+    public void attach(long recordAddress, MemoryAllocator malloc, Long2ObjectHashMap<Metadata> metadataStore) {
+        if (!isDetached()) {
+            throw new IllegalStateException("Record is already attached to address " + address);
+        }
+        long valueAddress = copyToNative(detachedValue, malloc);
+        MEM.copyMemory(base, address, null, recordAddress, SIZE);
+        MEM.putLong(recordAddress + VALUE_ADDRESS_OFFSET, valueAddress);
+        MEM.putInt(recordAddress + VALUE_SIZE_OFFSET, detachedValue == null ? 0 : detachedValue.totalSize());
+        if (detachedMetadata != null) {
+            metadataStore.put(recordAddress, detachedMetadata);
+        }
+
+        this.base = null;
+        this.address = recordAddress;
+        this.malloc = malloc;
+        this.metadataStore = metadataStore;
+        this.detachedValue = null;
+        this.detachedMetadata = null;
+    }
+
+    /**
+     * @return {@code true} if this record has not been moved into an off-heap block yet
+     */
+    public boolean isDetached() {
+        return base != null;
+    }
+
+    /**
+     * @return the address of the attached record block
+     */
+    public long getAddress() {
+        assert !isDetached() : "Detached record has no address";
+        return address;
+    }
+
+    /**
+     * @return address of the value block of the record block at the given address
+     */
+    public static long getValueAddress(long recordAddress) {
+        return MEM.getLong(recordAddress + VALUE_ADDRESS_OFFSET);
+    }
+
+    /**
+     * @return size of the value block of the record block at the given address
+     */
+    public static int getValueSize(long recordAddress) {
+        return MEM.getInt(recordAddress + VALUE_SIZE_OFFSET);
+    }
+
+    @Override
+    public Data getValue() {
+        if (isDetached()) {
+            return detachedValue;
+        }
+        long valueAddress = getValueAddress(address);
+        if (valueAddress == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] bytes = new byte[getValueSize(address)];
+        MEM.copyToByteArray(valueAddress, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        if (isDetached()) {
+            detachedValue = value;
+            return;
+        }
+        long oldValueAddress = getValueAddress(address);
+        int oldValueSize = getValueSize(address);
+        // allocate the new block before releasing the old one, so that
+        // a failed allocation leaves the record untouched
+        long newValueAddress = copyToNative(value, malloc);
+        MEM.putLong(address + VALUE_ADDRESS_OFFSET, newValueAddress);
+        MEM.putInt(address + VALUE_SIZE_OFFSET, value == null ? 0 : value.totalSize());
+        if (oldValueAddress != NULL_ADDRESS) {
+            malloc.free(oldValueAddress, oldValueSize);
+        }
+    }
+
+    private static long copyToNative(Data value, MemoryAllocator malloc) {
+        if (value == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = value.toByteArray();
+        long valueAddress = malloc.allocate(bytes.length);
+        MEM.copyFromByteArray(bytes, 0, valueAddress, bytes.length);
+        return valueAddress;
+    }
+
+    @Override
+    public long getCost() {
+        return SIZE + (isDetached()
+                ? (detachedValue == null ? 0 : detachedValue.totalSize())
+                : getValueSize(address));
+    }
+
+    @Override
+    public long getVersion() {
+        return MEM.getLong(base, address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        MEM.putLong(base, address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return getInt(HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        putInt(HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        int expirationTime = getRawExpirationTime();
+        if (expirationTime == UNSET) {
+            return 0L;
+        }
+
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        setRawExpirationTime(expirationTime == Long.MAX_VALUE
+                ? Integer.MAX_VALUE
+                : stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public long getSequence() {
+        return UNSET;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    @Override
+    public void setMetadata(Metadata metadata) {
+        if (isDetached()) {
+            detachedMetadata = metadata;
+        } else if (metadata == null) {
+            metadataStore.remove(address);
+        } else {
+            metadataStore.put(address, metadata);
+        }
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return isDetached() ? detachedMetadata : metadataStore.get(address);
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawTtl() {
+        return getInt(TTL_OFFSET);
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return getInt(MAX_IDLE_OFFSET);
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return getInt(CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return getInt(LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return getInt(LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawTtl(int ttl) {
+        putInt(TTL_OFFSET, ttl);
+    }
+
+    @Override
+    public void setRawMaxIdle(int maxIdle) {
+        putInt(MAX_IDLE_OFFSET, maxIdle);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        putInt(CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        putInt(LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        putInt(LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return getInt(LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        putInt(LAST_STORED_TIME_OFFSET, time);
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        return getInt(EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        putInt(EXPIRATION_TIME_OFFSET, time);
+    }
+
+    private int getInt(int offset) {
+        return MEM.getInt(base, address + offset);
+    }
+
+    private void putInt(int offset, int value) {
+        MEM.putInt(base, address + offset, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        NativeRecord that = (NativeRecord) o;
+        return !isDetached() && !that.isDetached() && address == that.address;
+    }
+
+    @Override
+    public int hashCode() {
+        return isDetached() ? System.identityHashCode(this) : (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{"
+                + (isDetached() ? "detached" : "address=" + address)
+                + ", ttl=" + getRawTtl()
+                + ", maxIdle=" + getRawMaxIdle()
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + ", lastStoredTime=" + getRawLastStoredTime()
+                + ", expirationTime=" + getRawExpirationTime()
+                + '}';
+    }
+}
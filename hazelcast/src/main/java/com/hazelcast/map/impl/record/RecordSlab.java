@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.query.impl.Metadata;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * Struct-of-arrays holding the metadata of {@link CompactDataRecord}s.
+ * Each record owns one slot, every record field is a column indexed by slot.
+ * <p>
+ * A column is only allocated when a record first writes a value which
+ * differs from the column default, so fields which keep their default for
+ * all records of a partition, e.g. TTL and max-idle when no expiration is
+ * configured, cost nothing.
+ * <p>
+ * Slots of removed records are not reused until {@link #releaseDeferred()}
+ * is called, so records stay readable until the end of the operation which
+ * removed them.
+ * <p>
+ * Must be mutated only by the partition thread, but records escape to
+ * other threads, e.g. to parallel partition scans and query results. For
+ * them, columns are written with release and read with acquire semantics
+ * and a grown column replaces the old one only once it is filled. Every
+ * slot of a partition slab has a generation which is incremented when the
+ * slot is released, so a reader which raced with the release of a slot and
+ * its reuse by another record detects it with {@link #isLive} and reads again.
+ */
+public final class RecordSlab {
+
+    static final int TTL = 0;
+    static final int MAX_IDLE = 1;
+    static final int CREATION_TIME = 2;
+    static final int LAST_ACCESS_TIME = 3;
+    static final int LAST_UPDATE_TIME = 4;
+    static final int HITS = 5;
+    static final int LAST_STORED_TIME = 6;
+    static final int EXPIRATION_TIME = 7;
+
+    /**
+     * Number of columns used by records without statistics.
+     */
+    static final int BASIC_COLUMN_COUNT = 6;
+    static final int INT_COLUMN_COUNT = 8;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Field values of a newly created record, same as the ones of {@link AbstractRecord}.
+     */
+    private static final int[] NEW_RECORD_DEFAULTS
+            = {0, 0, UNSET, UNSET, UNSET, 0, UNSET, UNSET};
+
+    /**
+     * Field values most stored records have when no expiration is configured.
+     */
+    private static final int[] STORED_RECORD_DEFAULTS
+            = {Integer.MAX_VALUE, Integer.MAX_VALUE, UNSET, UNSET, UNSET, 0, UNSET, Integer.MAX_VALUE};
+
+    private final int[] defaults;
+    /**
+     * A single-record slab keeps its record at index 0 whatever the slot of
+     * the record, so a record can move into one without changing its slot.
+     */
+    private final int slotMask;
+    private final AtomicReferenceArray<AtomicIntegerArray> intColumns = new AtomicReferenceArray<>(INT_COLUMN_COUNT);
+    private volatile AtomicLongArray versions;
+    private volatile AtomicReferenceArray<Metadata> metadata;
+    /**
+     * {@code null} for single-record slabs, the slot of which is never reused.
+     */
+    private volatile AtomicIntegerArray generations;
+
+    private int capacity;
+    private int highWaterMark;
+    private int[] freeSlots = new int[0];
+    private int freeSlotCount;
+    private int[] deferredSlots = new int[0];
+    private int deferredSlotCount;
+
+    private RecordSlab(int[] defaults, int capacity, boolean singleRecord) {
+        this.defaults = defaults;
+        this.capacity = capacity;
+        this.slotMask = singleRecord ? 0 : -1;
+        this.generations = singleRecord ? null : new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * @return a new slab to be shared by all records of a partition
+     */
+    public static RecordSlab newPartitionSlab() {
+        return new RecordSlab(STORED_RECORD_DEFAULTS, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * @return a new slab holding a single record which has not been stored
+     * yet or has been removed
+     */
+    static RecordSlab newRecordSlab() {
+        return new RecordSlab(NEW_RECORD_DEFAULTS, 1, true);
+    }
+
+    boolean isSingleRecord() {
+        return slotMask == 0;
+    }
+
+    int allocate() {
+        if (isSingleRecord()) {
+            return 0;
+        }
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (highWaterMark == capacity) {
+            grow();
+        }
+        return highWaterMark++;
+    }
+
+    int getGeneration(int slot) {
+        AtomicIntegerArray generations = this.generations;
+        return generations == null ? 0 : generations.get(slot);
+    }
+
+    /**
+     * Checks whether the slot still belongs to the record which obtained it
+     * in the given generation. Must be called after reading the fields of
+     * the record.
+     */
+    boolean isLive(int slot, int generation) {
+        AtomicIntegerArray generations = this.generations;
+        return generations == null || generations.get(slot) == generation;
+    }
+
+    /**
+     * Releases the slot of a removed record on the next {@link #releaseDeferred()}.
+     */
+    void releaseLater(int slot) {
+        if (deferredSlotCount == deferredSlots.length) {
+            deferredSlots = Arrays.copyOf(deferredSlots, Math.max(DEFAULT_CAPACITY, deferredSlotCount * 2));
+        }
+        deferredSlots[deferredSlotCount++] = slot;
+    }
+
+    /**
+     * Makes the slots of records removed since the last call available for reuse.
+     */
+    public void releaseDeferred() {
+        if (deferredSlotCount == 0) {
+            return;
+        }
+        if (freeSlots.length < freeSlotCount + deferredSlotCount) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(DEFAULT_CAPACITY, (freeSlotCount + deferredSlotCount) * 2));
+        }
+        AtomicIntegerArray generations = this.generations;
+        AtomicReferenceArray<Metadata> metadata = this.metadata;
+        for (int i = 0; i < deferredSlotCount; i++) {
+            int slot = deferredSlots[i];
+            // the new generation is published before any write of the next owner
+            generations.lazySet(slot, generations.get(slot) + 1);
+            if (metadata != null) {
+                metadata.lazySet(slot, null);
+            }
+            freeSlots[freeSlotCount++] = slot;
+        }
+        deferredSlotCount = 0;
+    }
+
+    int getInt(int column, int slot) {
+        AtomicIntegerArray values = intColumns.get(column);
+        return values == null ? defaults[column] : values.get(slot & slotMask);
+    }
+
+    void setInt(int column, int slot, int value) {
+        AtomicIntegerArray values = intColumns.get(column);
+        if (values == null) {
+            if (value == defaults[column]) {
+                return;
+            }
+            int[] initial = new int[capacity];
+            Arrays.fill(initial, defaults[column]);
+            values = new AtomicIntegerArray(initial);
+            intColumns.set(column, values);
+        }
+        values.lazySet(slot & slotMask, value);
+    }
+
+    long getVersion(int slot) {
+        AtomicLongArray versions = this.versions;
+        return versions == null ? 0L : versions.get(slot & slotMask);
+    }
+
+    void setVersion(int slot, long version) {
+        AtomicLongArray versions = this.versions;
+        if (versions == null) {
+            if (version == 0L) {
+                return;
+            }
+            versions = new AtomicLongArray(capacity);
+            this.versions = versions;
+        }
+        versions.lazySet(slot & slotMask, version);
+    }
+
+    Metadata getMetadata(int slot) {
+        AtomicReferenceArray<Metadata> metadata = this.metadata;
+        return metadata == null ? null : metadata.get(slot & slotMask);
+    }
+
+    void setMetadata(int slot, Metadata value) {
+        AtomicReferenceArray<Metadata> metadata = this.metadata;
+        if (metadata == null) {
+            if (value == null) {
+                return;
+            }
+            metadata = new AtomicReferenceArray<>(capacity);
+            this.metadata = metadata;
+        }
+        metadata.lazySet(slot & slotMask, value);
+    }
+
+    /**
+     * Copies the fields of the given slot into a slot of another slab.
+     * Only the first {@code columnCount} int columns are copied.
+     */
+    void copy(int slot, RecordSlab target, int targetSlot, int columnCount) {
+        for (int column = 0; column < columnCount; column++) {
+            target.setInt(column, targetSlot, getInt(column, slot));
+        }
+        target.setVersion(targetSlot, getVersion(slot));
+        target.setMetadata(targetSlot, getMetadata(slot));
+    }
+
+    /**
+     * @return the heap cost of the allocated columns and slot bookkeeping in bytes
+     */
+    public long getCost() {
+        long cost = 0;
+        for (int column = 0; column < INT_COLUMN_COUNT; column++) {
+            if (intColumns.get(column) != null) {
+                cost += (long) capacity * INT_SIZE_IN_BYTES;
+            }
+        }
+        if (versions != null) {
+            cost += (long) capacity * LONG_SIZE_IN_BYTES;
+        }
+        if (metadata != null) {
+            cost += (long) capacity * REFERENCE_COST_IN_BYTES;
+        }
+        if (generations != null) {
+            cost += (long) capacity * INT_SIZE_IN_BYTES;
+        }
+        return cost + (long) (freeSlots.length + deferredSlots.length) * INT_SIZE_IN_BYTES;
+    }
+
+    /**
+     * Replaces the columns with larger copies. Readers holding an old column
+     * keep reading the values it had when it was replaced.
+     */
+    private void grow() {
+        int newCapacity = capacity * 2;
+        for (int column = 0; column < INT_COLUMN_COUNT; column++) {
+            AtomicIntegerArray values = intColumns.get(column);
+            if (values != null) {
+                int[] grown = new int[newCapacity];
+                for (int slot = 0; slot < capacity; slot++) {
+                    grown[slot] = values.get(slot);
+                }
+                Arrays.fill(grown, capacity, newCapacity, defaults[column]);
+                intColumns.set(column, new AtomicIntegerArray(grown));
+            }
+        }
+        AtomicLongArray versions = this.versions;
+        if (versions != null) {
+            long[] grown = new long[newCapacity];
+            for (int slot = 0; slot < capacity; slot++) {
+                grown[slot] = versions.get(slot);
+            }
+            this.versions = new AtomicLongArray(grown);
+        }
+        AtomicReferenceArray<Metadata> metadata = this.metadata;
+        if (metadata != null) {
+            Metadata[] grown = new Metadata[newCapacity];
+            for (int slot = 0; slot < capacity; slot++) {
+                grown[slot] = metadata.get(slot);
+            }
+            this.metadata = new AtomicReferenceArray<>(grown);
+        }
+        int[] grownGenerations = new int[newCapacity];
+        for (int slot = 0; slot < capacity; slot++) {
+            grownGenerations[slot] = generations.get(slot);
+        }
+        generations = new AtomicIntegerArray(grownGenerations);
+        capacity = newCapacity;
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.config.EventJournalConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.config.MetadataPolicy;
 import com.hazelcast.internal.locksupport.LockStore;
 import com.hazelcast.internal.locksupport.LockSupportService;
@@ -36,13 +37,18 @@ import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.query.ColumnarStore;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.UUID;
 
 import static com.hazelcast.map.impl.ExpirationTimeSetter.setExpirationTimes;
@@ -68,6 +74,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     protected Storage<Data, Record> storage;
     protected IndexingMutationObserver<Record> indexingObserver;
+    protected ColumnarStore columnarStore;
+    protected MerkleTree merkleTree;
+    protected MerkleTreeMutationObserver merkleTreeObserver;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -108,6 +117,21 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for columnar attributes
+        List<String> columnarAttributes = mapContainer.getMapConfig().getColumnarAttributes();
+        if (!columnarAttributes.isEmpty() && inMemoryFormat != InMemoryFormat.NATIVE) {
+            columnarStore = new ColumnarStore(columnarAttributes);
+            mutationObserver.add(new ColumnarMutationObserver(mapContainer, serializationService, columnarStore));
+        }
+
+        // Add observer for merkle tree
+        MerkleTreeConfig merkleTreeConfig = mapContainer.getMapConfig().getMerkleTreeConfig();
+        if (merkleTreeConfig.isEnabled() && inMemoryFormat != InMemoryFormat.NATIVE) {
+            merkleTree = new ArrayMerkleTree(merkleTreeConfig.getDepth());
+            merkleTreeObserver = new MerkleTreeMutationObserver(serializationService, merkleTree);
+            mutationObserver.add(merkleTreeObserver);
+        }
     }
 
     // Overridden in EE.
@@ -120,6 +144,21 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         return indexingObserver;
     }
 
+    @Override
+    public ColumnarStore getColumnarStore() {
+        return columnarStore;
+    }
+
+    @Override
+    public MerkleTree getMerkleTree() {
+        return merkleTree;
+    }
+
+    @Override
+    public long getMerkleTreeCost() {
+        return merkleTreeObserver == null ? 0 : merkleTreeObserver.footprint();
+    }
+
     @Override
     public InMemoryFormat getInMemoryFormat() {
         return inMemoryFormat;
@@ -168,6 +207,12 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == InMemoryFormat.NATIVE) {
+            return new NativeStorage(mapServiceContext.getNativeMemoryManager(), serializationService);
+        }
+        if (recordFactory instanceof CompactDataRecordFactory) {
+            return new CompactRecordStorage(serializationService);
+        }
         return new StorageImpl(memoryFormat, serializationService);
     }
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.query.ColumnarStore;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+
+/**
+ * Keeps the {@link ColumnarStore} of a partition in sync with the
+ * mutations of its {@link RecordStore}.
+ * <p>
+ * Unlike indexes, the columnar store is maintained on backup replicas too,
+ * so it is complete as soon as a backup is promoted to owner.
+ */
+public class ColumnarMutationObserver implements MutationObserver<Record> {
+
+    private final MapContainer mapContainer;
+    private final SerializationService ss;
+    private final ColumnarStore columnarStore;
+
+    public ColumnarMutationObserver(MapContainer mapContainer, SerializationService ss,
+                                    ColumnarStore columnarStore) {
+        this.mapContainer = mapContainer;
+        this.ss = ss;
+        this.columnarStore = columnarStore;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        put(key, record);
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        put(key, record);
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        put(key, record);
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        columnarStore.remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        columnarStore.remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        put(key, record);
+    }
+
+    @Override
+    public void onReset() {
+        columnarStore.clear();
+    }
+
+    @Override
+    public void onClear() {
+        columnarStore.clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        columnarStore.clear();
+    }
+
+    private void put(Data key, Record record) {
+        if (record == null) {
+            // setTtl on a loaded entry reports the put without a record
+            return;
+        }
+        Object value = getValueOrCachedValue(record, ss);
+        if (value == null) {
+            columnarStore.remove(key);
+        } else {
+            columnarStore.put(key, mapContainer.newQueryEntry(key, value));
+        }
+    }
+}
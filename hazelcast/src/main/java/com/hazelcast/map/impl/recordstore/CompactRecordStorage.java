@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.CompactDataRecord;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordSlab;
+
+import static com.hazelcast.config.InMemoryFormat.BINARY;
+
+/**
+ * {@link StorageImpl} for {@link CompactDataRecord}s. Records put into this
+ * storage are attached to a {@link RecordSlab} shared by the whole partition,
+ * slots of removed records are recycled by {@link #disposeDeferredBlocks()}
+ * at the end of the operation which removed them.
+ * <p>
+ * The heap cost of the slab is added to the entry cost estimate on top of
+ * the per-record costs.
+ */
+public class CompactRecordStorage extends StorageImpl<Record> {
+
+    private RecordSlab slab = RecordSlab.newPartitionSlab();
+    private long slabCost = slab.getCost();
+
+    CompactRecordStorage(SerializationService serializationService) {
+        super(BINARY, serializationService);
+        updateCostEstimate(slabCost);
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        Record previousRecord = get(key);
+        ((CompactDataRecord) record).attach(slab);
+        super.put(key, record);
+        if (previousRecord != null && previousRecord != record) {
+            ((CompactDataRecord) previousRecord).release();
+        }
+        updateSlabCost();
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, Record record) {
+        super.removeRecord(dataKey, record);
+        ((CompactDataRecord) record).release();
+        updateSlabCost();
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        slab.releaseDeferred();
+        updateSlabCost();
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        super.clear(isDuringShutdown);
+        slab = RecordSlab.newPartitionSlab();
+        slabCost = slab.getCost();
+        updateCostEstimate(slabCost);
+    }
+
+    RecordSlab getSlab() {
+        return slab;
+    }
+
+    private void updateSlabCost() {
+        long newSlabCost = slab.getCost();
+        if (newSlabCost != slabCost) {
+            updateCostEstimate(newSlabCost - slabCost);
+            slabCost = newSlabCost;
+        }
+    }
+}
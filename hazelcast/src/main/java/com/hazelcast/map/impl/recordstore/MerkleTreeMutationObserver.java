@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+
+import javax.annotation.Nonnull;
+
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.Records.getValueOrCachedValue;
+
+/**
+ * Keeps the {@link MerkleTree} of a partition in sync with the mutations
+ * of its {@link RecordStore}.
+ * <p>
+ * Each entry contributes a hash of its serialized key and value to the
+ * leaf its key falls into, so the trees of two replicas holding the same
+ * entries are equal. The last contributed hash is remembered per key,
+ * which keeps the tree consistent even for mutations that don't report
+ * the previous value, such as replicated puts overwriting an entry.
+ * The hashes are kept in a primitive open-addressing map and counted in
+ * {@link #footprint()}.
+ * <p>
+ * Values which are already serialized, such as the values of
+ * {@link com.hazelcast.config.InMemoryFormat#BINARY BINARY} maps or the
+ * new values of most updates, are hashed as they are. Only deserialized
+ * values are serialized for hashing.
+ * <p>
+ * The tree is maintained on backup replicas too, so replica sync can
+ * compare the trees and transfer only the differing leaves.
+ */
+public class MerkleTreeMutationObserver implements MutationObserver<Record> {
+
+    // entry hashes are ints, so this can never be a stored hash
+    private static final long NO_HASH = Long.MIN_VALUE;
+
+    private final SerializationService ss;
+    private final MerkleTree merkleTree;
+    private final Object2LongHashMap<Data> entryHashes = new Object2LongHashMap<>(NO_HASH);
+
+    public MerkleTreeMutationObserver(SerializationService ss, MerkleTree merkleTree) {
+        this.ss = ss;
+        this.merkleTree = merkleTree;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        putRecord(key, record);
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        putRecord(key, record);
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        // some callers notify before the new value is set on the record
+        put(key, newValue != null ? newValue : getValueOrCachedValue(record, ss));
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        putRecord(key, record);
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+
+    @Override
+    public void onClear() {
+        clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        clear();
+    }
+
+    /**
+     * Returns the hash an entry contributes to its leaf of the tree.
+     * Replicas must agree on it, so it is derived from the serialized
+     * forms of the key and the value only.
+     */
+    public static int entryHash(Data key, Data value) {
+        return 31 * key.hashCode() + value.hashCode();
+    }
+
+    /**
+     * Returns the memory footprint of the Merkle tree and of the entry
+     * hashes kept to maintain it, in bytes.
+     */
+    public long footprint() {
+        return merkleTree.footprint()
+                + (long) entryHashes.capacity() * (REFERENCE_COST_IN_BYTES + LONG_SIZE_IN_BYTES);
+    }
+
+    private void putRecord(Data key, Record record) {
+        if (record == null) {
+            // setTtl on a loaded entry reports the put without a record
+            return;
+        }
+        put(key, getValueOrCachedValue(record, ss));
+    }
+
+    private void put(Data key, Object value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        // toData returns already serialized values as they are
+        int newHash = entryHash(key, ss.toData(value));
+        long oldHash = entryHashes.put(key, newHash);
+        if (oldHash == NO_HASH) {
+            merkleTree.updateAdd(key, newHash);
+        } else if (oldHash != newHash) {
+            merkleTree.updateReplace(key, (int) oldHash, newHash);
+        }
+    }
+
+    private void remove(Data key) {
+        long oldHash = entryHashes.removeKey(key);
+        if (oldHash != NO_HASH) {
+            merkleTree.updateRemove(key, (int) oldHash);
+        }
+    }
+
+    private void clear() {
+        entryHashes.clear();
+        merkleTree.clear();
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.collection.Long2LongHashMap;
+import com.hazelcast.internal.util.collection.Long2ObjectHashMap;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.query.impl.Metadata;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.HeapMemoryAccessor.ARRAY_BYTE_BASE_OFFSET;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+
+/**
+ * {@link Storage} for {@link com.hazelcast.config.InMemoryFormat#NATIVE} maps
+ * which keeps keys, values and record metadata outside of the Java heap.
+ * <p>
+ * Every entry is a single off-heap block holding a {@link NativeRecord}
+ * header, a pointer to the next entry of the same bucket and the serialized
+ * key. The value lives in a separate block referenced by the record header.
+ * Entries are indexed by a {@link HashSlotArray8byteKeyImpl} keyed by the
+ * 64-bit hash of the key, the slot value is the head of the (almost always
+ * single element) chain of entries sharing that hash. Only the {@link
+ * Metadata} of records, which is rarely present, is kept on-heap.
+ * <p>
+ * Records handed out by this storage are flyweights over the entry blocks.
+ * Blocks of removed entries are not released immediately but on the next
+ * {@link #disposeDeferredBlocks()} call, which happens after each map
+ * operation, so flyweights obtained during an operation stay valid until its
+ * end. Keys and values are always returned as on-heap copies.
+ * <p>
+ * Not thread-safe except for {@link #size()} and {@link #isEmpty()}, all
+ * other methods must be called from the partition thread.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeStorage implements Storage<Data, Record> {
+
+    /**
+     * Size of an entry block, excluding the serialized key.
+     */
+    public static final int ENTRY_HEADER_SIZE = NativeRecord.SIZE + 2 * LONG_SIZE_IN_BYTES;
+
+    private static final int NEXT_OFFSET = NativeRecord.SIZE;
+    // the key size is followed by 4 bytes of padding to keep the key 8-byte aligned
+    private static final int KEY_SIZE_OFFSET = NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    private static final int KEY_OFFSET = ENTRY_HEADER_SIZE;
+
+    private static final int ITERATOR_FETCH_SIZE = 100;
+
+    private final EntryIndex index;
+    private final MemoryAllocator malloc;
+    private final SerializationService serializationService;
+    private final RecordFactory<Data> recordFactory;
+    private final Long2ObjectHashMap<Metadata> metadataStore = new Long2ObjectHashMap<>();
+    private final Long2LongHashMap deferredEntries = new Long2LongHashMap(NULL_ADDRESS);
+
+    private volatile int size;
+    private boolean disposed;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    public NativeStorage(MemoryManager memoryManager, SerializationService serializationService) {
+        this.malloc = memoryManager.getAllocator();
+        this.serializationService = serializationService;
+        this.recordFactory = new NativeRecordFactory(serializationService);
+        this.entryCostEstimator = createMapSizeEstimator(NATIVE);
+        this.index = new EntryIndex(memoryManager);
+        this.index.gotoNew();
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Only the partition thread mutates the storage, other threads only read its size.")
+    public void put(Data key, Record record) {
+        long keyHash = key.hash64();
+        long bucket = bucketOf(keyHash);
+        long previous = NULL_ADDRESS;
+        long existing = bucket == NULL_ADDRESS ? NULL_ADDRESS : MEM.getLong(bucket);
+        while (existing != NULL_ADDRESS && !keyEquals(existing, key)) {
+            previous = existing;
+            existing = nextOf(existing);
+        }
+
+        if (existing != NULL_ADDRESS && record instanceof NativeRecord
+                && !((NativeRecord) record).isDetached() && ((NativeRecord) record).getAddress() == existing) {
+            // the record is already stored under this key
+            return;
+        }
+
+        NativeRecord newRecord = toDetachedRecord(record);
+        long entry = newEntry(key, newRecord);
+        if (existing != NULL_ADDRESS) {
+            MEM.putLong(entry + NEXT_OFFSET, nextOf(existing));
+            if (previous == NULL_ADDRESS) {
+                MEM.putLong(bucket, entry);
+            } else {
+                MEM.putLong(previous + NEXT_OFFSET, entry);
+            }
+            updateCostEstimate(-entryCostEstimator.calculateValueCost(recordOf(existing)));
+            updateCostEstimate(entryCostEstimator.calculateValueCost(newRecord));
+            deferFree(existing);
+            return;
+        }
+
+        SlotAssignmentResult slot;
+        try {
+            slot = index.ensure(keyHash);
+        } catch (NativeOutOfMemoryError e) {
+            metadataStore.remove(entry);
+            freeEntry(entry);
+            throw e;
+        }
+        MEM.putLong(entry + NEXT_OFFSET, slot.isNew() ? NULL_ADDRESS : MEM.getLong(slot.address()));
+        MEM.putLong(slot.address(), entry);
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, newRecord));
+    }
+
+    @Override
+    public void updateRecordValue(Data key, Record record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        record.setValue(serializationService.toData(value));
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public Record get(Data key) {
+        long entry = findEntry(key);
+        return entry == NULL_ADDRESS ? null : recordOf(entry);
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        return get(key);
+    }
+
+    @Override
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Only the partition thread mutates the storage, other threads only read its size.")
+    public void removeRecord(Data key, Record record) {
+        long keyHash = key.hash64();
+        long bucket = bucketOf(keyHash);
+        if (bucket == NULL_ADDRESS) {
+            return;
+        }
+
+        long previous = NULL_ADDRESS;
+        for (long entry = MEM.getLong(bucket); entry != NULL_ADDRESS; entry = nextOf(entry)) {
+            if (!keyEquals(entry, key)) {
+                previous = entry;
+                continue;
+            }
+
+            long next = nextOf(entry);
+            if (previous != NULL_ADDRESS) {
+                MEM.putLong(previous + NEXT_OFFSET, next);
+            } else if (next != NULL_ADDRESS) {
+                MEM.putLong(bucket, next);
+            } else {
+                index.remove(keyHash);
+            }
+            size--;
+            updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, recordOf(entry)));
+            deferFree(entry);
+            return;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findEntry(key) != NULL_ADDRESS;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (disposed) {
+            return;
+        }
+
+        long capacity = index.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            if (!index.isAssigned(slot)) {
+                continue;
+            }
+            long entry = MEM.getLong(index.valueAddressOf(slot));
+            while (entry != NULL_ADDRESS) {
+                long next = nextOf(entry);
+                deferFree(entry);
+                entry = next;
+            }
+        }
+        index.clear();
+        index.trimToSize();
+        metadataStore.clear();
+        size = 0;
+        entryCostEstimator.reset();
+
+        if (isDuringShutdown) {
+            disposeDeferredBlocks();
+        }
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        if (disposed) {
+            return;
+        }
+
+        clear(isDuringShutdown);
+        disposeDeferredBlocks();
+        index.dispose();
+        disposed = true;
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        if (deferredEntries.isEmpty()) {
+            return;
+        }
+
+        Long2LongHashMap.LongLongCursor cursor = deferredEntries.cursor();
+        while (cursor.advance()) {
+            freeEntry(cursor.key(), cursor.value());
+        }
+        deferredEntries.clear();
+    }
+
+    @Override
+    public Iterable getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0 || disposed) {
+            return Collections.emptyList();
+        }
+
+        List<EntryView> samples = new ArrayList<>(sampleCount);
+        long capacity = index.capacity();
+        long start = ThreadLocalRandomProvider.get().nextInt((int) capacity);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long slot = (start + i) & (capacity - 1);
+            if (!index.isAssigned(slot)) {
+                continue;
+            }
+            long entry = MEM.getLong(index.valueAddressOf(slot));
+            for (; entry != NULL_ADDRESS && samples.size() < sampleCount; entry = nextOf(entry)) {
+                samples.add(new LazyEvictableEntryView<>(keyOf(entry), recordOf(entry), serializationService));
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size, entry -> keys.add(keyOf(entry)));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                entry -> entries.add(new AbstractMap.SimpleEntry<>(keyOf(entry), recordOf(entry).getValue())));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Record extractRecordFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getRecord();
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * Fetches at least {@code size} entries starting from the given pointers.
+     * Entries are visited by descending home slot, that is the slot their key
+     * hash maps to, rather than by the slot they occupy. The home slot of an
+     * entry does not change when other entries are removed, therefore the
+     * pointers stay accurate between calls as long as the index is not resized.
+     * Resizes are handled the same way as in
+     * {@link com.hazelcast.internal.util.SampleableConcurrentHashMap}.
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size, LongConsumer entryConsumer) {
+        if (disposed) {
+            IterationPointer[] finished = {new IterationPointer(-1, -1)};
+            return finished;
+        }
+
+        int capacity = (int) index.capacity();
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextHomeSlot;
+        if (lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity) {
+            nextHomeSlot = lastPointer.getIndex();
+        } else {
+            nextHomeSlot = capacity - 1;
+        }
+        int counter = 0;
+        while (nextHomeSlot >= 0 && counter < size) {
+            counter += fetchHomeSlot(nextHomeSlot--, pointers, entryConsumer);
+        }
+        lastPointer.setIndex(nextHomeSlot);
+        return pointers;
+    }
+
+    private int fetchHomeSlot(long homeSlot, IterationPointer[] pointers, LongConsumer entryConsumer) {
+        int fetched = 0;
+        long mask = index.capacity() - 1;
+        // with linear probing all keys of a home slot are in the run of assigned slots starting at it
+        for (long slot = homeSlot; index.isAssigned(slot); slot = (slot + 1) & mask) {
+            long keyHash = index.keyOf(slot);
+            if (index.homeSlotOf(keyHash, mask) != homeSlot || !hasNotBeenObserved(keyHash, pointers)) {
+                continue;
+            }
+            for (long entry = MEM.getLong(index.valueAddressOf(slot)); entry != NULL_ADDRESS; entry = nextOf(entry)) {
+                entryConsumer.accept(entry);
+                fetched++;
+            }
+        }
+        return fetched;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int capacity) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean indexResized = lastPointer.getSize() != capacity;
+        int newLength = !iterationStarted && indexResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        if (iterationStarted || indexResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, capacity);
+        }
+        return updatedPointers;
+    }
+
+    private boolean hasNotBeenObserved(long keyHash, IterationPointer[] pointers) {
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer pointer = pointers[i];
+            if (index.homeSlotOf(keyHash, pointer.getSize() - 1) > pointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long findEntry(Data key) {
+        long bucket = bucketOf(key.hash64());
+        if (bucket == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        for (long entry = MEM.getLong(bucket); entry != NULL_ADDRESS; entry = nextOf(entry)) {
+            if (keyEquals(entry, key)) {
+                return entry;
+            }
+        }
+        return NULL_ADDRESS;
+    }
+
+    private long bucketOf(long keyHash) {
+        return disposed ? NULL_ADDRESS : index.get(keyHash);
+    }
+
+    private NativeRecord toDetachedRecord(Record record) {
+        if (record instanceof NativeRecord && ((NativeRecord) record).isDetached()) {
+            return (NativeRecord) record;
+        }
+        Record copy = recordFactory.newRecord(record.getValue());
+        Records.copyMetadataFrom(record, copy);
+        copy.setMetadata(record.getMetadata());
+        return (NativeRecord) copy;
+    }
+
+    private long newEntry(Data key, NativeRecord record) {
+        byte[] keyBytes = key.toByteArray();
+        long entry = malloc.allocate(ENTRY_HEADER_SIZE + keyBytes.length);
+        try {
+            record.attach(entry, malloc, metadataStore);
+        } catch (NativeOutOfMemoryError e) {
+            malloc.free(entry, ENTRY_HEADER_SIZE + keyBytes.length);
+            throw e;
+        }
+        MEM.putLong(entry + NEXT_OFFSET, NULL_ADDRESS);
+        MEM.putInt(entry + KEY_SIZE_OFFSET, keyBytes.length);
+        MEM.copyFromByteArray(keyBytes, 0, entry + KEY_OFFSET, keyBytes.length);
+        return entry;
+    }
+
+    private void deferFree(long entry) {
+        metadataStore.remove(entry);
+        deferredEntries.put(entry, ENTRY_HEADER_SIZE + keySizeOf(entry));
+    }
+
+    private void freeEntry(long entry) {
+        freeEntry(entry, ENTRY_HEADER_SIZE + keySizeOf(entry));
+    }
+
+    private void freeEntry(long entry, long entrySize) {
+        // the value block is read at free time, it may have been replaced after the entry was removed
+        long valueAddress = NativeRecord.getValueAddress(entry);
+        if (valueAddress != NULL_ADDRESS) {
+            malloc.free(valueAddress, NativeRecord.getValueSize(entry));
+        }
+        malloc.free(entry, entrySize);
+    }
+
+    private NativeRecord recordOf(long entry) {
+        return new NativeRecord(entry, malloc, metadataStore);
+    }
+
+    private static long nextOf(long entry) {
+        return MEM.getLong(entry + NEXT_OFFSET);
+    }
+
+    private static int keySizeOf(long entry) {
+        return MEM.getInt(entry + KEY_SIZE_OFFSET);
+    }
+
+    private static Data keyOf(long entry) {
+        byte[] keyBytes = new byte[keySizeOf(entry)];
+        MEM.copyToByteArray(entry + KEY_OFFSET, keyBytes, 0, keyBytes.length);
+        return new HeapData(keyBytes);
+    }
+
+    private static boolean keyEquals(long entry, Data key) {
+        byte[] keyBytes = key.toByteArray();
+        int length = keyBytes.length;
+        if (keySizeOf(entry) != length) {
+            return false;
+        }
+        // both the off-heap key and the array payload are 8-byte aligned
+        long keyAddress = entry + KEY_OFFSET;
+        int i = 0;
+        for (; i <= length - LONG_SIZE_IN_BYTES; i += LONG_SIZE_IN_BYTES) {
+            if (MEM.getLong(keyAddress + i) != MEM.getLong(keyBytes, ARRAY_BYTE_BASE_OFFSET + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (MEM.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash slot array keyed by key hashes whose 8-byte value is the address
+     * of the first entry with that key hash. Exposes the slot level accessors
+     * needed to iterate the entries in a removal tolerant order.
+     */
+    private static final class EntryIndex extends HashSlotArray8byteKeyImpl {
+
+        private static final int VALUE_LENGTH = 8;
+        private static final int VALUE_OFFSET = 8;
+
+        EntryIndex(MemoryManager memoryManager) {
+            super(NULL_ADDRESS, memoryManager, VALUE_LENGTH);
+        }
+
+        boolean isAssigned(long slot) {
+            return isAssigned(address(), slot);
+        }
+
+        long keyOf(long slot) {
+            return key1OfSlot(address(), slot);
+        }
+
+        long valueAddressOf(long slot) {
+            return slotBase(address(), slot) + VALUE_OFFSET;
+        }
+
+        long homeSlotOf(long keyHash, long mask) {
+            return keyHash(keyHash, 0) & mask;
+        }
+    }
+
+    /**
+     * Iterates over a snapshot of keys fetched in batches, the records are
+     * looked up again when they are returned. It holds no reference to
+     * off-heap memory between calls, so it can be used across operations.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private final ArrayDeque<Data> keys = new ArrayDeque<>();
+        private IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        private Data nextKey;
+
+        @Override
+        public boolean hasNext() {
+            if (nextKey != null && containsKey(nextKey)) {
+                return true;
+            }
+            nextKey = null;
+            while (!disposed) {
+                Data key = keys.poll();
+                if (key == null) {
+                    if (pointers[pointers.length - 1].getIndex() < 0) {
+                        return false;
+                    }
+                    pointers = fetchNext(pointers, ITERATOR_FETCH_SIZE, entry -> keys.add(keyOf(entry)));
+                } else if (containsKey(key)) {
+                    nextKey = key;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Data key = nextKey;
+            nextKey = null;
+            return new AbstractMap.SimpleEntry<>(key, get(key));
+        }
+    }
+}
@@ -32,12 +32,14 @@ import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
+import com.hazelcast.map.impl.query.ColumnarStore;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import java.util.List;
 import java.util.Set;
@@ -486,6 +488,27 @@ public interface RecordStore<R extends Record> {
 
     Storage getStorage();
 
+    /**
+     * @return the columnar shadow store of this partition or {@code null}
+     * if no columnar attributes are configured for the map
+     * @see com.hazelcast.config.MapConfig#setColumnarAttributes(java.util.List)
+     */
+    ColumnarStore getColumnarStore();
+
+    /**
+     * @return the Merkle tree of this partition or {@code null}
+     * if Merkle trees are not enabled for the map
+     * @see com.hazelcast.config.MapConfig#setMerkleTreeConfig(com.hazelcast.config.MerkleTreeConfig)
+     */
+    MerkleTree getMerkleTree();
+
+    /**
+     * @return the memory footprint of the Merkle tree of this partition
+     * and of the entry hashes kept to maintain it, or {@code 0} if Merkle
+     * trees are not enabled for the map
+     */
+    long getMerkleTreeCost();
+
     void sampleAndForceRemoveEntries(int entryCountToRemove);
 
     /**
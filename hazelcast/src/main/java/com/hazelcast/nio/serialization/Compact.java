@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * Compact is a schema-based serialization method that requires no
+ * hand-written serialization code. The schema of a class implementing this
+ * marker interface is derived reflectively from its non-static, non-transient
+ * fields and is replicated to all cluster members, so the serialized form
+ * carries only a schema ID followed by the field values.
+ *
+ * <p>
+ *
+ * Compact serialization has the following advantages:
+ * <ul>
+ *     <li>Fixed-size fields are laid out at fixed offsets and variable-size
+ *     fields are located through an offset table, so individual fields can
+ *     be read without deserializing the object.</li>
+ *     <li>Querying and indexing support without de-serialization, including
+ *     nested compact objects.</li>
+ *     <li>The serialized form is smaller than Java or Portable serialization
+ *     since no field names or class descriptors are written.</li>
+ *     <li>Fields added or removed in a newer version of the class are
+ *     tolerated; missing fields are left at their default values.</li>
+ * </ul>
+ * <p>
+ * Conforming classes must provide a no-arguments constructor, which may be
+ * private. Fields of primitive types and {@link String} are handled natively,
+ * fields of any other type are serialized using the regular serialization
+ * service lookup.
+ * <p>
+ * Compact serialization is supported on cluster members only. Clients can't
+ * share the schemas with the members, so they reject compact objects and
+ * compact data with a {@link HazelcastSerializationException}.
+ *
+ * @see com.hazelcast.nio.serialization.Portable
+ * @see com.hazelcast.nio.serialization.DataSerializable
+ */
+public interface Compact {
+}
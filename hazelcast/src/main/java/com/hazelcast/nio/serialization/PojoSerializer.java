@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.internal.util.HashUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@link StreamSerializer} for plain Java objects which writes the values
+ * of their non-static, non-transient fields one after another, without any
+ * class descriptors or field names.
+ * <p>
+ * The field accessors are resolved once, when the serializer is created, into
+ * {@link MethodHandle}s adapted to exact primitive signatures, so serializing
+ * an object is a straight-line sequence of typed reads and writes with no
+ * reflective lookups and no boxing of primitive fields. This makes it a much
+ * cheaper replacement for Java serialization of user classes, both in CPU and
+ * in the size of the serialized form.
+ * <p>
+ * The serializer is registered per type, for example in the declarative
+ * configuration:
+ * <pre>
+ *     &lt;serializer type-class="com.acme.Employee"
+ *                 class-name="com.hazelcast.nio.serialization.PojoSerializer"/&gt;
+ * </pre>
+ * or programmatically with {@code new SerializerConfig().setTypeClass(Employee.class)
+ * .setImplementation(new PojoSerializer<>(Employee.class))}.
+ * <p>
+ * Conforming classes must provide a no-arguments constructor, which may be
+ * private. Fields are written in the order of their names, so the class must
+ * have the same fields on all members and clients. Fields of primitive types,
+ * {@link String} and primitive arrays are written directly, fields of any other
+ * type are serialized using the regular serialization service lookup.
+ * <p>
+ * The serializer handles instances of exactly the registered type. Since the
+ * serialization service also selects it for subclasses of the registered type,
+ * serializing a subclass instance fails instead of silently dropping the
+ * fields declared by the subclass; register a serializer for the subclass too.
+ * <p>
+ * Unless given explicitly, the type ID is derived from the class name. A
+ * collision with the type ID of another serializer is reported when the
+ * serializer is registered.
+ *
+ * @param <T> type of the serialized object
+ */
+public final class PojoSerializer<T> implements StreamSerializer<T> {
+
+    private static final Comparator<Field> FIELD_ORDER = Comparator.comparing(Field::getName);
+
+    private final Class<T> type;
+    private final int typeId;
+    private final MethodHandle constructor;
+    private final FieldCodec[] codecs;
+
+    public PojoSerializer(Class<T> type) {
+        this(type, defaultTypeId(type));
+    }
+
+    public PojoSerializer(Class<T> type, int typeId) {
+        if (typeId <= 0) {
+            throw new IllegalArgumentException("Type ID must be positive: " + typeId);
+        }
+        this.type = type;
+        this.typeId = typeId;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<T> declaredConstructor = type.getDeclaredConstructor();
+            declaredConstructor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(declaredConstructor)
+                    .asType(MethodType.methodType(Object.class));
+            List<Field> fields = serializableFields(type);
+            this.codecs = new FieldCodec[fields.size()];
+            for (int i = 0; i < codecs.length; i++) {
+                codecs[i] = FieldCodec.of(lookup, fields.get(i));
+            }
+        } catch (NoSuchMethodException e) {
+            throw new HazelcastSerializationException(type.getName() + " must have a no-arguments constructor", e);
+        } catch (IllegalAccessException e) {
+            throw new HazelcastSerializationException("Cannot access the fields of " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return typeId;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, T object) throws IOException {
+        if (object.getClass() != type) {
+            // a subclass matched through the registration of its superclass, its own fields would be lost
+            throw new HazelcastSerializationException(this + " cannot serialize an instance of its subclass "
+                    + object.getClass().getName() + ", register a serializer for the subclass");
+        }
+        try {
+            for (FieldCodec codec : codecs) {
+                codec.write(out, object);
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new HazelcastSerializationException(t);
+        }
+    }
+
+    @Override
+    public T read(ObjectDataInput in) throws IOException {
+        try {
+            Object object = constructor.invokeExact();
+            for (FieldCodec codec : codecs) {
+                codec.read(in, object);
+            }
+            return type.cast(object);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new HazelcastSerializationException(t);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public String toString() {
+        return "PojoSerializer{type=" + type.getName() + ", typeId=" + typeId + '}';
+    }
+
+    private static int defaultTypeId(Class<?> type) {
+        byte[] name = type.getName().getBytes(UTF_8);
+        int typeId = HashUtil.MurmurHash3_x86_32(name, 0, name.length) & Integer.MAX_VALUE;
+        return typeId == 0 ? 1 : typeId;
+    }
+
+    private static List<Field> serializableFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        // the order of the declared fields is unspecified, the order of the names is stable
+        fields.sort(FIELD_ORDER.thenComparing(field -> field.getDeclaringClass().getName()));
+        return fields;
+    }
+
+    /**
+     * Reads and writes a single field through method handles of exact type,
+     * so that primitive values are never boxed.
+     */
+    private abstract static class FieldCodec {
+
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        FieldCodec(MethodHandles.Lookup lookup, Field field, Class<?> valueType) throws IllegalAccessException {
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(valueType, Object.class));
+            this.setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, valueType));
+        }
+
+        abstract void write(ObjectDataOutput out, Object object) throws Throwable;
+
+        abstract void read(ObjectDataInput in, Object object) throws Throwable;
+
+        @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+        static FieldCodec of(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            Class<?> fieldType = field.getType();
+            if (fieldType == boolean.class) {
+                return new BooleanCodec(lookup, field);
+            } else if (fieldType == byte.class) {
+                return new ByteCodec(lookup, field);
+            } else if (fieldType == char.class) {
+                return new CharCodec(lookup, field);
+            } else if (fieldType == short.class) {
+                return new ShortCodec(lookup, field);
+            } else if (fieldType == int.class) {
+                return new IntCodec(lookup, field);
+            } else if (fieldType == long.class) {
+                return new LongCodec(lookup, field);
+            } else if (fieldType == float.class) {
+                return new FloatCodec(lookup, field);
+            } else if (fieldType == double.class) {
+                return new DoubleCodec(lookup, field);
+            } else if (fieldType == String.class) {
+                return new StringCodec(lookup, field);
+            } else if (fieldType == byte[].class) {
+                return new ByteArrayCodec(lookup, field);
+            } else if (fieldType == int[].class) {
+                return new IntArrayCodec(lookup, field);
+            } else if (fieldType == long[].class) {
+                return new LongArrayCodec(lookup, field);
+            } else if (fieldType == double[].class) {
+                return new DoubleArrayCodec(lookup, field);
+            } else {
+                return new ObjectCodec(lookup, field);
+            }
+        }
+    }
+
+    private static final class BooleanCodec extends FieldCodec {
+
+        BooleanCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, boolean.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeBoolean((boolean) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readBoolean());
+        }
+    }
+
+    private static final class ByteCodec extends FieldCodec {
+
+        ByteCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, byte.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeByte((byte) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readByte());
+        }
+    }
+
+    private static final class CharCodec extends FieldCodec {
+
+        CharCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, char.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeChar((char) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readChar());
+        }
+    }
+
+    private static final class ShortCodec extends FieldCodec {
+
+        ShortCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, short.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeShort((short) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readShort());
+        }
+    }
+
+    private static final class IntCodec extends FieldCodec {
+
+        IntCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, int.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeInt((int) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readInt());
+        }
+    }
+
+    private static final class LongCodec extends FieldCodec {
+
+        LongCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, long.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeLong((long) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readLong());
+        }
+    }
+
+    private static final class FloatCodec extends FieldCodec {
+
+        FloatCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, float.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeFloat((float) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readFloat());
+        }
+    }
+
+    private static final class DoubleCodec extends FieldCodec {
+
+        DoubleCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, double.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeDouble((double) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readDouble());
+        }
+    }
+
+    private static final class StringCodec extends FieldCodec {
+
+        StringCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, String.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeUTF((String) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readUTF());
+        }
+    }
+
+    private static final class ByteArrayCodec extends FieldCodec {
+
+        ByteArrayCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, byte[].class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeByteArray((byte[]) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readByteArray());
+        }
+    }
+
+    private static final class IntArrayCodec extends FieldCodec {
+
+        IntArrayCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, int[].class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeIntArray((int[]) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readIntArray());
+        }
+    }
+
+    private static final class LongArrayCodec extends FieldCodec {
+
+        LongArrayCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, long[].class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeLongArray((long[]) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readLongArray());
+        }
+    }
+
+    private static final class DoubleArrayCodec extends FieldCodec {
+
+        DoubleArrayCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, double[].class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeDoubleArray((double[]) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readDoubleArray());
+        }
+    }
+
+    private static final class ObjectCodec extends FieldCodec {
+
+        ObjectCodec(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+            super(lookup, field, Object.class);
+        }
+
+        @Override
+        void write(ObjectDataOutput out, Object object) throws Throwable {
+            out.writeObject((Object) getter.invokeExact(object));
+        }
+
+        @Override
+        void read(ObjectDataInput in, Object object) throws Throwable {
+            setter.invokeExact(object, in.readObject());
+        }
+    }
+}
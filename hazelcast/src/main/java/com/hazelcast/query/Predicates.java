@@ -19,6 +19,7 @@ package com.hazelcast.query;
 import com.hazelcast.query.impl.predicates.FalsePredicate;
 import com.hazelcast.query.impl.PredicateBuilderImpl;
 import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.AttributeComparator;
 import com.hazelcast.query.impl.predicates.BetweenPredicate;
 import com.hazelcast.query.impl.predicates.EqualPredicate;
 import com.hazelcast.query.impl.predicates.GreaterLessPredicate;
@@ -39,6 +40,8 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
 
+import static com.hazelcast.internal.util.Preconditions.checkHasText;
+
 /**
  * A utility class to create new {@link PredicateBuilder} and {@link com.hazelcast.query.Predicate} instances.
  * <p>
@@ -556,6 +559,25 @@ public final class Predicates {
         return new PagingPredicateImpl<>(predicate, comparator, pageSize);
     }
 
+    /**
+     * Creates a comparator ordering map entries by the value of the given attribute, to be used as the comparator of
+     * a paging predicate. Numbers are compared by their numeric value regardless of their type, enums by their name
+     * and {@code null} values are ordered before all other values.
+     * <p>
+     * If the attribute is covered by a sorted index, the members walk the index in order and stop as soon as the
+     * requested page is complete instead of sorting all the matching entries.
+     *
+     * @param attribute  the attribute to order the entries by
+     * @param descending {@code true} for the descending order, {@code false} for the ascending one
+     * @param <K>        the type of keys the comparator operates on.
+     * @param <V>        the type of values the comparator operates on.
+     * @see #pagingPredicate(Predicate, Comparator, int)
+     */
+    public static <K, V> Comparator<Map.Entry<K, V>> attributeComparator(String attribute, boolean descending) {
+        checkHasText(attribute, "attribute must not be null or empty");
+        return new AttributeComparator<>(attribute, descending);
+    }
+
     /**
      * Creates a new partition predicate that restricts the execution of the target predicate to a single partition.
      *
@@ -32,6 +32,7 @@ import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.List;
 import java.util.Set;
 
 import static com.hazelcast.internal.util.SetUtil.createHashSet;
@@ -60,6 +61,7 @@ public abstract class AbstractIndex implements InternalIndex {
     private final IndexConfig config;
     private final boolean ordered;
     private final PerIndexStats stats;
+    private final IndexValueStatistics valueStatistics;
 
     /**
      * Reference to the store if it is bound to the same partition as the index (local index), {@code null} otherwise.
@@ -68,7 +70,6 @@ public abstract class AbstractIndex implements InternalIndex {
 
     private volatile TypeConverter converter;
 
-    @SuppressFBWarnings("EI_EXPOSE_REP2")
     public AbstractIndex(
         IndexConfig config,
         InternalSerializationService ss,
@@ -76,6 +77,24 @@ public abstract class AbstractIndex implements InternalIndex {
         IndexCopyBehavior copyBehavior,
         PerIndexStats stats,
         StoreAdapter partitionStoreAdapter
+    ) {
+        this(config, ss, extractors, copyBehavior, stats, partitionStoreAdapter, false);
+    }
+
+    /**
+     * @param valueStatisticsEnabled {@code true} if the index should maintain
+     *                               {@link IndexValueStatistics}, which only
+     *                               the cost based query optimizer consumes
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public AbstractIndex(
+        IndexConfig config,
+        InternalSerializationService ss,
+        Extractors extractors,
+        IndexCopyBehavior copyBehavior,
+        PerIndexStats stats,
+        StoreAdapter partitionStoreAdapter,
+        boolean valueStatisticsEnabled
     ) {
         this.config = config;
         this.components = IndexUtils.getComponents(config);
@@ -86,6 +105,7 @@ public abstract class AbstractIndex implements InternalIndex {
         this.partitionStoreAdapter = partitionStoreAdapter;
         this.indexStore = createIndexStore(config, stats);
         this.stats = stats;
+        this.valueStatistics = valueStatisticsEnabled ? new IndexValueStatistics(ordered) : null;
     }
 
     protected abstract IndexStore createIndexStore(IndexConfig config, PerIndexStats stats);
@@ -140,10 +160,41 @@ public abstract class AbstractIndex implements InternalIndex {
         if (oldValue == null) {
             indexStore.insert(newAttributeValue, entry, operationStats);
             stats.onInsert(timestamp, operationStats, operationSource);
+            if (valueStatistics != null) {
+                valueStatistics.onInsert(newAttributeValue);
+            }
         } else {
             Object oldAttributeValue = extractAttributeValue(entry.getKeyData(), oldValue);
             indexStore.update(oldAttributeValue, newAttributeValue, entry, operationStats);
             stats.onUpdate(timestamp, operationStats, operationSource);
+            if (valueStatistics != null) {
+                valueStatistics.onUpdate(newAttributeValue);
+            }
+        }
+    }
+
+    @Override
+    public void putEntries(Object attributeValue, List<QueryableEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (components.length != 1 || attributeValue instanceof MultiResult) {
+            // the converters of composite and multi-value attributes are inferred from the entries
+            for (QueryableEntry entry : entries) {
+                putEntry(entry, null, OperationSource.SYSTEM);
+            }
+            return;
+        }
+
+        if (converterIsUnassignedOrTransient(converter)) {
+            converter = QueryableEntry.getConverterForValue(attributeValue);
+        }
+
+        IndexOperationStats operationStats = stats.createOperationStats();
+        indexStore.insertAll(attributeValue, entries, operationStats);
+        stats.onInsertAll(operationStats);
+        if (valueStatistics != null) {
+            valueStatistics.onInsert(attributeValue, entries.size());
         }
     }
 
@@ -155,6 +206,9 @@ public abstract class AbstractIndex implements InternalIndex {
         Object attributeValue = extractAttributeValue(key, value);
         indexStore.remove(attributeValue, key, value, operationStats);
         stats.onRemove(timestamp, operationStats, operationSource);
+        if (valueStatistics != null) {
+            valueStatistics.onRemove();
+        }
     }
 
     @Override
@@ -173,6 +227,12 @@ public abstract class AbstractIndex implements InternalIndex {
         return indexStore.evaluate(predicate, converter);
     }
 
+    @Override
+    public long count(Predicate predicate) {
+        TypeConverter converter = this.converter;
+        return converter == null ? 0 : indexStore.count(predicate, converter);
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable value) {
         long timestamp = stats.makeTimestamp();
@@ -238,11 +298,37 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public boolean visitOrdered(Comparable from, boolean descending, EntryVisitor visitor) {
+        if (!ordered || components.length > 1) {
+            return false;
+        }
+        long timestamp = stats.makeTimestamp();
+
+        if (converter == null) {
+            stats.onIndexHit(timestamp, 0);
+            return true;
+        }
+
+        long[] visited = new long[1];
+        boolean supported = indexStore.visitOrdered(from == null ? null : convert(from), descending, entry -> {
+            visited[0]++;
+            return visitor.visit(entry);
+        });
+        if (supported) {
+            stats.onIndexHit(timestamp, visited[0]);
+        }
+        return supported;
+    }
+
     @Override
     public void clear() {
         indexStore.clear();
         converter = null;
         stats.onClear();
+        if (valueStatistics != null) {
+            valueStatistics.clear();
+        }
     }
 
     @Override
@@ -260,6 +346,11 @@ public abstract class AbstractIndex implements InternalIndex {
         return stats;
     }
 
+    @Override
+    public IndexValueStatistics getValueStatistics() {
+        return valueStatistics;
+    }
+
     private Object extractAttributeValue(Data key, Object value) {
         if (components.length == 1) {
             return QueryableEntry.extractAttributeValue(extractors, ss, components[0], key, value, null);
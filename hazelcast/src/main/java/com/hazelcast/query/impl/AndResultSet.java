@@ -89,7 +89,7 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
             while (it.hasNext()) {
                 QueryableEntry entry = it.next();
 
-                if (checkOtherIndexedResults(entry) && checkNoIndexPredicates(entry)) {
+                if (matchesOtherIndexedResults(entry) && matchesNoIndexPredicates(entry)) {
                     currentEntry = entry;
                     return true;
                 }
@@ -98,33 +98,6 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
             return false;
         }
 
-        private boolean checkNoIndexPredicates(QueryableEntry currentEntry) {
-            if (lsNoIndexPredicates == null) {
-                return true;
-            }
-
-            for (Predicate noIndexPredicate : lsNoIndexPredicates) {
-                if (!noIndexPredicate.apply(currentEntry)) {
-                    return false;
-                }
-            }
-
-            return true;
-        }
-
-        private boolean checkOtherIndexedResults(QueryableEntry currentEntry) {
-            if (otherIndexedResults == null) {
-                return true;
-            }
-
-            for (Set<QueryableEntry> otherIndexedResult : otherIndexedResults) {
-                if (!otherIndexedResult.contains(currentEntry)) {
-                    return false;
-                }
-            }
-            return true;
-        }
-
         @Override
         public QueryableEntry next() {
             if (!hasNext()) {
@@ -154,6 +127,40 @@ public class AndResultSet extends AbstractSet<QueryableEntry> {
         return cachedSize;
     }
 
+    Set<QueryableEntry> getSmallestResultSet() {
+        return setSmallest;
+    }
+
+    List<Predicate> getNoIndexPredicates() {
+        return lsNoIndexPredicates;
+    }
+
+    boolean matchesOtherIndexedResults(QueryableEntry entry) {
+        if (otherIndexedResults == null) {
+            return true;
+        }
+
+        for (Set<QueryableEntry> otherIndexedResult : otherIndexedResults) {
+            if (!otherIndexedResult.contains(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean matchesNoIndexPredicates(QueryableEntry entry) {
+        if (lsNoIndexPredicates == null) {
+            return true;
+        }
+
+        for (Predicate noIndexPredicate : lsNoIndexPredicates) {
+            if (!noIndexPredicate.apply(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * @return returns estimated size without calculating the full
      * result set in full-result scan.
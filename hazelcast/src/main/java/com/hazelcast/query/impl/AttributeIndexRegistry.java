@@ -23,6 +23,7 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -215,6 +216,11 @@ public class AttributeIndexRegistry {
             throw newUnsupportedException();
         }
 
+        @Override
+        public void putEntries(Object attributeValue, List<QueryableEntry> entries) {
+            throw newUnsupportedException();
+        }
+
         @Override
         public void removeEntry(Data key, Object value, OperationSource operationSource) {
             throw newUnsupportedException();
@@ -235,6 +241,11 @@ public class AttributeIndexRegistry {
             return delegate.evaluate(predicate);
         }
 
+        @Override
+        public long count(Predicate predicate) {
+            return delegate.count(predicate);
+        }
+
         @Override
         public Set<QueryableEntry> getRecords(Comparable value) {
             Comparable from = new CompositeValue(width, value, NEGATIVE_INFINITY);
@@ -303,6 +314,12 @@ public class AttributeIndexRegistry {
             }
         }
 
+        @Override
+        public boolean visitOrdered(Comparable from, boolean descending, EntryVisitor visitor) {
+            // composite values are not supported by ordered visits
+            return false;
+        }
+
         @Override
         public void clear() {
             throw newUnsupportedException();
@@ -343,6 +360,12 @@ public class AttributeIndexRegistry {
             return delegate.getPerIndexStats();
         }
 
+        @Override
+        public IndexValueStatistics getValueStatistics() {
+            // the statistics of the composite values don't describe the first component
+            return null;
+        }
+
         private RuntimeException newUnsupportedException() {
             return new UnsupportedOperationException("decorated composite indexes support only querying");
         }
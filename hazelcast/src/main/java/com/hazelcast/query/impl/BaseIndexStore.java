@@ -16,9 +16,12 @@
 
 package com.hazelcast.query.impl;
 
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.query.Predicate;
 
 import java.util.AbstractSet;
 import java.util.Collection;
@@ -108,6 +111,18 @@ public abstract class BaseIndexStore implements IndexStore {
         // nothing to destroy
     }
 
+    @Override
+    public void insertAll(Object value, Collection<QueryableEntry> entries, IndexOperationStats operationStats) {
+        for (QueryableEntry entry : entries) {
+            insert(value, entry, operationStats);
+        }
+    }
+
+    @Override
+    public long count(Predicate predicate, TypeConverter converter) {
+        return -1;
+    }
+
     Comparable sanitizeValue(Object input) {
         if (input instanceof CompositeValue) {
             CompositeValue compositeValue = (CompositeValue) input;
@@ -21,6 +21,7 @@ import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.impl.getters.MultiResult;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -63,6 +64,37 @@ public abstract class BaseSingleValueIndexStore extends BaseIndexStore {
      */
     abstract Object removeInternal(Comparable value, Data recordKey);
 
+    /**
+     * Associates the given value in this index store with all the given
+     * records.
+     * <p>
+     * The default implementation inserts the records one by one, concrete
+     * stores may look the value up just once.
+     *
+     * @param value          the sanitized value of an attribute this index store
+     *                       is built for.
+     * @param attributeValue the original attribute value to report to the
+     *                       operation stats.
+     * @param records        the records to associate with the given value.
+     * @param operationStats the operation stats to update.
+     */
+    void insertAllInternal(Comparable value, Object attributeValue, Collection<QueryableEntry> records,
+                           IndexOperationStats operationStats) {
+        for (QueryableEntry record : records) {
+            Object oldValue = insertInternal(value, record);
+            operationStats.onEntryAdded(oldValue, attributeValue);
+        }
+    }
+
+    /**
+     * Makes the multi-result sets created by this index store detect
+     * duplicates, for entries inserted without going through the multi-value
+     * attribute unwrapping.
+     */
+    final void detectMultiResultDuplicates() {
+        multiResultHasToDetectDuplicates = true;
+    }
+
     final MultiResultSet createMultiResultSet() {
         return multiResultHasToDetectDuplicates ? new DuplicateDetectingMultiResult() : new FastMultiResultSet();
     }
@@ -77,6 +109,22 @@ public abstract class BaseSingleValueIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public final void insertAll(Object value, Collection<QueryableEntry> entries, IndexOperationStats operationStats) {
+        takeWriteLock();
+        try {
+            if (value == NonTerminalJsonValue.INSTANCE || value instanceof MultiResult) {
+                for (QueryableEntry entry : entries) {
+                    unwrapAndInsertToIndex(value, entry, operationStats);
+                }
+            } else {
+                insertAllInternal(sanitizeValue(value), value, entries, operationStats);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
     @Override
     public final void update(Object oldValue, Object newValue, QueryableEntry entry, IndexOperationStats operationStats) {
         takeWriteLock();
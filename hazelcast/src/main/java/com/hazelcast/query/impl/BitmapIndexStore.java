@@ -74,7 +74,7 @@ public final class BitmapIndexStore extends BaseIndexStore {
     private final InternalSerializationService serializationService;
     private final Extractors extractors;
 
-    private final Bitmap<QueryableEntry> bitmap = new Bitmap<>();
+    private final Bitmap<QueryableEntry> bitmap;
     // maps user-provided long keys to long bitmap keys
     private final Long2LongHashMap internalKeys;
     // maps user-provided object keys to long bitmap keys
@@ -87,6 +87,7 @@ public final class BitmapIndexStore extends BaseIndexStore {
         this.keyAttribute = config.getBitmapIndexOptions().getUniqueKey();
         this.serializationService = serializationService;
         this.extractors = extractors;
+        this.bitmap = new Bitmap<>(config.getBitmapIndexOptions().isCompressed());
 
         switch (config.getBitmapIndexOptions().getUniqueKeyTransformation()) {
             case OBJECT:
@@ -308,6 +309,20 @@ public final class BitmapIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public long count(Predicate predicate, TypeConverter converter) {
+        takeReadLock();
+        try {
+            if (isExpirable()) {
+                // expired entries are filtered out only while materializing
+                return -1;
+            }
+            return bitmap.count(predicate, new CanonicalizingConverter(converter));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable value) {
         throw makeUnsupportedOperationException();
@@ -328,6 +343,11 @@ public final class BitmapIndexStore extends BaseIndexStore {
         throw makeUnsupportedOperationException();
     }
 
+    @Override
+    public boolean visitOrdered(Comparable from, boolean descending, Index.EntryVisitor visitor) {
+        return false;
+    }
+
     @Override
     Comparable canonicalizeScalarForStorage(Comparable value) {
         // Assuming on-heap overhead of 12 bytes for the object header and
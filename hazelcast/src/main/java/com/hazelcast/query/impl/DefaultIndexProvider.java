@@ -26,6 +26,21 @@ import com.hazelcast.query.impl.getters.Extractors;
  * Provides on-heap indexes.
  */
 public class DefaultIndexProvider implements IndexProvider {
+
+    private final boolean valueStatisticsEnabled;
+
+    public DefaultIndexProvider() {
+        this(false);
+    }
+
+    /**
+     * @param valueStatisticsEnabled {@code true} if the created indexes should
+     *                               maintain {@link IndexValueStatistics}
+     */
+    public DefaultIndexProvider(boolean valueStatisticsEnabled) {
+        this.valueStatisticsEnabled = valueStatisticsEnabled;
+    }
+
     @Override
     public InternalIndex createIndex(
         IndexConfig config,
@@ -35,7 +50,7 @@ public class DefaultIndexProvider implements IndexProvider {
         PerIndexStats stats,
         StoreAdapter partitionStoreAdapter
     ) {
-        return new IndexImpl(config, ss, extractors, copyBehavior, stats);
+        return new IndexImpl(config, ss, extractors, copyBehavior, stats, valueStatisticsEnabled);
     }
 
 }
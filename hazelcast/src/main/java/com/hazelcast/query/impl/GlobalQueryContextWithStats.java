@@ -24,6 +24,7 @@ import com.hazelcast.query.Predicate;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -121,6 +122,11 @@ public class GlobalQueryContextWithStats extends QueryContext {
             delegate.putEntry(entry, oldValue, operationSource);
         }
 
+        @Override
+        public void putEntries(Object attributeValue, List<QueryableEntry> entries) {
+            delegate.putEntries(attributeValue, entries);
+        }
+
         @Override
         public void removeEntry(Data key, Object value, OperationSource operationSource) {
             delegate.removeEntry(key, value, operationSource);
@@ -143,6 +149,13 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public long count(Predicate predicate) {
+            long result = delegate.count(predicate);
+            hasQueries = true;
+            return result;
+        }
+
         @Override
         public Set<QueryableEntry> getRecords(Comparable value) {
             Set<QueryableEntry> result = delegate.getRecords(value);
@@ -171,6 +184,13 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return result;
         }
 
+        @Override
+        public boolean visitOrdered(Comparable from, boolean descending, EntryVisitor visitor) {
+            boolean result = delegate.visitOrdered(from, descending, visitor);
+            hasQueries = true;
+            return result;
+        }
+
         @Override
         public void clear() {
             delegate.clear();
@@ -211,6 +231,11 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return delegate.getPerIndexStats();
         }
 
+        @Override
+        public IndexValueStatistics getValueStatistics() {
+            return delegate.getValueStatistics();
+        }
+
     }
 
 }
@@ -151,6 +151,23 @@ public interface Index {
      */
     Set<QueryableEntry> getRecords(Comparison comparison, Comparable value);
 
+    /**
+     * Visits the entries of this index in the order of their attribute
+     * values. Entries having a {@code null} value are ordered before all
+     * other entries; the order of the entries having the same value is
+     * undefined.
+     *
+     * @param from       the value to start the visit from, inclusive. If
+     *                   {@code null}, all the entries are visited.
+     * @param descending {@code true} to visit the entries in the descending
+     *                   order, {@code false} for the ascending one.
+     * @param visitor    the visitor to pass the entries to, the visit stops
+     *                   once the visitor returns {@code false}.
+     * @return {@code true} if the entries were visited, {@code false} if this
+     * index can't visit its entries in order.
+     */
+    boolean visitOrdered(Comparable from, boolean descending, EntryVisitor visitor);
+
     /**
      * Clears out all entries from this index.
      */
@@ -162,6 +179,23 @@ public interface Index {
      */
     void destroy();
 
+    /**
+     * Visitor of the entries of an index.
+     *
+     * @see #visitOrdered
+     */
+    interface EntryVisitor {
+
+        /**
+         * Visits the given entry.
+         *
+         * @param entry the entry to visit.
+         * @return {@code true} to continue the visit, {@code false} to stop it.
+         */
+        boolean visit(QueryableEntry entry);
+
+    }
+
     /**
      * Identifies an original source of an index operation.
      * <p>
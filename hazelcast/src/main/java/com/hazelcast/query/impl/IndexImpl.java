@@ -40,14 +40,27 @@ public class IndexImpl extends AbstractIndex {
         IndexCopyBehavior copyBehavior,
         PerIndexStats stats
     ) {
-        super(config, ss, extractors, copyBehavior, stats, null);
+        this(config, ss, extractors, copyBehavior, stats, false);
+    }
+
+    public IndexImpl(
+        IndexConfig config,
+        InternalSerializationService ss,
+        Extractors extractors,
+        IndexCopyBehavior copyBehavior,
+        PerIndexStats stats,
+        boolean valueStatisticsEnabled
+    ) {
+        super(config, ss, extractors, copyBehavior, stats, null, valueStatisticsEnabled);
     }
 
     @Override
     protected IndexStore createIndexStore(IndexConfig config, PerIndexStats stats) {
         switch (config.getType()) {
             case SORTED:
-                return new OrderedIndexStore(copyBehavior);
+                return config.isPrimitiveKeys()
+                        ? new PrimitiveOrderedIndexStore(copyBehavior)
+                        : new OrderedIndexStore(copyBehavior);
             case HASH:
                 return new UnorderedIndexStore(copyBehavior);
             case BITMAP:
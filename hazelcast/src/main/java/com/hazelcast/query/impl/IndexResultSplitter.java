@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hazelcast.internal.util.HashUtil.hashToIndex;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.estimatedSizeOf;
+
+/**
+ * Splits the results of index queries into chunks which may be processed
+ * concurrently by different threads.
+ * <p>
+ * The index result itself is walked once by the calling thread: lazily
+ * evaluated results like {@link AndResultSet} and {@link OrResultSet}, as
+ * well as some of the results produced by the index stores, build their
+ * lookup structures on first access and can't be shared between threads.
+ * The walk performs the index lookups only, the rest of the work is deferred
+ * to the iteration of the chunks:
+ * <ul>
+ * <li>The non-indexed predicates of an {@link AndResultSet} are evaluated
+ * while its chunks are iterated.
+ * <li>The entries of an {@link OrResultSet} are grouped by the partition hash
+ * of their keys, so the duplicates produced by different branches always end
+ * up in the same chunk and are skipped while the chunk is iterated, without
+ * any state shared between the chunks.
+ * <li>The entries of any other result are dealt to the chunks round-robin.
+ * </ul>
+ * The chunks are disjoint and their union contains exactly the entries of
+ * the original result.
+ */
+public final class IndexResultSplitter {
+
+    private IndexResultSplitter() {
+    }
+
+    /**
+     * Splits the given index query result into at most {@code chunkCount}
+     * chunks.
+     *
+     * @param entries    the index query result to split
+     * @param chunkCount the number of chunks
+     * @return the list of chunks
+     */
+    public static List<Collection<QueryableEntry>> split(Collection<QueryableEntry> entries, int chunkCount) {
+        checkPositive(chunkCount, "chunkCount should be positive");
+        if (entries instanceof AndResultSet) {
+            return splitAnd((AndResultSet) entries, chunkCount);
+        } else if (entries instanceof OrResultSet) {
+            return splitOr((OrResultSet) entries, chunkCount);
+        }
+        List<QueryableEntry>[] buckets = newBuckets(entries, chunkCount);
+        int counter = 0;
+        for (QueryableEntry entry : entries) {
+            buckets[counter++ % chunkCount].add(entry);
+        }
+        return toChunks(buckets);
+    }
+
+    private static List<Collection<QueryableEntry>> splitAnd(AndResultSet entries, int chunkCount) {
+        List<QueryableEntry>[] buckets = newBuckets(entries, chunkCount);
+        int counter = 0;
+        for (QueryableEntry entry : entries.getSmallestResultSet()) {
+            if (entries.matchesOtherIndexedResults(entry)) {
+                buckets[counter++ % chunkCount].add(entry);
+            }
+        }
+        if (entries.getNoIndexPredicates() == null) {
+            return toChunks(buckets);
+        }
+
+        List<Collection<QueryableEntry>> chunks = new ArrayList<>(chunkCount);
+        for (List<QueryableEntry> bucket : buckets) {
+            chunks.add(new FilteringChunk(bucket, entries));
+        }
+        return chunks;
+    }
+
+    private static List<Collection<QueryableEntry>> splitOr(OrResultSet entries, int chunkCount) {
+        List<Set<QueryableEntry>> indexedResults = entries.getIndexedResults();
+        List<QueryableEntry>[] buckets = newBuckets(entries, chunkCount);
+        for (Set<QueryableEntry> indexedResult : indexedResults) {
+            for (QueryableEntry entry : indexedResult) {
+                buckets[hashToIndex(entry.getKeyData().getPartitionHash(), chunkCount)].add(entry);
+            }
+        }
+        if (indexedResults.size() < 2) {
+            return toChunks(buckets);
+        }
+
+        List<Collection<QueryableEntry>> chunks = new ArrayList<>(chunkCount);
+        for (List<QueryableEntry> bucket : buckets) {
+            chunks.add(new DistinctChunk(bucket));
+        }
+        return chunks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<QueryableEntry>[] newBuckets(Collection<QueryableEntry> entries, int chunkCount) {
+        int expectedSize = estimatedSizeOf(entries) / chunkCount + 1;
+        List<QueryableEntry>[] buckets = new List[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            buckets[i] = new ArrayList<>(expectedSize);
+        }
+        return buckets;
+    }
+
+    private static List<Collection<QueryableEntry>> toChunks(List<QueryableEntry>[] buckets) {
+        List<Collection<QueryableEntry>> chunks = new ArrayList<>(buckets.length);
+        for (List<QueryableEntry> bucket : buckets) {
+            chunks.add(bucket);
+        }
+        return chunks;
+    }
+
+    /**
+     * Chunk of an {@link AndResultSet} which evaluates its non-indexed
+     * predicates on iteration. The size is computed by a full iteration.
+     */
+    private static final class FilteringChunk extends AbstractCollection<QueryableEntry> {
+
+        private final List<QueryableEntry> candidates;
+        private final AndResultSet resultSet;
+
+        FilteringChunk(List<QueryableEntry> candidates, AndResultSet resultSet) {
+            this.candidates = candidates;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            return new LookaheadIterator(candidates.iterator()) {
+                @Override
+                boolean accept(QueryableEntry entry) {
+                    return resultSet.matchesNoIndexPredicates(entry);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Iterator<QueryableEntry> it = iterator(); it.hasNext(); it.next()) {
+                size++;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Chunk of an {@link OrResultSet} which skips the entries produced by
+     * more than one of its branches on iteration. The size is computed by a
+     * full iteration.
+     */
+    private static final class DistinctChunk extends AbstractCollection<QueryableEntry> {
+
+        private final List<QueryableEntry> candidates;
+
+        DistinctChunk(List<QueryableEntry> candidates) {
+            this.candidates = candidates;
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            Set<QueryableEntry> seen = new HashSet<>();
+            return new LookaheadIterator(candidates.iterator()) {
+                @Override
+                boolean accept(QueryableEntry entry) {
+                    return seen.add(entry);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return new HashSet<>(candidates).size();
+        }
+    }
+
+    private abstract static class LookaheadIterator implements Iterator<QueryableEntry> {
+
+        private final Iterator<QueryableEntry> candidates;
+        private QueryableEntry next;
+
+        LookaheadIterator(Iterator<QueryableEntry> candidates) {
+            this.candidates = candidates;
+        }
+
+        abstract boolean accept(QueryableEntry entry);
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && candidates.hasNext()) {
+                QueryableEntry candidate = candidates.next();
+                if (accept(candidate)) {
+                    next = candidate;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry result = next;
+            next = null;
+            return result;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -59,6 +60,23 @@ public interface IndexStore {
      */
     void insert(Object value, QueryableEntry entry, IndexOperationStats operationStats);
 
+    /**
+     * Inserts the given new entries into this index store under the given
+     * value acting as an index key.
+     * <p>
+     * Used to bulk-load the entries of a migrated partition: the value is
+     * sanitized and looked up once for all the entries instead of once per
+     * entry.
+     *
+     * @param value          the value to insert the entries under.
+     * @param entries        the entries to insert.
+     * @param operationStats the operation stats to update while performing the
+     *                       operation.
+     * @see InternalIndex#putEntries
+     * @see IndexOperationStats#onEntryAdded
+     */
+    void insertAll(Object value, Collection<QueryableEntry> entries, IndexOperationStats operationStats);
+
     /**
      * Updates the existing entry mapping in this index by remapping it from the
      * given old value to the new given value.
@@ -124,6 +142,19 @@ public interface IndexStore {
      */
     Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter);
 
+    /**
+     * Counts the entries matching the given predicate without materializing
+     * them.
+     *
+     * @param predicate the predicate to count the entries for. The predicate
+     *                  is guaranteed to be evaluable by this index store
+     *                  ({@code canEvaluate} returned {@code true} for its
+     *                  class).
+     * @return the number of entries matching the given predicate or {@code -1}
+     * if this index store can't count them.
+     */
+    long count(Predicate predicate, TypeConverter converter);
+
     /**
      * Obtains entries that have indexed attribute value equal to the given
      * value.
@@ -170,4 +201,19 @@ public interface IndexStore {
      */
     Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
 
+    /**
+     * Visits the entries of this index store in the order of their indexed
+     * attribute values.
+     *
+     * @param from       the value to start the visit from, inclusive; or
+     *                   {@code null} to visit all the entries.
+     * @param descending {@code true} to visit the entries in the descending
+     *                   order, {@code false} for the ascending one.
+     * @param visitor    the visitor to pass the entries to.
+     * @return {@code true} if the entries were visited, {@code false} if
+     * this index store can't visit its entries in order.
+     * @see Index#visitOrdered
+     */
+    boolean visitOrdered(Comparable from, boolean descending, Index.EntryVisitor visitor);
+
 }
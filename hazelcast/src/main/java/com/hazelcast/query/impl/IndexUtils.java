@@ -32,6 +32,7 @@ import java.util.regex.Pattern;
 
 import static com.hazelcast.internal.config.DomConfigHelper.childElements;
 import static com.hazelcast.internal.config.DomConfigHelper.cleanNodeName;
+import static com.hazelcast.internal.config.DomConfigHelper.getBooleanValue;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
 
@@ -77,6 +78,11 @@ public final class IndexUtils {
             throw new IllegalArgumentException("Composite bitmap indexes are not supported: " + config);
         }
 
+        if (config.isPrimitiveKeys() && (config.getType() != IndexType.SORTED || originalAttributeNames.size() > 1)) {
+            throw new IllegalArgumentException("Primitive keys are supported only by non-composite sorted indexes: "
+                + config);
+        }
+
         List<String> normalizedAttributeNames = new ArrayList<>(originalAttributeNames.size());
 
         for (String originalAttributeName : originalAttributeNames) {
@@ -114,6 +120,7 @@ public final class IndexUtils {
         }
 
         IndexConfig normalizedConfig = buildNormalizedConfig(mapName, config.getType(), name, normalizedAttributeNames);
+        normalizedConfig.setPrimitiveKeys(config.isPrimitiveKeys());
 
         if (config.getType() == IndexType.BITMAP) {
             String uniqueKey = config.getBitmapIndexOptions().getUniqueKey();
@@ -122,7 +129,8 @@ public final class IndexUtils {
             validateAttribute(uniqueKey);
             uniqueKey = canonicalizeAttribute(uniqueKey);
 
-            normalizedConfig.getBitmapIndexOptions().setUniqueKey(uniqueKey).setUniqueKeyTransformation(uniqueKeyTransformation);
+            normalizedConfig.getBitmapIndexOptions().setUniqueKey(uniqueKey).setUniqueKeyTransformation(uniqueKeyTransformation)
+                    .setCompressed(config.getBitmapIndexOptions().isCompressed());
         }
 
         return normalizedConfig;
@@ -262,10 +270,12 @@ public final class IndexUtils {
 
         gen.open("indexes");
         for (IndexConfig indexCfg : indexConfigs) {
+            String primitiveKeys = indexCfg.isPrimitiveKeys() ? "true" : null;
             if (indexCfg.getName() != null) {
-                gen.open("index", "name", indexCfg.getName(), "type", indexCfg.getType().name());
+                gen.open("index", "name", indexCfg.getName(), "type", indexCfg.getType().name(),
+                        "primitive-keys", primitiveKeys);
             } else {
-                gen.open("index", "type", indexCfg.getType().name());
+                gen.open("index", "type", indexCfg.getType().name(), "primitive-keys", primitiveKeys);
             }
 
             gen.open("attributes");
@@ -280,6 +290,7 @@ public final class IndexUtils {
                 gen.open("bitmap-index-options");
                 gen.node("unique-key", bitmapIndexOptions.getUniqueKey());
                 gen.node("unique-key-transformation", bitmapIndexOptions.getUniqueKeyTransformation());
+                gen.node("compressed", bitmapIndexOptions.isCompressed());
                 gen.close();
             }
 
@@ -302,6 +313,11 @@ public final class IndexUtils {
 
         IndexConfig res = new IndexConfig().setName(name).setType(type);
 
+        Node primitiveKeysNode = attrs.getNamedItem("primitive-keys");
+        if (primitiveKeysNode != null) {
+            res.setPrimitiveKeys(getBooleanValue(DomConfigHelper.getTextContent(primitiveKeysNode, domLevel3)));
+        }
+
         for (Node attributesNode : childElements(indexNode)) {
             if ("attributes".equals(cleanNodeName(attributesNode))) {
                 for (Node attributeNode : childElements(attributesNode)) {
@@ -329,6 +345,12 @@ public final class IndexUtils {
 
                 res.getBitmapIndexOptions().setUniqueKey(uniqueKey);
                 res.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
+
+                Node compressedNode = DomConfigHelper.childElementWithName(optionsNode, "compressed");
+                if (compressedNode != null) {
+                    res.getBitmapIndexOptions().setCompressed(
+                            getBooleanValue(DomConfigHelper.getTextContent(compressedNode, domLevel3)));
+                }
             }
         }
 
@@ -384,6 +406,11 @@ public final class IndexUtils {
 
         IndexConfig res = new IndexConfig().setName(name).setType(type);
 
+        Node primitiveKeysNode = attrs.getNamedItem("primitive-keys");
+        if (primitiveKeysNode != null) {
+            res.setPrimitiveKeys(getBooleanValue(DomConfigHelper.getTextContent(primitiveKeysNode, domLevel3)));
+        }
+
         Node attributesNode = attrs.getNamedItem("attributes");
         for (Node attributeNode : childElements(attributesNode)) {
             String attribute = attributeNode.getNodeValue();
@@ -406,6 +433,12 @@ public final class IndexUtils {
 
                 res.getBitmapIndexOptions().setUniqueKey(uniqueKey);
                 res.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
+
+                Node compressedNode = DomConfigHelper.childElementWithName(optionsNode, "compressed");
+                if (compressedNode != null) {
+                    res.getBitmapIndexOptions().setCompressed(
+                            getBooleanValue(DomConfigHelper.getTextContent(compressedNode, domLevel3)));
+                }
             }
         }
 
@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogImpl;
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.util.QuickMath;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.query.impl.getters.MultiResult;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
+
+/**
+ * Lightweight statistics of the values stored in an index, used by the
+ * cost based query optimizer to estimate the selectivity of predicates:
+ * <ul>
+ * <li>the number of indexed entries;
+ * <li>the number of distinct values, estimated with a {@link HyperLogLog}
+ * sketch;
+ * <li>for ordered indexes, a uniform reservoir sample of the values which,
+ * once sorted, serves as an equi-depth histogram to estimate the fraction of
+ * values within a range.
+ * </ul>
+ * The sketch and the sample can't forget values, so after removals they
+ * describe the values ever indexed rather than the current ones, until the
+ * index is cleared. That is good enough to tell selective predicates from
+ * non-selective ones, which is all the statistics are used for.
+ * <p>
+ * The statistics of a global index are updated by all partition threads.
+ * To keep the threads from contending on a single lock, the statistics are
+ * striped by the updating thread: each stripe has its own counters, sketch
+ * and sample, guarded by its own monitor, and is created on its first
+ * update. Readers combine the stripes: the counts are summed, the sketches
+ * are merged and the range estimates of the samples are weighted by the
+ * number of values each stripe has seen.
+ */
+public final class IndexValueStatistics {
+
+    /**
+     * The number of values kept in the sample of each stripe of ordered
+     * indexes.
+     */
+    static final int SAMPLE_SIZE = 512;
+
+    private static final int NULL_HASH = 0x9E3779B9;
+    private static final int MAX_STRIPE_COUNT = 16;
+
+    private final boolean ordered;
+    private final AtomicReferenceArray<Stripe> stripes;
+    private final int stripeMask;
+
+    public IndexValueStatistics(boolean ordered) {
+        this(ordered, Math.min(MAX_STRIPE_COUNT, RuntimeAvailableProcessors.get()));
+    }
+
+    IndexValueStatistics(boolean ordered, int stripeCount) {
+        int count = QuickMath.nextPowerOfTwo(Math.max(1, stripeCount));
+        this.ordered = ordered;
+        this.stripes = new AtomicReferenceArray<>(count);
+        this.stripeMask = count - 1;
+    }
+
+    /**
+     * Records the attribute value of a newly indexed entry.
+     *
+     * @param value the extracted attribute value
+     */
+    public void onInsert(Object value) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.entryCount++;
+            stripe.addValue(value, 1);
+        }
+    }
+
+    /**
+     * Records the attribute value shared by the given number of newly indexed
+     * entries.
+     *
+     * @param value the extracted attribute value
+     * @param count the number of entries
+     */
+    public void onInsert(Object value, int count) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.entryCount += count;
+            stripe.addValue(value, count);
+        }
+    }
+
+    /**
+     * Records the new attribute value of an updated entry.
+     *
+     * @param value the extracted attribute value
+     */
+    public void onUpdate(Object value) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.addValue(value, 1);
+        }
+    }
+
+    /**
+     * Records the removal of an entry.
+     */
+    public void onRemove() {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            // the entry might have been inserted by another thread, so the
+            // count of a single stripe can go negative
+            stripe.entryCount--;
+        }
+    }
+
+    /**
+     * Resets the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                synchronized (stripe) {
+                    stripe.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of indexed entries
+     */
+    public long getEntryCount() {
+        long entryCount = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                synchronized (stripe) {
+                    entryCount += stripe.entryCount;
+                }
+            }
+        }
+        return Math.max(0, entryCount);
+    }
+
+    /**
+     * @return the estimated number of distinct values, never greater than the
+     * number of entries and at least 1 if there are any entries
+     */
+    public long getDistinctValueCount() {
+        long entryCount = getEntryCount();
+        if (entryCount == 0) {
+            return 0;
+        }
+
+        Stripe single = null;
+        int sampledStripes = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null && stripe.hasValues()) {
+                single = stripe;
+                sampledStripes++;
+            }
+        }
+
+        long estimate;
+        if (sampledStripes == 1) {
+            // a single updating thread is common, no need to merge then
+            synchronized (single) {
+                estimate = single.distinctValues.estimate();
+            }
+        } else {
+            HyperLogLog merged = new HyperLogLogImpl();
+            for (int i = 0; i < stripes.length(); i++) {
+                Stripe stripe = stripes.get(i);
+                if (stripe != null) {
+                    synchronized (stripe) {
+                        merged.merge(stripe.distinctValues);
+                    }
+                }
+            }
+            estimate = merged.estimate();
+        }
+        return Math.max(1, Math.min(entryCount, estimate));
+    }
+
+    /**
+     * Estimates the fraction of entries having a specific value.
+     *
+     * @return the estimated selectivity between 0 and 1
+     */
+    public double estimateEqualSelectivity() {
+        long distinct = getDistinctValueCount();
+        return distinct == 0 ? 0.0 : 1.0 / distinct;
+    }
+
+    /**
+     * Estimates the fraction of entries with the value in the given range.
+     * A {@code null} bound means the range is unbounded on that side. Entries
+     * with {@code null} values never match.
+     *
+     * @param converter     the converter of the index
+     * @param from          the lower bound
+     * @param fromInclusive {@code true} if the lower bound is inclusive
+     * @param to            the upper bound
+     * @param toInclusive   {@code true} if the upper bound is inclusive
+     * @return the estimated selectivity between 0 and 1, or a negative value
+     * if there's no sample to estimate from
+     */
+    public double estimateRangeSelectivity(TypeConverter converter, Comparable from, boolean fromInclusive,
+                                           Comparable to, boolean toInclusive) {
+        if (!ordered || converter == null) {
+            return -1;
+        }
+        Comparable convertedFrom;
+        Comparable convertedTo;
+        try {
+            convertedFrom = from == null ? null : converter.convert(from);
+            convertedTo = to == null ? null : converter.convert(to);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+
+        double matching = 0;
+        long seen = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe == null) {
+                continue;
+            }
+            synchronized (stripe) {
+                if (stripe.sampledCount == 0) {
+                    continue;
+                }
+                double selectivity = stripe.estimateRangeSelectivity(converter, convertedFrom, fromInclusive,
+                        convertedTo, toInclusive);
+                if (selectivity < 0) {
+                    return -1;
+                }
+                // each stripe's sample represents the values that stripe has seen
+                matching += selectivity * stripe.sampledCount;
+                seen += stripe.sampledCount;
+            }
+        }
+        return seen == 0 ? -1 : matching / seen;
+    }
+
+    private Stripe stripe() {
+        int index = (int) Thread.currentThread().getId() & stripeMask;
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            Stripe created = new Stripe(ordered);
+            stripe = stripes.compareAndSet(index, null, created) ? created : stripes.get(index);
+        }
+        return stripe;
+    }
+
+    /**
+     * The statistics of the values added by the threads mapped to a stripe.
+     * All accesses must hold the monitor of the stripe.
+     */
+    private static final class Stripe {
+
+        private final Comparable[] sample;
+
+        private HyperLogLog distinctValues = new HyperLogLogImpl();
+
+        private long entryCount;
+        private long sampledCount;
+        private long version;
+
+        private long sortedVersion = -1;
+        private TypeConverter sortedConverter;
+        private Comparable[] sortedSample;
+
+        Stripe(boolean ordered) {
+            this.sample = ordered ? new Comparable[SAMPLE_SIZE] : null;
+        }
+
+        synchronized boolean hasValues() {
+            return sampledCount > 0;
+        }
+
+        void clear() {
+            distinctValues = new HyperLogLogImpl();
+            entryCount = 0;
+            sampledCount = 0;
+            if (sample != null) {
+                Arrays.fill(sample, null);
+            }
+            version++;
+            sortedSample = null;
+        }
+
+        void addValue(Object value, int count) {
+            if (value instanceof MultiResult) {
+                for (Object result : ((MultiResult<?>) value).getResults()) {
+                    addSingleValue(result, count);
+                }
+            } else {
+                addSingleValue(value, count);
+            }
+        }
+
+        private void addSingleValue(Object value, int count) {
+            int hash = value == null ? NULL_HASH : value.hashCode();
+            // adding the same hash again doesn't change the sketch
+            distinctValues.add(MurmurHash3_fmix((long) hash));
+
+            if (sample == null) {
+                sampledCount += count;
+                return;
+            }
+            Comparable comparable = value instanceof Comparable ? (Comparable) value : null;
+            for (int i = 0; i < count; i++) {
+                // reservoir sampling: every value ends up in the sample with the same probability
+                long seen = sampledCount++;
+                if (seen < SAMPLE_SIZE) {
+                    sample[(int) seen] = comparable;
+                    version++;
+                } else {
+                    long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                    if (slot < SAMPLE_SIZE) {
+                        sample[(int) slot] = comparable;
+                        version++;
+                    }
+                }
+            }
+        }
+
+        double estimateRangeSelectivity(TypeConverter converter, Comparable from, boolean fromInclusive,
+                                        Comparable to, boolean toInclusive) {
+            try {
+                Comparable[] sorted = sortedSample(converter);
+                int total = (int) Math.min(sampledCount, SAMPLE_SIZE);
+                int low = firstNonNull(sorted);
+                int high = sorted.length;
+                if (from != null) {
+                    low = Math.max(low, fromInclusive ? lowerBound(sorted, from) : upperBound(sorted, from));
+                }
+                if (to != null) {
+                    high = Math.min(high, toInclusive ? upperBound(sorted, to) : lowerBound(sorted, to));
+                }
+                return high <= low ? 0.0 : (double) (high - low) / total;
+            } catch (ClassCastException e) {
+                // values of incomparable types, the selectivity is unknown
+                return -1;
+            }
+        }
+
+        private Comparable[] sortedSample(TypeConverter converter) {
+            if (sortedSample == null || sortedVersion != version || sortedConverter != converter) {
+                int size = (int) Math.min(sampledCount, SAMPLE_SIZE);
+                Comparable[] sorted = new Comparable[size];
+                for (int i = 0; i < size; i++) {
+                    sorted[i] = sample[i] == null ? null : converter.convert(sample[i]);
+                }
+                Arrays.sort(sorted, (lhs, rhs) -> {
+                    if (lhs == null) {
+                        return rhs == null ? 0 : -1;
+                    }
+                    return rhs == null ? 1 : Comparables.compare(lhs, rhs);
+                });
+                sortedSample = sorted;
+                sortedVersion = version;
+                sortedConverter = converter;
+            }
+            return sortedSample;
+        }
+    }
+
+    private static int firstNonNull(Comparable[] sorted) {
+        int index = 0;
+        while (index < sorted.length && sorted[index] == null) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * @return the index of the first non-null value not less than the given one
+     */
+    private static int lowerBound(Comparable[] sorted, Comparable value) {
+        int low = firstNonNull(sorted);
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Comparables.compare(sorted[mid], value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first non-null value greater than the given one
+     */
+    private static int upperBound(Comparable[] sorted, Comparable value) {
+        int low = firstNonNull(sorted);
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Comparables.compare(sorted[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
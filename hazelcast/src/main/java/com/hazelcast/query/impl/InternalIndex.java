@@ -17,6 +17,9 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.query.Predicate;
+
+import java.util.List;
 
 /**
  * Provides the private index API.
@@ -75,4 +78,36 @@ public interface InternalIndex extends Index {
      */
     PerIndexStats getPerIndexStats();
 
+    /**
+     * Counts the entries matching the given predicate without materializing
+     * them.
+     *
+     * @param predicate the predicate to count the entries for. The predicate
+     *                  is guaranteed to be evaluable by this index ({@code
+     *                  canEvaluate} returned {@code true} for its class).
+     * @return the number of entries matching the given predicate or {@code -1}
+     * if this index can't count them.
+     */
+    long count(Predicate predicate);
+
+    /**
+     * Bulk-inserts the given new entries into this index, all of them having
+     * the given value of the attribute this index is built for.
+     * <p>
+     * Used by migrations to populate the index with the entries of a migrated
+     * partition from the attribute values shipped by the migration source,
+     * without extracting the attribute values from the entries.
+     *
+     * @param attributeValue the attribute value shared by the entries.
+     * @param entries        the entries to insert.
+     */
+    void putEntries(Object attributeValue, List<QueryableEntry> entries);
+
+    /**
+     * Returns the statistics of the values stored in this index used to
+     * estimate the selectivity of predicates, or {@code null} if this index
+     * doesn't collect them.
+     */
+    IndexValueStatistics getValueStatistics();
+
 }
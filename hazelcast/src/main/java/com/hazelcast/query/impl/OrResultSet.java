@@ -74,6 +74,10 @@ public class OrResultSet extends AbstractSet<QueryableEntry> {
         return entries.size();
     }
 
+    List<Set<QueryableEntry>> getIndexedResults() {
+        return indexedResults;
+    }
+
     private Set<QueryableEntry> getEntries() {
         if (entries == null) {
             if (indexedResults.isEmpty()) {
@@ -17,12 +17,16 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -41,13 +45,15 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
 
     private final IndexFunctor<Comparable, QueryableEntry> addFunctor;
     private final IndexFunctor<Comparable, Data> removeFunctor;
+    private final boolean copyOnWrite;
 
     private volatile Map<Data, QueryableEntry> recordsWithNullValue;
 
     public OrderedIndexStore(IndexCopyBehavior copyOn) {
         super(copyOn);
         assert copyOn != null;
-        if (copyOn == IndexCopyBehavior.COPY_ON_WRITE) {
+        copyOnWrite = copyOn == IndexCopyBehavior.COPY_ON_WRITE;
+        if (copyOnWrite) {
             addFunctor = new CopyOnWriteAddFunctor();
             removeFunctor = new CopyOnWriteRemoveFunctor();
             recordsWithNullValue = Collections.emptyMap();
@@ -64,6 +70,35 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
         return addFunctor.invoke(value, record);
     }
 
+    @Override
+    void insertAllInternal(Comparable value, Object attributeValue, Collection<QueryableEntry> records,
+                           IndexOperationStats operationStats) {
+        Map<Data, QueryableEntry> existing = value == NULL ? recordsWithNullValue : recordMap.get(value);
+        Map<Data, QueryableEntry> target;
+        if (copyOnWrite) {
+            target = existing == null ? new HashMap<>() : new HashMap<>(existing);
+        } else if (existing == null) {
+            target = new ConcurrentHashMap<>(records.size(), LOAD_FACTOR, 1);
+        } else {
+            target = existing;
+        }
+
+        for (QueryableEntry record : records) {
+            markIndexStoreExpirableIfNecessary(record);
+            Object oldValue = target.put(record.getKeyData(), record);
+            operationStats.onEntryAdded(oldValue, attributeValue);
+        }
+
+        // publish the new map of records, if any, after it's fully populated
+        if (target != existing) {
+            if (value == NULL) {
+                recordsWithNullValue = target;
+            } else {
+                recordMap.put(value, target);
+            }
+        }
+    }
+
     @Override
     Object removeInternal(Comparable value, Data recordKey) {
         return removeFunctor.invoke(value, recordKey);
@@ -202,6 +237,51 @@ public class OrderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The visit doesn't take the read lock: the record map and the per-value
+     * maps are either concurrent or replaced on every write, so the visit
+     * sees a weakly consistent view of the index, the same way the result
+     * sets produced by this store do.
+     */
+    @Override
+    public boolean visitOrdered(Comparable from, boolean descending, Index.EntryVisitor visitor) {
+        long now = isExpirable() ? Clock.currentTimeMillis() : -1;
+        if (!descending && from == null && !visit(recordsWithNullValue, visitor, now)) {
+            return true;
+        }
+
+        NavigableMap<Comparable, Map<Data, QueryableEntry>> records;
+        if (descending) {
+            records = from == null ? recordMap.descendingMap() : recordMap.headMap(from, true).descendingMap();
+        } else {
+            records = from == null ? recordMap : recordMap.tailMap(from, true);
+        }
+        for (Map<Data, QueryableEntry> valueRecords : records.values()) {
+            if (!visit(valueRecords, visitor, now)) {
+                return true;
+            }
+        }
+
+        if (descending) {
+            visit(recordsWithNullValue, visitor, now);
+        }
+        return true;
+    }
+
+    private static boolean visit(Map<Data, QueryableEntry> records, Index.EntryVisitor visitor, long now) {
+        for (QueryableEntry entry : records.values()) {
+            if (now != -1) {
+                entry.getRecord().onAccessSafe(now);
+            }
+            if (!visitor.visit(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
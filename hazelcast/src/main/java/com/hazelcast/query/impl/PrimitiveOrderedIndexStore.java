@@ -0,0 +1,789 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.collection.LongIntBPlusTree;
+import com.hazelcast.internal.util.collection.Object2LongHashMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.InPredicate;
+
+import java.sql.Timestamp;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+import static com.hazelcast.internal.util.SetUtil.createHashSet;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static java.util.Collections.emptySet;
+
+/**
+ * Ordered index store for numeric, boolean, char and date attributes.
+ * <p>
+ * Attribute values are encoded as primitive longs and kept together with an
+ * entry id in a {@link LongIntBPlusTree}, the ids refer to a slot of an entry
+ * table. Comparing to {@link OrderedIndexStore} no value is boxed and no
+ * per-value map is allocated, and range scans walk the tree leaves
+ * sequentially.
+ * <p>
+ * The value encoding is chosen by the first stored non-null value: integral
+ * values (including booleans, chars and dates as epoch milliseconds) are
+ * stored as is, timestamps only if they carry no sub-millisecond nanos, floating-point values as their order-preserving bit
+ * representation. An integral store switches to the floating-point encoding
+ * once a value with a fractional part is stored, if all its values are
+ * exactly representable as doubles. Values which can't be stored in the
+ * current encoding this way, including values of any other type, make the
+ * store move its entries to an {@link OrderedIndexStore} and delegate to it
+ * from then on, so storing a value never fails.
+ * <p>
+ * Query results are snapshots taken under the read lock, so they are
+ * isolated from concurrent mutations regardless of the {@link IndexCopyBehavior}.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class PrimitiveOrderedIndexStore extends BaseSingleValueIndexStore {
+
+    private static final int NO_ID = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double TWO_POW_63 = 0x1p63;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final int NANOS_PER_MILLI = 1000000;
+
+    private final IndexCopyBehavior copyOn;
+
+    private LongIntBPlusTree tree = new LongIntBPlusTree();
+    private final LongIntBPlusTree nullTree = new LongIntBPlusTree();
+    private final Object2LongHashMap<Data> idsByKey = new Object2LongHashMap<>(NO_ID);
+
+    private QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+    private int[] refCounts = new int[INITIAL_CAPACITY];
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdCount;
+    private int highWaterMark;
+
+    /**
+     * {@code true} if an entry was stored under more than one value, so
+     * results have to be deduplicated.
+     */
+    private volatile boolean multiValued;
+
+    /**
+     * {@code true} for the floating-point encoding, {@code false} for the
+     * integral one, {@code null} until the first non-null value is stored.
+     */
+    private volatile Boolean floating;
+
+    /**
+     * The class of the first stored non-null value, used to restore integral
+     * values when the entries are moved to the {@link #fallback} store.
+     */
+    private Class<?> valueClass;
+
+    /**
+     * The store holding the entries once a value can't be stored in the
+     * primitive encoding, {@code null} until then.
+     */
+    private volatile OrderedIndexStore fallback;
+
+    public PrimitiveOrderedIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn);
+        this.copyOn = copyOn;
+    }
+
+    /**
+     * @return {@code true} if the given value can be stored in a primitive index, {@code false} otherwise
+     */
+    public static boolean isSupported(Object value) {
+        return isIntegral(value) || isFloatingPoint(value);
+    }
+
+    /**
+     * @return {@code true} if the entries were moved to an {@link OrderedIndexStore}, {@code false} otherwise
+     */
+    boolean usesFallback() {
+        return fallback != null;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        markIndexStoreExpirableIfNecessary(record);
+
+        if (fallback == null && value != NULL && !prepareEncoding(value)) {
+            moveToFallback();
+        }
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            fallback.takeWriteLock();
+            try {
+                return fallback.insertInternal(value, record);
+            } finally {
+                fallback.releaseWriteLock();
+            }
+        }
+
+        long encoded = value == NULL ? 0 : encode(value, floating);
+        Data key = record.getKeyData();
+        int id = (int) idsByKey.getValue(key);
+        if (id == NO_ID) {
+            id = allocateId();
+            idsByKey.put(key, id);
+        }
+
+        QueryableEntry previous = entries[id];
+        entries[id] = record;
+        boolean added = value == NULL ? nullTree.insert(0, id) : tree.insert(encoded, id);
+        if (!added) {
+            return previous;
+        }
+        if (++refCounts[id] > 1) {
+            multiValued = true;
+        }
+        return null;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        OrderedIndexStore fallback = this.fallback;
+        if (fallback != null) {
+            fallback.takeWriteLock();
+            try {
+                return fallback.removeInternal(value, recordKey);
+            } finally {
+                fallback.releaseWriteLock();
+            }
+        }
+
+        int id = (int) idsByKey.getValue(recordKey);
+        if (id == NO_ID) {
+            return null;
+        }
+
+        boolean removed;
+        if (value == NULL) {
+            removed = nullTree.remove(0, id);
+        } else {
+            // a value which cannot be encoded has never been stored
+            Boolean floating = this.floating;
+            removed = floating != null && canEncodeForStorage(value, floating)
+                    && tree.remove(encode(value, floating), id);
+        }
+        if (!removed) {
+            return null;
+        }
+
+        QueryableEntry entry = entries[id];
+        if (--refCounts[id] == 0) {
+            entries[id] = null;
+            idsByKey.removeKey(recordKey);
+            releaseId(id);
+        }
+        return entry;
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            clearPrimitiveEntries();
+            fallback = null;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    private void clearPrimitiveEntries() {
+        tree = new LongIntBPlusTree();
+        nullTree.clear();
+        idsByKey.clear();
+        entries = new QueryableEntry[INITIAL_CAPACITY];
+        refCounts = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+        freeIdCount = 0;
+        highWaterMark = 0;
+        multiValued = false;
+        floating = null;
+        valueClass = null;
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return predicateClass == EqualPredicate.class || predicateClass == InPredicate.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Equal and in predicates are evaluated as lookups of their converted
+     * values.
+     */
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof EqualPredicate) {
+            return getRecords(converter.convert(((EqualPredicate) predicate).getFrom()));
+        }
+        if (predicate instanceof InPredicate) {
+            Comparable[] values = ((InPredicate) predicate).getValues();
+            Set<Comparable> convertedValues = createHashSet(values.length);
+            for (Comparable value : values) {
+                convertedValues.add(canonicalizeQueryArgumentScalar(converter.convert(value)));
+            }
+            return getRecords(convertedValues);
+        }
+        throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(value);
+            }
+            ResultCollector collector = new ResultCollector(false);
+            collect(value, collector);
+            return collector.toResultSet();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(values);
+            }
+            ResultCollector collector = new ResultCollector(values.size() > 1);
+            for (Comparable value : values) {
+                collect(value, collector);
+            }
+            return collector.toResultSet();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(comparison, value);
+            }
+            ResultCollector collector = new ResultCollector(false);
+            switch (comparison) {
+                case LESS:
+                    collectRange(null, false, value, false, collector);
+                    break;
+                case LESS_OR_EQUAL:
+                    collectRange(null, false, value, true, collector);
+                    break;
+                case GREATER:
+                    collectRange(value, false, null, false, collector);
+                    break;
+                case GREATER_OR_EQUAL:
+                    collectRange(value, true, null, false, collector);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+            }
+            return collector.toResultSet();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.getRecords(from, fromInclusive, to, toInclusive);
+            }
+            ResultCollector collector = new ResultCollector(false);
+            collectRange(from, fromInclusive, to, toInclusive, collector);
+            return collector.toResultSet();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The visit runs under the read lock, so the visitor should be cheap.
+     * A start value which can't be encoded by this store is not supported.
+     */
+    @Override
+    public boolean visitOrdered(Comparable from, boolean descending, Index.EntryVisitor visitor) {
+        takeReadLock();
+        try {
+            OrderedIndexStore fallback = this.fallback;
+            if (fallback != null) {
+                return fallback.visitOrdered(from, descending, visitor);
+            }
+            Boolean floating = this.floating;
+            long fromKey = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+            if (from != null && floating != null) {
+                if (!canEncodeForStorage(from, floating)) {
+                    return false;
+                }
+                fromKey = encode(from, floating);
+            }
+
+            OrderedVisitor orderedVisitor = new OrderedVisitor(visitor);
+            if (!descending && from == null && !nullTree.forEachAscending(Long.MIN_VALUE, orderedVisitor)) {
+                return true;
+            }
+            boolean completed = descending
+                    ? tree.forEachDescending(fromKey, orderedVisitor) : tree.forEachAscending(fromKey, orderedVisitor);
+            if (completed && descending) {
+                nullTree.forEachAscending(Long.MIN_VALUE, orderedVisitor);
+            }
+            return true;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private void collect(Comparable value, ResultCollector collector) {
+        if (value == NULL) {
+            nullTree.forEach(collector);
+        } else {
+            collectRange(value, true, value, true, collector);
+        }
+    }
+
+    /**
+     * Collects the entries with values in the given range, a {@code null}
+     * bound means the range is unbounded on that side.
+     */
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity", "checkstyle:methodlength",
+            "checkstyle:returncount"})
+    private void collectRange(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                              ResultCollector collector) {
+        Boolean floating = this.floating;
+        if (floating == null) {
+            return;
+        }
+
+        long fromKey = Long.MIN_VALUE;
+        if (from != null) {
+            if (!isSupported(from)) {
+                return;
+            }
+            if (!floating && isFloatingPoint(from)) {
+                // an integral store queried with a floating-point bound
+                double bound = toDouble(from);
+                if (Double.isNaN(bound) || bound >= TWO_POW_63) {
+                    return;
+                }
+                double ceil = Math.ceil(bound);
+                if (ceil >= -TWO_POW_63) {
+                    fromKey = (long) ceil;
+                    if (!fromInclusive && ceil == bound) {
+                        fromKey++;
+                    }
+                }
+            } else {
+                fromKey = encode(from, floating);
+                // the stored values of the bound's millisecond are below a bound with sub-millisecond nanos
+                if (!fromInclusive || hasSubMillisNanos(from)) {
+                    if (fromKey == Long.MAX_VALUE) {
+                        return;
+                    }
+                    fromKey++;
+                }
+            }
+        }
+
+        long toKey = Long.MAX_VALUE;
+        if (to != null) {
+            if (!isSupported(to)) {
+                return;
+            }
+            if (!floating && isFloatingPoint(to)) {
+                double bound = toDouble(to);
+                if (Double.isNaN(bound)) {
+                    toKey = Long.MAX_VALUE;
+                } else if (bound < -TWO_POW_63) {
+                    return;
+                } else {
+                    double floor = Math.floor(bound);
+                    if (floor >= TWO_POW_63) {
+                        toKey = Long.MAX_VALUE;
+                    } else {
+                        toKey = (long) floor;
+                        if (!toInclusive && floor == bound) {
+                            if (toKey == Long.MIN_VALUE) {
+                                return;
+                            }
+                            toKey--;
+                        }
+                    }
+                }
+            } else {
+                toKey = encode(to, floating);
+                if (!toInclusive && !hasSubMillisNanos(to)) {
+                    if (toKey == Long.MIN_VALUE) {
+                        return;
+                    }
+                    toKey--;
+                }
+            }
+        }
+
+        if (fromKey <= toKey) {
+            tree.forEachInRange(fromKey, true, toKey, true, collector);
+        }
+    }
+
+    /**
+     * Chooses the encoding on the first stored value and switches an integral
+     * store to the floating-point encoding if needed to store the given value.
+     *
+     * @return {@code true} if the given value can be stored in the primitive
+     * encoding, {@code false} otherwise
+     */
+    private boolean prepareEncoding(Comparable value) {
+        if (!isSupported(value) || hasSubMillisNanos(value)) {
+            return false;
+        }
+        Boolean floating = this.floating;
+        if (floating == null) {
+            this.floating = isFloatingPoint(value);
+            valueClass = value.getClass();
+            return true;
+        }
+        if (canEncodeForStorage(value, floating)) {
+            return true;
+        }
+        return !floating && isFloatingPoint(value) && widenToFloatingPoint();
+    }
+
+    /**
+     * Re-encodes the values of an integral store as floating-point ones.
+     *
+     * @return {@code true} if the store was switched, {@code false} if some
+     * of its values are not exactly representable as doubles
+     */
+    private boolean widenToFloatingPoint() {
+        LongIntBPlusTree widened = new LongIntBPlusTree();
+        boolean exact = tree.forEachPair((value, id) -> {
+            if (!isExactDouble(value)) {
+                return false;
+            }
+            widened.insert(sortableBits((double) value), id);
+            return true;
+        });
+        if (exact) {
+            tree = widened;
+            floating = true;
+        }
+        return exact;
+    }
+
+    /**
+     * Moves all entries to a newly created {@link OrderedIndexStore}, the
+     * stored values are restored from their encoding.
+     */
+    private void moveToFallback() {
+        OrderedIndexStore fallback = new OrderedIndexStore(copyOn);
+        // the entries are not tracked per value, so don't assume anything about multi-value attributes
+        fallback.detectMultiResultDuplicates();
+        boolean floating = Boolean.TRUE.equals(this.floating);
+        fallback.takeWriteLock();
+        try {
+            nullTree.forEachPair((value, id) -> {
+                fallback.insertInternal(NULL, entries[id]);
+                return true;
+            });
+            tree.forEachPair((value, id) -> {
+                fallback.insertInternal(decode(value, floating), entries[id]);
+                return true;
+            });
+        } finally {
+            fallback.releaseWriteLock();
+        }
+        clearPrimitiveEntries();
+        this.fallback = fallback;
+    }
+
+    private static boolean canEncodeForStorage(Comparable value, boolean floating) {
+        if (isIntegral(value)) {
+            return !hasSubMillisNanos(value) && (!floating || isExactDouble(toLong(value)));
+        }
+        if (!isFloatingPoint(value)) {
+            return false;
+        }
+        if (floating) {
+            return true;
+        }
+        double doubleValue = toDouble(value);
+        return doubleValue == Math.rint(doubleValue) && doubleValue >= -TWO_POW_63 && doubleValue < TWO_POW_63;
+    }
+
+    private static boolean isExactDouble(long value) {
+        return value >= -MAX_EXACT_DOUBLE && value <= MAX_EXACT_DOUBLE;
+    }
+
+    private int allocateId() {
+        if (freeIdCount > 0) {
+            return freeIds[--freeIdCount];
+        }
+        if (highWaterMark == entries.length) {
+            int newCapacity = entries.length * 2;
+            entries = Arrays.copyOf(entries, newCapacity);
+            refCounts = Arrays.copyOf(refCounts, newCapacity);
+        }
+        return highWaterMark++;
+    }
+
+    private void releaseId(int id) {
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeIdCount++] = id;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Date || value instanceof Boolean || value instanceof Character;
+    }
+
+    /**
+     * @return {@code true} if the given value is a timestamp which can't be
+     * encoded as epoch milliseconds without losing precision
+     */
+    private static boolean hasSubMillisNanos(Object value) {
+        return value instanceof Timestamp && ((Timestamp) value).getNanos() % NANOS_PER_MILLI != 0;
+    }
+
+    private static boolean isFloatingPoint(Object value) {
+        return value instanceof Double || value instanceof Float;
+    }
+
+    private static long encode(Comparable value, boolean floating) {
+        if (floating) {
+            return sortableBits(isIntegral(value) ? (double) toLong(value) : toDouble(value));
+        }
+        return isIntegral(value) ? toLong(value) : (long) toDouble(value);
+    }
+
+    private Comparable decode(long encoded, boolean floating) {
+        if (floating) {
+            return Double.longBitsToDouble(flipSortOrder(encoded));
+        }
+        if (valueClass == Timestamp.class) {
+            return new Timestamp(encoded);
+        } else if (Date.class.isAssignableFrom(valueClass)) {
+            return new Date(encoded);
+        } else if (valueClass == Boolean.class) {
+            return encoded != 0;
+        } else if (valueClass == Character.class) {
+            return (char) encoded;
+        } else {
+            return encoded;
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Date) {
+            return ((Date) value).getTime();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else {
+            return (Character) value;
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return ((Number) value).doubleValue();
+    }
+
+    /**
+     * Maps a double to a long preserving the order of {@link Double#compare}.
+     */
+    static long sortableBits(double value) {
+        return flipSortOrder(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Maps the raw bits of a double to a long preserving the order of
+     * {@link Double#compare} and back, the mapping is its own inverse.
+     */
+    private static long flipSortOrder(long bits) {
+        return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+    }
+
+    /**
+     * Collects the entries referenced by the ids passed to it, deduplicating
+     * them if an entry can be reached more than once.
+     */
+    private final class ResultCollector implements IntConsumer {
+
+        private final BitSet seen;
+        private QueryableEntry[] results = new QueryableEntry[INITIAL_CAPACITY];
+        private int size;
+
+        ResultCollector(boolean multipleLookups) {
+            this.seen = multipleLookups || multiValued ? new BitSet() : null;
+        }
+
+        @Override
+        public void accept(int id) {
+            if (seen != null) {
+                if (seen.get(id)) {
+                    return;
+                }
+                seen.set(id);
+            }
+            if (size == results.length) {
+                results = Arrays.copyOf(results, size * 2);
+            }
+            results[size++] = entries[id];
+        }
+
+        Set<QueryableEntry> toResultSet() {
+            return size == 0 ? emptySet() : new EntryArrayResultSet(results, size, isExpirable());
+        }
+    }
+
+    /**
+     * Passes the entries referenced by the ids passed to it to an index
+     * entry visitor, deduplicating them if an entry can be reached more than
+     * once.
+     */
+    private final class OrderedVisitor implements IntPredicate {
+
+        private final Index.EntryVisitor visitor;
+        private final BitSet seen = multiValued ? new BitSet() : null;
+        private final long now = isExpirable() ? Clock.currentTimeMillis() : -1;
+
+        OrderedVisitor(Index.EntryVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public boolean test(int id) {
+            if (seen != null) {
+                if (seen.get(id)) {
+                    return true;
+                }
+                seen.set(id);
+            }
+            QueryableEntry entry = entries[id];
+            if (now != -1) {
+                entry.getRecord().onAccessSafe(now);
+            }
+            return visitor.visit(entry);
+        }
+    }
+
+    /**
+     * Result set backed by an array of entries. If the index store is
+     * expirable, the access time of the records is updated as they are
+     * iterated, same as {@link BaseIndexStore.ExpirationAwareHashMapDelegate} does.
+     */
+    private static final class EntryArrayResultSet extends AbstractSet<QueryableEntry> {
+
+        private final QueryableEntry[] entries;
+        private final int size;
+        private final boolean touchOnAccess;
+        private Set<Data> keys;
+
+        EntryArrayResultSet(QueryableEntry[] entries, int size, boolean touchOnAccess) {
+            this.entries = entries;
+            this.size = size;
+            this.touchOnAccess = touchOnAccess;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (keys == null) {
+                Set<Data> keys = new HashSet<>();
+                for (int i = 0; i < size; i++) {
+                    keys.add(entries[i].getKeyData());
+                }
+                this.keys = keys;
+            }
+            return keys.contains(((QueryableEntry) o).getKeyData());
+        }
+
+        @Override
+        public Iterator<QueryableEntry> iterator() {
+            long now = touchOnAccess ? Clock.currentTimeMillis() : 0;
+            return new Iterator<QueryableEntry>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public QueryableEntry next() {
+                    if (index == size) {
+                        throw new NoSuchElementException();
+                    }
+                    QueryableEntry entry = entries[index++];
+                    if (touchOnAccess) {
+                        entry.getRecord().onAccessSafe(now);
+                    }
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
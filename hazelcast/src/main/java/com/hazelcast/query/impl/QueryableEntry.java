@@ -98,7 +98,13 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
      * collection is empty or all its elements are {@code null}.
      */
     TypeConverter getConverter(String attributeName) {
-        Object attributeValue = getAttributeValue(attributeName);
+        return getConverterForValue(getAttributeValue(attributeName));
+    }
+
+    /**
+     * Returns the converter for the given extracted attribute value.
+     */
+    static TypeConverter getConverterForValue(Object attributeValue) {
         if (attributeValue == null) {
             return NULL_CONVERTER;
         } else if (attributeValue instanceof MultiResult) {
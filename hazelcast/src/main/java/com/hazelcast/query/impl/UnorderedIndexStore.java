@@ -17,9 +17,11 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.query.Predicate;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -37,12 +39,14 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
     private final ConcurrentMap<Comparable, Map<Data, QueryableEntry>> recordMap = new ConcurrentHashMap<>(1000);
     private final IndexFunctor<Comparable, QueryableEntry> addFunctor;
     private final IndexFunctor<Comparable, Data> removeFunctor;
+    private final boolean copyOnWrite;
 
     private volatile Map<Data, QueryableEntry> recordsWithNullValue;
 
     public UnorderedIndexStore(IndexCopyBehavior copyOn) {
         super(copyOn);
-        if (copyOn == IndexCopyBehavior.COPY_ON_WRITE) {
+        copyOnWrite = copyOn == IndexCopyBehavior.COPY_ON_WRITE;
+        if (copyOnWrite) {
             addFunctor = new CopyOnWriteAddFunctor();
             removeFunctor = new CopyOnWriteRemoveFunctor();
             recordsWithNullValue = Collections.emptyMap();
@@ -59,6 +63,35 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
         return addFunctor.invoke(value, record);
     }
 
+    @Override
+    void insertAllInternal(Comparable value, Object attributeValue, Collection<QueryableEntry> records,
+                           IndexOperationStats operationStats) {
+        Map<Data, QueryableEntry> existing = value == NULL ? recordsWithNullValue : recordMap.get(value);
+        Map<Data, QueryableEntry> target;
+        if (copyOnWrite) {
+            target = existing == null ? new HashMap<>() : new HashMap<>(existing);
+        } else if (existing == null) {
+            target = new ConcurrentHashMap<>(records.size(), LOAD_FACTOR, 1);
+        } else {
+            target = existing;
+        }
+
+        for (QueryableEntry record : records) {
+            markIndexStoreExpirableIfNecessary(record);
+            Object oldValue = target.put(record.getKeyData(), record);
+            operationStats.onEntryAdded(oldValue, attributeValue);
+        }
+
+        // publish the new map of records, if any, after it's fully populated
+        if (target != existing) {
+            if (value == NULL) {
+                recordsWithNullValue = target;
+            } else {
+                recordMap.put(value, target);
+            }
+        }
+    }
+
     @Override
     Object removeInternal(Comparable value, Data recordKey) {
         return removeFunctor.invoke(value, recordKey);
@@ -246,6 +279,11 @@ public class UnorderedIndexStore extends BaseSingleValueIndexStore {
         }
     }
 
+    @Override
+    public boolean visitOrdered(Comparable from, boolean descending, Index.EntryVisitor visitor) {
+        return false;
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
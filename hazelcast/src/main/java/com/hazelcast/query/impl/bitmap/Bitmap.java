@@ -34,19 +34,43 @@ import java.util.Map;
  * of type {@code E}. Each indexed entry is uniquely identified by its unique
  * {@code long} key provided externally.
  * <p>
- * Internally, each bitmap manages a set of sparse bit sets, one for each
- * possible attribute value, and a sparse array to map from unique {@code long}
- * entry keys back to entries.
+ * Internally, each bitmap manages a set of bit sets, one for each possible
+ * attribute value, and a sparse array to map from unique {@code long} entry
+ * keys back to entries. The bit sets are either {@link SparseBitSet sparse}
+ * or {@link RoaringBitSet compressed}; compressed bit sets take less memory on
+ * dense or clustered keys and allow predicates to be evaluated by materialized
+ * bit set operations instead of merging iterators.
  *
  * @param <E> the type of entries being indexed.
  */
 @SuppressWarnings("rawtypes")
 public final class Bitmap<E> {
 
-    private final Map<Object, SparseBitSet> bitSets = new HashMap<>();
+    private static final RoaringBitSet EMPTY = new RoaringBitSet();
+
+    private final Map<Object, LongBitSet> bitSets = new HashMap<>();
 
     private final SparseArray<E> entries = new SparseArray<>();
 
+    private final boolean compressed;
+
+    /**
+     * Constructs a new bitmap backed by sparse bit sets.
+     */
+    public Bitmap() {
+        this(false);
+    }
+
+    /**
+     * Constructs a new bitmap.
+     *
+     * @param compressed {@code true} to back the bitmap by compressed bit
+     *                   sets, {@code false} to back it by sparse bit sets.
+     */
+    public Bitmap(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     /**
      * Inserts the given values associated with the given entry having the given
      * unique key.
@@ -60,9 +84,9 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet == null) {
-                bitSet = new SparseBitSet();
+                bitSet = newBitSet();
                 bitSets.put(value, bitSet);
             }
             bitSet.add(key);
@@ -85,7 +109,7 @@ public final class Bitmap<E> {
             Object value = oldValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet != null) {
                 bitSet.remove(key);
             }
@@ -95,9 +119,9 @@ public final class Bitmap<E> {
             Object value = newValues.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet == null) {
-                bitSet = new SparseBitSet();
+                bitSet = newBitSet();
                 bitSets.put(value, bitSet);
             }
             bitSet.add(key);
@@ -118,7 +142,7 @@ public final class Bitmap<E> {
             Object value = values.next();
             assert value != null;
 
-            SparseBitSet bitSet = bitSets.get(value);
+            LongBitSet bitSet = bitSets.get(value);
             if (bitSet != null) {
                 if (bitSet.remove(key)) {
                     bitSets.remove(value);
@@ -151,9 +175,131 @@ public final class Bitmap<E> {
      * @return an iterator containing entries matching the given predicate.
      */
     public Iterator<E> evaluate(Predicate predicate, TypeConverter converter) {
+        if (compressed) {
+            RoaringBitSet members = predicateBitSet(predicate, converter);
+            if (members != null) {
+                return new EntryIterator<>(members.iterator(), entries.iterator());
+            }
+        }
         return new EntryIterator<>(predicateIterator(predicate, converter), entries.iterator());
     }
 
+    /**
+     * Counts the entries matching the given predicate while converting the
+     * predicate arguments using the given converter.
+     * <p>
+     * Supports the same predicates as {@link #evaluate}. For compressed
+     * bitmaps the count is usually computed from the bit set cardinalities
+     * without visiting the individual entries.
+     *
+     * @param predicate the predicate to evaluate.
+     * @param converter the converter to use for the predicate arguments
+     *                  conversion.
+     * @return the number of entries matching the given predicate.
+     */
+    public long count(Predicate predicate, TypeConverter converter) {
+        if (compressed) {
+            RoaringBitSet members = predicateBitSet(predicate, converter);
+            if (members != null) {
+                return members.cardinality();
+            }
+        }
+
+        AscendingLongIterator iterator = predicateIterator(predicate, converter);
+        long count = 0;
+        while (iterator.advance() != AscendingLongIterator.END) {
+            ++count;
+        }
+        return count;
+    }
+
+    private LongBitSet newBitSet() {
+        return compressed ? new RoaringBitSet() : new SparseBitSet();
+    }
+
+    /**
+     * Evaluates the given predicate to a materialized bit set.
+     * <p>
+     * Negations are supported only as a part of a conjunction with at least
+     * one non-negated predicate, since evaluating them on their own requires
+     * the whole universe of entries.
+     *
+     * @return the evaluated bit set, possibly one of the bit sets of this
+     * bitmap which must not be modified, or {@code null} if the predicate
+     * can't be evaluated to a bit set.
+     */
+    private RoaringBitSet predicateBitSet(Predicate predicate, TypeConverter converter) {
+        if (predicate instanceof AndPredicate) {
+            RoaringBitSet result = null;
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                if (subPredicate instanceof NotPredicate || subPredicate instanceof NotEqualPredicate) {
+                    continue;
+                }
+                RoaringBitSet bitSet = predicateBitSet(subPredicate, converter);
+                if (bitSet == null) {
+                    return null;
+                }
+                result = result == null ? bitSet : RoaringBitSet.and(result, bitSet);
+            }
+            if (result == null) {
+                return null;
+            }
+
+            for (Predicate subPredicate : ((AndPredicate) predicate).getPredicates()) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                RoaringBitSet negated;
+                if (subPredicate instanceof NotPredicate) {
+                    negated = predicateBitSet(((NotPredicate) subPredicate).getPredicate(), converter);
+                } else if (subPredicate instanceof NotEqualPredicate) {
+                    negated = valueBitSet(((NotEqualPredicate) subPredicate).getValue(), converter);
+                } else {
+                    continue;
+                }
+                if (negated == null) {
+                    return null;
+                }
+                result = RoaringBitSet.andNot(result, negated);
+            }
+            return result;
+        }
+
+        if (predicate instanceof OrPredicate) {
+            RoaringBitSet result = null;
+            for (Predicate subPredicate : ((OrPredicate) predicate).getPredicates()) {
+                RoaringBitSet bitSet = predicateBitSet(subPredicate, converter);
+                if (bitSet == null) {
+                    return null;
+                }
+                result = result == null ? bitSet : RoaringBitSet.or(result, bitSet);
+            }
+            return result;
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            return valueBitSet(((EqualPredicate) predicate).getFrom(), converter);
+        }
+
+        if (predicate instanceof InPredicate) {
+            RoaringBitSet result = EMPTY;
+            for (Comparable value : ((InPredicate) predicate).getValues()) {
+                RoaringBitSet bitSet = valueBitSet(value, converter);
+                if (!bitSet.isEmpty()) {
+                    result = result.isEmpty() ? bitSet : RoaringBitSet.or(result, bitSet);
+                }
+            }
+            return result;
+        }
+
+        return null;
+    }
+
+    private RoaringBitSet valueBitSet(Comparable value, TypeConverter converter) {
+        RoaringBitSet bitSet = (RoaringBitSet) bitSets.get(converter.convert(value));
+        return bitSet == null ? EMPTY : bitSet;
+    }
+
     @SuppressWarnings("checkstyle:npathcomplexity")
     private AscendingLongIterator predicateIterator(Predicate predicate, TypeConverter converter) {
         if (predicate instanceof AndPredicate) {
@@ -208,7 +354,7 @@ public final class Bitmap<E> {
     }
 
     private AscendingLongIterator valueIterator(Comparable value, TypeConverter converter) {
-        SparseBitSet bitSet = bitSets.get(converter.convert(value));
+        LongBitSet bitSet = bitSets.get(converter.convert(value));
         return bitSet == null ? AscendingLongIterator.EMPTY : bitSet.iterator();
     }
 
@@ -0,0 +1,1085 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import java.util.Arrays;
+
+import static java.lang.Long.bitCount;
+import static java.lang.Long.numberOfTrailingZeros;
+import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
+
+/**
+ * Stores a set of bits indexable by non-negative {@code long} indexes using
+ * Roaring-style compressed containers.
+ * <p>
+ * Members are split into 48-bit prefixes kept in a sorted array and 16-bit
+ * postfixes stored in a {@link Container Container} per prefix. Containers go
+ * in three flavors:
+ * <ul>
+ * <li>{@link ArrayContainer ArrayContainer} which manages a sorted char array
+ * of postfixes, used for sparse containers;
+ * <li>{@link BitmapContainer BitmapContainer} which manages a directly
+ * indexable long array of bits, used for dense containers;
+ * <li>{@link RunContainer RunContainer} which manages a sorted array of runs
+ * of consecutive postfixes, used for clustered containers.
+ * </ul>
+ * Containers are converted to the most compact flavor as they change. Unlike
+ * {@link SparseBitSet}, this bit set supports materialized {@link #and AND},
+ * {@link #or OR} and {@link #andNot ANDNOT} operations and constant time
+ * {@link #cardinality} per container. Operations on dense containers are
+ * simple loops over long arrays the JIT compiler is able to vectorize.
+ * <p>
+ * Empty containers are never stored by the implementation.
+ */
+final class RoaringBitSet implements LongBitSet {
+
+    /**
+     * The maximum size of array containers. At this size the memory cost of
+     * a sorted char array is equal to the cost of a directly indexable long
+     * array of bits.
+     */
+    static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+    private static final int CONTAINER_BITS = 16;
+    private static final int POSTFIX_MASK = 0xFFFF;
+    private static final int CONTAINER_CAPACITY = 1 << CONTAINER_BITS;
+    private static final int WORD_COUNT = CONTAINER_CAPACITY / Long.SIZE;
+    private static final int BITMAP_BYTES = WORD_COUNT * Long.BYTES;
+    private static final int RUN_BYTES = 2 * Character.BYTES;
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * How often, in terms of the cardinality, array and bitmap containers
+     * check whether they would be more compact as run containers.
+     */
+    private static final int ARRAY_RUN_CHECK_MASK = 0xFF;
+    private static final int BITMAP_RUN_CHECK_MASK = 0x3FF;
+
+    private long[] prefixes = new long[INITIAL_CAPACITY];
+    private Container[] containers = new Container[INITIAL_CAPACITY];
+    private int size;
+
+    // used for caching of the last resolved container index
+    private int lastIndex = -1;
+
+    @Override
+    public void add(long member) {
+        assert member >= 0;
+        long prefix = member >>> CONTAINER_BITS;
+        int postfix = (int) member & POSTFIX_MASK;
+
+        int index = indexOf(prefix);
+        if (index >= 0) {
+            containers[index] = containers[index].add(postfix);
+        } else {
+            index = -(index + 1);
+            insertContainer(index, prefix, new ArrayContainer(postfix));
+        }
+        lastIndex = index;
+    }
+
+    @Override
+    public boolean remove(long member) {
+        assert member >= 0;
+        int index = indexOf(member >>> CONTAINER_BITS);
+        if (index < 0) {
+            return false;
+        }
+
+        Container container = containers[index].remove((int) member & POSTFIX_MASK);
+        if (container == null) {
+            removeContainer(index);
+            lastIndex = -1;
+            return size == 0;
+        }
+        containers[index] = container;
+        lastIndex = index;
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the given member is in this bit set,
+     * {@code false} otherwise.
+     */
+    public boolean contains(long member) {
+        assert member >= 0;
+        int index = indexOf(member >>> CONTAINER_BITS);
+        return index >= 0 && containers[index].contains((int) member & POSTFIX_MASK);
+    }
+
+    /**
+     * @return the number of members in this bit set.
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; ++i) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return {@code true} if this bit set has no members, {@code false}
+     * otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public AscendingLongIterator iterator() {
+        return new IteratorImpl(this);
+    }
+
+    /**
+     * @return a new bit set containing the members present in both given bit
+     * sets.
+     */
+    public static RoaringBitSet and(RoaringBitSet left, RoaringBitSet right) {
+        RoaringBitSet result = new RoaringBitSet();
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            long leftPrefix = left.prefixes[i];
+            long rightPrefix = right.prefixes[j];
+            if (leftPrefix < rightPrefix) {
+                ++i;
+            } else if (leftPrefix > rightPrefix) {
+                ++j;
+            } else {
+                result.appendContainer(leftPrefix, left.containers[i].and(right.containers[j]));
+                ++i;
+                ++j;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bit set containing the members present in any of the
+     * given bit sets.
+     */
+    public static RoaringBitSet or(RoaringBitSet left, RoaringBitSet right) {
+        RoaringBitSet result = new RoaringBitSet();
+        int i = 0;
+        int j = 0;
+        while (i < left.size || j < right.size) {
+            long leftPrefix = i < left.size ? left.prefixes[i] : Long.MAX_VALUE;
+            long rightPrefix = j < right.size ? right.prefixes[j] : Long.MAX_VALUE;
+            if (leftPrefix < rightPrefix) {
+                result.appendContainer(leftPrefix, left.containers[i++].copy());
+            } else if (leftPrefix > rightPrefix) {
+                result.appendContainer(rightPrefix, right.containers[j++].copy());
+            } else {
+                result.appendContainer(leftPrefix, left.containers[i++].or(right.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bit set containing the members present in the left bit
+     * set and absent in the right one.
+     */
+    public static RoaringBitSet andNot(RoaringBitSet left, RoaringBitSet right) {
+        RoaringBitSet result = new RoaringBitSet();
+        int j = 0;
+        for (int i = 0; i < left.size; ++i) {
+            long prefix = left.prefixes[i];
+            while (j < right.size && right.prefixes[j] < prefix) {
+                ++j;
+            }
+            if (j < right.size && right.prefixes[j] == prefix) {
+                result.appendContainer(prefix, left.containers[i].andNot(right.containers[j]));
+            } else {
+                result.appendContainer(prefix, left.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(long prefix) {
+        int cached = lastIndex;
+        if (cached >= 0 && cached < size && prefixes[cached] == prefix) {
+            return cached;
+        }
+        if (size > 0 && prefixes[size - 1] < prefix) {
+            // fast path for ascending insertions
+            return -(size + 1);
+        }
+        return Arrays.binarySearch(prefixes, 0, size, prefix);
+    }
+
+    private void insertContainer(int index, long prefix, Container container) {
+        if (size == prefixes.length) {
+            int capacity = size + Math.max(INITIAL_CAPACITY, size >>> 1);
+            prefixes = copyOf(prefixes, capacity);
+            containers = copyOf(containers, capacity);
+        }
+        arraycopy(prefixes, index, prefixes, index + 1, size - index);
+        arraycopy(containers, index, containers, index + 1, size - index);
+        prefixes[index] = prefix;
+        containers[index] = container;
+        ++size;
+    }
+
+    private void removeContainer(int index) {
+        arraycopy(prefixes, index + 1, prefixes, index, size - index - 1);
+        arraycopy(containers, index + 1, containers, index, size - index - 1);
+        --size;
+        containers[size] = null;
+    }
+
+    private void appendContainer(long prefix, Container container) {
+        if (container != null) {
+            insertContainer(size, prefix, container);
+        }
+    }
+
+    /**
+     * Sets the bits in the range {@code [from, to)}.
+     */
+    static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        long fromMask = -1L << from;
+        long toMask = -1L >>> -to;
+        if (fromWord == toWord) {
+            words[fromWord] |= fromMask & toMask;
+        } else {
+            words[fromWord] |= fromMask;
+            for (int i = fromWord + 1; i < toWord; ++i) {
+                words[i] = -1L;
+            }
+            words[toWord] |= toMask;
+        }
+    }
+
+    /**
+     * @return the first set bit at or after the given one or {@code -1} if
+     * there is no such bit.
+     */
+    static int nextSetBit(long[] words, int from) {
+        if (from >= CONTAINER_CAPACITY) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + numberOfTrailingZeros(word);
+            }
+            if (++index == WORD_COUNT) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * @return the first clear bit at or after the given one or the container
+     * capacity if there is no such bit.
+     */
+    static int nextClearBit(long[] words, int from) {
+        if (from >= CONTAINER_CAPACITY) {
+            return CONTAINER_CAPACITY;
+        }
+        int index = from >>> 6;
+        long word = ~words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + numberOfTrailingZeros(word);
+            }
+            if (++index == WORD_COUNT) {
+                return CONTAINER_CAPACITY;
+            }
+            word = ~words[index];
+        }
+    }
+
+    /**
+     * @return the number of runs of consecutive set bits.
+     */
+    static int countRuns(long[] words) {
+        int runs = 0;
+        long next = words[0];
+        for (int i = 0; i < WORD_COUNT - 1; ++i) {
+            long word = next;
+            next = words[i + 1];
+            // a run ends at every set bit followed by a clear one
+            runs += bitCount(~word & (word << 1)) + (int) ((word >>> 63) & ~next);
+        }
+        runs += bitCount(~next & (next << 1)) + (int) (next >>> 63);
+        return runs;
+    }
+
+    /**
+     * Creates the most compact container for the given bits.
+     *
+     * @return the created container or {@code null} if no bits are set.
+     */
+    static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += bitCount(word);
+        }
+        if (cardinality == 0) {
+            return null;
+        }
+
+        int runs = countRuns(words);
+        int arrayBytes = cardinality <= ARRAY_CONTAINER_MAX_SIZE ? cardinality * Character.BYTES : Integer.MAX_VALUE;
+        int runBytes = runs * RUN_BYTES;
+        if (runBytes < arrayBytes && runBytes < BITMAP_BYTES) {
+            return RunContainer.fromWords(words, runs, cardinality);
+        }
+        if (arrayBytes <= BITMAP_BYTES) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    /**
+     * Stores 16-bit postfixes of members sharing the same 48-bit prefix.
+     * <p>
+     * Containers are never empty: mutations return {@code null} instead of
+     * an empty container.
+     */
+    abstract static class Container {
+
+        int cardinality;
+
+        abstract boolean contains(int postfix);
+
+        /**
+         * @return this container or a new container if this container was
+         * converted to another flavor.
+         */
+        abstract Container add(int postfix);
+
+        /**
+         * @return this container, a new container if this container was
+         * converted to another flavor or {@code null} if this container became
+         * empty.
+         */
+        abstract Container remove(int postfix);
+
+        /**
+         * Sets the bits of the postfixes of this container in the given words.
+         */
+        abstract void orInto(long[] words);
+
+        abstract Container copy();
+
+        abstract Cursor cursor();
+
+        /**
+         * @return a new container or {@code null} if the result is empty.
+         */
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] words = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] &= otherWords[i];
+            }
+            return fromWords(words);
+        }
+
+        /**
+         * @return a new container.
+         */
+        Container or(Container other) {
+            long[] words = toWords();
+            other.orInto(words);
+            return fromWords(words);
+        }
+
+        /**
+         * @return a new container or {@code null} if the result is empty.
+         */
+        Container andNot(Container other) {
+            long[] words = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] &= ~otherWords[i];
+            }
+            return fromWords(words);
+        }
+
+        long[] toWords() {
+            long[] words = new long[WORD_COUNT];
+            orInto(words);
+            return words;
+        }
+
+    }
+
+    /**
+     * Iterates over the postfixes of a container in ascending order.
+     * <p>
+     * Just after the creation, cursors are positioned at the first postfix.
+     */
+    abstract static class Cursor {
+
+        /**
+         * @return the postfix the cursor is positioned at.
+         */
+        abstract int current();
+
+        /**
+         * Advances this cursor to the next postfix.
+         *
+         * @return the next postfix or {@code -1} if there are no more
+         * postfixes.
+         */
+        abstract int next();
+
+        /**
+         * Advances this cursor to the given postfix; or, if the postfix is not
+         * present, to a postfix immediately following it.
+         *
+         * @return the postfix the cursor was advanced to or {@code -1} if
+         * there are no more postfixes.
+         */
+        abstract int advanceAtLeastTo(int postfix);
+
+    }
+
+    /**
+     * Manages sorted char array of postfixes.
+     */
+    static final class ArrayContainer extends Container {
+
+        private char[] values;
+
+        ArrayContainer(int postfix) {
+            this.values = new char[INITIAL_CAPACITY];
+            this.values[0] = (char) postfix;
+            this.cardinality = 1;
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) + numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override
+        boolean contains(int postfix) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) postfix) >= 0;
+        }
+
+        @Override
+        Container add(int postfix) {
+            int index = cardinality > 0 && values[cardinality - 1] < postfix
+                    ? -(cardinality + 1) : Arrays.binarySearch(values, 0, cardinality, (char) postfix);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+                long[] words = toWords();
+                words[postfix >>> 6] |= 1L << postfix;
+                return RoaringBitSet.fromWords(words);
+            }
+
+            index = -(index + 1);
+            if (cardinality == values.length) {
+                int capacity = cardinality + Math.max(INITIAL_CAPACITY, cardinality >>> 1);
+                values = copyOf(values, Math.min(ARRAY_CONTAINER_MAX_SIZE, capacity));
+            }
+            arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = (char) postfix;
+            ++cardinality;
+
+            if ((cardinality & ARRAY_RUN_CHECK_MASK) == 0) {
+                int runs = countRuns();
+                // require the runs to be twice as compact to avoid flapping
+                if (2 * runs * RUN_BYTES <= cardinality * Character.BYTES) {
+                    return RunContainer.fromArray(values, cardinality, runs);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int postfix) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) postfix);
+            if (index < 0) {
+                return this;
+            }
+            if (cardinality == 1) {
+                return null;
+            }
+            arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            --cardinality;
+            if (values.length > INITIAL_CAPACITY && cardinality < values.length >>> 2) {
+                values = copyOf(values, Math.max(INITIAL_CAPACITY, cardinality << 1));
+            }
+            return this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < cardinality; ++i) {
+                int value = values[i];
+                words[value >>> 6] |= 1L << value;
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        Cursor cursor() {
+            return new ArrayCursor();
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            for (int i = 0; i < cardinality; ++i) {
+                if (other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer) || cardinality + other.cardinality > ARRAY_CONTAINER_MAX_SIZE) {
+                return super.or(other);
+            }
+
+            ArrayContainer that = (ArrayContainer) other;
+            char[] result = new char[cardinality + that.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < that.cardinality) {
+                char left = values[i];
+                char right = that.values[j];
+                if (left < right) {
+                    result[count++] = left;
+                    ++i;
+                } else if (left > right) {
+                    result[count++] = right;
+                    ++j;
+                } else {
+                    result[count++] = left;
+                    ++i;
+                    ++j;
+                }
+            }
+            while (i < cardinality) {
+                result[count++] = values[i++];
+            }
+            while (j < that.cardinality) {
+                result[count++] = that.values[j++];
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; ++i) {
+                if (!other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return count == 0 ? null : new ArrayContainer(result, count);
+        }
+
+        private int countRuns() {
+            int runs = 1;
+            for (int i = 1; i < cardinality; ++i) {
+                if (values[i] != values[i - 1] + 1) {
+                    ++runs;
+                }
+            }
+            return runs;
+        }
+
+        private final class ArrayCursor extends Cursor {
+
+            private int position;
+
+            @Override
+            int current() {
+                return values[position];
+            }
+
+            @Override
+            int next() {
+                return ++position < cardinality ? values[position] : -1;
+            }
+
+            @Override
+            int advanceAtLeastTo(int postfix) {
+                if (values[position] >= postfix) {
+                    return values[position];
+                }
+                int index = Arrays.binarySearch(values, position + 1, cardinality, (char) postfix);
+                position = index >= 0 ? index : -(index + 1);
+                return position < cardinality ? values[position] : -1;
+            }
+
+        }
+
+    }
+
+    /**
+     * Manages directly indexable long array of bits.
+     */
+    static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(int postfix) {
+            return (words[postfix >>> 6] & (1L << postfix)) != 0;
+        }
+
+        @Override
+        Container add(int postfix) {
+            long word = words[postfix >>> 6];
+            long bit = 1L << postfix;
+            if ((word & bit) != 0) {
+                return this;
+            }
+            words[postfix >>> 6] = word | bit;
+            ++cardinality;
+
+            if ((cardinality & BITMAP_RUN_CHECK_MASK) == 0) {
+                int runs = countRuns(words);
+                // require the runs to be twice as compact to avoid flapping
+                if (2 * runs * RUN_BYTES <= BITMAP_BYTES) {
+                    return RunContainer.fromWords(words, runs, cardinality);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int postfix) {
+            long word = words[postfix >>> 6];
+            long bit = 1L << postfix;
+            if ((word & bit) == 0) {
+                return this;
+            }
+            words[postfix >>> 6] = word & ~bit;
+            --cardinality;
+            return cardinality <= ARRAY_CONTAINER_MAX_SIZE ? ArrayContainer.fromWords(words, cardinality) : this;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            long[] source = this.words;
+            for (int i = 0; i < WORD_COUNT; ++i) {
+                words[i] |= source[i];
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        Cursor cursor() {
+            return new BitmapCursor();
+        }
+
+        private final class BitmapCursor extends Cursor {
+
+            private int current = nextSetBit(words, 0);
+
+            @Override
+            int current() {
+                return current;
+            }
+
+            @Override
+            int next() {
+                current = nextSetBit(words, current + 1);
+                return current;
+            }
+
+            @Override
+            int advanceAtLeastTo(int postfix) {
+                if (postfix > current) {
+                    current = nextSetBit(words, postfix);
+                }
+                return current;
+            }
+
+        }
+
+    }
+
+    /**
+     * Manages sorted array of runs of consecutive postfixes. Every run takes
+     * two chars: the start of the run and its length minus one.
+     */
+    static final class RunContainer extends Container {
+
+        private char[] runs;
+        private int runCount;
+
+        RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer fromArray(char[] values, int cardinality, int runCount) {
+            char[] runs = new char[runCount << 1];
+            int run = 0;
+            int start = values[0];
+            for (int i = 1; i <= cardinality; ++i) {
+                if (i == cardinality || values[i] != values[i - 1] + 1) {
+                    runs[run << 1] = (char) start;
+                    runs[(run << 1) + 1] = (char) (values[i - 1] - start);
+                    ++run;
+                    if (i < cardinality) {
+                        start = values[i];
+                    }
+                }
+            }
+            return new RunContainer(runs, runCount, cardinality);
+        }
+
+        static RunContainer fromWords(long[] words, int runCount, int cardinality) {
+            char[] runs = new char[runCount << 1];
+            int run = 0;
+            int start = nextSetBit(words, 0);
+            while (start >= 0) {
+                int end = nextClearBit(words, start);
+                runs[run << 1] = (char) start;
+                runs[(run << 1) + 1] = (char) (end - start - 1);
+                ++run;
+                start = nextSetBit(words, end);
+            }
+            return new RunContainer(runs, runCount, cardinality);
+        }
+
+        @Override
+        boolean contains(int postfix) {
+            int run = findRun(postfix);
+            return run >= 0 && postfix <= end(run);
+        }
+
+        @Override
+        Container add(int postfix) {
+            int run = findRun(postfix);
+            if (run >= 0 && postfix <= end(run)) {
+                return this;
+            }
+
+            boolean extendsPrevious = run >= 0 && end(run) + 1 == postfix;
+            boolean extendsNext = run + 1 < runCount && start(run + 1) == postfix + 1;
+            if (extendsPrevious && extendsNext) {
+                setLength(run, end(run + 1) - start(run));
+                removeRun(run + 1);
+            } else if (extendsPrevious) {
+                setLength(run, runs[(run << 1) + 1] + 1);
+            } else if (extendsNext) {
+                runs[(run + 1) << 1] = (char) postfix;
+                setLength(run + 1, runs[((run + 1) << 1) + 1] + 1);
+            } else {
+                insertRun(run + 1, postfix, 0);
+            }
+            ++cardinality;
+            return compact();
+        }
+
+        @Override
+        Container remove(int postfix) {
+            int run = findRun(postfix);
+            if (run < 0 || postfix > end(run)) {
+                return this;
+            }
+            if (cardinality == 1) {
+                return null;
+            }
+
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                removeRun(run);
+            } else if (postfix == start) {
+                runs[run << 1] = (char) (start + 1);
+                setLength(run, end - start - 1);
+            } else if (postfix == end) {
+                setLength(run, end - start - 1);
+            } else {
+                setLength(run, postfix - 1 - start);
+                insertRun(run + 1, postfix + 1, end - postfix - 1);
+            }
+            --cardinality;
+            return compact();
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int run = 0; run < runCount; ++run) {
+                setRange(words, start(run), end(run) + 1);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(copyOf(runs, runCount << 1), runCount, cardinality);
+        }
+
+        @Override
+        Cursor cursor() {
+            return new RunCursor();
+        }
+
+        private int start(int run) {
+            return runs[run << 1];
+        }
+
+        private int end(int run) {
+            return runs[run << 1] + runs[(run << 1) + 1];
+        }
+
+        private void setLength(int run, int lengthMinusOne) {
+            runs[(run << 1) + 1] = (char) lengthMinusOne;
+        }
+
+        /**
+         * @return the index of the last run starting at or before the given
+         * postfix or {@code -1} if there is no such run.
+         */
+        private int findRun(int postfix) {
+            int low = 0;
+            int high = runCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (start(middle) <= postfix) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low - 1;
+        }
+
+        private void insertRun(int run, int start, int lengthMinusOne) {
+            if ((runCount + 1) << 1 > runs.length) {
+                runs = copyOf(runs, Math.max(INITIAL_CAPACITY, runs.length + (runs.length >>> 1)) + 2);
+            }
+            arraycopy(runs, run << 1, runs, (run + 1) << 1, (runCount - run) << 1);
+            runs[run << 1] = (char) start;
+            runs[(run << 1) + 1] = (char) lengthMinusOne;
+            ++runCount;
+        }
+
+        private void removeRun(int run) {
+            arraycopy(runs, (run + 1) << 1, runs, run << 1, (runCount - run - 1) << 1);
+            --runCount;
+        }
+
+        private Container compact() {
+            int runBytes = runCount * RUN_BYTES;
+            if (cardinality <= ARRAY_CONTAINER_MAX_SIZE) {
+                if (runBytes > cardinality * Character.BYTES) {
+                    return ArrayContainer.fromWords(toWords(), cardinality);
+                }
+            } else if (runBytes > BITMAP_BYTES) {
+                return new BitmapContainer(toWords(), cardinality);
+            }
+            return this;
+        }
+
+        private final class RunCursor extends Cursor {
+
+            private int run;
+            private int current = start(0);
+
+            @Override
+            int current() {
+                return current;
+            }
+
+            @Override
+            int next() {
+                if (current < end(run)) {
+                    return ++current;
+                }
+                if (++run < runCount) {
+                    current = start(run);
+                    return current;
+                }
+                current = -1;
+                return -1;
+            }
+
+            @Override
+            int advanceAtLeastTo(int postfix) {
+                if (postfix <= current) {
+                    return current;
+                }
+                int candidate = findRun(postfix);
+                if (candidate >= 0 && postfix <= end(candidate)) {
+                    run = candidate;
+                    current = postfix;
+                } else if (candidate + 1 < runCount) {
+                    run = candidate + 1;
+                    current = start(run);
+                } else {
+                    run = runCount;
+                    current = -1;
+                }
+                return current;
+            }
+
+        }
+
+    }
+
+    private static final class IteratorImpl implements AscendingLongIterator {
+
+        private final RoaringBitSet bitSet;
+
+        private int containerIndex;
+        private long prefixBase;
+        private Cursor cursor;
+        private long index;
+
+        IteratorImpl(RoaringBitSet bitSet) {
+            this.bitSet = bitSet;
+            if (bitSet.size == 0) {
+                index = END;
+            } else {
+                positionAt(0);
+            }
+        }
+
+        @Override
+        public long getIndex() {
+            return index;
+        }
+
+        @Override
+        public long advance() {
+            long current = index;
+            if (current == END) {
+                return END;
+            }
+
+            int postfix = cursor.next();
+            if (postfix >= 0) {
+                index = prefixBase | postfix;
+            } else if (containerIndex + 1 < bitSet.size) {
+                positionAt(containerIndex + 1);
+            } else {
+                index = END;
+            }
+            return current;
+        }
+
+        @Override
+        public long advanceAtLeastTo(long member) {
+            if (index == END || member <= index) {
+                return index;
+            }
+
+            long prefix = member >>> CONTAINER_BITS;
+            if (prefix == bitSet.prefixes[containerIndex]) {
+                int postfix = cursor.advanceAtLeastTo((int) member & POSTFIX_MASK);
+                if (postfix >= 0) {
+                    index = prefixBase | postfix;
+                    return index;
+                }
+                if (containerIndex + 1 == bitSet.size) {
+                    index = END;
+                    return END;
+                }
+                positionAt(containerIndex + 1);
+                return index;
+            }
+
+            int target = Arrays.binarySearch(bitSet.prefixes, containerIndex + 1, bitSet.size, prefix);
+            if (target >= 0) {
+                positionAt(target);
+                int postfix = cursor.advanceAtLeastTo((int) member & POSTFIX_MASK);
+                if (postfix >= 0) {
+                    index = prefixBase | postfix;
+                } else if (target + 1 < bitSet.size) {
+                    positionAt(target + 1);
+                } else {
+                    index = END;
+                }
+                return index;
+            }
+
+            target = -(target + 1);
+            if (target == bitSet.size) {
+                index = END;
+            } else {
+                positionAt(target);
+            }
+            return index;
+        }
+
+        private void positionAt(int containerIndex) {
+            this.containerIndex = containerIndex;
+            this.prefixBase = bitSet.prefixes[containerIndex] << CONTAINER_BITS;
+            this.cursor = bitSet.containers[containerIndex].cursor();
+            this.index = prefixBase | cursor.current();
+        }
+
+    }
+
+}
@@ -55,7 +55,7 @@ import static java.util.Arrays.copyOf;
  * <p>
  * Empty storages are never stored by the implementation.
  */
-final class SparseBitSet {
+final class SparseBitSet implements LongBitSet {
 
     /**
      * The size at which ArrayStorage32 is converted to PrefixStorage32.
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.internal.serialization.impl.compact.FieldDescriptor;
+import com.hazelcast.internal.serialization.impl.compact.FieldKind;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaRegistry;
+
+import java.nio.ByteOrder;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Reads the fields of a compact object directly from its {@link Data} form,
+ * without deserializing the object. Dotted paths are followed into nested
+ * compact objects the same way; a nested object of any other type is
+ * deserialized and the rest of the path is extracted reflectively.
+ */
+final class CompactGetter extends Getter {
+
+    private final InternalSerializationService serializationService;
+    private final SchemaRegistry registry;
+    private final boolean bigEndian;
+
+    CompactGetter(InternalSerializationService serializationService) {
+        super(null);
+        this.serializationService = serializationService;
+        this.registry = serializationService.getCompactSchemaRegistry();
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath) throws Exception {
+        Data data = (Data) target;
+        return read(data.toByteArray(), HeapData.DATA_OFFSET, fieldPath);
+    }
+
+    private Object read(byte[] bytes, int position, String fieldPath) throws Exception {
+        int dotIndex = fieldPath.indexOf('.');
+        String fieldName = dotIndex < 0 ? fieldPath : fieldPath.substring(0, dotIndex);
+        Schema schema = registry.getSchema(Bits.readLong(bytes, position, bigEndian));
+        FieldDescriptor field = schema.getField(fieldName);
+        if (field == null) {
+            return null;
+        }
+
+        FieldKind kind = field.getKind();
+        int base = position + Schema.FIELDS_OFFSET;
+        if (kind.isFixedSize()) {
+            checkNoNestedPath(fieldPath, dotIndex, field);
+            return readFixedSize(bytes, base + field.getOffset(), kind);
+        }
+
+        int length = Bits.readInt(bytes, position + Schema.LENGTH_OFFSET, bigEndian);
+        int tablePosition = base + length - INT_SIZE_IN_BYTES * schema.getVariableFieldCount();
+        int offset = Bits.readInt(bytes, tablePosition + INT_SIZE_IN_BYTES * field.getOffset(), bigEndian);
+        if (offset < 0) {
+            return null;
+        }
+        int valuePosition = base + offset;
+        if (kind == FieldKind.STRING) {
+            checkNoNestedPath(fieldPath, dotIndex, field);
+            return serializationService.createObjectDataInput(bytes, valuePosition).readUTF();
+        }
+        if (dotIndex < 0) {
+            return serializationService.createObjectDataInput(bytes, valuePosition).readObject();
+        }
+        String nestedPath = fieldPath.substring(dotIndex + 1);
+        if (Bits.readInt(bytes, valuePosition, bigEndian) == SerializationConstants.TYPE_COMPACT) {
+            return read(bytes, valuePosition + INT_SIZE_IN_BYTES, nestedPath);
+        }
+        Object value = serializationService.createObjectDataInput(bytes, valuePosition).readObject();
+        return ReflectionHelper.extractValue(value, nestedPath);
+    }
+
+    private Object readFixedSize(byte[] bytes, int position, FieldKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return bytes[position] != 0;
+            case BYTE:
+                return bytes[position];
+            case CHAR:
+                return Bits.readChar(bytes, position, bigEndian);
+            case SHORT:
+                return Bits.readShort(bytes, position, bigEndian);
+            case INT:
+                return Bits.readInt(bytes, position, bigEndian);
+            case FLOAT:
+                return Float.intBitsToFloat(Bits.readInt(bytes, position, bigEndian));
+            case LONG:
+                return Bits.readLong(bytes, position, bigEndian);
+            case DOUBLE:
+                return Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian));
+            default:
+                throw new IllegalArgumentException("Not a fixed-size field kind: " + kind);
+        }
+    }
+
+    private static void checkNoNestedPath(String fieldPath, int dotIndex, FieldDescriptor field) {
+        if (dotIndex >= 0) {
+            throw new IllegalArgumentException("Cannot extract '" + fieldPath + "', field '" + field.getName()
+                    + "' of kind " + field.getKind() + " has no nested fields");
+        }
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        throw new IllegalArgumentException("Path agnostic value extraction unsupported");
+    }
+
+    @Override
+    Class getReturnType() {
+        throw new IllegalArgumentException("Non applicable for CompactGetter");
+    }
+
+    @Override
+    boolean isCacheable() {
+        // Non-cacheable since it's a generic getter and the cache shouldn't be polluted with the same instance
+        // for various keys. A singleton should be used instead during getter creation.
+        return false;
+    }
+}
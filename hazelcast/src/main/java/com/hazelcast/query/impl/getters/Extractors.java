@@ -20,12 +20,14 @@ import com.hazelcast.config.AttributeConfig;
 import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.nio.serialization.Compact;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.extractor.ValueExtractor;
 import com.hazelcast.query.impl.DefaultArgumentParser;
 import com.hazelcast.internal.util.Preconditions;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
 
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +45,7 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private volatile CompactGetter compactGetter;
     private volatile JsonDataGetter jsonDataGetter;
 
     /**
@@ -73,6 +76,9 @@ public final class Extractors {
             Getter getter = getGetter(targetObject, attributeName);
             try {
                 return getter.getValue(targetObject, attributeName, metadata);
+            } catch (RetryableHazelcastException ex) {
+                // e.g. an unknown compact schema being fetched, the operation is retried
+                throw ex;
             } catch (Exception ex) {
                 throw new QueryException(ex);
             }
@@ -85,6 +91,7 @@ public final class Extractors {
      * Returns {@link Data} if {@code target} is
      * <ul>
      *     <li>a portable object either in Data form or Object form</li>
+     *     <li>a compact object either in Data form or Object form</li>
      *     <li>a {@link HazelcastJsonValue} in Data form</li>
      * </ul>
      * Otherwise, returns object form.
@@ -93,15 +100,15 @@ public final class Extractors {
      */
     private Object getTargetObject(Object target) {
         Data targetData;
-        if (target instanceof Portable) {
+        if (target instanceof Portable || target instanceof Compact) {
             targetData = ss.toData(target);
-            if (targetData.isPortable()) {
+            if (targetData.isPortable() || targetData.isCompact()) {
                 return targetData;
             }
         }
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable() || targetData.isJson()) {
+            if (targetData.isPortable() || targetData.isJson() || targetData.isCompact()) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -143,6 +150,12 @@ public final class Extractors {
                         jsonDataGetter = new JsonDataGetter(ss);
                     }
                     return jsonDataGetter;
+                } else if (((Data) targetObject).isCompact()) {
+                    if (compactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        compactGetter = new CompactGetter(ss);
+                    }
+                    return compactGetter;
                 } else {
                     throw new HazelcastSerializationException("No Data getter found for type " + ((Data) targetObject).getType());
                 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.Comparables;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.TypeConverters;
+import com.hazelcast.query.impl.getters.ReflectionHelper;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Compares map entries by the value of an attribute, the same way ordered
+ * indexes order their entries: numbers are compared by their numeric value
+ * regardless of their type, enums by their name, and {@code null} values are
+ * ordered before all other values.
+ * <p>
+ * The attribute is extracted using the regular query attribute extraction if
+ * the compared entry is a {@link QueryableEntry}, which is always the case on
+ * members, and reflectively from the key or the value of the entry
+ * otherwise.
+ * <p>
+ * Used as the comparator of a paging predicate, it allows members to walk a
+ * sorted index on the attribute in order and stop as soon as the requested
+ * page is complete, instead of sorting all the matching entries.
+ *
+ * @param <K> the entry key type
+ * @param <V> the entry value type
+ */
+public class AttributeComparator<K, V> implements Comparator<Map.Entry<K, V>>, IdentifiedDataSerializable {
+
+    private static final String KEY_PREFIX = KEY_ATTRIBUTE_NAME.value() + ".";
+    private static final String THIS_PREFIX = THIS_ATTRIBUTE_NAME.value() + ".";
+
+    private String attribute;
+    private boolean descending;
+
+    public AttributeComparator() {
+    }
+
+    public AttributeComparator(String attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public int compare(Map.Entry<K, V> entry1, Map.Entry<K, V> entry2) {
+        Comparable value1 = extract(entry1);
+        Comparable value2 = extract(entry2);
+
+        int order;
+        if (value1 == null) {
+            order = value2 == null ? 0 : -1;
+        } else if (value2 == null) {
+            order = 1;
+        } else {
+            order = Comparables.compare(value1, value2);
+        }
+        return descending ? -order : order;
+    }
+
+    /**
+     * Extracts the value of the compared attribute from the given entry.
+     *
+     * @param entry the entry to extract the value from
+     * @return the extracted value, enums are converted to their names
+     * @throws IllegalArgumentException if the extracted value is not comparable
+     */
+    Comparable extract(Map.Entry entry) {
+        Object value = entry instanceof QueryableEntry
+                ? ((QueryableEntry) entry).getAttributeValue(attribute) : extractReflectively(entry);
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException("Not comparable " + value);
+        }
+        if (value.getClass().isEnum()) {
+            return TypeConverters.ENUM_CONVERTER.convert((Comparable) value);
+        }
+        return (Comparable) value;
+    }
+
+    private Object extractReflectively(Map.Entry entry) {
+        Object target;
+        String path;
+        if (attribute.equals(KEY_ATTRIBUTE_NAME.value())) {
+            return entry.getKey();
+        } else if (attribute.equals(THIS_ATTRIBUTE_NAME.value())) {
+            return entry.getValue();
+        } else if (attribute.startsWith(KEY_PREFIX)) {
+            target = entry.getKey();
+            path = attribute.substring(KEY_PREFIX.length());
+        } else {
+            target = entry.getValue();
+            path = attribute.startsWith(THIS_PREFIX) ? attribute.substring(THIS_PREFIX.length()) : attribute;
+        }
+        if (target == null) {
+            return null;
+        }
+
+        try {
+            return ReflectionHelper.extractValue(target, path);
+        } catch (QueryException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new QueryException(e);
+        }
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(attribute);
+        out.writeBoolean(descending);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        attribute = in.readUTF();
+        descending = in.readBoolean();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return PredicateDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return PredicateDataSerializerHook.ATTRIBUTE_COMPARATOR;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AttributeComparator)) {
+            return false;
+        }
+
+        AttributeComparator that = (AttributeComparator) o;
+        return descending == that.descending && attribute.equals(that.attribute);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * attribute.hashCode() + (descending ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return attribute + (descending ? " DESC" : " ASC");
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexValueStatistics;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext;
+
+/**
+ * Cost based optimizer. It applies the rules of the {@link RuleBasedQueryOptimizer}
+ * first and then uses the {@link IndexValueStatistics statistics} of the
+ * indexes to estimate the number of rows matched by indexed predicates:
+ * <ul>
+ * <li>an equality matches {@code entries / distinct values} rows;
+ * <li>an {@code IN} matches that many rows per value;
+ * <li>a range matches the fraction of the sampled values within it.
+ * </ul>
+ * Indexed children of an {@code AND} which match many more rows than the
+ * most selective one are evaluated as plain filters on its result instead of
+ * being intersected with it, and predicates matching a large fraction of the
+ * entries don't use indexes at all since a scan is cheaper than building a
+ * large index result. Index usage is suppressed with the {@link SkipIndexPredicate}.
+ * <p>
+ * Predicates the statistics know nothing about are left as they are.
+ */
+public final class CostBasedQueryOptimizer implements QueryOptimizer {
+
+    /**
+     * The fraction of the entries above which a full scan is preferred over
+     * an index lookup.
+     */
+    static final double SCAN_SELECTIVITY_THRESHOLD = 0.4;
+
+    /**
+     * How many times more rows an indexed {@code AND} child may match than the
+     * most selective one and still be worth intersecting with it.
+     */
+    static final double INTERSECTION_FACTOR = 4.0;
+
+    private static final double UNKNOWN = -1;
+
+    private final QueryOptimizer ruleBasedOptimizer = new RuleBasedQueryOptimizer();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
+        Predicate optimized = ruleBasedOptimizer.optimize(predicate, indexes);
+        if (!indexes.haveAtLeastOneIndex()) {
+            return optimized;
+        }
+
+        optimized = rewrite(optimized, indexes);
+        double rows = estimateRows(optimized, indexes);
+        if (rows != UNKNOWN && rows > SCAN_SELECTIVITY_THRESHOLD * entryCount(optimized, indexes)) {
+            return new SkipIndexPredicate(optimized);
+        }
+        return optimized;
+    }
+
+    private static Predicate rewrite(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof AndPredicate) {
+            return rewriteAnd((AndPredicate) predicate, indexes);
+        }
+        if (predicate instanceof OrPredicate) {
+            Predicate[] children = ((OrPredicate) predicate).predicates;
+            Predicate[] rewritten = rewriteChildren(children, indexes);
+            return rewritten == children ? predicate : new OrPredicate(rewritten);
+        }
+        return predicate;
+    }
+
+    private static Predicate rewriteAnd(AndPredicate predicate, Indexes indexes) {
+        Predicate[] children = rewriteChildren(predicate.predicates, indexes);
+
+        double[] estimates = new double[children.length];
+        double driving = Double.MAX_VALUE;
+        long entryCount = 0;
+        for (int i = 0; i < children.length; ++i) {
+            estimates[i] = estimateRows(children[i], indexes);
+            if (estimates[i] != UNKNOWN && estimates[i] < driving) {
+                driving = estimates[i];
+                entryCount = entryCount(children[i], indexes);
+            }
+        }
+        if (driving == Double.MAX_VALUE) {
+            return children == predicate.predicates ? predicate : new AndPredicate(children);
+        }
+
+        Predicate[] result = children;
+        for (int i = 0; i < children.length; ++i) {
+            double estimate = estimates[i];
+            if (estimate == UNKNOWN) {
+                continue;
+            }
+            boolean tooLarge = estimate > SCAN_SELECTIVITY_THRESHOLD * entryCount;
+            boolean notWorthIntersecting = estimate > driving && estimate > INTERSECTION_FACTOR * Math.max(driving, 1);
+            if (tooLarge || notWorthIntersecting) {
+                if (result == children) {
+                    result = children.clone();
+                }
+                result[i] = new SkipIndexPredicate(children[i]);
+            }
+        }
+        return result == predicate.predicates ? predicate : new AndPredicate(result);
+    }
+
+    private static Predicate[] rewriteChildren(Predicate[] children, Indexes indexes) {
+        Predicate[] result = children;
+        for (int i = 0; i < children.length; ++i) {
+            Predicate rewritten = rewrite(children[i], indexes);
+            if (rewritten != children[i]) {
+                if (result == children) {
+                    result = children.clone();
+                }
+                result[i] = rewritten;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the number of rows the given predicate matches when evaluated
+     * using indexes.
+     *
+     * @return the estimated number of rows or a negative value if the number
+     * is unknown or the predicate can't be evaluated using indexes.
+     */
+    static double estimateRows(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof OrPredicate) {
+            // the union of the children results, assuming no overlap
+            double sum = 0;
+            long entryCount = 0;
+            for (Predicate child : ((OrPredicate) predicate).predicates) {
+                double rows = estimateRows(child, indexes);
+                if (rows == UNKNOWN) {
+                    return UNKNOWN;
+                }
+                sum += rows;
+                entryCount = Math.max(entryCount, entryCount(child, indexes));
+            }
+            return Math.min(sum, entryCount);
+        }
+
+        InternalIndex index = matchIndex(predicate, indexes);
+        IndexValueStatistics statistics = index == null ? null : index.getValueStatistics();
+        if (statistics == null) {
+            return UNKNOWN;
+        }
+        long entryCount = statistics.getEntryCount();
+        if (entryCount == 0) {
+            return 0;
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            return entryCount * statistics.estimateEqualSelectivity();
+        }
+        if (predicate instanceof InPredicate) {
+            int valueCount = ((InPredicate) predicate).values.length;
+            return Math.min(entryCount, valueCount * entryCount * statistics.estimateEqualSelectivity());
+        }
+        RangePredicate range = (RangePredicate) predicate;
+        double selectivity = statistics.estimateRangeSelectivity(index.getConverter(), range.getFrom(),
+                range.isFromInclusive(), range.getTo(), range.isToInclusive());
+        return selectivity < 0 ? UNKNOWN : selectivity * entryCount;
+    }
+
+    /**
+     * Matches the index the given leaf predicate is evaluated with.
+     *
+     * @return the matched index or {@code null} if the predicate is not a
+     * leaf predicate the optimizer knows or there is no index for it.
+     */
+    static InternalIndex matchIndex(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof EqualPredicate) {
+            return indexes.matchIndex(((EqualPredicate) predicate).attributeName,
+                    QueryContext.IndexMatchHint.PREFER_UNORDERED, -1);
+        }
+        if (predicate instanceof InPredicate) {
+            return indexes.matchIndex(((InPredicate) predicate).attributeName,
+                    QueryContext.IndexMatchHint.PREFER_UNORDERED, -1);
+        }
+        if (predicate instanceof RangePredicate) {
+            return indexes.matchIndex(((RangePredicate) predicate).getAttribute(),
+                    QueryContext.IndexMatchHint.PREFER_ORDERED, -1);
+        }
+        return null;
+    }
+
+    private static long entryCount(Predicate predicate, Indexes indexes) {
+        if (predicate instanceof OrPredicate) {
+            long entryCount = 0;
+            for (Predicate child : ((OrPredicate) predicate).predicates) {
+                entryCount = Math.max(entryCount, entryCount(child, indexes));
+            }
+            return entryCount;
+        }
+        InternalIndex index = matchIndex(predicate, indexes);
+        IndexValueStatistics statistics = index == null ? null : index.getValueStatistics();
+        return statistics == null ? 0 : statistics.getEntryCount();
+    }
+
+}
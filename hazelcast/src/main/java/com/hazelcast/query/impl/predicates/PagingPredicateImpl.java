@@ -19,11 +19,13 @@ package com.hazelcast.query.impl.predicates;
 import com.hazelcast.internal.serialization.BinaryInterface;
 import com.hazelcast.internal.util.IterationType;
 import com.hazelcast.internal.util.SortingUtil;
+import com.hazelcast.internal.util.collection.TopKCollector;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
@@ -177,46 +179,91 @@ public class PagingPredicateImpl<K, V>
     }
 
     /**
-     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for filtering.
+     * Filters the entries using indexes and limits them to the ones which may
+     * appear on the requested page.
+     * <p>
+     * If the inner predicate is indexed, the entries it matches are collected
+     * into a bounded heap instead of being sorted. Otherwise, the entries are
+     * ordered by an {@link AttributeComparator} and a sorted index covers its
+     * attribute: the index is walked in order starting from the nearest
+     * anchor, and the walk stops as soon as enough matching entries are
+     * found.
      *
-     * @param queryContext
-     * @return
+     * @param queryContext the query context
+     * @return the entries which may appear on the requested page, in order;
+     * or {@code null} if the entries can't be filtered using indexes
      */
     @Override
     public Set<QueryableEntry<K, V>> filter(QueryContext queryContext) {
-        if (!(predicate instanceof IndexAwarePredicate)) {
-            return null;
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        if (!isInnerPredicateIndexed(queryContext)) {
+            Index index = matchOrderingIndex(queryContext);
+            return index == null ? null : filterInIndexOrder(index, nearestAnchorEntry);
         }
 
         Set<QueryableEntry<K, V>> set = ((IndexAwarePredicate<K, V>) predicate).filter(queryContext);
         if (set == null || set.isEmpty()) {
             return set;
         }
-        List<QueryableEntry<K, V>> resultList = new ArrayList<QueryableEntry<K, V>>();
-        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        TopKCollector<QueryableEntry> collector = SortingUtil.newTopKCollector(this, nearestAnchorEntry);
         for (QueryableEntry<K, V> queryableEntry : set) {
             if (SortingUtil.compareAnchor(this, queryableEntry, nearestAnchorEntry)) {
-                resultList.add(queryableEntry);
+                collector.offer(queryableEntry);
+            }
+        }
+        return new LinkedHashSet(collector.toSortedList());
+    }
+
+    private Set<QueryableEntry<K, V>> filterInIndexOrder(Index index, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        AttributeComparator attributeComparator = (AttributeComparator) comparator;
+        Map.Entry anchor = nearestAnchorEntry.getValue();
+        Comparable from = anchor == null ? null : attributeComparator.extract(anchor);
+        long limit = pageSize * ((long) page - nearestAnchorEntry.getKey());
+
+        List<QueryableEntry> resultList = new ArrayList<>();
+        boolean visited = index.visitOrdered(from, attributeComparator.isDescending(), entry -> {
+            // entries having the same attribute value are ordered by their keys,
+            // so all of them are collected before the walk is stopped
+            if (resultList.size() >= limit && attributeComparator.compare(resultList.get((int) limit - 1), entry) != 0) {
+                return false;
             }
+            if (SortingUtil.compareAnchor(this, entry, nearestAnchorEntry) && apply(entry)) {
+                resultList.add(entry);
+            }
+            return true;
+        });
+        if (!visited) {
+            return null;
         }
+        return new LinkedHashSet(SortingUtil.getSortedSubList(resultList, this, nearestAnchorEntry));
+    }
 
-        List<QueryableEntry<K, V>> sortedSubList =
-                (List) SortingUtil.getSortedSubList((List) resultList, this, nearestAnchorEntry);
-        return new LinkedHashSet<QueryableEntry<K, V>>(sortedSubList);
+    private boolean isInnerPredicateIndexed(QueryContext queryContext) {
+        return predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext);
     }
 
+    /**
+     * @return the sorted index covering the attribute of the comparator, if
+     * the comparator is an {@link AttributeComparator}; {@code null} otherwise
+     */
+    private Index matchOrderingIndex(QueryContext queryContext) {
+        if (!(comparator instanceof AttributeComparator)) {
+            return null;
+        }
+        String attribute = ((AttributeComparator) comparator).getAttribute();
+        Index index = queryContext.matchIndex(attribute, QueryContext.IndexMatchHint.PREFER_ORDERED);
+        return index != null && index.isOrdered() ? index : null;
+    }
 
     /**
-     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed.
+     * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed,
+     * or if the results are ordered by an attribute covered by a sorted index.
      *
      * @param queryContext
      * @return
      */
     public boolean isIndexed(QueryContext queryContext) {
-        if (predicate instanceof IndexAwarePredicate) {
-            return ((IndexAwarePredicate) predicate).isIndexed(queryContext);
-        }
-        return false;
+        return isInnerPredicateIndexed(queryContext) || matchOrderingIndex(queryContext) != null;
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes how an optimized predicate is evaluated against a set of indexes:
+ * which predicates are evaluated using which index, with how many rows they
+ * are estimated to match, and which are evaluated as filters on the index
+ * results or on a full scan.
+ * <p>
+ * The estimates are those of the given indexes only; for partitioned
+ * indexes that is a single partition.
+ *
+ * @see CostBasedQueryOptimizer
+ */
+public final class QueryPlan {
+
+    /**
+     * The way a plan node is evaluated.
+     */
+    public enum Access {
+        /**
+         * All the entries are scanned and filtered by the predicate.
+         */
+        SCAN,
+        /**
+         * The predicate is evaluated using an index.
+         */
+        INDEX,
+        /**
+         * The predicate is evaluated on every row produced by the indexed
+         * siblings.
+         */
+        FILTER,
+        /**
+         * The intersection of the results of the indexed children.
+         */
+        AND,
+        /**
+         * The union of the results of the children.
+         */
+        OR
+    }
+
+    private final Node root;
+
+    private QueryPlan(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds the plan of the given optimized predicate.
+     *
+     * @param predicate the predicate returned by a {@link QueryOptimizer}
+     * @param indexes   the indexes the predicate was optimized for
+     * @return the plan of the predicate
+     */
+    public static QueryPlan of(Predicate predicate, Indexes indexes) {
+        QueryContext queryContext = new QueryContext(indexes, -1);
+        if (!isIndexed(predicate, queryContext)) {
+            return new QueryPlan(new Node(Access.SCAN, null, -1, predicate, Collections.emptyList()));
+        }
+        return new QueryPlan(node(predicate, indexes, queryContext));
+    }
+
+    /**
+     * @return the root node of this plan
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * @return {@code true} if the predicate is evaluated by a full scan
+     */
+    public boolean isFullScan() {
+        return root.access == Access.SCAN;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        root.appendTo(builder, 0);
+        return builder.toString();
+    }
+
+    private static Node node(Predicate predicate, Indexes indexes, QueryContext queryContext) {
+        if (!isIndexed(predicate, queryContext)) {
+            return new Node(Access.FILTER, null, -1, unwrap(predicate), Collections.emptyList());
+        }
+
+        if (predicate instanceof AndPredicate || predicate instanceof OrPredicate) {
+            Predicate[] predicates = predicate instanceof AndPredicate
+                    ? ((AndPredicate) predicate).predicates : ((OrPredicate) predicate).predicates;
+            List<Node> children = new ArrayList<>(predicates.length);
+            for (Predicate child : predicates) {
+                children.add(node(child, indexes, queryContext));
+            }
+            Access access = predicate instanceof AndPredicate ? Access.AND : Access.OR;
+            return new Node(access, null, estimate(predicate, indexes), predicate, children);
+        }
+
+        InternalIndex index = CostBasedQueryOptimizer.matchIndex(predicate, indexes);
+        String indexName = index == null ? null : index.getName();
+        return new Node(Access.INDEX, indexName, estimate(predicate, indexes), predicate, Collections.emptyList());
+    }
+
+    private static boolean isIndexed(Predicate predicate, QueryContext queryContext) {
+        return predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+    }
+
+    private static Predicate unwrap(Predicate predicate) {
+        return predicate instanceof SkipIndexPredicate ? ((SkipIndexPredicate) predicate).getTarget() : predicate;
+    }
+
+    private static long estimate(Predicate predicate, Indexes indexes) {
+        double rows = CostBasedQueryOptimizer.estimateRows(predicate, indexes);
+        return rows < 0 ? -1 : Math.round(rows);
+    }
+
+    /**
+     * A node of a {@link QueryPlan}.
+     */
+    public static final class Node {
+
+        private final Access access;
+        private final String indexName;
+        private final long estimatedRows;
+        private final Predicate predicate;
+        private final List<Node> children;
+
+        Node(Access access, String indexName, long estimatedRows, Predicate predicate, List<Node> children) {
+            this.access = access;
+            this.indexName = indexName;
+            this.estimatedRows = estimatedRows;
+            this.predicate = predicate;
+            this.children = children;
+        }
+
+        /**
+         * @return the way this node is evaluated
+         */
+        public Access getAccess() {
+            return access;
+        }
+
+        /**
+         * @return the name of the index used by this node or {@code null} if
+         * the node doesn't use an index or the index is not known
+         */
+        public String getIndexName() {
+            return indexName;
+        }
+
+        /**
+         * @return the estimated number of rows matched by this node or
+         * {@code -1} if there's no estimate
+         */
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        /**
+         * @return the predicate evaluated by this node
+         */
+        public Predicate getPredicate() {
+            return predicate;
+        }
+
+        /**
+         * @return the child nodes of {@code AND} and {@code OR} nodes
+         */
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        private void appendTo(StringBuilder builder, int depth) {
+            for (int i = 0; i < depth; ++i) {
+                builder.append("  ");
+            }
+            builder.append(access);
+            if (indexName != null) {
+                builder.append('(').append(indexName).append(')');
+            }
+            if (estimatedRows >= 0) {
+                builder.append(" rows=").append(estimatedRows);
+            }
+            if (children.isEmpty()) {
+                builder.append(' ').append(predicate);
+            }
+            for (Node child : children) {
+                builder.append('\n');
+                child.appendTo(builder, depth + 1);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            appendTo(builder, 0);
+            return builder.toString();
+        }
+    }
+
+}
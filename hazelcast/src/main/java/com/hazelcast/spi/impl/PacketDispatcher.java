@@ -22,10 +22,12 @@ import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.eventservice.EventService;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.impl.operationservice.impl.OperationBatcher;
 
 import java.util.function.Consumer;
 
 import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 
@@ -61,7 +63,9 @@ public final class PacketDispatcher implements Consumer<Packet> {
         try {
             switch (packet.getPacketType()) {
                 case OPERATION:
-                    if (packet.isFlagRaised(FLAG_OP_RESPONSE)) {
+                    if (packet.isFlagRaised(FLAG_OP_BATCH)) {
+                        OperationBatcher.forEachPacket(packet, this);
+                    } else if (packet.isFlagRaised(FLAG_OP_RESPONSE)) {
                         responseHandler.accept(packet);
                     } else if (packet.isFlagRaised(FLAG_OP_CONTROL)) {
                         invocationMonitor.accept(packet);
@@ -33,12 +33,16 @@ import com.hazelcast.internal.util.executor.ManagedExecutorService;
 import com.hazelcast.internal.util.executor.NamedThreadPoolExecutor;
 import com.hazelcast.internal.util.executor.PoolExecutorThreadFactory;
 import com.hazelcast.internal.util.executor.SingleExecutorThreadFactory;
+import com.hazelcast.internal.util.executor.VirtualThreads;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -57,6 +61,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EXECUTOR_
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EXECUTOR_PREFIX_SCHEDULED_INTERNAL;
 import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_EXECUTORS;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_MAX_CONCURRENCY;
 import static java.lang.Thread.currentThread;
 
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
@@ -75,6 +82,9 @@ public final class ExecutionServiceImpl implements ExecutionService {
 
     private final NodeEngineImpl nodeEngine;
     private final ExecutorService cachedExecutorService;
+    private final ExecutorService virtualThreadExecutorService;
+    private final Set<String> virtualThreadExecutorNames;
+    private final int virtualThreadMaxConcurrency;
     private final LoggingScheduledExecutor scheduledExecutorService;
     private final TaskScheduler globalTaskScheduler;
     private final ILogger logger;
@@ -132,6 +142,16 @@ public final class ExecutionServiceImpl implements ExecutionService {
                     }
                 });
 
+        HazelcastProperties properties = node.getProperties();
+        this.virtualThreadExecutorService = newVirtualThreadExecutorService(properties, hzName, configClassLoader);
+        this.virtualThreadExecutorNames = new HashSet<>();
+        for (String name : properties.getString(EXECUTOR_VIRTUAL_THREADS_EXECUTORS).split(",")) {
+            if (!name.trim().isEmpty()) {
+                virtualThreadExecutorNames.add(name.trim());
+            }
+        }
+        this.virtualThreadMaxConcurrency = properties.getInteger(EXECUTOR_VIRTUAL_THREADS_MAX_CONCURRENCY);
+
         ThreadFactory singleExecutorThreadFactory = new SingleExecutorThreadFactory(configClassLoader,
                 createThreadPoolName(hzName, "scheduled"));
         this.scheduledExecutorService = new LoggingScheduledExecutor(logger, 1, singleExecutorThreadFactory);
@@ -153,6 +173,19 @@ public final class ExecutionServiceImpl implements ExecutionService {
                 scheduleDurableExecutors));
     }
 
+    private ExecutorService newVirtualThreadExecutorService(HazelcastProperties properties, String hzName,
+                                                            ClassLoader configClassLoader) {
+        if (!properties.getBoolean(EXECUTOR_VIRTUAL_THREADS_ENABLED)) {
+            return null;
+        }
+        if (!VirtualThreads.isSupported()) {
+            logger.warning(EXECUTOR_VIRTUAL_THREADS_ENABLED.getName() + " is set, but virtual threads are not supported"
+                    + " by this JDK. JDK 21 or later is required. Platform threads are used instead.");
+            return null;
+        }
+        return VirtualThreads.newThreadPerTaskExecutor(createThreadPoolName(hzName, "virtual"), configClassLoader);
+    }
+
     // only used in tests
     public LoggingScheduledExecutor getScheduledExecutorService() {
         return scheduledExecutorService;
@@ -196,7 +229,11 @@ public final class ExecutionServiceImpl implements ExecutionService {
     private ManagedExecutorService createExecutor(String name, int poolSize, int queueCapacity,
                                                   ExecutorType type, ThreadFactory threadFactory) {
         ManagedExecutorService executor;
-        if (type == ExecutorType.CACHED) {
+        if (threadFactory == null && virtualThreadExecutorService != null && virtualThreadExecutorNames.contains(name)) {
+            // the pool size doesn't apply to virtual threads, they are cheap to create and to block
+            executor = new CachedExecutorServiceDelegate(name, virtualThreadExecutorService, virtualThreadMaxConcurrency,
+                    queueCapacity);
+        } else if (type == ExecutorType.CACHED) {
             if (threadFactory != null) {
                 throw new IllegalArgumentException("Cached executor can not be used with external thread factory");
             }
@@ -327,6 +364,9 @@ public final class ExecutionServiceImpl implements ExecutionService {
         }
         scheduledExecutorService.shutdownNow();
         cachedExecutorService.shutdown();
+        if (virtualThreadExecutorService != null) {
+            virtualThreadExecutorService.shutdown();
+        }
         try {
             scheduledExecutorService.awaitTermination(AWAIT_TIME, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
@@ -339,6 +379,14 @@ public final class ExecutionServiceImpl implements ExecutionService {
             currentThread().interrupt();
             logger.finest(e);
         }
+        if (virtualThreadExecutorService != null) {
+            try {
+                virtualThreadExecutorService.awaitTermination(AWAIT_TIME, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                logger.finest(e);
+            }
+        }
         executors.clear();
         durableExecutors.clear();
         scheduleDurableExecutors.clear();
@@ -21,6 +21,8 @@ import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.networking.nio.NioThreadHost;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.util.concurrent.IdleStrategy;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
@@ -60,9 +62,11 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
 import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandlerSupplier.getIdleStrategy;
 import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.GENERIC_OPERATION_WORK_STEALING_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.ClusterProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.THREAD_PER_CORE_ENABLED;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -85,9 +89,16 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * specific to a partition, e.g. a heart beat.
  * </li>
  * </ol>
+ * In thread-per-core mode (see {@link com.hazelcast.spi.properties.ClusterProperty#THREAD_PER_CORE_ENABLED}) the
+ * partition operation threads also host the select loops of the input {@link NioThread}s. A packet read by a partition
+ * operation thread for one of its own partitions is executed right away on that thread instead of being queued.
+ * <p>
+ * The generic operation threads share a single queue, unless work stealing is enabled (see
+ * {@link com.hazelcast.spi.properties.ClusterProperty#GENERIC_OPERATION_WORK_STEALING_ENABLED}). Then each generic
+ * operation thread has its own {@link WorkStealingOperationQueue} deque and steals from the others when it runs dry.
  */
 @SuppressWarnings("checkstyle:methodcount")
-public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
+public final class OperationExecutorImpl implements OperationExecutor, NioThreadHost, StaticMetricsProvider {
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
@@ -98,8 +109,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private final PartitionOperationThread[] partitionThreads;
     private final OperationRunner[] partitionOperationRunners;
 
-    private final OperationQueue genericQueue
-            = new OperationQueueImpl(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>());
+    private final OperationQueue genericQueue;
 
     // all operations that are not specific for a partition will be executed here, e.g. heartbeat or map.size()
     private final GenericOperationThread[] genericThreads;
@@ -108,6 +118,7 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private final Address thisAddress;
     private final OperationRunner adHocOperationRunner;
     private final int priorityThreadCount;
+    private final boolean threadPerCore;
 
     public OperationExecutorImpl(HazelcastProperties properties,
                                  LoggingService loggerService,
@@ -120,12 +131,14 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         this.logger = loggerService.getLogger(OperationExecutorImpl.class);
 
         this.adHocOperationRunner = runnerFactory.createAdHocRunner();
+        this.threadPerCore = properties.getBoolean(THREAD_PER_CORE_ENABLED);
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
         this.partitionThreads = initPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
 
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
+        this.genericQueue = initGenericQueue(properties);
         this.genericThreads = initGenericThreads(hzName, nodeExtension, configClassLoader);
     }
 
@@ -148,6 +161,14 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         return operationRunners;
     }
 
+    private OperationQueue initGenericQueue(HazelcastProperties properties) {
+        int workerCount = genericOperationRunners.length - priorityThreadCount;
+        if (properties.getBoolean(GENERIC_OPERATION_WORK_STEALING_ENABLED) && workerCount > 0) {
+            return new WorkStealingOperationQueue(workerCount);
+        }
+        return new OperationQueueImpl(new LinkedBlockingQueue<Object>(), new LinkedBlockingQueue<Object>());
+    }
+
     private PartitionOperationThread[] initPartitionThreads(HazelcastProperties properties, String hzName,
                                                             NodeExtension nodeExtension, ClassLoader configClassLoader) {
 
@@ -157,6 +178,15 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
+            if (threadPerCore) {
+                ReactorOperationQueue operationQueue = new ReactorOperationQueue();
+                PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue,
+                        logger, nodeExtension, partitionOperationRunners, configClassLoader);
+                threads[threadId] = partitionThread;
+                operationQueue.setConsumerThread(partitionThread);
+                continue;
+            }
+
             // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
             MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
 
@@ -197,9 +227,13 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
             String baseName = priority ? "priority-generic-operation" : "generic-operation";
             String threadName = createThreadPoolName(hzName, baseName) + threadId;
             OperationRunner operationRunner = genericOperationRunners[threadIndex];
+            OperationQueue queue = genericQueue;
+            if (!priority && genericQueue instanceof WorkStealingOperationQueue) {
+                queue = ((WorkStealingOperationQueue) genericQueue).workerQueue(threadIndex - priorityThreadCount);
+            }
 
             GenericOperationThread operationThread = new GenericOperationThread(
-                    threadName, threadIndex, genericQueue, logger, nodeExtension, operationRunner, priority, configClassLoader);
+                    threadName, threadIndex, queue, logger, nodeExtension, operationRunner, priority, configClassLoader);
 
             threads[threadIndex] = operationThread;
             operationRunner.setCurrentThread(operationThread);
@@ -371,7 +405,48 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
 
     @Override
     public void accept(Packet packet) {
-        execute(packet, packet.getPartitionId(), packet.isUrgent());
+        int partitionId = packet.getPartitionId();
+        if (threadPerCore && partitionId >= 0 && tryRunInline(packet, partitionId)) {
+            return;
+        }
+        execute(packet, partitionId, packet.isUrgent());
+    }
+
+    /**
+     * Runs the packet on the calling thread if it was read by a partition
+     * operation thread owning the partition of the packet, and that thread
+     * has no earlier tasks pending; running it ahead of them could reorder the
+     * operations of a partition.
+     */
+    private boolean tryRunInline(Packet packet, int partitionId) {
+        Thread currentThread = Thread.currentThread();
+        if (currentThread.getClass() != PartitionOperationThread.class) {
+            return false;
+        }
+
+        PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+        int threadIndex = toPartitionThreadIndex(partitionId);
+        if (partitionThreads[threadIndex] != partitionThread
+                || partitionThread.currentRunner != null
+                || !((ReactorOperationQueue) partitionThread.queue).isEmpty()) {
+            return false;
+        }
+
+        partitionThread.processInline(packet);
+        return true;
+    }
+
+    @Override
+    public int hostThreadCount() {
+        return partitionThreads.length;
+    }
+
+    @Override
+    public void host(int index, NioThread thread) {
+        if (!threadPerCore) {
+            throw new IllegalStateException("Partition operation threads can only host NioThreads in thread-per-core mode");
+        }
+        ((ReactorOperationQueue) partitionThreads[index].queue).host(thread);
     }
 
     private void execute(Object task, int partitionId, boolean priority) {
@@ -510,7 +585,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     @Override
     public void start() {
         logger.info("Starting " + partitionThreads.length + " partition threads and "
-                + genericThreads.length + " generic threads (" + priorityThreadCount + " dedicated for priority tasks)");
+                + genericThreads.length + " generic threads (" + priorityThreadCount + " dedicated for priority tasks)"
+                + (threadPerCore ? " in thread-per-core mode" : ""));
         startAll(partitionThreads);
         startAll(genericThreads);
     }
@@ -527,6 +603,12 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         shutdownAll(genericThreads);
         awaitTermination(partitionThreads);
         awaitTermination(genericThreads);
+
+        if (threadPerCore) {
+            for (PartitionOperationThread partitionThread : partitionThreads) {
+                ((ReactorOperationQueue) partitionThread.queue).detach();
+            }
+        }
     }
 
     private static void shutdownAll(OperationThread[] operationThreads) {
@@ -130,7 +130,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
-    private void process(Object task) {
+    void process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
                 process((Packet) task);
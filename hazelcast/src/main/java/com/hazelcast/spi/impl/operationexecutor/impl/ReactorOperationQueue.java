@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.networking.nio.NioThread;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The {@link OperationQueue} of a {@link PartitionOperationThread} running in
+ * thread-per-core mode.
+ * <p>
+ * The consumer of this queue also hosts the select loop of an input
+ * {@link NioThread}. Instead of blocking on the queue, it blocks on the
+ * selector of that NioThread; producers wake up the selector when they add a
+ * task while the consumer is blocked. While the consumer waits for tasks,
+ * the packets it reads are dispatched from within {@link #take(boolean)}, so
+ * operations for partitions owned by the consumer can be executed directly
+ * on it. Until a NioThread is hosted (or after it has been shut down) the
+ * consumer parks instead.
+ * <p>
+ * Packets are read even while there are tasks pending, once every
+ * {@link #SELECT_NOW_INTERVAL} tasks, so that a busy partition thread doesn't
+ * starve the sockets it serves.
+ */
+final class ReactorOperationQueue implements OperationQueue {
+
+    static final int SELECT_NOW_INTERVAL = 64;
+
+    private static final long PARK_NANOS = MILLISECONDS.toNanos(100);
+
+    private final Queue<Object> normalQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread consumerThread;
+    private final AtomicReference<NioThread> reactor = new AtomicReference<>();
+    private volatile boolean blocked;
+
+    // the fields below are only accessed by the consumer thread
+    private int takeCount;
+    private boolean interruptPending;
+
+    void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = consumerThread;
+    }
+
+    /**
+     * Attaches the NioThread whose select loop is going to be run by the
+     * consumer of this queue.
+     *
+     * @param nioThread the NioThread to host
+     */
+    void host(NioThread nioThread) {
+        nioThread.setHost(consumerThread);
+        NioThread previous = reactor.getAndSet(nioThread);
+        if (previous != null) {
+            // the previous NioThread has been shut down, but the consumer may not have closed its selector yet
+            add((Runnable) () -> previous.selectOnce(false), false);
+        }
+        LockSupport.unpark(consumerThread);
+    }
+
+    /**
+     * Defers an interrupt of the consumer thread to the next call to
+     * {@link #take(boolean)}. The interrupt flag can't be kept set while the
+     * consumer reads from sockets since an interrupted read closes the
+     * channel.
+     */
+    void deferInterrupt() {
+        interruptPending = true;
+    }
+
+    boolean isEmpty() {
+        return priorityQueue.isEmpty() && normalQueue.isEmpty();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else {
+            normalQueue.add(task);
+        }
+
+        if (blocked) {
+            wakeup();
+        }
+    }
+
+    private void wakeup() {
+        NioThread localReactor = reactor.get();
+        if (localReactor != null) {
+            localReactor.wakeup();
+        }
+        LockSupport.unpark(consumerThread);
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        for (; ; ) {
+            if (interruptPending || Thread.interrupted()) {
+                interruptPending = false;
+                throw new InterruptedException();
+            }
+
+            if (++takeCount == SELECT_NOW_INTERVAL) {
+                takeCount = 0;
+                select(false);
+                continue;
+            }
+
+            Object task = poll(priorityOnly);
+            if (task != null) {
+                return task;
+            }
+
+            blocked = true;
+            try {
+                if (isEmpty()) {
+                    select(true);
+                }
+            } finally {
+                blocked = false;
+            }
+        }
+    }
+
+    private Object poll(boolean priorityOnly) {
+        Object task = priorityQueue.poll();
+        if (task != null || priorityOnly) {
+            return task;
+        }
+        return normalQueue.poll();
+    }
+
+    private void select(boolean block) {
+        NioThread localReactor = reactor.get();
+        if (localReactor == null) {
+            if (block) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+        } else if (!localReactor.selectOnce(block)) {
+            // the NioThread has been shut down; a new one is hosted when the networking restarts
+            reactor.compareAndSet(localReactor, null);
+        }
+    }
+
+    /**
+     * Shuts down the hosted NioThread, if there is any, and closes its
+     * selector. Called once the consumer thread has terminated.
+     */
+    void detach() {
+        NioThread localReactor = reactor.getAndSet(null);
+        if (localReactor != null) {
+            localReactor.shutdown();
+            localReactor.selectOnce(false);
+        }
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalQueue.size() + priorityQueue.size();
+    }
+}
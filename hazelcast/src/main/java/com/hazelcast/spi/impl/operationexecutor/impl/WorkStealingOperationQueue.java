@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * An {@link OperationQueue} for the {@link GenericOperationThread}s where every
+ * normal generic thread has its own lock-free deque and steals tasks from the
+ * deques of the other threads when its own deque is empty.
+ *
+ * The {@link OperationQueueImpl} shared by the generic threads is backed by a
+ * single {@link LinkedBlockingQueue}, so every producer and every generic
+ * thread contends on the same lock. Here a task submitted by a non-generic
+ * thread is added to the deque of a random worker, a task submitted by a
+ * worker itself (e.g. a {@link TaskBatch} being rescheduled) is added to the
+ * deque of that worker. An idle worker is woken up whenever a task is added.
+ *
+ * Priority tasks are placed on a single shared blocking queue. The priority
+ * generic threads use this queue directly using {@link #take(boolean)} with
+ * {@code priorityOnly} set, while the normal generic threads get their own
+ * view of this queue using {@link #workerQueue(int)}. A worker always checks
+ * the priority queue before its own deque, so priority tasks are still taken
+ * before any normal task.
+ *
+ * A worker takes the oldest task of its own deque and also steals the oldest
+ * task of another deque, so the ordering between the normal tasks submitted
+ * to a worker is FIFO. Like with the {@link OperationQueueImpl} there is no
+ * ordering guarantee between tasks executed by different generic threads.
+ */
+public final class WorkStealingOperationQueue implements OperationQueue {
+
+    private final BlockingQueue<Object> priorityQueue = new LinkedBlockingQueue<>();
+    private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+    private final Worker[] workers;
+
+    public WorkStealingOperationQueue(int workerCount) {
+        checkPositive(workerCount, "workerCount should be positive");
+        this.workers = new Worker[workerCount];
+        for (int k = 0; k < workerCount; k++) {
+            workers[k] = new Worker(k);
+        }
+    }
+
+    /**
+     * Returns the queue the normal generic thread with the given index
+     * should take its tasks from.
+     *
+     * @param index the index of the worker
+     * @return the queue of the worker
+     */
+    public OperationQueue workerQueue(int index) {
+        return workers[index];
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else {
+            workers[ThreadLocalRandom.current().nextInt(workers.length)].deque.addLast(task);
+        }
+        signalIdleWorker();
+    }
+
+    /**
+     * Takes a priority task. Only the priority generic threads take from this
+     * queue directly; the normal generic threads take from their
+     * {@link #workerQueue(int)}.
+     */
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        if (!priorityOnly) {
+            throw new UnsupportedOperationException("Normal tasks should be taken from a worker queue");
+        }
+        return priorityQueue.take();
+    }
+
+    @Override
+    public int normalSize() {
+        int size = 0;
+        for (Worker worker : workers) {
+            size += worker.normalSize();
+        }
+        return size;
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    private void signalIdleWorker() {
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            if (worker.idle.compareAndSet(true, false)) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private final class Worker implements OperationQueue {
+
+        private final int index;
+        private final ConcurrentLinkedDeque<Object> deque = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean idle = new AtomicBoolean();
+        private volatile Thread thread;
+
+        private Worker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void add(Object task, boolean priority) {
+            checkNotNull(task, "task can't be null");
+
+            if (priority || Thread.currentThread() != thread) {
+                WorkStealingOperationQueue.this.add(task, priority);
+                return;
+            }
+
+            deque.addLast(task);
+            // other workers may be idle and able to steal it
+            signalIdleWorker();
+        }
+
+        @Override
+        public Object take(boolean priorityOnly) throws InterruptedException {
+            if (priorityOnly) {
+                return priorityQueue.take();
+            }
+
+            if (thread == null) {
+                thread = Thread.currentThread();
+            }
+
+            for (; ; ) {
+                Object task = poll();
+                if (task != null) {
+                    return task;
+                }
+
+                idle.set(true);
+                idleWorkers.add(this);
+                // a task could have been added before this worker was registered as idle
+                task = poll();
+                if (task != null) {
+                    if (idle.compareAndSet(true, false)) {
+                        idleWorkers.remove(this);
+                    }
+                    return task;
+                }
+
+                while (idle.get()) {
+                    LockSupport.park(this);
+                    if (Thread.interrupted()) {
+                        if (idle.compareAndSet(true, false)) {
+                            idleWorkers.remove(this);
+                        }
+                        throw new InterruptedException();
+                    }
+                }
+            }
+        }
+
+        private Object poll() {
+            Object task = priorityQueue.poll();
+            if (task != null) {
+                return task;
+            }
+
+            task = deque.pollFirst();
+            if (task != null) {
+                return task;
+            }
+
+            return steal();
+        }
+
+        private Object steal() {
+            int victimCount = workers.length - 1;
+            if (victimCount == 0) {
+                return null;
+            }
+
+            int offset = ThreadLocalRandom.current().nextInt(victimCount);
+            for (int k = 0; k < victimCount; k++) {
+                Worker victim = workers[(index + 1 + (offset + k) % victimCount) % workers.length];
+                Object task = victim.deque.pollFirst();
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int normalSize() {
+            return deque.size();
+        }
+
+        @Override
+        public int prioritySize() {
+            return priorityQueue.size();
+        }
+
+        @Override
+        public int size() {
+            return normalSize() + prioritySize();
+        }
+    }
+}
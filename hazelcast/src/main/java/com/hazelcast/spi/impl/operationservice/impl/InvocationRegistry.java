@@ -26,11 +26,15 @@ import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING;
@@ -38,6 +42,10 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.metrics.ProbeUnit.PERCENT;
+import static com.hazelcast.internal.nio.Bits.CACHE_LINE_LENGTH;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.QuickMath.log2;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
 
@@ -50,41 +58,66 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
- * Some ideas:
- * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
- * </ul>
+ * The invocations are stored in a table of slots indexed by the call ID. Since call IDs are
+ * handed out sequentially, the call IDs of the pending invocations map to different slots unless
+ * an invocation is pending while the call ID sequence wraps around the table. Such collisions are
+ * rare, e.g. a blocking operation that is pending for a long time, and the colliding invocation
+ * is stored in an overflow map. The table doesn't store the call IDs; a slot matches a call ID
+ * if the operation of the invocation in the slot has that call ID. So registering, looking up
+ * and deregistering an invocation is a single atomic operation on an array element that doesn't
+ * allocate.
+ * <p>
+ * The table is split into stripes; consecutive call IDs map to different stripes, so threads
+ * that register invocations at the same time don't contend on the same cache line. Each stripe
+ * also has its own counter for the number of invocations.
  */
 public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsProvider {
 
-    private static final int CORE_SIZE_CHECK = 8;
-    private static final int CORE_SIZE_FACTOR = 4;
-    private static final int CONCURRENCY_LEVEL = 16;
-
-    private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
+    private static final int STRIPES_PER_CORE = 4;
+    private static final int MAX_STRIPE_COUNT = 64;
+    // the number of slots if the number of concurrent invocations isn't bounded
+    private static final int DEFAULT_SLOT_COUNT = 1 << 14;
+    private static final int MIN_SLOT_COUNT = 1 << 10;
+    private static final int MAX_SLOT_COUNT = 1 << 16;
+    // the counters of the stripes are a cache line apart to prevent false sharing
+    private static final int COUNTER_STRIDE = CACHE_LINE_LENGTH / LONG_SIZE_IN_BYTES;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    private final int stripeShift;
+    private final int stripeMask;
+    private final int slotMask;
+    private final AtomicReferenceArray<Invocation>[] stripes;
+    private final AtomicLongArray counters;
+    private final ConcurrentMap<Long, Invocation> overflow = new ConcurrentHashMap<>();
 
     private volatile boolean alive = true;
 
+    @SuppressWarnings("unchecked")
     public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
 
-        int coreSize = RuntimeAvailableProcessors.get();
-        boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
-        int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
+        int stripeCount = Math.min(nextPowerOfTwo(RuntimeAvailableProcessors.get() * STRIPES_PER_CORE), MAX_STRIPE_COUNT);
+        int slotCount = slotCount(callIdSequence.getMaxConcurrentInvocations());
+        this.stripeShift = log2(stripeCount);
+        this.stripeMask = stripeCount - 1;
+        this.slotMask = slotCount / stripeCount - 1;
+        this.stripes = new AtomicReferenceArray[stripeCount];
+        for (int k = 0; k < stripeCount; k++) {
+            stripes[k] = new AtomicReferenceArray<>(slotCount / stripeCount);
+        }
+        this.counters = new AtomicLongArray((stripeCount + 1) * COUNTER_STRIDE);
+    }
 
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+    private static int slotCount(int maxConcurrentInvocations) {
+        if (maxConcurrentInvocations == Integer.MAX_VALUE) {
+            return DEFAULT_SLOT_COUNT;
+        }
+        // twice the capacity, so the call ID sequence wraps around the table less often
+        long slotCount = 2L * maxConcurrentInvocations;
+        return nextPowerOfTwo((int) Math.max(MIN_SLOT_COUNT, Math.min(MAX_SLOT_COUNT, slotCount)));
     }
 
     @Override
@@ -92,6 +125,11 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         registry.registerStaticMetrics(this, OPERATION_PREFIX);
     }
 
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
+    private int invocationsPending() {
+        return size();
+    }
+
     @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_USED_PERCENTAGE, unit = PERCENT)
     private double invocationsUsedPercentage() {
         int maxConcurrentInvocations = callIdSequence.getMaxConcurrentInvocations();
@@ -99,7 +137,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
     }
 
     @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID)
@@ -128,7 +166,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             callIdSequence.complete();
             throw e;
         }
-        invocations.put(callId, invocation);
+        put(callId, invocation);
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -147,31 +185,74 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        remove(invocation.op.getCallId(), invocation);
         callIdSequence.complete();
         return true;
     }
 
+    private void put(long callId, Invocation invocation) {
+        int stripe = stripeIndex(callId);
+        if (!stripes[stripe].compareAndSet(slotIndex(callId), null, invocation)) {
+            // the slot is taken by an invocation that has been pending since the
+            // call ID sequence wrapped around the table
+            overflow.put(callId, invocation);
+        }
+        counters.getAndIncrement(stripe * COUNTER_STRIDE);
+    }
+
+    private void remove(long callId, Invocation invocation) {
+        int stripe = stripeIndex(callId);
+        if (!stripes[stripe].compareAndSet(slotIndex(callId), invocation, null)) {
+            overflow.remove(callId, invocation);
+        }
+        counters.getAndDecrement(stripe * COUNTER_STRIDE);
+    }
+
+    private int stripeIndex(long callId) {
+        return (int) callId & stripeMask;
+    }
+
+    private int slotIndex(long callId) {
+        return (int) (callId >>> stripeShift) & slotMask;
+    }
+
     /**
      * Returns the number of pending invocations.
      *
      * @return the number of pending invocations
      */
     public int size() {
-        return invocations.size();
+        long size = 0;
+        for (int stripe = 0; stripe < stripes.length; stripe++) {
+            size += counters.get(stripe * COUNTER_STRIDE);
+        }
+        return (int) Math.max(0, size);
     }
 
+    /**
+     * Returns an iterator over the pending invocations. The iterator is weakly
+     * consistent; invocations may be registered and deregistered while iterating.
+     *
+     * @return the iterator
+     */
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        return new InvocationIterator();
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Returns a snapshot of the pending invocations by their call IDs.
+     * <p>
+     * The snapshot is created on every call; use {@link #iterator()} to
+     * go over the invocations without creating garbage.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
+        Map<Long, Invocation> invocations = new HashMap<>();
+        for (Invocation invocation : this) {
+            invocations.put(invocation.op.getCallId(), invocation);
+        }
         return invocations.entrySet();
     }
 
@@ -182,7 +263,12 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        Invocation invocation = stripes[stripeIndex(callId)].get(slotIndex(callId));
+        if (invocation != null && invocation.op.getCallId() == callId) {
+            return invocation;
+        }
+        // checking for emptiness first saves boxing the call ID
+        return overflow.isEmpty() ? null : overflow.get(callId);
     }
 
     public void reset(Throwable cause) {
@@ -206,4 +292,50 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             }
         }
     }
+
+    /**
+     * Iterates over the slots of all stripes, followed by the overflow map.
+     */
+    private final class InvocationIterator implements Iterator<Invocation> {
+
+        private final Iterator<Invocation> overflowIterator = overflow.values().iterator();
+        private int stripe;
+        private int slot = -1;
+        private Invocation next;
+
+        InvocationIterator() {
+            advance();
+        }
+
+        private void advance() {
+            while (stripe < stripes.length) {
+                AtomicReferenceArray<Invocation> slots = stripes[stripe];
+                while (++slot < slots.length()) {
+                    Invocation invocation = slots.get(slot);
+                    if (invocation != null) {
+                        next = invocation;
+                        return;
+                    }
+                }
+                stripe++;
+                slot = -1;
+            }
+            next = overflowIterator.hasNext() ? overflowIterator.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Invocation next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Invocation invocation = next;
+            advance();
+            return invocation;
+        }
+    }
 }
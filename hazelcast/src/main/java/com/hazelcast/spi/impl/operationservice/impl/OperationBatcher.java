@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.metrics.StaticMetricsProvider;
+import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.nio.ConnectionListener;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_BATCHER_BATCHES_SENT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_BATCHER_PACKETS_BATCHED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX;
+import static com.hazelcast.internal.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readCharB;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeCharB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
+import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.EmptyStatement.ignore;
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Coalesces the operation and response packets sent to the same connection
+ * within a short time window into a single batch packet.
+ *
+ * Every connection gets its own queue of pending packets. The first packet
+ * offered to an empty queue schedules the connection on the flush thread,
+ * which waits until the batch window of that connection has passed and then
+ * writes everything pending as one or more batch packets. The packets are
+ * written in the order they were offered, so the ordering guarantees of a
+ * connection are not changed by batching.
+ *
+ * A batch packet is an {@link Packet.Type#OPERATION} packet with the
+ * {@link Packet#FLAG_OP_BATCH} flag raised. Its payload is a sequence of
+ * entries, each consisting of the flags, the partition id and the length of
+ * the payload of the original packet followed by that payload. The receiving
+ * side unpacks it using {@link #forEachPacket(Packet, Consumer)} and
+ * dispatches every packet as if it had been received on its own.
+ *
+ * Urgent packets are never batched since they should not wait for the batch
+ * window to pass.
+ *
+ * Only packets sent over member connections are batched. Client messages
+ * don't go through the operation service's outbound handlers, so the
+ * traffic between clients and members is not affected.
+ *
+ * The batcher can also run in a backups only mode, in which only the backup
+ * operations and backup acks offered with {@link #offerBackup(Packet, Connection)}
+ * are batched. The backups sent by the partition threads to the same replica
+ * are then sent together and applied in order by the receiving member.
+ *
+ * Nothing is batched until the cluster version is at least 4.1, since older
+ * members would read a batch packet as a single operation.
+ */
+public final class OperationBatcher implements StaticMetricsProvider, ConnectionListener {
+
+    static final int ENTRY_HEADER_SIZE_IN_BYTES = CHAR_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+
+    private final ILogger logger;
+    private final long windowNanos;
+    private final int maxBatchBytes;
+    private final boolean backupsOnly;
+    private final BooleanSupplier clusterSupportsBatches;
+    private final ConcurrentMap<Connection, ConnectionBatch> batches = new ConcurrentHashMap<>();
+    private final ConstructorFunction<Connection, ConnectionBatch> batchConstructor = ConnectionBatch::new;
+    private final FlushThread flushThread;
+
+    @Probe(name = OPERATION_METRIC_OPERATION_BATCHER_BATCHES_SENT)
+    private final SwCounter batchesSent = newSwCounter();
+    @Probe(name = OPERATION_METRIC_OPERATION_BATCHER_PACKETS_BATCHED)
+    private final SwCounter packetsBatched = newSwCounter();
+
+    OperationBatcher(String hzName, ILogger logger, long windowMicros, int maxBatchBytes, boolean backupsOnly,
+                     BooleanSupplier clusterSupportsBatches) {
+        this.logger = logger;
+        this.windowNanos = MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchBytes = maxBatchBytes;
+        this.backupsOnly = backupsOnly;
+        this.clusterSupportsBatches = clusterSupportsBatches;
+        this.flushThread = new FlushThread(hzName);
+    }
+
+    /**
+     * Offers a packet for batching. Always rejected when the batcher only
+     * batches backups.
+     *
+     * @param packet     the packet to send
+     * @param connection the connection to send the packet to
+     * @return {@code true} if the packet was accepted and is going to be sent
+     * by this batcher, {@code false} if it can't be batched and the caller
+     * should send it directly
+     */
+    public boolean offer(Packet packet, Connection connection) {
+        return !backupsOnly && offer0(packet, connection);
+    }
+
+    /**
+     * Offers a backup or backup ack packet for batching. Unlike
+     * {@link #offer(Packet, Connection)} these are also batched when only
+     * backup batching is enabled.
+     *
+     * @param packet     the packet to send
+     * @param connection the connection to send the packet to
+     * @return {@code true} if the packet was accepted and is going to be sent
+     * by this batcher, {@code false} if it can't be batched and the caller
+     * should send it directly
+     */
+    public boolean offerBackup(Packet packet, Connection connection) {
+        return offer0(packet, connection);
+    }
+
+    private boolean offer0(Packet packet, Connection connection) {
+        if (packet.isUrgent() || connection == null || !connection.isAlive() || flushThread.shutdown
+                || !clusterSupportsBatches.getAsBoolean()) {
+            return false;
+        }
+
+        ConnectionBatch batch = getOrPutIfAbsent(batches, connection, batchConstructor);
+        batch.packets.offer(packet);
+        if (!batch.scheduled.get() && batch.scheduled.compareAndSet(false, true)) {
+            batch.scheduledNanos = System.nanoTime();
+            flushThread.scheduledQueue.add(batch);
+        }
+        return true;
+    }
+
+    long batchesSent() {
+        return batchesSent.get();
+    }
+
+    @Override
+    public void connectionAdded(Connection connection) {
+        // no-op
+    }
+
+    @Override
+    public void connectionRemoved(Connection connection) {
+        batches.remove(connection);
+    }
+
+    @Override
+    public void provideStaticMetrics(MetricsRegistry registry) {
+        registry.registerStaticMetrics(this, OPERATION_PREFIX);
+    }
+
+    public void start() {
+        flushThread.start();
+    }
+
+    public void shutdown() {
+        flushThread.shutdown();
+    }
+
+    /**
+     * Creates a batch packet containing the given packets.
+     *
+     * @param packets the packets to batch
+     * @return the batch packet
+     */
+    public static Packet toBatchPacket(List<Packet> packets) {
+        int size = 0;
+        for (Packet packet : packets) {
+            size += ENTRY_HEADER_SIZE_IN_BYTES + packet.totalSize();
+        }
+
+        byte[] bytes = new byte[size];
+        int pos = 0;
+        for (Packet packet : packets) {
+            byte[] payload = packet.toByteArray();
+            writeCharB(bytes, pos, packet.getFlags());
+            pos += CHAR_SIZE_IN_BYTES;
+            writeIntB(bytes, pos, packet.getPartitionId());
+            pos += INT_SIZE_IN_BYTES;
+            writeIntB(bytes, pos, payload.length);
+            pos += INT_SIZE_IN_BYTES;
+            System.arraycopy(payload, 0, bytes, pos, payload.length);
+            pos += payload.length;
+        }
+
+        return new Packet(bytes, -1).setPacketType(OPERATION).raiseFlags(FLAG_OP_BATCH);
+    }
+
+    /**
+     * Unpacks a batch packet and passes every packet it contains to the given
+     * consumer, in the order they were batched. The packets get the connection
+     * of the batch packet.
+     *
+     * @param batch    the batch packet
+     * @param consumer the consumer of the unpacked packets
+     */
+    public static void forEachPacket(Packet batch, Consumer<Packet> consumer) {
+        byte[] bytes = batch.toByteArray();
+        int pos = 0;
+        while (pos < bytes.length) {
+            char flags = readCharB(bytes, pos);
+            pos += CHAR_SIZE_IN_BYTES;
+            int partitionId = readIntB(bytes, pos);
+            pos += INT_SIZE_IN_BYTES;
+            int length = readIntB(bytes, pos);
+            pos += INT_SIZE_IN_BYTES;
+            byte[] payload = new byte[length];
+            System.arraycopy(bytes, pos, payload, 0, length);
+            pos += length;
+
+            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            packet.setConn(batch.getConn());
+            consumer.accept(packet);
+        }
+    }
+
+    private static final class ConnectionBatch {
+        private final Connection connection;
+        private final Queue<Packet> packets = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long scheduledNanos;
+
+        private ConnectionBatch(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * The FlushThread needs to implement the OperationHostileThread interface to make sure that the OperationExecutor
+     * is not going to schedule any operations on this thread.
+     */
+    private final class FlushThread extends Thread implements OperationHostileThread {
+
+        private final BlockingQueue<ConnectionBatch> scheduledQueue;
+        private final List<Packet> pending = new ArrayList<>();
+        private int pendingBytes;
+        private volatile boolean shutdown;
+
+        private FlushThread(String hzName) {
+            super(createThreadName(hzName, "operation.batcher"));
+            this.scheduledQueue = new MPSCQueue<>(this, null);
+        }
+
+        @Override
+        public void run() {
+            try {
+                doRun();
+            } catch (InterruptedException e) {
+                ignore(e);
+            } catch (Throwable t) {
+                inspectOutOfMemoryError(t);
+                logger.severe(t);
+            }
+        }
+
+        private void doRun() throws InterruptedException {
+            while (!shutdown) {
+                ConnectionBatch batch = scheduledQueue.take();
+                // batches are scheduled in order, so waiting for this one never delays the ones behind it
+                long deadlineNanos = batch.scheduledNanos + windowNanos;
+                long delayNanos;
+                while ((delayNanos = deadlineNanos - System.nanoTime()) > 0 && !shutdown) {
+                    LockSupport.parkNanos(delayNanos);
+                }
+
+                try {
+                    flush(batch);
+                } catch (Throwable e) {
+                    inspectOutOfMemoryError(e);
+                    logger.severe("Failed to flush operation batch for: " + batch.connection, e);
+                }
+            }
+        }
+
+        private void flush(ConnectionBatch batch) {
+            // packets offered after this point schedule the batch again
+            batch.scheduled.set(false);
+
+            Packet packet;
+            while ((packet = batch.packets.poll()) != null) {
+                int entryBytes = ENTRY_HEADER_SIZE_IN_BYTES + packet.totalSize();
+                if (pendingBytes + entryBytes > maxBatchBytes) {
+                    write(batch.connection);
+                }
+                pending.add(packet);
+                pendingBytes += entryBytes;
+            }
+            write(batch.connection);
+
+            if (!batch.connection.isAlive()) {
+                batches.remove(batch.connection, batch);
+            }
+        }
+
+        private void write(Connection connection) {
+            switch (pending.size()) {
+                case 0:
+                    return;
+                case 1:
+                    connection.write(pending.get(0));
+                    break;
+                default:
+                    connection.write(toBatchPacket(pending));
+                    batchesSent.inc();
+                    packetsBatched.inc(pending.size());
+            }
+            pending.clear();
+            pendingBytes = 0;
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            interrupt();
+        }
+    }
+}
@@ -53,6 +53,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationservice.BlockingOperation;
 import com.hazelcast.spi.impl.operationservice.CallStatus;
+import com.hazelcast.spi.impl.operationservice.LiveOperations;
 import com.hazelcast.spi.impl.operationservice.Notifier;
 import com.hazelcast.spi.impl.operationservice.Offload;
 import com.hazelcast.spi.impl.operationservice.Operation;
@@ -66,6 +67,8 @@ import com.hazelcast.splitbrainprotection.SplitBrainProtectionException;
 import com.hazelcast.splitbrainprotection.impl.SplitBrainProtectionServiceImpl;
 
 import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_GENERICID;
@@ -89,6 +92,7 @@ import static com.hazelcast.spi.impl.operationservice.Operations.isJoinOperation
 import static com.hazelcast.spi.impl.operationservice.Operations.isMigrationOperation;
 import static com.hazelcast.spi.impl.operationservice.Operations.isWanReplicationOperation;
 import static com.hazelcast.spi.properties.ClusterProperty.DISABLE_STALE_READ_ON_PARTITION_MIGRATION;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_PARKED_OPERATIONS_MAX;
 import static java.util.logging.Level.FINEST;
 import static java.util.logging.Level.SEVERE;
 import static java.util.logging.Level.WARNING;
@@ -122,6 +126,13 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
     // will never be called concurrently.
     private InternalPartition internalPartition;
 
+    // Operations waiting for the migration of the partition to finish. Only a partition-specific
+    // OperationRunner parks operations, the queue is read by other threads to report them as live.
+    private final Queue<Operation> migrationParkedOperations;
+    private final int maxMigrationParkedOperations;
+    private int migrationParkedOperationCount;
+    private boolean replayingMigrationParkedOperations;
+
     private final OutboundResponseHandler outboundResponseHandler;
 
     // When partitionId >= 0, it is a partition specific
@@ -139,6 +150,9 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
         this.nodeEngine = operationService.nodeEngine;
         this.outboundResponseHandler = operationService.outboundResponseHandler;
         this.staleReadOnMigrationEnabled = !node.getProperties().getBoolean(DISABLE_STALE_READ_ON_PARTITION_MIGRATION);
+        this.maxMigrationParkedOperations = node.getProperties().getInteger(PARTITION_MIGRATION_PARKED_OPERATIONS_MAX);
+        this.migrationParkedOperations = partitionId >= 0 && maxMigrationParkedOperations > 0
+                ? new ConcurrentLinkedQueue<>() : null;
         this.failedBackupsCounter = failedBackupsCounter;
         this.backupHandler = operationService.backupHandler;
         // only a ad-hoc operation runner will be called concurrently
@@ -171,6 +185,8 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
 
     @Override
     public void run(Runnable task) {
+        replayMigrationParkedOperations();
+
         boolean publishCurrentTask = publishCurrentTask();
 
         if (publishCurrentTask) {
@@ -193,6 +209,8 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
 
     @Override
     public void run(Operation op) {
+        replayMigrationParkedOperations();
+
         executedOperationsCounter.inc();
 
         boolean publishCurrentTask = publishCurrentTask();
@@ -208,6 +226,10 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
                 return;
             }
 
+            if (parkDuringMigration(op)) {
+                return;
+            }
+
             ensureNoPartitionProblems(op);
 
             ensureNoSplitBrain(op);
@@ -358,6 +380,71 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
         }
     }
 
+    /**
+     * Parks the operation if it is not allowed to run while the partition is
+     * migrating. The parked operations are run again in their original order
+     * once the migration is finalized, instead of being rejected and retried
+     * by the caller.
+     *
+     * @return {@code true} if the operation is parked
+     */
+    private boolean parkDuringMigration(Operation op) {
+        if (migrationParkedOperations == null
+                || op.getPartitionId() != getPartitionId()
+                || op.getCallId() == 0
+                || op instanceof Backup
+                || isAllowedToRetryDuringMigration(op)) {
+            return false;
+        }
+
+        if (internalPartition == null) {
+            internalPartition = nodeEngine.getPartitionService().getPartition(getPartitionId());
+        }
+
+        if (!internalPartition.isMigrating() || migrationParkedOperationCount == maxMigrationParkedOperations) {
+            return false;
+        }
+
+        migrationParkedOperations.add(op);
+        migrationParkedOperationCount++;
+        return true;
+    }
+
+    /**
+     * Runs the operations parked during migration if the migration of the
+     * partition is finalized. Called before any other task of the partition
+     * runs, so the parked operations keep their order.
+     */
+    private void replayMigrationParkedOperations() {
+        if (migrationParkedOperationCount == 0 || replayingMigrationParkedOperations || internalPartition.isMigrating()) {
+            return;
+        }
+
+        replayingMigrationParkedOperations = true;
+        try {
+            Operation op;
+            while ((op = migrationParkedOperations.poll()) != null) {
+                migrationParkedOperationCount--;
+                run(op);
+            }
+        } finally {
+            replayingMigrationParkedOperations = false;
+        }
+    }
+
+    /**
+     * Adds the operations parked during migration to the live operations, so
+     * their callers don't time out while the partition is migrating.
+     */
+    void populateMigrationParkedOperations(LiveOperations liveOperations) {
+        if (migrationParkedOperations == null) {
+            return;
+        }
+        for (Operation op : migrationParkedOperations) {
+            liveOperations.add(op.getCallerAddress(), op.getCallId());
+        }
+    }
+
     private boolean isAllowedToRetryDuringMigration(Operation op) {
         return (op instanceof ReadonlyOperation && staleReadOnMigrationEnabled) || isMigrationOperation(op);
     }
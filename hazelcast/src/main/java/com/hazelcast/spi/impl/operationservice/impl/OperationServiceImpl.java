@@ -21,6 +21,7 @@ import com.hazelcast.cluster.impl.MemberImpl;
 import com.hazelcast.core.LocalMemberResetException;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.ClusterClock;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.management.dto.SlowOperationDTO;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -35,6 +36,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
 import com.hazelcast.spi.impl.operationexecutor.slowoperationdetector.SlowOperationDetector;
 import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
@@ -56,6 +58,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_SERVICE_ASYNC_OPERATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_SERVICE_CALL_TIMEOUT_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_OPERATION_SERVICE_FAILED_BACKUPS;
@@ -74,7 +77,11 @@ import static com.hazelcast.spi.impl.operationservice.InvocationBuilder.DEFAULT_
 import static com.hazelcast.spi.impl.operationservice.Operations.isJoinOperation;
 import static com.hazelcast.spi.impl.operationservice.Operations.isWanReplicationOperation;
 import static com.hazelcast.spi.properties.ClusterProperty.FAIL_ON_INDETERMINATE_OPERATION_STATE;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_WINDOW_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BATCH_MAX_BYTES;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BATCH_WINDOW_MICROS;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_PARKED_OPERATIONS_MAX;
 import static java.util.Collections.newSetFromMap;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -134,10 +141,12 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     private final InvocationMonitor invocationMonitor;
     private final SlowOperationDetector slowOperationDetector;
     private final InboundResponseHandlerSupplier inboundResponseHandlerSupplier;
+    private final OperationBatcher operationBatcher;
     private final InternalSerializationService serializationService;
     private final int invocationMaxRetryCount;
     private final long invocationRetryPauseMillis;
     private final boolean failOnIndeterminateOperationState;
+    private final boolean migrationParkingEnabled;
 
     public OperationServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -149,12 +158,16 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.invocationMaxRetryCount = node.getProperties().getInteger(ClusterProperty.INVOCATION_MAX_RETRY_COUNT);
         this.invocationRetryPauseMillis = node.getProperties().getMillis(ClusterProperty.INVOCATION_RETRY_PAUSE);
         this.failOnIndeterminateOperationState = nodeEngine.getProperties().getBoolean(FAIL_ON_INDETERMINATE_OPERATION_STATE);
+        this.migrationParkingEnabled = node.getProperties().getInteger(PARTITION_MIGRATION_PARKED_OPERATIONS_MAX) > 0;
 
         this.backpressureRegulator = new BackpressureRegulator(
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
 
+        String hzName = nodeEngine.getHazelcastInstance().getName();
+        this.operationBatcher = newOperationBatcher(hzName);
+
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
-                node.getLogger(OutboundResponseHandler.class));
+                node.getLogger(OutboundResponseHandler.class), operationBatcher);
 
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class),
@@ -164,11 +177,11 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
                 nodeEngine, thisAddress, node.getProperties(), invocationRegistry,
                 node.getLogger(InvocationMonitor.class), serializationService, nodeEngine.getServiceManager());
 
-        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService);
+        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService,
+                operationBatcher);
 
         this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler);
 
-        String hzName = nodeEngine.getHazelcastInstance().getName();
         ClassLoader configClassLoader = node.getConfigClassLoader();
         this.inboundResponseHandlerSupplier = new InboundResponseHandlerSupplier(
                 configClassLoader, invocationRegistry, hzName, nodeEngine);
@@ -182,10 +195,29 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
                 node.getProperties(), hzName);
     }
 
+    private OperationBatcher newOperationBatcher(String hzName) {
+        long windowMicros = node.getProperties().getLong(OPERATION_BATCH_WINDOW_MICROS);
+        long backupWindowMicros = node.getProperties().getLong(OPERATION_BACKUP_BATCH_WINDOW_MICROS);
+        boolean backupsOnly = windowMicros <= 0;
+        if (backupsOnly) {
+            windowMicros = backupWindowMicros;
+        }
+        if (windowMicros <= 0) {
+            return null;
+        }
+        return new OperationBatcher(hzName, node.getLogger(OperationBatcher.class), windowMicros,
+                node.getProperties().getInteger(OPERATION_BATCH_MAX_BYTES), backupsOnly,
+                () -> node.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V4_1));
+    }
+
     public OutboundResponseHandler getOutboundResponseHandler() {
         return outboundResponseHandler;
     }
 
+    OperationBatcher getOperationBatcher() {
+        return operationBatcher;
+    }
+
     public InboundResponseHandlerSupplier getInboundResponseHandlerSupplier() {
         return inboundResponseHandlerSupplier;
     }
@@ -258,6 +290,37 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         for (Operation op : asyncOperations) {
             liveOperations.add(op.getCallerAddress(), op.getCallId());
         }
+
+        if (migrationParkingEnabled) {
+            for (OperationRunner runner : operationExecutor.getPartitionOperationRunners()) {
+                ((OperationRunnerImpl) runner).populateMigrationParkedOperations(liveOperations);
+            }
+        }
+    }
+
+    /**
+     * Runs the operations which were parked while the partition was migrating.
+     * Called when the migrating flag of the partition is cleared.
+     *
+     * @param partitionId the ID of the partition
+     * @see ClusterProperty#PARTITION_MIGRATION_PARKED_OPERATIONS_MAX
+     */
+    public void onPartitionMigrationFinished(int partitionId) {
+        if (!migrationParkingEnabled) {
+            return;
+        }
+        // the partition runner replays the parked operations before running any task
+        operationExecutor.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                // NOP
+            }
+        });
     }
 
     @Override
@@ -461,7 +524,8 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     @Override
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, OPERATION_PREFIX);
-        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                operationBatcher);
     }
 
     public void start() {
@@ -472,6 +536,10 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         operationExecutor.start();
         inboundResponseHandlerSupplier.start();
         slowOperationDetector.start();
+        if (operationBatcher != null) {
+            node.getEndpointManager(MEMBER).addConnectionListener(operationBatcher);
+            operationBatcher.start();
+        }
     }
 
     private void initInvocationContext() {
@@ -512,6 +580,9 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         invocationRegistry.shutdown();
         invocationMonitor.shutdown();
         inboundResponseHandlerSupplier.shutdown();
+        if (operationBatcher != null) {
+            operationBatcher.shutdown();
+        }
 
         try {
             invocationMonitor.awaitTermination(TERMINATION_TIMEOUT_MILLIS);
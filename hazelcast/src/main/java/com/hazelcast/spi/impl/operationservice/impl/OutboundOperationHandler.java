@@ -22,6 +22,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
 
 import static com.hazelcast.instance.EndpointQualifier.MEMBER;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
@@ -34,11 +35,18 @@ public class OutboundOperationHandler {
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final Node node;
+    private final OperationBatcher operationBatcher;
 
     public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService) {
+        this(node, thisAddress, serializationService, null);
+    }
+
+    OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService,
+                             OperationBatcher operationBatcher) {
         this.node = node;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
+        this.operationBatcher = operationBatcher;
     }
 
     public boolean send(Operation op, Address target) {
@@ -61,6 +69,15 @@ public class OutboundOperationHandler {
             packet.raiseFlags(FLAG_URGENT);
         }
 
+        if (operationBatcher != null) {
+            boolean batched = op instanceof Backup
+                    ? operationBatcher.offerBackup(packet, connection)
+                    : operationBatcher.offer(packet, connection);
+            if (batched) {
+                return true;
+            }
+        }
+
         return node.getEndpointManager(MEMBER).transmit(packet, connection);
     }
 }
@@ -67,14 +67,23 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     private final InternalSerializationService serializationService;
     private final boolean useBigEndian;
     private final ILogger logger;
+    private final OperationBatcher operationBatcher;
 
     OutboundResponseHandler(Address thisAddress,
                             InternalSerializationService serializationService,
                             ILogger logger) {
+        this(thisAddress, serializationService, logger, null);
+    }
+
+    OutboundResponseHandler(Address thisAddress,
+                            InternalSerializationService serializationService,
+                            ILogger logger,
+                            OperationBatcher operationBatcher) {
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
         this.logger = logger;
+        this.operationBatcher = operationBatcher;
     }
 
     @Override
@@ -169,7 +178,10 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toBackupAckPacket(callId, urgent);
 
-        transmit(target, packet, endpointManager);
+        if (operationBatcher != null && operationBatcher.offerBackup(packet, endpointManager.getConnection(target))) {
+            return;
+        }
+        endpointManager.transmit(packet, target);
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
@@ -209,6 +221,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private boolean transmit(Address target, Packet packet, EndpointManager endpointManager) {
+        if (operationBatcher != null && operationBatcher.offer(packet, endpointManager.getConnection(target))) {
+            return true;
+        }
         return endpointManager.transmit(packet, target);
     }
 
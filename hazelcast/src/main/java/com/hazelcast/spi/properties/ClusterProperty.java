@@ -45,6 +45,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -97,6 +98,18 @@ public final class ClusterProperty {
     public static final HazelcastProperty PRIORITY_GENERIC_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.priority.generic.thread.count", 1);
 
+    /**
+     * Enables work stealing between the generic operation threads. Instead of sharing a single locked queue, every
+     * (non priority) generic operation thread gets its own lock-free deque and steals tasks from the other threads
+     * when its own deque is empty. This reduces the contention on the generic queue when many generic operations,
+     * like queries or operations fanned out over all partitions, are executed. Priority operations are still taken
+     * before any normal operation.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty GENERIC_OPERATION_WORK_STEALING_ENABLED
+            = new HazelcastProperty("hazelcast.operation.generic.workstealing.enabled", false);
+
     /**
      * The number of threads that process responses.
      * <p>
@@ -150,6 +163,40 @@ public final class ClusterProperty {
     public static final HazelcastProperty CLIENT_CLEANUP_TIMEOUT
             = new HazelcastProperty("hazelcast.client.cleanup.timeout.millis", 120000, MILLISECONDS);
 
+    /**
+     * Enables running the tasks of the executors listed in {@link #EXECUTOR_VIRTUAL_THREADS_EXECUTORS} on virtual
+     * threads instead of on the shared pool of platform threads. This is useful when these tasks block for a long
+     * time, for example {@code MapStore} or {@code MapLoader} implementations calling a database: a blocked virtual
+     * thread doesn't occupy a platform thread, so many slow calls can't exhaust the pool.
+     * <p>
+     * Virtual threads require JDK 21 or later. On older JDKs a warning is logged and the platform threads are used.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty EXECUTOR_VIRTUAL_THREADS_ENABLED
+            = new HazelcastProperty("hazelcast.executor.virtual.threads.enabled", false);
+
+    /**
+     * The comma separated names of the executors that run their tasks on virtual threads when
+     * {@link #EXECUTOR_VIRTUAL_THREADS_ENABLED} is set. Both internal executors and the executors of
+     * {@link com.hazelcast.core.IExecutorService} instances can be listed.
+     * <p>
+     * The default is {@code hz:map-load,hz:map-loadAllKeys,hz:scheduled}: the map loading executors and the
+     * executor that runs the write-behind {@code MapStore} calls.
+     */
+    public static final HazelcastProperty EXECUTOR_VIRTUAL_THREADS_EXECUTORS
+            = new HazelcastProperty("hazelcast.executor.virtual.threads.executors",
+            "hz:map-load,hz:map-loadAllKeys,hz:scheduled");
+
+    /**
+     * The maximum number of tasks an executor running on virtual threads executes concurrently. The pool size of the
+     * executor doesn't apply to virtual threads; further tasks are queued up to the queue capacity of the executor.
+     * <p>
+     * The default is 10000.
+     */
+    public static final HazelcastProperty EXECUTOR_VIRTUAL_THREADS_MAX_CONCURRENCY
+            = new HazelcastProperty("hazelcast.executor.virtual.threads.max.concurrency", 10000);
+
     /**
      * Number of threads for the {@link com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl} executor.
      * The executor is responsible for executing the events. If you process a lot of events and have many cores, setting
@@ -277,6 +324,21 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_OUTPUT_THREAD_COUNT
             = new HazelcastProperty("hazelcast.io.output.thread.count", IO_THREAD_COUNT);
 
+    /**
+     * The name of the networking provider used for the member connections.
+     * Providers are discovered with the Hazelcast ServiceLoader under the
+     * factory id {@code com.hazelcast.internal.networking.NetworkingProvider}.
+     * If the provider is not found or is not available in this JVM, the
+     * default selector based {@code nio} provider is used.
+     * <p>
+     * The {@link #THREAD_PER_CORE_ENABLED thread-per-core} mode requires the
+     * {@code nio} provider; a member with another provider fails to start.
+     * <p>
+     * The default is {@code nio}.
+     */
+    public static final HazelcastProperty IO_NETWORKING_PROVIDER
+            = new HazelcastProperty("hazelcast.io.networking.provider", "nio");
+
     /**
      * Optimization that allows sending of packets over the network to be done on the calling thread if the
      * conditions are right. This can reduce latency and increase performance for low threaded environments.
@@ -286,6 +348,113 @@ public final class ClusterProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.io.write.through", true);
 
+    /**
+     * The minimum size in bytes of a serialized payload for it to be written
+     * to the socket directly from its byte array using a gathering write,
+     * instead of being copied into the send buffer of the connection first.
+     * This saves a copy of every large value. The value is ignored for
+     * connections that have another handler, e.g. TLS, behind the encoder.
+     *
+     * The default is 32 KB. A value of -1 disables gathering writes.
+     */
+    public static final HazelcastProperty IO_GATHERING_WRITE_THRESHOLD
+            = new HazelcastProperty("hazelcast.io.gathering.write.threshold", 32 * 1024);
+
+    /**
+     * The maximum time in microseconds a socket output thread waits for more
+     * packets before writing a small batch of packets to a connection. Packets
+     * that are sent to the connection in the meantime are written with the same
+     * write, which reduces the number of system calls when many threads send
+     * small packets to the same member. The waiting is skipped for a while on
+     * connections where it didn't pick up any additional packets.
+     * <p>
+     * The output thread doesn't spin while lingering; it keeps serving its other
+     * connections and processes the lingering connection again once the linger
+     * time has passed. As the output thread waits with millisecond resolution,
+     * the write can be delayed by up to a millisecond beyond the linger time
+     * when the thread has nothing else to do, so this value should be kept
+     * small; a few tens of microseconds is typically enough.
+     * <p>
+     * The default is 0, which disables lingering.
+     *
+     * @see #IO_WRITE_BATCH_BYTES
+     */
+    public static final HazelcastProperty IO_WRITE_BATCH_LINGER_MICROS
+            = new HazelcastProperty("hazelcast.io.write.batch.linger.micros", 0, MICROSECONDS);
+
+    /**
+     * The number of bytes of a batch of packets for which a socket output thread
+     * writes the batch to the connection without waiting for more packets.
+     * Only used if {@link #IO_WRITE_BATCH_LINGER_MICROS} is set.
+     * <p>
+     * The default is 16 KB.
+     */
+    public static final HazelcastProperty IO_WRITE_BATCH_BYTES
+            = new HazelcastProperty("hazelcast.io.write.batch.bytes", 16 * 1024);
+
+    /**
+     * Enables the compression of packets sent between members. Packets are only
+     * compressed on a connection if the member on the other side has enabled
+     * compression as well, so this can be enabled in a rolling fashion. Small
+     * packets and packets that don't shrink are sent as is.
+     * <p>
+     * Compression trades CPU time of the IO threads for network bandwidth and
+     * mostly pays off for large payloads such as partition migrations and
+     * backups of bulk operations over a slow network.
+     * <p>
+     * It is disabled by default.
+     *
+     * @see #IO_COMPRESSION_THRESHOLD
+     * @see #IO_COMPRESSION_DICTIONARY_FILE
+     */
+    public static final HazelcastProperty IO_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.io.compression.enabled", false);
+
+    /**
+     * The minimum size in bytes of a packet payload for it to be compressed.
+     * Only used if {@link #IO_COMPRESSION_ENABLED} is set.
+     * <p>
+     * The default is 4 KB.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.io.compression.threshold", 4 * 1024);
+
+    /**
+     * The path of a file whose content is used as a preset dictionary for the
+     * compression of packets. A dictionary made up of byte sequences that are
+     * common in the payloads, e.g. class names and field names of the values,
+     * improves the compression of medium-sized packets. The dictionary is only
+     * used on connections to members which are configured with the same
+     * dictionary. Only used if {@link #IO_COMPRESSION_ENABLED} is set.
+     * <p>
+     * By default no dictionary is used.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_DICTIONARY_FILE
+            = new HazelcastProperty("hazelcast.io.compression.dictionary.file");
+
+    /**
+     * Enables the thread-per-core execution mode. In this mode there are no
+     * dedicated socket input threads; each partition operation thread reads
+     * from the member and client connections assigned to it, and operations
+     * for the partitions it owns are executed directly on the thread reading
+     * them instead of being handed off through a queue. This saves a thread
+     * hand-off and wake-up per operation, which mostly pays off for small
+     * operations such as map.get and map.put.
+     * <p>
+     * The number of socket input threads is equal to
+     * {@link #PARTITION_OPERATION_THREAD_COUNT} in this mode and
+     * {@link #IO_INPUT_THREAD_COUNT} is ignored. Operations must not block
+     * since a blocked partition operation thread also stops reading from its
+     * connections.
+     * <p>
+     * This mode is only supported by the {@code nio}
+     * {@link #IO_NETWORKING_PROVIDER networking provider}.
+     * <p>
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty THREAD_PER_CORE_ENABLED
+            = new HazelcastProperty("hazelcast.operation.thread.per.core", false);
+
     /**
      * Property needed for concurrency detection so that write through can be done correctly.
      * This property sets the window the concurrency detection will signalling
@@ -362,6 +531,47 @@ public final class ClusterProperty {
     public static final HazelcastProperty FAIL_ON_INDETERMINATE_OPERATION_STATE
             = new HazelcastProperty("hazelcast.operation.fail.on.indeterminate.state", false);
 
+    /**
+     * The time window in microseconds during which operations and responses sent to the same member are
+     * coalesced into a single batch packet. The receiving member unpacks the batch and dispatches every
+     * operation to its partition thread as if it had been sent on its own.
+     * <p>
+     * Batching trades a little latency for fewer packets and syscalls, which pays off for pipelined async
+     * workloads such as many concurrent {@code IMap.getAsync}/{@code setAsync} calls. Urgent operations are
+     * never batched. Nothing is batched while the cluster version is below 4.1, so this can be enabled
+     * during a rolling upgrade from 4.0.
+     * <p>
+     * Only member-to-member operations and responses are batched. Client messages and their responses
+     * are always sent on their own, so this setting doesn't affect the traffic between clients and members.
+     * <p>
+     * The default is 0, which disables batching.
+     */
+    public static final HazelcastProperty OPERATION_BATCH_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.operation.batch.window.micros", 0, MICROSECONDS);
+
+    /**
+     * The maximum size in bytes of a batch packet created when {@link #OPERATION_BATCH_WINDOW_MICROS} is
+     * enabled. Operations larger than this are sent in their own packet.
+     * <p>
+     * The default is 64 KB.
+     */
+    public static final HazelcastProperty OPERATION_BATCH_MAX_BYTES
+            = new HazelcastProperty("hazelcast.operation.batch.max.bytes", 64 * 1024);
+
+    /**
+     * The time window in microseconds during which backup operations and backup acks sent to the same member are
+     * coalesced into a single batch packet, like {@link #OPERATION_BATCH_WINDOW_MICROS} does for all operations.
+     * This way a write heavy data structure with backups doesn't send a packet per mutation per backup replica.
+     * The backups are applied in the order they were sent, so the ordering guarantees don't change.
+     * <p>
+     * When {@link #OPERATION_BATCH_WINDOW_MICROS} is enabled as well, the backups are batched using that window.
+     * Nothing is batched while the cluster version is below 4.1.
+     * <p>
+     * The default is 0, which disables backup batching.
+     */
+    public static final HazelcastProperty OPERATION_BACKUP_BATCH_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.operation.backup.batch.window.micros", 0, MICROSECONDS);
+
     /**
      * Maximum number of retries for an invocation. After threshold is reached, invocation is assumed as failed.
      */
@@ -590,6 +800,20 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_EVICTION_BATCH_SIZE
             = new HazelcastProperty("hazelcast.map.eviction.batch.size", 1);
 
+    /**
+     * Enables the compact record layout for IMaps with
+     * {@link com.hazelcast.config.InMemoryFormat#BINARY BINARY} in-memory format.
+     * Record metadata (TTL, timestamps, hits, version) of all entries of a
+     * partition is kept in shared primitive arrays instead of one record
+     * object per entry, which lowers the per-entry heap overhead. Compact
+     * records never cache deserialized values, regardless of the
+     * {@link com.hazelcast.config.CacheDeserializedValues} setting.
+     *
+     * Default: false
+     */
+    public static final HazelcastProperty MAP_COMPACT_RECORDS_ENABLED
+            = new HazelcastProperty("hazelcast.map.compact.records.enabled", false);
+
     /**
      * XML and system property for setting the hot restart required free space.
      * By default, hot restart requires at least 15% free HD space.
@@ -637,8 +861,36 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.partition.migration.timeout", 300, SECONDS);
     public static final HazelcastProperty PARTITION_FRAGMENTED_MIGRATION_ENABLED
             = new HazelcastProperty("hazelcast.partition.migration.fragments.enabled", true);
+    /**
+     * The approximate maximum size in bytes of a single migration chunk. When set, the services supporting it,
+     * like IMap, migrate each replica fragment as a sequence of chunks of at most this size instead of a single
+     * operation carrying the whole fragment. The next chunk is prepared on the migration source only after the
+     * previous one has been applied on the destination, so migrating a very large partition doesn't have to
+     * allocate the whole partition at once on both members or block the partition thread for the whole partition.
+     * <p>
+     * Chunked migration is used only when {@link #PARTITION_FRAGMENTED_MIGRATION_ENABLED} is enabled.
+     * <p>
+     * The default is 0, which disables chunked migration.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_CHUNK_MAX_BYTES
+            = new HazelcastProperty("hazelcast.partition.migration.chunk.max.bytes", 0);
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
+    /**
+     * The maximum number of operations per partition which are parked by a member
+     * while the partition is migrating. Read-only operations keep being served by the migration
+     * source until the migration is committed, unless {@link #DISABLE_STALE_READ_ON_PARTITION_MIGRATION}
+     * is set. Other operations are rejected with a {@link com.hazelcast.spi.exception.PartitionMigratingException}
+     * and retried by the caller with a backoff, which shows up as a latency spike while the cluster
+     * is resized. When this property is set, such operations are parked instead and run again as
+     * soon as the migration of the partition is finalized. If the partition has moved away, they are
+     * redirected to the new owner immediately. Once the limit is reached, further operations are
+     * rejected as before.
+     * <p>
+     * The default is 0, which disables parking of operations during migration.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_PARKED_OPERATIONS_MAX
+            = new HazelcastProperty("hazelcast.partition.migration.parked.operations.max", 0);
 
     public static final HazelcastProperty PARTITION_TABLE_SEND_INTERVAL
             = new HazelcastProperty("hazelcast.partition.table.send.interval", 15, SECONDS);
@@ -828,6 +1080,20 @@ public final class ClusterProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * The maximal number of threads used to process the result of a single index query on a member.
+     * <p>
+     * Each Hazelcast member processes the entries matched by an index query using a single thread by default. When set
+     * to a value greater than 1, large index query results are split into chunks which are processed concurrently by the
+     * calling thread and the query executor: the non-indexed parts of conjunctions are evaluated, the unions of
+     * disjunctions are de-duplicated and the result rows are built in parallel. Small results are always processed by the
+     * calling thread.
+     * <p>
+     * The default is 1.
+     */
+    public static final HazelcastProperty QUERY_INDEX_PARALLELISM
+            = new HazelcastProperty("hazelcast.query.index.parallelism", 1);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -881,6 +1147,9 @@ public final class ClusterProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules and on the statistics
+     * of the index values; the indexes maintain these statistics only when this
+     * optimizer is selected</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p>
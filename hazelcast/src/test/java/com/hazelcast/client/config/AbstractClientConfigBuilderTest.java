@@ -251,10 +251,15 @@ public abstract class AbstractClientConfigBuilderTest extends HazelcastTestSuppo
         assertEquals(InMemoryFormat.BINARY, queryCacheClassPredicateConfig.getInMemoryFormat());
         assertFalse(queryCacheClassPredicateConfig.isCoalesce());
         assertTrue(queryCacheClassPredicateConfig.isPopulate());
-        for (IndexConfig indexConfig : queryCacheClassPredicateConfig.getIndexConfigs()) {
-            assertEquals("name", indexConfig.getAttributes().get(0));
-            assertFalse(indexConfig.getType() == IndexType.SORTED);
-        }
+        assertEquals(2, queryCacheClassPredicateConfig.getIndexConfigs().size());
+        IndexConfig hashIndexConfig = queryCacheClassPredicateConfig.getIndexConfigs().get(0);
+        assertEquals("name", hashIndexConfig.getAttributes().get(0));
+        assertEquals(IndexType.HASH, hashIndexConfig.getType());
+        assertFalse(hashIndexConfig.isPrimitiveKeys());
+        IndexConfig sortedIndexConfig = queryCacheClassPredicateConfig.getIndexConfigs().get(1);
+        assertEquals("age", sortedIndexConfig.getAttributes().get(0));
+        assertEquals(IndexType.SORTED, sortedIndexConfig.getType());
+        assertTrue(sortedIndexConfig.isPrimitiveKeys());
 
         assertEquals("com.hazelcast.examples.ExamplePredicate",
                 queryCacheClassPredicateConfig.getPredicateConfig().getClassName());
@@ -128,6 +128,54 @@ public class ClientMessageEncoderDecoderTest extends HazelcastTestSupport {
         assertEquals("map", parameters.name);
     }
 
+    @Test
+    public void testPut_whenLargeValueGathered() {
+        byte[] value = new byte[5000];
+        new Random().nextBytes(value);
+        ClientMessage message =
+                MapPutCodec.encodeRequest("map", new HeapData(new byte[100]), new HeapData(value), 5, 10);
+        AtomicReference<ClientMessage> reference = new AtomicReference<>(message);
+
+        ClientMessageEncoder encoder = new ClientMessageEncoder();
+        encoder.src(() -> reference.getAndSet(null));
+        encoder.gatheringThreshold(1000);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        buffer.flip();
+        encoder.dst(buffer);
+
+        // mimics the pipeline: the dst buffer is written first, followed by the gathered buffer
+        ByteBuffer wire = ByteBuffer.allocate(10000);
+        int gatheredCount = 0;
+        for (; ; ) {
+            HandlerStatus result = encoder.onWrite();
+            wire.put(buffer);
+            ByteBuffer gathered = encoder.gathered();
+            if (gathered != null) {
+                gatheredCount++;
+                wire.put(gathered);
+            }
+            if (result == CLEAN) {
+                break;
+            }
+        }
+        assertEquals(1, gatheredCount);
+
+        AtomicReference<ClientMessage> resultingMessage = new AtomicReference<>();
+        ClientMessageDecoder decoder = new ClientMessageDecoder(null, resultingMessage::set, null);
+        decoder.setNormalPacketsRead(SwCounter.newSwCounter());
+
+        decoder.src(wire);
+        decoder.onRead();
+
+        MapPutCodec.RequestParameters parameters = MapPutCodec.decodeRequest(resultingMessage.get());
+
+        assertEquals("map", parameters.name);
+        assertArrayEquals(value, parameters.value.toByteArray());
+        assertEquals(5, parameters.threadId);
+        assertEquals(10, parameters.ttl);
+    }
+
     @Test
     public void testAuthenticationRequest() {
         Collection<String> labels = new LinkedList<>();
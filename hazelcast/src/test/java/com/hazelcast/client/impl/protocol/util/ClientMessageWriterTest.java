@@ -30,7 +30,10 @@ import java.nio.ByteBuffer;
 import static com.hazelcast.client.impl.protocol.ClientMessage.DEFAULT_FLAGS;
 import static com.hazelcast.client.impl.protocol.ClientMessage.SIZE_OF_FRAME_LENGTH_AND_FLAGS;
 import static com.hazelcast.client.impl.protocol.ClientMessage.createForDecode;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -47,6 +50,27 @@ public class ClientMessageWriterTest {
 
     }
 
+    @Test
+    public void testWrite_whenContentExceedsGatheringThreshold() {
+        ClientMessage.Frame frame = new ClientMessage.Frame(new byte[100], DEFAULT_FLAGS);
+        ClientMessage.Frame next = new ClientMessage.Frame(new byte[10], DEFAULT_FLAGS);
+        ClientMessage message = createForDecode(frame);
+        message.add(next);
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        ClientMessageWriter clientMessageWriter = new ClientMessageWriter();
+
+        // writing stops after the gathered content
+        assertFalse(clientMessageWriter.writeTo(buffer, message, 50));
+        assertEquals(SIZE_OF_FRAME_LENGTH_AND_FLAGS, buffer.position());
+        ByteBuffer content = clientMessageWriter.takeGatheredContent();
+        assertEquals(100, content.remaining());
+        assertNull(clientMessageWriter.takeGatheredContent());
+
+        assertTrue(clientMessageWriter.writeTo(buffer, message, 50));
+        assertEquals(2 * SIZE_OF_FRAME_LENGTH_AND_FLAGS + 10, buffer.position());
+        assertNull(clientMessageWriter.takeGatheredContent());
+    }
+
     @Test
     public void testWriteAttemptToInsufficentSpaceRemaining_spaceLeftIsLessThanFrameLengthAndFlags() {
         ClientMessage.Frame frame = new ClientMessage.Frame(new byte[100], DEFAULT_FLAGS);
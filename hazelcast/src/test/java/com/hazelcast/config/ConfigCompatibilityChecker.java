@@ -879,6 +879,7 @@ public class ConfigCompatibilityChecker {
                     && isCollectionCompatible(c1.getIndexConfigs(), c2.getIndexConfigs(), new IndexConfigChecker())
                     && isCollectionCompatible(c1.getAttributeConfigs(), c2.getAttributeConfigs(),
                     new AttributeConfigChecker())
+                    && nullSafeEqual(c1.getColumnarAttributes(), c2.getColumnarAttributes())
                     && isCollectionCompatible(c1.getEntryListenerConfigs(), c2.getEntryListenerConfigs(),
                     new EntryListenerConfigChecker())
                     && nullSafeEqual(c1.getPartitionLostListenerConfigs(), c2.getPartitionLostListenerConfigs())
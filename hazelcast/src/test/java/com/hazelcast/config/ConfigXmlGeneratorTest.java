@@ -1404,6 +1404,7 @@ public class ConfigXmlGeneratorTest extends HazelcastTestSupport {
                 .addEntryListenerConfig(listenerConfig)
                 .setIndexConfigs(singletonList(indexConfig))
                 .addAttributeConfig(attrConfig)
+                .addColumnarAttribute("age")
                 .setPartitionLostListenerConfigs(singletonList(
                         new MapPartitionLostListenerConfig("partitionLostListener"))
                 );
@@ -1419,6 +1420,7 @@ public class ConfigXmlGeneratorTest extends HazelcastTestSupport {
         AttributeConfig xmlAttrConfig = actualConfig.getAttributeConfigs().get(0);
         assertEquals(attrConfig.getName(), xmlAttrConfig.getName());
         assertEquals(attrConfig.getExtractorClassName(), xmlAttrConfig.getExtractorClassName());
+        assertEquals(singletonList("age"), actualConfig.getColumnarAttributes());
         ConfigCompatibilityChecker.checkMapConfig(expectedConfig, actualConfig);
     }
 
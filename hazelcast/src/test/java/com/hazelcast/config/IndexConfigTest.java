@@ -17,6 +17,12 @@
 package com.hazelcast.config;
 
 import com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
+import com.hazelcast.internal.cluster.Versions;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.version.Version;
 import com.hazelcast.query.QueryConstants;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -25,13 +31,16 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -65,8 +74,47 @@ public class IndexConfigTest {
         actual.getBitmapIndexOptions().setUniqueKeyTransformation(UniqueKeyTransformation.RAW);
         checkIndexQuality(new IndexConfig(IndexType.BITMAP), actual, false);
 
+        actual = new IndexConfig(IndexType.BITMAP);
+        actual.getBitmapIndexOptions().setCompressed(true);
+        checkIndexQuality(new IndexConfig(IndexType.BITMAP), actual, false);
+
         checkIndexQuality(new IndexConfig().setName("name"), new IndexConfig().setName("name"), true);
         checkIndexQuality(new IndexConfig().setName("name"), new IndexConfig().setName("name2"), false);
+        checkIndexQuality(new IndexConfig(), new IndexConfig().setPrimitiveKeys(true), false);
+    }
+
+    @Test
+    public void testSerialization_primitiveKeysWrittenFrom_4_1() throws IOException {
+        IndexConfig config = new IndexConfig(IndexType.SORTED, "age").setPrimitiveKeys(true);
+
+        assertTrue(serializeAndDeserialize(config, Versions.V4_1).isPrimitiveKeys());
+        assertEquals(config, serializeAndDeserialize(config, Versions.V4_1));
+    }
+
+    @Test
+    public void testSerialization_primitiveKeysNotWrittenBefore_4_1() throws IOException {
+        IndexConfig config = new IndexConfig(IndexType.SORTED, "age").setPrimitiveKeys(true);
+
+        IndexConfig deserialized = serializeAndDeserialize(config, Versions.V4_0);
+
+        assertFalse(deserialized.isPrimitiveKeys());
+        assertEquals(config.getAttributes(), deserialized.getAttributes());
+    }
+
+    private static IndexConfig serializeAndDeserialize(IndexConfig config, Version version) throws IOException {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        BufferObjectDataOutput out = ss.createObjectDataOutput();
+        out.setVersion(version);
+        config.writeData(out);
+        byte[] bytes = out.toByteArray();
+
+        BufferObjectDataInput in = ss.createObjectDataInput(bytes);
+        in.setVersion(version);
+        IndexConfig deserialized = new IndexConfig();
+        deserialized.readData(in);
+        // the reader consumes exactly what the writer wrote for the same version
+        assertEquals(bytes.length, in.position());
+        return deserialized;
     }
 
     private void checkIndexQuality(IndexConfig config1, IndexConfig config2, boolean expected) {
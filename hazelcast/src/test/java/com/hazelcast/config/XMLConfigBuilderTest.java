@@ -2342,7 +2342,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "                   <attribute>name</attribute>\n"
                 + "               </attributes>\n"
                 + "           </index>\n"
-                + "           <index>\n"
+                + "           <index primitive-keys=\"true\">\n"
                 + "               <attributes>\n"
                 + "                   <attribute>age</attribute>\n"
                 + "               </attributes>\n"
@@ -2357,6 +2357,8 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertFalse(mapConfig.getIndexConfigs().isEmpty());
         assertIndexEqual("name", false, mapConfig.getIndexConfigs().get(0));
         assertIndexEqual("age", true, mapConfig.getIndexConfigs().get(1));
+        assertFalse(mapConfig.getIndexConfigs().get(0).isPrimitiveKeys());
+        assertTrue(mapConfig.getIndexConfigs().get(1).isPrimitiveKeys());
     }
 
     private static void assertIndexEqual(String expectedAttribute, boolean expectedOrdered, IndexConfig indexConfig) {
@@ -2384,6 +2386,23 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         assertAttributeEqual("weight", "com.car.WeightExtractor", mapConfig.getAttributeConfigs().get(1));
     }
 
+    @Test
+    public void testColumnarAttributesConfig() {
+        String xml = HAZELCAST_START_TAG
+                + "   <map name=\"people\">\n"
+                + "       <columnar-attributes>\n"
+                + "           <attribute>age</attribute>\n"
+                + "           <attribute>address.zip</attribute>\n"
+                + "       </columnar-attributes>"
+                + "   </map>"
+                + HAZELCAST_END_TAG;
+
+        Config config = buildConfig(xml);
+        MapConfig mapConfig = config.getMapConfig("people");
+
+        assertEquals(Arrays.asList("age", "address.zip"), mapConfig.getColumnarAttributes());
+    }
+
     @Override
     @Test
     public void testAttributeConfig_noName_emptyTag() {
@@ -2353,7 +2353,8 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "          attributes:\n"
                 + "            - \"name\"\n"
                 + "        - attributes:\n"
-                + "          - \"age\"\n";
+                + "          - \"age\"\n"
+                + "          primitive-keys: true\n";
 
         Config config = buildConfig(yaml);
         MapConfig mapConfig = config.getMapConfig("people");
@@ -2361,6 +2362,8 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertFalse(mapConfig.getIndexConfigs().isEmpty());
         assertIndexEqual("name", false, mapConfig.getIndexConfigs().get(0));
         assertIndexEqual("age", true, mapConfig.getIndexConfigs().get(1));
+        assertFalse(mapConfig.getIndexConfigs().get(0).isPrimitiveKeys());
+        assertTrue(mapConfig.getIndexConfigs().get(1).isPrimitiveKeys());
     }
 
     @Override
@@ -2384,6 +2387,22 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         assertAttributeEqual("weight", "com.car.WeightExtractor", mapConfig.getAttributeConfigs().get(1));
     }
 
+    @Test
+    public void testColumnarAttributesConfig() {
+        String yaml = ""
+                + "hazelcast:\n"
+                + "  map:\n"
+                + "    people:\n"
+                + "      columnar-attributes:\n"
+                + "        - age\n"
+                + "        - address.zip\n";
+
+        Config config = buildConfig(yaml);
+        MapConfig mapConfig = config.getMapConfig("people");
+
+        assertEquals(Arrays.asList("age", "address.zip"), mapConfig.getColumnarAttributes());
+    }
+
     @Override
     @Test(expected = IllegalArgumentException.class)
     public void testAttributeConfig_noName_emptyTag() {
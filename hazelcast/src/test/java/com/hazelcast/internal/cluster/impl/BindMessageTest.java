@@ -70,6 +70,29 @@ public class BindMessageTest {
         assertEquals(uuid, deserialized.getUuid());
     }
 
+    @Test
+    public void testSerialization_withCompression() throws Exception {
+        bindMessage = new BindMessage(BindMessage.COMPRESSION_SCHEMA_VERSION, localAddresses(), targetAddress, false, uuid,
+                true, 42);
+        Data serialized = serializationService.toData(bindMessage);
+        BindMessage deserialized = serializationService.toObject(serialized);
+        assertEquals(BindMessage.COMPRESSION_SCHEMA_VERSION, deserialized.getSchemaVersion());
+        assertEquals(localAddresses(), deserialized.getLocalAddresses());
+        assertEquals(uuid, deserialized.getUuid());
+        assertTrue(deserialized.isCompression());
+        assertEquals(42, deserialized.getDictionaryId());
+    }
+
+    @Test
+    public void testSerialization_whenOlderSchemaVersion_thenCompressionNotSent() throws Exception {
+        bindMessage = new BindMessage((byte) 1, localAddresses(), targetAddress, false, uuid, true, 42);
+        Data serialized = serializationService.toData(bindMessage);
+        BindMessage deserialized = serializationService.toObject(serialized);
+        assertEquals(localAddresses(), deserialized.getLocalAddresses());
+        assertFalse(deserialized.isCompression());
+        assertEquals(0, deserialized.getDictionaryId());
+    }
+
     @Test
     public void testSerialization_whenBindMessageEmpty() {
         bindMessage = new BindMessage();
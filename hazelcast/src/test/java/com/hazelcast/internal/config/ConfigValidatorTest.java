@@ -83,14 +83,27 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkMapConfig(getMapConfig(OBJECT), nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
     }
 
-    /**
-     * Not supported in open source version, so test is expected to throw exception.
-     */
-    @Test(expected = InvalidConfigurationException.class)
+    @Test
     public void checkMapConfig_NATIVE() {
+        nativeMemoryConfig.setEnabled(true);
+
         checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_NATIVE_whenNativeMemoryDisabled() {
+        checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkMapConfig_NATIVE_withHeapMaxSizePolicy() {
+        nativeMemoryConfig.setEnabled(true);
+        MapConfig mapConfig = getMapConfig(NATIVE);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.USED_HEAP_SIZE);
+
+        checkMapConfig(mapConfig, nativeMemoryConfig, splitBrainMergePolicyProvider, properties);
+    }
+
     private MapConfig getMapConfig(InMemoryFormat inMemoryFormat) {
         return new MapConfig()
                 .setInMemoryFormat(inMemoryFormat);
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TestRule;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StandardMemoryManagerTest {
+
+    private static final long CAPACITY = 1024;
+
+    @Rule
+    public final TestRule unsafeAvailabilityRule = new TestIgnoreRuleAccordingToUnsafeAvailability();
+
+    private StandardMemoryManager memoryManager;
+    private MemoryAllocator malloc;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(CAPACITY);
+        malloc = memoryManager.getAllocator();
+    }
+
+    @After
+    public void tearDown() {
+        memoryManager.dispose();
+    }
+
+    @Test
+    public void testAllocate_zeroesAndAccountsMemory() {
+        long address = malloc.allocate(64);
+
+        assertEquals(0L, MEM.getLong(address + 56));
+        assertEquals(64, memoryManager.getUsedNative());
+        assertEquals(CAPACITY - 64, memoryManager.getFreeNative());
+
+        malloc.free(address, 64);
+        assertEquals(0, memoryManager.getUsedNative());
+    }
+
+    @Test
+    public void testReallocate_keepsContentAndAccountsMemory() {
+        long address = malloc.allocate(8);
+        MEM.putLong(address, 42L);
+
+        address = malloc.reallocate(address, 8, 128);
+        assertEquals(42L, MEM.getLong(address));
+        assertEquals(0L, MEM.getLong(address + 120));
+        assertEquals(128, memoryManager.getUsedNative());
+
+        address = malloc.reallocate(address, 128, 16);
+        assertEquals(16, memoryManager.getUsedNative());
+        malloc.free(address, 16);
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testAllocate_whenCapacityExceeded() {
+        malloc.allocate(CAPACITY + 1);
+    }
+
+    @Test
+    public void testAllocate_failureDoesNotLeakAccounting() {
+        try {
+            malloc.allocate(CAPACITY + 1);
+        } catch (NativeOutOfMemoryError expected) {
+            assertEquals(0, memoryManager.getUsedNative());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withNonPositiveCapacity() {
+        new StandardMemoryManager(0);
+    }
+}
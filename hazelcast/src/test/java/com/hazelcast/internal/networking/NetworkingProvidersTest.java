@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking;
+
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.internal.networking.nio.NioNetworking;
+import com.hazelcast.internal.networking.nio.NioNetworkingProvider;
+import com.hazelcast.internal.networking.nio.NioThreadHost;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.LoggingService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertInstanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NetworkingProvidersTest {
+
+    private final ClassLoader classLoader = NetworkingProvidersTest.class.getClassLoader();
+
+    private NioNetworking.Context ctx;
+    private ILogger logger;
+
+    @Before
+    public void setup() {
+        LoggingService loggingService = mock(LoggingService.class);
+        logger = mock(ILogger.class);
+        when(loggingService.getLogger(ArgumentMatchers.any(Class.class))).thenReturn(logger);
+
+        ctx = new NioNetworking.Context().loggingService(loggingService);
+    }
+
+    @Test
+    public void find_nio() {
+        assertInstanceOf(NioNetworkingProvider.class, NetworkingProviders.find("nio", classLoader));
+        assertInstanceOf(NioNetworkingProvider.class, NetworkingProviders.find("NIO", classLoader));
+    }
+
+    @Test
+    public void find_whenUnknown() {
+        assertNull(NetworkingProviders.find("unknown", classLoader));
+    }
+
+    @Test
+    public void create_nio() {
+        Networking networking = NetworkingProviders.create("nio", ctx, classLoader, logger);
+
+        assertInstanceOf(NioNetworking.class, networking);
+        verify(logger, never()).warning(anyString());
+    }
+
+    @Test
+    public void create_whenUnknown_thenFallbackToNio() {
+        Networking networking = NetworkingProviders.create("unknown", ctx, classLoader, logger);
+
+        assertInstanceOf(NioNetworking.class, networking);
+        verify(logger).warning(anyString());
+    }
+
+    @Test
+    public void create_whenUnavailable_thenFallbackToNio() {
+        NetworkingProvider provider = NetworkingProviders.find(UnavailableNetworkingProvider.NAME, classLoader);
+        assertInstanceOf(UnavailableNetworkingProvider.class, provider);
+        assertFalse(provider.isAvailable());
+
+        Networking networking = NetworkingProviders.create(UnavailableNetworkingProvider.NAME, ctx, classLoader, logger);
+
+        assertInstanceOf(NioNetworking.class, networking);
+        verify(logger).warning(anyString());
+    }
+
+    @Test
+    public void create_nio_withProviderNeutralContext() {
+        NetworkingContext context = new NetworkingContext().loggingService(ctx.getLoggingService());
+
+        Networking networking = NetworkingProviders.create("nio", context, classLoader, logger);
+
+        assertInstanceOf(NioNetworking.class, networking);
+    }
+
+    @Test
+    public void create_otherProvider() {
+        Networking networking = NetworkingProviders.create(OtherNetworkingProvider.NAME, ctx, classLoader, logger);
+
+        assertNotNull(networking);
+        assertFalse(networking instanceof NioNetworking);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void create_otherProvider_whenInputThreadsHosted_thenRejected() {
+        ctx.inputThreadHost(mock(NioThreadHost.class));
+
+        NetworkingProviders.create(OtherNetworkingProvider.NAME, ctx, classLoader, logger);
+    }
+
+    public static class UnavailableNetworkingProvider implements NetworkingProvider {
+
+        static final String NAME = "unavailable";
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return false;
+        }
+
+        @Override
+        public Networking create(NetworkingContext context) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static class OtherNetworkingProvider implements NetworkingProvider {
+
+        static final String NAME = "other";
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public Networking create(NetworkingContext context) {
+            return mock(Networking.class);
+        }
+    }
+}
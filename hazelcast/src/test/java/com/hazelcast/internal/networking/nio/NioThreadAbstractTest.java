@@ -37,9 +37,12 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
@@ -111,6 +114,23 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
         assertStillRunning();
     }
 
+    @Test
+    public void whenDelayedTask_thenExecutedOnceDeadlinePassed() {
+        startThread();
+
+        AtomicLong deadlineNanos = new AtomicLong();
+        AtomicLong executedNanos = new AtomicLong();
+        // delayed tasks can only be added by the thread running the select loop
+        thread.addTaskAndWakeup(() -> {
+            deadlineNanos.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100));
+            thread.addDelayedTask(() -> executedNanos.set(System.nanoTime()), deadlineNanos.get());
+        });
+
+        assertTrueEventually(() -> assertNotEquals(0, executedNanos.get()));
+        assertTrue(executedNanos.get() - deadlineNanos.get() >= 0);
+        assertStillRunning();
+    }
+
     @Test
     public void whenInvalidSelectionKey_thenHandlerOnFailureCalledWithCancelledKeyException() {
         startThread();
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.tcp.TcpIpConnection;
+import com.hazelcast.internal.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.networking.nio.NioOutboundPipeline.MAX_LINGER_BACKOFF;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class SelectLinger_NioOutboundPipelineTest extends TcpIpConnection_AbstractTest {
+
+    // long enough to reliably observe a lingering pipeline from the test thread
+    private static final int LINGER_MICROS = 100000;
+    private static final int BURST_FRAMES = 10;
+
+    private final AtomicInteger packetsB = new AtomicInteger();
+
+    private TcpIpConnection connection;
+    private NioOutboundPipeline pipeline;
+
+    @Before
+    public void setup() throws Exception {
+        networkingFactory = new SelectLinger_NioNetworkingFactory(LINGER_MICROS);
+        super.setup();
+        startAllNetworkingServices();
+        ioServiceB.packetConsumer = packet -> packetsB.incrementAndGet();
+
+        connection = connect(networkingServiceA, addressB);
+        pipeline = ((NioChannel) connection.getChannel()).outboundPipeline();
+        // let the frames of the connection setup get written
+        sleepMillis(2 * (int) MICROSECONDS.toMillis(LINGER_MICROS));
+    }
+
+    @Test
+    public void whenFramesWrittenWhileLingering_thenCoalesced() {
+        awaitLingering();
+
+        long writesBefore = pipeline.writes();
+        long coalescedBefore = pipeline.coalescedFrames();
+        int expectedPackets = packetsB.get() + BURST_FRAMES;
+        for (int i = 1; i < BURST_FRAMES; i++) {
+            connection.write(newPacket());
+        }
+
+        awaitPackets(expectedPackets);
+        // the packets can be received before the writing IO thread updates its counters
+        assertTrueEventually(() -> {
+            assertEquals(1, pipeline.writes() - writesBefore);
+            assertEquals(BURST_FRAMES - 1, pipeline.coalescedFrames() - coalescedBefore);
+            assertTrue(pipeline.framesPerWrite() > 1);
+            assertEquals(0, pipeline.lingerBackoff());
+        });
+    }
+
+    @Test
+    public void whenNothingCoalesced_thenLingeringBacksOff() {
+        // enough frames to back off to the maximum from any initial state
+        int frames = 4 * MAX_LINGER_BACKOFF;
+        long writesBefore = pipeline.writes();
+        long coalescedBefore = pipeline.coalescedFrames();
+
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            int expectedPackets = packetsB.get() + 1;
+            connection.write(newPacket());
+            awaitPackets(expectedPackets);
+        }
+        long durationMicros = NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+        // without the backoff every frame would wait for the linger time
+        assertTrue(durationMicros < (long) frames * LINGER_MICROS / 2);
+        assertTrueEventually(() -> {
+            assertEquals(MAX_LINGER_BACKOFF, pipeline.lingerBackoff());
+            assertEquals(0, pipeline.coalescedFrames() - coalescedBefore);
+            assertEquals(frames, pipeline.writes() - writesBefore);
+        });
+    }
+
+    /**
+     * Writes single frames until one of them is taken by the pipeline, but not
+     * written to the socket for a while; so the pipeline is lingering.
+     */
+    private void awaitLingering() {
+        for (; ; ) {
+            long framesBefore = pipeline.framesWritten();
+            long bytesBefore = pipeline.bytesWritten();
+            int expectedPackets = packetsB.get() + 1;
+            connection.write(newPacket());
+            assertTrueEventually(() -> assertEquals(framesBefore + 1, pipeline.framesWritten()));
+
+            sleepMillis(20);
+            if (pipeline.bytesWritten() == bytesBefore) {
+                return;
+            }
+            // lingering was backed off for this frame
+            awaitPackets(expectedPackets);
+        }
+    }
+
+    // polls rather than using assertTrueEventually, which would dominate the measured durations
+    private void awaitPackets(int expectedPackets) {
+        long deadlineNanos = System.nanoTime() + SECONDS.toNanos(ASSERT_TRUE_EVENTUALLY_TIMEOUT);
+        while (packetsB.get() < expectedPackets) {
+            assertTrue("Timeout: packets not received", System.nanoTime() - deadlineNanos < 0);
+            LockSupport.parkNanos(MICROSECONDS.toNanos(10));
+        }
+        assertEquals(expectedPackets, packetsB.get());
+    }
+
+    private Packet newPacket() {
+        return new Packet(serializationService.toBytes("foo"));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.impl.HazelcastInstanceFactory;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.Accessors.getNode;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Runs a small cluster with real networking in thread-per-core mode.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ThreadPerCoreIntegrationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Before
+    @After
+    public void killAllHazelcastInstances() {
+        HazelcastClient.shutdownAll();
+        HazelcastInstanceFactory.terminateAll();
+    }
+
+    @Test
+    public void testMembersAndClient() {
+        Config config = smallInstanceConfig();
+        config.setClusterName(randomName());
+        config.setProperty(ClusterProperty.THREAD_PER_CORE_ENABLED.getName(), "true");
+        config.setProperty(ClusterProperty.PARTITION_OPERATION_THREAD_COUNT.getName(), "3");
+        config.setProperty(ClusterProperty.IO_BALANCER_INTERVAL_SECONDS.getName(), "1");
+
+        HazelcastInstance member1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance member2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, member1, member2);
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setClusterName(config.getClusterName());
+        HazelcastInstance client = HazelcastClient.newHazelcastClient(clientConfig);
+
+        IMap<Integer, Integer> map1 = member1.getMap("map");
+        IMap<Integer, Integer> clientMap = client.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map1.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            clientMap.set(i, i + 1);
+        }
+
+        IMap<Integer, Integer> map2 = member2.getMap("map");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i + 1, (int) map2.get(i));
+        }
+        assertEquals(ENTRY_COUNT, map1.size());
+
+        assertInputThreadsHosted(member1);
+        assertInputThreadsHosted(member2);
+
+        member2.shutdown();
+        assertClusterSizeEventually(1, member1);
+        assertEquals(ENTRY_COUNT, clientMap.size());
+    }
+
+    private static void assertInputThreadsHosted(HazelcastInstance instance) {
+        NioNetworking networking = (NioNetworking) getNode(instance).getNetworkingService().getNetworking();
+        OperationExecutorImpl executor
+                = (OperationExecutorImpl) getNodeEngineImpl(instance).getOperationService().getOperationExecutor();
+
+        NioThread[] inputThreads = networking.getInputThreads();
+        assertEquals(executor.getPartitionThreadCount(), inputThreads.length);
+        for (NioThread inputThread : inputThreads) {
+            assertFalse(inputThread.isAlive());
+        }
+    }
+}
@@ -393,6 +393,11 @@ public class MockIOService implements IOService {
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
+    @Override
+    public PacketCompressor createPacketCompressor() {
+        return null;
+    }
+
     @Override
     public RestApiConfig getRestApiConfig() {
         return new RestApiConfig();
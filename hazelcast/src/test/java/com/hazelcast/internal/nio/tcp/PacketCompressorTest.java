@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nio.tcp;
+
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_COMPRESSED;
+import static com.hazelcast.internal.nio.tcp.PacketCompressor.NO_DICTIONARY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketCompressorTest {
+
+    private static final byte[] DICTIONARY = "com.hazelcast.internal.nio.tcp.PacketCompressorTest$Person".getBytes(UTF_8);
+
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void whenNotEnabled_thenNotCompressed() {
+        PacketCompressor compressor = new PacketCompressor(100, null);
+        Packet packet = newPacket(new byte[2000]);
+
+        assertSame(packet, compressor.compress(packet));
+        assertFalse(compressor.isEnabled());
+    }
+
+    @Test
+    public void whenBelowThreshold_thenNotCompressed() {
+        PacketCompressor compressor = enabledCompressor(null, NO_DICTIONARY);
+        Packet packet = newPacket(new byte[50]);
+
+        assertSame(packet, compressor.compress(packet));
+        assertEquals(0, compressor.compressedPackets());
+    }
+
+    @Test
+    public void whenIncompressible_thenNotCompressed() {
+        PacketCompressor compressor = enabledCompressor(null, NO_DICTIONARY);
+        byte[] bytes = new byte[2000];
+        new Random().nextBytes(bytes);
+        Packet packet = newPacket(bytes);
+
+        assertSame(packet, compressor.compress(packet));
+        assertEquals(0, compressor.compressedPackets());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        PacketCompressor compressor = enabledCompressor(null, NO_DICTIONARY);
+        Packet packet = newPacket(new byte[2000])
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(Packet.FLAG_URGENT | Packet.FLAG_OP_RESPONSE);
+
+        Packet compressed = compressor.compress(packet);
+
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < packet.totalSize());
+        assertEquals(packet.getPartitionId(), compressed.getPartitionId());
+        assertFalse(packet.isFlagRaised(FLAG_COMPRESSED));
+        assertEquals(1, compressor.compressedPackets());
+        assertEquals(packet.totalSize(), compressor.compressionInputBytes());
+        assertEquals(compressed.totalSize(), compressor.compressionOutputBytes());
+
+        PacketCompressor decompressor = new PacketCompressor(100, null);
+        Packet decompressed = decompressor.decompress(compressed);
+
+        assertEquals(packet, decompressed);
+        assertEquals(1, decompressor.decompressedPackets());
+    }
+
+    @Test
+    public void whenLargePayload_thenBufferNotRetained() throws Exception {
+        PacketCompressor compressor = enabledCompressor(null, NO_DICTIONARY);
+        Packet largePacket = newPacket(new byte[2 * PacketCompressor.MAX_RETAINED_BUFFER_SIZE]);
+
+        Packet compressed = compressor.compress(largePacket);
+
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertEquals(0, compressor.retainedBufferSize());
+        assertEquals(largePacket, new PacketCompressor(100, null).decompress(compressed));
+
+        Packet smallPacket = newPacket(new byte[2000]);
+        compressed = compressor.compress(smallPacket);
+
+        assertTrue(compressor.retainedBufferSize() > 0);
+        assertTrue(compressor.retainedBufferSize() <= PacketCompressor.MAX_RETAINED_BUFFER_SIZE);
+        assertEquals(smallPacket, new PacketCompressor(100, null).decompress(compressed));
+    }
+
+    @Test
+    public void testRoundTrip_withDictionary() throws Exception {
+        PacketCompressor compressor = enabledCompressor(DICTIONARY, dictionaryId(DICTIONARY));
+        PacketCompressor plainCompressor = enabledCompressor(null, NO_DICTIONARY);
+        Packet packet = newPacket(repeatedString());
+
+        Packet compressed = compressor.compress(packet);
+
+        assertTrue(compressed.totalSize() < plainCompressor.compress(packet).totalSize());
+        assertEquals(packet, new PacketCompressor(100, DICTIONARY).decompress(compressed));
+    }
+
+    @Test
+    public void whenDictionaryDiffers_thenDictionaryNotUsed() throws Exception {
+        byte[] otherDictionary = "some other dictionary".getBytes(UTF_8);
+        PacketCompressor compressor = enabledCompressor(DICTIONARY, dictionaryId(otherDictionary));
+        Packet packet = newPacket(repeatedString());
+
+        Packet compressed = compressor.compress(packet);
+
+        assertTrue(compressed.isFlagRaised(FLAG_COMPRESSED));
+        assertEquals(packet, new PacketCompressor(100, otherDictionary).decompress(compressed));
+        assertEquals(packet, new PacketCompressor(100, null).decompress(compressed));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void whenDictionaryMissing_thenDecompressionFails() throws Exception {
+        PacketCompressor compressor = enabledCompressor(DICTIONARY, dictionaryId(DICTIONARY));
+        Packet compressed = compressor.compress(newPacket(repeatedString()));
+
+        new PacketCompressor(100, null).decompress(compressed);
+    }
+
+    @Test
+    public void testDictionaryId() {
+        assertEquals(NO_DICTIONARY, new PacketCompressor(100, null).dictionaryId());
+        assertNotEquals(NO_DICTIONARY, dictionaryId(DICTIONARY));
+        assertEquals(dictionaryId(DICTIONARY), dictionaryId(DICTIONARY.clone()));
+    }
+
+    private static PacketCompressor enabledCompressor(byte[] dictionary, int remoteDictionaryId) {
+        PacketCompressor compressor = new PacketCompressor(100, dictionary);
+        compressor.enable(remoteDictionaryId);
+        return compressor;
+    }
+
+    private static int dictionaryId(byte[] dictionary) {
+        return new PacketCompressor(100, dictionary).dictionaryId();
+    }
+
+    private Packet newPacket(Object value) {
+        return new Packet(serializationService.toBytes(value), 1);
+    }
+
+    private static String repeatedString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            sb.append(new String(DICTIONARY, UTF_8)).append(i);
+        }
+        return sb.toString();
+    }
+}
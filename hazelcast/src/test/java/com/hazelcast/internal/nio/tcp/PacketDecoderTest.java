@@ -36,8 +36,11 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -48,10 +51,11 @@ public class PacketDecoderTest extends HazelcastTestSupport {
     private InternalSerializationService serializationService;
     private Counter normalPacketCounter = SwCounter.newSwCounter();
     private Counter priorityPacketCounter = SwCounter.newSwCounter();
+    private TcpIpConnection connection;
 
     @Before
     public void setup() throws Exception {
-        TcpIpConnection connection = mock(TcpIpConnection.class);
+        connection = mock(TcpIpConnection.class);
 
         dispatcher = new ConsumerStub();
         decoder = new PacketDecoder(connection, dispatcher);
@@ -119,6 +123,38 @@ public class PacketDecoderTest extends HazelcastTestSupport {
         assertEquals(1, priorityPacketCounter.get());
     }
 
+    @Test
+    public void whenCompressedPacket() throws Exception {
+        PacketCompressor compressor = new PacketCompressor(100, null);
+        compressor.enable(PacketCompressor.NO_DICTIONARY);
+        when(connection.getPacketCompressor()).thenReturn(compressor);
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        Packet packet = new Packet(serializationService.toBytes(new byte[2000]), 1)
+                .raiseFlags(Packet.FLAG_URGENT);
+        Packet compressed = compressor.compress(packet);
+        assertTrue(compressed.isFlagRaised(Packet.FLAG_COMPRESSED));
+        new PacketIOHelper().writeTo(compressed, src);
+
+        decoder.src(src);
+        decoder.onRead();
+
+        assertEquals(singletonList(packet), dispatcher.packets);
+        assertEquals(1, priorityPacketCounter.get());
+        assertEquals(1, compressor.decompressedPackets());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenCompressedPacket_andCompressionDisabled() throws Exception {
+        PacketCompressor compressor = new PacketCompressor(100, null);
+        compressor.enable(PacketCompressor.NO_DICTIONARY);
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        Packet packet = new Packet(serializationService.toBytes(new byte[2000]));
+        new PacketIOHelper().writeTo(compressor.compress(packet), src);
+
+        decoder.src(src);
+        decoder.onRead();
+    }
+
     class ConsumerStub implements Consumer<Packet> {
         private List<Packet> packets = new LinkedList<Packet>();
 
@@ -35,9 +35,14 @@ import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
+import static com.hazelcast.internal.networking.GatheringOutboundHandler.GATHERING_DISABLED;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -90,6 +95,104 @@ public class PacketEncoderTest extends HazelcastTestSupport {
         assertEquals(DIRTY, result);
     }
 
+    @Test
+    public void whenLargeValue_thenGathered() {
+        final Packet packet = new Packet(serializationService.toBytes(new byte[2000]));
+        final Packet next = new Packet(serializationService.toBytes("foobar"));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(packet);
+        src.queue.add(next);
+
+        encoder.dst(dst);
+        encoder.src(src);
+        encoder.gatheringThreshold(1000);
+
+        assertEquals(DIRTY, encoder.onWrite());
+
+        // only the header is written to the dst, the value is gathered
+        ByteBuffer gathered = encoder.gathered();
+        assertNotNull(gathered);
+        assertEquals(packet.totalSize(), gathered.remaining());
+        ByteBuffer wire = ByteBuffer.allocate(packet.getFrameLength() + next.getFrameLength());
+        wire.put(dst);
+
+        // nothing is written while the gathered value is pending
+        assertEquals(DIRTY, encoder.onWrite());
+        assertFalse(dst.hasRemaining());
+
+        wire.put(gathered);
+        assertNull(encoder.gathered());
+        assertEquals(CLEAN, encoder.onWrite());
+        wire.put(dst);
+
+        wire.flip();
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(packet, reader.readFrom(wire));
+        assertEquals(next, reader.readFrom(wire));
+    }
+
+    @Test
+    public void whenGatheringDisabled_thenPendingValueCopied() {
+        final Packet packet = new Packet(serializationService.toBytes(new byte[2000]));
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(packet);
+
+        encoder.dst(dst);
+        encoder.src(src);
+        encoder.gatheringThreshold(1000);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        ByteBuffer wire = ByteBuffer.allocate(packet.getFrameLength());
+        wire.put(dst);
+
+        encoder.gatheringThreshold(GATHERING_DISABLED);
+        for (; ; ) {
+            HandlerStatus result = encoder.onWrite();
+            wire.put(dst);
+            if (result == CLEAN) {
+                break;
+            }
+        }
+        assertNull(encoder.gathered());
+
+        wire.flip();
+        assertEquals(packet, new PacketIOHelper().readFrom(wire));
+    }
+
+    @Test
+    public void whenCompressionEnabled_thenLargePacketCompressed() {
+        final Packet small = new Packet(serializationService.toBytes("foobar"));
+        final Packet large = new Packet(serializationService.toBytes(new byte[2000]), 1);
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(small);
+        src.queue.add(large);
+
+        PacketCompressor compressor = new PacketCompressor(100, null);
+        compressor.enable(PacketCompressor.NO_DICTIONARY);
+        encoder = new PacketEncoder(compressor);
+        encoder.dst(dst);
+        encoder.src(src);
+
+        assertEquals(CLEAN, encoder.onWrite());
+
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(small, reader.readFrom(dst));
+        Packet compressed = reader.readFrom(dst);
+        assertTrue(compressed.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertTrue(compressed.totalSize() < large.totalSize());
+        assertEquals(1, compressor.compressedPackets());
+        assertFalse(large.isFlagRaised(Packet.FLAG_COMPRESSED));
+    }
+
     static class PacketSupplier implements Supplier<Packet> {
         Queue<Packet> queue = new LinkedBlockingQueue<Packet>();
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_PARKED_OPERATIONS_MAX;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionStateManager_MigrationParkingTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenReset_thenParkedOperationsReplayed() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig()
+                .setProperty(PARTITION_MIGRATION_PARKED_OPERATIONS_MAX.getName(), "10"));
+        warmUpPartitions(instance);
+        PartitionStateManager partitionStateManager
+                = ((InternalPartitionServiceImpl) getPartitionService(instance)).getPartitionStateManager();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        AtomicInteger counter = new AtomicInteger();
+        CompletableFuture<Object> future = getOperationService(instance)
+                .invokeOnPartition(null, new CountingOperation(counter), 0);
+        assertTrueAllTheTime(() -> assertEquals(0, counter.get()), 1);
+        assertFalse(future.isDone());
+
+        partitionStateManager.reset();
+
+        assertFalse(partitionStateManager.isMigrating(0));
+        assertTrueEventually(() -> assertEquals(1, counter.get()));
+        assertEquals(Boolean.TRUE, future.join());
+    }
+
+    private static class CountingOperation extends Operation {
+
+        private final AtomicInteger counter;
+
+        CountingOperation(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void run() {
+            counter.incrementAndGet();
+        }
+
+        @Override
+        public boolean validatesTarget() {
+            return false;
+        }
+
+        @Override
+        public Object getResponse() {
+            return true;
+        }
+    }
+}
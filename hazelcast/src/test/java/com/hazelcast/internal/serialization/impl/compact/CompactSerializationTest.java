@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.compact;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactSerializationTest extends HazelcastTestSupport {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testRoundTrip() {
+        Employee employee = new Employee(42, "Joe", 3500.5, true, 'X', new Address("Istanbul", 34000), new long[]{1, 2, 3});
+
+        Data data = ss.toData(employee);
+
+        assertEquals(SerializationConstants.TYPE_COMPACT, data.getType());
+        assertTrue(data.isCompact());
+        assertEquals(employee, ss.toObject(data));
+    }
+
+    @Test
+    public void testRoundTrip_withNullFields() {
+        Employee employee = new Employee(1, null, 0, false, 'a', null, null);
+
+        assertEquals(employee, ss.toObject(ss.toData(employee)));
+    }
+
+    @Test
+    public void testRoundTrip_whenNestedInOtherObject() {
+        Object[] employees = {new Employee(1, "A", 1, true, 'a', null, null),
+                new Employee(2, "B", 2, false, 'b', new Address("Ankara", 6000), new long[0])};
+
+        assertArrayEquals(employees, (Object[]) ss.toObject(ss.toData(employees)));
+    }
+
+    @Test
+    public void testSchema_fixedSizeFieldsAtFixedOffsets() {
+        ss.toData(new Employee());
+        Schema schema = ss.getCompactSchemaRegistry().getSchemas().iterator().next();
+
+        assertEquals(Employee.class.getName(), schema.getTypeName());
+        assertEquals(8 + 4 + 2 + 1, schema.getFixedSize());
+        assertEquals(3, schema.getVariableFieldCount());
+        assertEquals(0, schema.getField("salary").getOffset());
+        assertEquals(8, schema.getField("id").getOffset());
+        assertEquals(12, schema.getField("grade").getOffset());
+        assertEquals(14, schema.getField("active").getOffset());
+        assertEquals(FieldKind.STRING, schema.getField("name").getKind());
+    }
+
+    @Test
+    public void testSchema_serialization() {
+        Schema schema = CompactClassBinding.of(Employee.class).getSchema();
+
+        Schema deserialized = ss.toObject(ss.toData(schema));
+
+        assertEquals(schema, deserialized);
+        assertEquals(schema.getSchemaId(), deserialized.getSchemaId());
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        Employee employee = new Employee(42, "Joe", 3500.5, true, 'X', new Address("Istanbul", 34000), new long[]{1, 2, 3});
+        SerializableEmployee serializableEmployee = new SerializableEmployee(employee);
+
+        int compactSize = ss.toData(employee).totalSize();
+        int javaSize = ss.toData(serializableEmployee).totalSize();
+
+        assertTrue("compact: " + compactSize + ", java: " + javaSize, compactSize < javaSize / 2);
+    }
+
+    @Test
+    public void testSchemaReplicatedToMembers_andQueryOnBinaryMap() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig();
+        config.getMapConfig(mapName).setInMemoryFormat(InMemoryFormat.BINARY);
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance[] instances = {factory.newHazelcastInstance(config), factory.newHazelcastInstance(config)};
+        warmUpPartitions(instances);
+
+        IMap<Integer, Employee> map = instances[0].getMap(mapName);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, new Employee(i, "name-" + i, i * 10, i % 2 == 0, 'a', new Address("city-" + i % 10, i), null));
+        }
+        // the schema is replicated before the first put is sent
+        long schemaId = CompactClassBinding.of(Employee.class).getSchema().getSchemaId();
+        assertNotNull(getSerializationService(instances[1]).getCompactSchemaRegistry().getLocalSchema(schemaId));
+
+        IMap<Integer, Employee> otherMap = instances[1].getMap(mapName);
+        Collection<Employee> result = otherMap.values(Predicates.and(
+                Predicates.equal("active", true), Predicates.equal("address.city", "city-4")));
+        assertEquals(10, result.size());
+        for (Employee employee : result) {
+            assertEquals(4, employee.id % 10);
+        }
+        assertEquals(10, otherMap.keySet(Predicates.greaterEqual("salary", 900.0)).size());
+
+        HazelcastInstance joined = factory.newHazelcastInstance(config);
+        assertTrueEventually(() -> assertNotNull(getSerializationService(joined)
+                .getCompactSchemaRegistry().getLocalSchema(schemaId)));
+    }
+
+    @Test
+    public void testUnknownSchemaFetchedWithoutBlockingPartitionThread() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig();
+        config.getMapConfig(mapName).setInMemoryFormat(InMemoryFormat.BINARY);
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance[] instances = factory.newInstances(config);
+        warmUpPartitions(instances);
+
+        // serialized elsewhere, the schema is known by the first member only
+        Data data = ss.toData(new Address("Istanbul", 34000));
+        Schema schema = CompactClassBinding.of(Address.class).getSchema();
+        getSerializationService(instances[0]).getCompactSchemaRegistry().putSchema(schema);
+        SchemaRegistry registry = getSerializationService(instances[1]).getCompactSchemaRegistry();
+        assertNull(registry.getLocalSchema(schema.getSchemaId()));
+
+        String key = generateKeyOwnedBy(instances[1]);
+        IMap<String, Object> map = instances[1].getMap(mapName);
+        map.set(key, data);
+
+        // the partition thread fails over to a retry while the schema is fetched
+        assertEquals(34000, (int) map.executeOnKey(key, new ZipCodeProcessor()));
+        assertNotNull(registry.getLocalSchema(schema.getSchemaId()));
+    }
+
+    static class ZipCodeProcessor implements EntryProcessor<String, Object, Integer>, Serializable {
+
+        @Override
+        public Integer process(Map.Entry<String, Object> entry) {
+            return ((Address) entry.getValue()).zipCode;
+        }
+    }
+
+    static class Employee implements Compact {
+
+        private int id;
+        private String name;
+        private double salary;
+        private boolean active;
+        private char grade;
+        private Address address;
+        private long[] history;
+        private transient int cached;
+
+        Employee() {
+        }
+
+        Employee(int id, String name, double salary, boolean active, char grade, Address address, long[] history) {
+            this.id = id;
+            this.name = name;
+            this.salary = salary;
+            this.active = active;
+            this.grade = grade;
+            this.address = address;
+            this.history = history;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Employee that = (Employee) o;
+            return id == that.id && Double.compare(that.salary, salary) == 0 && active == that.active
+                    && grade == that.grade && Objects.equals(name, that.name) && Objects.equals(address, that.address)
+                    && Arrays.equals(history, that.history);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    static class Address implements Compact {
+
+        private String city;
+        private int zipCode;
+
+        Address() {
+        }
+
+        Address(String city, int zipCode) {
+            this.city = city;
+            this.zipCode = zipCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Address that = (Address) o;
+            return zipCode == that.zipCode && Objects.equals(city, that.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return zipCode;
+        }
+    }
+
+    static class SerializableEmployee implements Serializable {
+
+        private final int id;
+        private final String name;
+        private final double salary;
+        private final boolean active;
+        private final char grade;
+        private final SerializableAddress address;
+        private final long[] history;
+
+        SerializableEmployee(Employee employee) {
+            this.id = employee.id;
+            this.name = employee.name;
+            this.salary = employee.salary;
+            this.active = employee.active;
+            this.grade = employee.grade;
+            this.address = new SerializableAddress(employee.address.city, employee.address.zipCode);
+            this.history = employee.history;
+        }
+    }
+
+    static class SerializableAddress implements Serializable {
+
+        private final String city;
+        private final int zipCode;
+
+        SerializableAddress(String city, int zipCode) {
+            this.city = city;
+            this.zipCode = zipCode;
+        }
+    }
+}
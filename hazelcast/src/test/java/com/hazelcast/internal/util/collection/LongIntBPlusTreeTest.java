@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LongIntBPlusTreeTest {
+
+    private final LongIntBPlusTree tree = new LongIntBPlusTree(4);
+    private final NavigableSet<Pair> model = new TreeSet<>();
+
+    @Test
+    public void shouldInitiallyBeEmpty() {
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.size());
+        assertEquals(0, collectAll().size());
+    }
+
+    @Test
+    public void testInsertAndContains() {
+        assertTrue(tree.insert(5, 1));
+        assertTrue(tree.insert(5, 2));
+        assertFalse(tree.insert(5, 1));
+
+        assertEquals(2, tree.size());
+        assertTrue(tree.contains(5, 1));
+        assertTrue(tree.contains(5, 2));
+        assertFalse(tree.contains(5, 3));
+        assertFalse(tree.contains(6, 1));
+    }
+
+    @Test
+    public void testRemove() {
+        tree.insert(5, 1);
+        tree.insert(7, 1);
+
+        assertTrue(tree.remove(5, 1));
+        assertFalse(tree.remove(5, 1));
+        assertFalse(tree.remove(7, 2));
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.contains(5, 1));
+        assertTrue(tree.contains(7, 1));
+    }
+
+    @Test
+    public void testRange_inclusiveAndExclusiveBounds() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i, i);
+            tree.insert(i, i + 1000);
+        }
+
+        assertEquals(22, collectRange(10, true, 20, true).size());
+        assertEquals(20, collectRange(10, false, 20, true).size());
+        assertEquals(20, collectRange(10, true, 20, false).size());
+        assertEquals(18, collectRange(10, false, 20, false).size());
+        assertEquals(0, collectRange(20, true, 10, true).size());
+        assertEquals(200, collectRange(Long.MIN_VALUE, true, Long.MAX_VALUE, true).size());
+
+        List<Integer> equal = new ArrayList<>();
+        tree.forEachEqual(42, equal::add);
+        assertEquals(2, equal.size());
+        assertTrue(equal.contains(42));
+        assertTrue(equal.contains(1042));
+    }
+
+    @Test
+    public void testExtremeValues() {
+        tree.insert(Long.MIN_VALUE, 0);
+        tree.insert(Long.MAX_VALUE, 0);
+
+        assertEquals(2, collectAll().size());
+        assertEquals(1, collectRange(Long.MIN_VALUE, false, Long.MAX_VALUE, true).size());
+        assertEquals(1, collectRange(Long.MIN_VALUE, true, Long.MAX_VALUE, false).size());
+    }
+
+    @Test
+    public void testClear() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i, i);
+        }
+
+        tree.clear();
+
+        assertTrue(tree.isEmpty());
+        assertEquals(0, collectAll().size());
+        assertTrue(tree.insert(1, 1));
+    }
+
+    @Test
+    public void testOrderedWalks() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i / 2, i);
+        }
+
+        List<Integer> ascending = new ArrayList<>();
+        assertTrue(tree.forEachAscending(45, ascending::add));
+        assertEquals(10, ascending.size());
+        assertEquals(90, (int) ascending.get(0));
+        assertEquals(99, (int) ascending.get(9));
+
+        List<Integer> descending = new ArrayList<>();
+        assertTrue(tree.forEachDescending(4, descending::add));
+        assertEquals(10, descending.size());
+        assertEquals(9, (int) descending.get(0));
+        assertEquals(0, (int) descending.get(9));
+
+        List<Integer> all = new ArrayList<>();
+        assertTrue(tree.forEachDescending(Long.MAX_VALUE, all::add));
+        assertEquals(100, all.size());
+        assertEquals(99, (int) all.get(0));
+    }
+
+    @Test
+    public void testOrderedWalks_stopEarly() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i, i);
+        }
+
+        List<Integer> ascending = new ArrayList<>();
+        assertFalse(tree.forEachAscending(10, id -> ascending.add(id) && ascending.size() < 5));
+        assertEquals(asList(10, 11, 12, 13, 14), ascending);
+
+        List<Integer> descending = new ArrayList<>();
+        assertFalse(tree.forEachDescending(10, id -> descending.add(id) && descending.size() < 5));
+        assertEquals(asList(10, 9, 8, 7, 6), descending);
+
+        assertTrue(tree.forEachAscending(100, id -> false));
+        assertTrue(tree.forEachDescending(-1, id -> false));
+    }
+
+    @Test
+    public void testPairWalk() {
+        for (int i = 0; i < 100; i++) {
+            tree.insert(99 - i, i);
+            model.add(new Pair(99 - i, i));
+        }
+
+        List<Pair> pairs = new ArrayList<>();
+        assertTrue(tree.forEachPair((value, id) -> pairs.add(new Pair(value, id))));
+        assertEquals(new ArrayList<>(model), pairs);
+
+        List<Pair> firstPairs = new ArrayList<>();
+        assertFalse(tree.forEachPair((value, id) -> firstPairs.add(new Pair(value, id)) && firstPairs.size() < 3));
+        assertEquals(pairs.subList(0, 3), firstPairs);
+    }
+
+    @Test
+    public void testRandomOperations_matchSortedSet() {
+        Random random = new Random(1234);
+        for (int i = 0; i < 50000; i++) {
+            long value = random.nextInt(200) - 100;
+            int id = random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertEquals(model.remove(new Pair(value, id)), tree.remove(value, id));
+            } else {
+                assertEquals(model.add(new Pair(value, id)), tree.insert(value, id));
+            }
+            assertEquals(model.size(), tree.size());
+
+            if (i % 1000 == 0) {
+                long from = random.nextInt(200) - 100;
+                long to = from + random.nextInt(50);
+                assertRange(from, random.nextBoolean(), to, random.nextBoolean());
+                assertDescending(from);
+            }
+        }
+
+        // drain to exercise the merges down to an empty tree
+        for (Pair pair : new ArrayList<>(model)) {
+            assertTrue(tree.remove(pair.value, pair.id));
+        }
+        assertTrue(tree.isEmpty());
+        assertEquals(0, collectAll().size());
+    }
+
+    private void assertRange(long from, boolean fromInclusive, long to, boolean toInclusive) {
+        List<Integer> expected = new ArrayList<>();
+        for (Pair pair : model) {
+            boolean aboveFrom = fromInclusive ? pair.value >= from : pair.value > from;
+            boolean belowTo = toInclusive ? pair.value <= to : pair.value < to;
+            if (aboveFrom && belowTo) {
+                expected.add(pair.id);
+            }
+        }
+        assertEquals(expected, collectRange(from, fromInclusive, to, toInclusive));
+    }
+
+    private void assertDescending(long from) {
+        List<Integer> expected = new ArrayList<>();
+        for (Pair pair : model.descendingSet()) {
+            if (pair.value <= from) {
+                expected.add(pair.id);
+            }
+        }
+        List<Integer> actual = new ArrayList<>();
+        tree.forEachDescending(from, actual::add);
+        assertEquals(expected, actual);
+    }
+
+    private List<Integer> collectRange(long from, boolean fromInclusive, long to, boolean toInclusive) {
+        List<Integer> ids = new ArrayList<>();
+        tree.forEachInRange(from, fromInclusive, to, toInclusive, ids::add);
+        return ids;
+    }
+
+    private List<Integer> collectAll() {
+        List<Integer> ids = new ArrayList<>();
+        tree.forEach(ids::add);
+        return ids;
+    }
+
+    private static final class Pair implements Comparable<Pair> {
+
+        final long value;
+        final int id;
+
+        Pair(long value, int id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Pair that) {
+            return LongIntBPlusTree.compare(value, id, that.value, that.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Pair && compareTo((Pair) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(value) + id;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.collection;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TopKCollectorTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroLimit() {
+        new TopKCollector<Integer>(Comparator.naturalOrder(), 0);
+    }
+
+    @Test
+    public void testFewerElementsThanLimit() {
+        TopKCollector<Integer> collector = new TopKCollector<>(Comparator.naturalOrder(), 10);
+        assertTrue(collector.offer(3));
+        assertTrue(collector.offer(1));
+        assertTrue(collector.offer(2));
+
+        assertEquals(3, collector.size());
+        assertEquals(asList(1, 2, 3), collector.toSortedList());
+    }
+
+    @Test
+    public void testKeepsSmallestElements() {
+        TopKCollector<Integer> collector = new TopKCollector<>(Comparator.naturalOrder(), 3);
+        for (int i = 10; i > 0; i--) {
+            collector.offer(i);
+        }
+        assertFalse(collector.offer(5));
+        assertTrue(collector.offer(0));
+
+        assertEquals(3, collector.size());
+        assertEquals(asList(0, 1, 2), collector.toSortedList());
+    }
+
+    @Test
+    public void testReverseComparator() {
+        TopKCollector<Integer> collector = new TopKCollector<>(Comparator.reverseOrder(), 2);
+        for (int i = 0; i < 10; i++) {
+            collector.offer(i);
+        }
+        assertEquals(asList(9, 8), collector.toSortedList());
+    }
+
+    @Test
+    public void testRandomElements_matchSortedList() {
+        Random random = new Random(1234);
+        List<Integer> all = new ArrayList<>();
+        TopKCollector<Integer> collector = new TopKCollector<>(Comparator.naturalOrder(), 100);
+        for (int i = 0; i < 10000; i++) {
+            int value = random.nextInt(1000);
+            all.add(value);
+            collector.offer(value);
+        }
+
+        Collections.sort(all);
+        assertEquals(all.subList(0, 100), collector.toSortedList());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.executor;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertOpenEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class VirtualThreadsTest {
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void newThreadFactory_whenNotSupported() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        VirtualThreads.newThreadFactory("test-", getClass().getClassLoader());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void newThreadPerTaskExecutor_whenNotSupported() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        VirtualThreads.newThreadPerTaskExecutor("test-", getClass().getClassLoader());
+    }
+
+    @Test
+    public void newThreadFactory() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        ClassLoader classLoader = new ClassLoader() { };
+
+        ThreadFactory factory = VirtualThreads.newThreadFactory("test-", classLoader);
+        Thread thread = factory.newThread(() -> { });
+
+        assertTrue(isVirtual(thread));
+        assertEquals("test-0", thread.getName());
+        assertSame(classLoader, thread.getContextClassLoader());
+    }
+
+    @Test
+    public void newThreadPerTaskExecutor_whenTasksBlock_thenAllRunConcurrently() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        int taskCount = 10000;
+        CountDownLatch started = new CountDownLatch(taskCount);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-", getClass().getClassLoader());
+        try {
+            for (int k = 0; k < taskCount; k++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertOpenEventually(started);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    static boolean isVirtual(Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
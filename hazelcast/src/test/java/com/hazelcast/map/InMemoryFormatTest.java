@@ -207,8 +207,8 @@ public class InMemoryFormatTest extends HazelcastTestSupport {
         }
     }
 
-    @Test(expected = InvalidConfigurationException.class)
-    public void testNativeIMap_throwsException() throws Exception {
+    @Test(expected = IllegalArgumentException.class)
+    public void testNativeIMap_throwsException_whenNativeMemoryDisabled() {
         Config config = getConfig();
         config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.NATIVE);
 
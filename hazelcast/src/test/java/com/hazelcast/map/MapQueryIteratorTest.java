@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 1000;
+
+    protected HazelcastInstance member;
+    protected IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(getConfig());
+        member = instances[0];
+        map = instances[1].getMap(randomMapName());
+    }
+
+    @Test
+    public void test_emptyMap() {
+        Iterator<Entry<Integer, Integer>> iterator = map.queryIterator(10, Predicates.alwaysTrue());
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_throwsException_onEmptyMap() {
+        map.queryIterator(10, Predicates.alwaysTrue()).next();
+    }
+
+    @Test
+    public void test_streamsAllMatchingEntries() {
+        fill();
+        Predicate<Integer, Integer> predicate = new EvenPredicate();
+
+        List<Entry<Integer, Integer>> entries = collectAll(map.queryIterator(7, predicate));
+
+        assertEquals(COUNT / 2, entries.size());
+        assertEquals(map.entrySet(predicate), new HashSet<>(entries));
+    }
+
+    @Test
+    public void test_fetchSizeLargerThanPartitions() {
+        fill();
+
+        List<Entry<Integer, Integer>> entries = collectAll(map.queryIterator(COUNT * 2, Predicates.alwaysTrue()));
+
+        assertEquals(map.entrySet(), new HashSet<>(entries));
+        assertEquals(COUNT, entries.size());
+    }
+
+    @Test
+    public void test_stream_withProjection() {
+        fill();
+
+        long sum = map.queryStream(10, Predicates.lessThan("this", 100), new GetValueProjection())
+                      .mapToLong(Integer::longValue)
+                      .sum();
+
+        assertEquals(99 * 100 / 2, sum);
+    }
+
+    @Test
+    public void test_partitionPredicate_scansSinglePartition() {
+        fill();
+        int partitionId = member.getPartitionService().getPartition(42).getPartitionId();
+
+        List<Entry<Integer, Integer>> entries = collectAll(
+                map.queryIterator(3, Predicates.partitionPredicate(42, Predicates.alwaysTrue())));
+
+        assertFalse(entries.isEmpty());
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < COUNT; i++) {
+            if (member.getPartitionService().getPartition(i).getPartitionId() == partitionId) {
+                expected.add(i);
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        for (Entry<Integer, Integer> entry : entries) {
+            actual.add(entry.getKey());
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_remove_throwsException() {
+        fill();
+        Iterator<Entry<Integer, Integer>> iterator = map.queryIterator(10, Predicates.alwaysTrue());
+
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_pagingPredicate_throwsException() {
+        map.queryIterator(10, Predicates.pagingPredicate(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_nonPositiveFetchSize_throwsException() {
+        map.queryIterator(0, Predicates.alwaysTrue());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_nullPredicate_throwsException() {
+        map.queryIterator(10, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_nullProjection_throwsException() {
+        map.queryIterator(10, Predicates.alwaysTrue(), null);
+    }
+
+    private void fill() {
+        Map<Integer, Integer> entries = new HashMap<>();
+        for (int i = 0; i < COUNT; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+    }
+
+    private static <T> List<T> collectAll(Iterator<T> iterator) {
+        List<T> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    private static class EvenPredicate implements Predicate<Integer, Integer> {
+
+        @Override
+        public boolean apply(Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
+    private static class GetValueProjection implements Projection<Entry<Integer, Integer>, Integer> {
+
+        @Override
+        public Integer transform(Entry<Integer, Integer> input) {
+            return input.getValue();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeIMapTest extends HazelcastTestSupport {
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig();
+        config.setNativeMemoryConfig(new NativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(32, MemoryUnit.MEGABYTES)));
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.NATIVE);
+        return config;
+    }
+
+    @Test
+    public void testBasicOperations() {
+        IMap<Integer, String> map = createHazelcastInstance(getConfig()).getMap(randomMapName());
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        assertEquals(1000, map.size());
+        assertEquals("value-42", map.get(42));
+        assertEquals("value-42", map.replace(42, "replaced"));
+        assertEquals("replaced", map.get(42));
+        assertEquals("value-7", map.remove(7));
+        assertNull(map.get(7));
+        assertFalse(map.containsKey(7));
+        assertTrue(map.containsValue("value-8"));
+        assertEquals(999, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testIterationAndQuery() {
+        Config config = getConfig();
+        config.getMapConfig("default").addIndexConfig(new IndexConfig(IndexType.SORTED, "this"));
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap(randomMapName());
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            expected.put(i, i);
+        }
+        map.putAll(expected);
+
+        Map<Integer, Integer> actual = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            actual.put(entry.getKey(), entry.getValue());
+        }
+        assertEquals(expected, actual);
+        assertEquals(100, map.values(Predicates.lessThan("this", 100)).size());
+        assertEquals(500, map.keySet().size());
+    }
+
+    @Test
+    public void testEntryProcessor() {
+        IMap<Integer, Integer> map = createHazelcastInstance(getConfig()).getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        map.executeOnEntries(entry -> {
+            entry.setValue(entry.getValue() + 1);
+            return null;
+        });
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testBackupsAndMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        String mapName = randomMapName();
+        IMap<Integer, String> map = instance1.getMap(mapName);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, String> survivingMap = instance2.getMap(mapName);
+        assertEquals(1000, survivingMap.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value-" + i, survivingMap.get(i));
+        }
+    }
+
+    @Test
+    public void testEviction_withUsedNativeMemoryPercentage() {
+        Config config = getConfig();
+        MapConfig mapConfig = config.getMapConfig("default");
+        mapConfig.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE)
+                .setSize(1);
+        IMap<Integer, byte[]> map = createHazelcastInstance(config).getMap(randomMapName());
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, new byte[1024]);
+        }
+
+        // 1% of 32 MB cannot hold 1000 entries of 1 KB
+        assertTrue(map.size() < 1000);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PagingPredicateOrderedIndexTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 500;
+    private static final int PAGE_SIZE = 7;
+
+    @Parameterized.Parameters(name = "index:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{"none"}, {"sorted"}, {"primitive"}});
+    }
+
+    @Parameterized.Parameter
+    public String index;
+
+    private HazelcastInstance[] instances;
+    private IMap<Integer, Person> map;
+    private final Map<Integer, Person> expected = new HashMap<>();
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        if (!index.equals("none")) {
+            config.getMapConfig("persons")
+                    .addIndexConfig(new IndexConfig(IndexType.SORTED, "age").setPrimitiveKeys(index.equals("primitive")));
+        }
+        instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap("persons");
+
+        Random random = new Random();
+        for (int i = 0; i < COUNT; i++) {
+            // a few duplicate ages per page and some null ones
+            Integer age = random.nextInt(20) == 0 ? null : random.nextInt(100);
+            Person person = new Person(age, "name" + random.nextInt(10));
+            map.put(i, person);
+            expected.put(i, person);
+        }
+    }
+
+    @Test
+    public void testAscending() {
+        assertPages(null, null, false);
+    }
+
+    @Test
+    public void testDescending() {
+        assertPages(null, null, true);
+    }
+
+    @Test
+    public void testNonIndexedInnerPredicate() {
+        assertPages(Predicates.equal("name", "name3"), person -> person.name.equals("name3"), false);
+        assertPages(Predicates.equal("name", "name3"), person -> person.name.equals("name3"), true);
+    }
+
+    @Test
+    public void testIndexedInnerPredicate() {
+        assertPages(Predicates.greaterThan("age", 40), person -> person.age != null && person.age > 40, false);
+        assertPages(Predicates.lessEqual("age", 40), person -> person.age != null && person.age <= 40, true);
+    }
+
+    @Test
+    public void testJumpToPage() {
+        PagingPredicate<Integer, Person> pagingPredicate = Predicates.pagingPredicate(
+                Predicates.attributeComparator("age", false), PAGE_SIZE);
+        List<Integer> expectedKeys = expectedKeys(null, false);
+
+        pagingPredicate.setPage(10);
+        assertEquals(expectedKeys.subList(70, 77), new ArrayList<>(map.keySet(pagingPredicate)));
+        pagingPredicate.setPage(3);
+        assertEquals(expectedKeys.subList(21, 28), new ArrayList<>(map.keySet(pagingPredicate)));
+        pagingPredicate.setPage(12);
+        assertEquals(expectedKeys.subList(84, 91), new ArrayList<>(map.keySet(pagingPredicate)));
+    }
+
+    @Test
+    public void testOrderedIndexIsUsed() {
+        assertPages(null, null, false);
+
+        long indexedQueries = 0;
+        for (HazelcastInstance instance : instances) {
+            indexedQueries += instance.getMap("persons").getLocalMapStats().getIndexedQueryCount();
+        }
+        if (index.equals("none")) {
+            assertEquals(0, indexedQueries);
+        } else {
+            assertTrue(indexedQueries > 0);
+        }
+    }
+
+    private void assertPages(Predicate<Integer, Person> predicate, Function<Person, Boolean> filter, boolean descending) {
+        Comparator<Map.Entry<Integer, Person>> comparator = Predicates.attributeComparator("age", descending);
+        PagingPredicate<Integer, Person> pagingPredicate = predicate == null
+                ? Predicates.pagingPredicate(comparator, PAGE_SIZE)
+                : Predicates.pagingPredicate(predicate, comparator, PAGE_SIZE);
+
+        List<Integer> actualKeys = new ArrayList<>();
+        Collection<Integer> page = map.keySet(pagingPredicate);
+        while (!page.isEmpty()) {
+            assertTrue(page.size() <= PAGE_SIZE);
+            actualKeys.addAll(page);
+            pagingPredicate.nextPage();
+            page = map.keySet(pagingPredicate);
+        }
+        assertEquals(expectedKeys(filter, descending), actualKeys);
+    }
+
+    private List<Integer> expectedKeys(Function<Person, Boolean> filter, boolean descending) {
+        Comparator<Map.Entry<Integer, Person>> comparator = Predicates.attributeComparator("age", descending);
+        List<Map.Entry<Integer, Person>> entries = new ArrayList<>();
+        for (Map.Entry<Integer, Person> entry : expected.entrySet()) {
+            if (filter == null || filter.apply(entry.getValue())) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(comparator.thenComparing(entry -> entry.getKey().hashCode()));
+
+        List<Integer> keys = new ArrayList<>();
+        for (Map.Entry<Integer, Person> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    public static class Person implements Serializable {
+
+        private final Integer age;
+        private final String name;
+
+        public Person(Integer age, String name) {
+            this.age = age;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.RecordStoreAdapter;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.predicates.QueryOptimizerFactory;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.test.Accessors.getAllIndexes;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexKeyRunsTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 1000;
+
+    @Test
+    public void testLoad() throws IOException {
+        HazelcastInstance instance = createHazelcastInstance(config());
+        IMap<Integer, Person> map = instance.getMap("persons");
+        fill(map);
+        MapContainer mapContainer = mapServiceContext(instance).getMapContainer("persons");
+        InternalIndex[] originalIndexes = mapContainer.getIndexes().getIndexes();
+
+        Indexes loadedIndexes = mapContainer.createIndexes(true);
+        for (InternalIndex index : originalIndexes) {
+            loadedIndexes.addOrGetIndex(index.getConfig(), null);
+        }
+
+        for (RecordStore<Record> recordStore : recordStores(instance)) {
+            IndexKeyRuns runs = shipAndStage(instance, recordStore, mapContainer);
+            assertNotNull(runs);
+
+            InternalIndex[] remaining = runs.load(recordStore, mapContainer, new RecordStoreAdapter(recordStore),
+                    loadedIndexes.getIndexes(), getSerializationService(instance));
+            // composite indexes are populated the usual way
+            assertEquals(1, remaining.length);
+            assertEquals(2, remaining[0].getComponents().length);
+        }
+
+        for (InternalIndex original : originalIndexes) {
+            if (original.getComponents().length != 1) {
+                continue;
+            }
+            InternalIndex loaded = loadedIndexes.getIndex(original.getName());
+            assertEquals(COUNT, loaded.getValueStatistics().getEntryCount());
+            assertEquals(original.getPerIndexStats().getMemoryCost(), loaded.getPerIndexStats().getMemoryCost());
+            assertEquals(original.getConverter(), loaded.getConverter());
+        }
+
+        InternalIndex originalAge = index(mapContainer.getIndexes(), "age");
+        InternalIndex loadedAge = index(loadedIndexes, "age");
+        assertEquals(keys(originalAge.getRecords(25)), keys(loadedAge.getRecords(25)));
+        assertEquals(keys(originalAge.getRecords(Comparison.GREATER, 40)), keys(loadedAge.getRecords(Comparison.GREATER, 40)));
+        assertEquals(keys(originalAge.getRecords((Comparable) null)), keys(loadedAge.getRecords((Comparable) null)));
+        InternalIndex originalName = index(mapContainer.getIndexes(), "name");
+        InternalIndex loadedName = index(loadedIndexes, "name");
+        assertEquals(keys(originalName.getRecords("n7")), keys(loadedName.getRecords("n7")));
+        assertEquals(COUNT / 13 + 1, loadedName.getRecords("n7").size());
+    }
+
+    @Test
+    public void testNothingShippedForUnsupportedValues() throws IOException {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("persons").addIndexConfig(new IndexConfig(IndexType.HASH, "address"));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Person> map = instance.getMap("persons");
+        fill(map);
+        MapContainer mapContainer = mapServiceContext(instance).getMapContainer("persons");
+
+        for (RecordStore<Record> recordStore : recordStores(instance)) {
+            assertNull(shipAndStage(instance, recordStore, mapContainer));
+        }
+    }
+
+    @Test
+    public void testNothingLoadedIfRecordsChanged() throws IOException {
+        HazelcastInstance instance = createHazelcastInstance(config());
+        IMap<Integer, Person> map = instance.getMap("persons");
+        fill(map);
+        MapContainer mapContainer = mapServiceContext(instance).getMapContainer("persons");
+        Indexes loadedIndexes = mapContainer.createIndexes(true);
+        loadedIndexes.addOrGetIndex(index(mapContainer.getIndexes(), "age").getConfig(), null);
+
+        RecordStore<Record> recordStore = recordStores(instance).get(0);
+        IndexKeyRuns runs = shipAndStage(instance, recordStore, mapContainer);
+        List<Data> keys = new ArrayList<>();
+        recordStore.forEach((key, record) -> keys.add(key), false);
+        map.delete(getSerializationService(instance).toObject(keys.get(0)));
+
+        InternalIndex[] indexes = loadedIndexes.getIndexes();
+        InternalIndex[] remaining = runs.load(recordStore, mapContainer, new RecordStoreAdapter(recordStore), indexes,
+                getSerializationService(instance));
+        assertArrayEquals(indexes, remaining);
+        assertEquals(0, index(loadedIndexes, "age").getValueStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testValueStatisticsNotMaintainedForRulesOptimizer() {
+        Config config = config();
+        config.setProperty(ClusterProperty.QUERY_OPTIMIZER_TYPE.getName(), QueryOptimizerFactory.Type.RULES.name());
+        IMap<Integer, Person> map = createHazelcastInstance(config).getMap("persons");
+        fill(map);
+
+        for (Indexes indexes : getAllIndexes(map)) {
+            for (InternalIndex index : indexes.getIndexes()) {
+                assertNull(index.getValueStatistics());
+            }
+        }
+        assertEquals(expectedKeys(p -> p.age != null && p.age <= 3), map.keySet(lessEqual("age", 3)));
+    }
+
+    @Test
+    public void testMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config());
+        IMap<Integer, Person> map = instance1.getMap("persons");
+        fill(map);
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config());
+        HazelcastInstance instance3 = factory.newHazelcastInstance(config());
+        waitAllForSafeState(instance1, instance2, instance3);
+
+        for (HazelcastInstance instance : new HazelcastInstance[]{instance1, instance2, instance3}) {
+            IMap<Integer, Person> persons = instance.getMap("persons");
+            assertEquals(expectedKeys(p -> p.age != null && p.age == 25), persons.keySet(equal("age", 25)));
+            assertEquals(expectedKeys(p -> p.age == null), persons.keySet(equal("age", null)));
+            assertEquals(expectedKeys(p -> p.age != null && p.age <= 3), persons.keySet(lessEqual("age", 3)));
+            assertEquals(expectedKeys(p -> p.age != null && p.age > 45 && p.name.equals("n2")),
+                    persons.keySet(and(greaterThan("age", 45), equal("name", "n2"))));
+            assertEquals(COUNT, (long) persons.aggregate(Aggregators.count()));
+        }
+
+        long[] entryCounts = new long[4];
+        for (HazelcastInstance instance : new HazelcastInstance[]{instance1, instance2, instance3}) {
+            for (Indexes indexes : getAllIndexes(instance.getMap("persons"))) {
+                int i = 0;
+                for (InternalIndex index : indexes.getIndexes()) {
+                    entryCounts[i++] += index.getValueStatistics().getEntryCount();
+                }
+            }
+        }
+        for (long entryCount : entryCounts) {
+            assertEquals(COUNT, entryCount);
+        }
+    }
+
+    private static Config config() {
+        Config config = smallInstanceConfig();
+        // the value statistics are maintained for the cost based optimizer only
+        config.setProperty(ClusterProperty.QUERY_OPTIMIZER_TYPE.getName(), QueryOptimizerFactory.Type.COST.name());
+        config.getMapConfig("persons").setStatisticsEnabled(true)
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age"))
+                .addIndexConfig(new IndexConfig(IndexType.HASH, "name"))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age", "name"))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "score"));
+        return config;
+    }
+
+    private static void fill(IMap<Integer, Person> map) {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, person(i));
+        }
+    }
+
+    private static Person person(int i) {
+        return new Person(i % 7 == 0 ? null : i % 50, "n" + i % 13, i * 0.5);
+    }
+
+    private static Set<Integer> expectedKeys(Predicate<Person> predicate) {
+        Set<Integer> keys = new HashSet<>();
+        for (int i = 0; i < COUNT; i++) {
+            if (predicate.test(person(i))) {
+                keys.add(i);
+            }
+        }
+        return keys;
+    }
+
+    private static InternalIndex index(Indexes indexes, String attribute) {
+        for (InternalIndex index : indexes.getIndexes()) {
+            if (index.getComponents().length == 1 && index.getComponents()[0].equals(attribute)) {
+                return index;
+            }
+        }
+        throw new AssertionError("no index on " + attribute);
+    }
+
+    private static Set<Data> keys(Set<QueryableEntry> entries) {
+        Set<Data> keys = new HashSet<>();
+        for (QueryableEntry entry : entries) {
+            keys.add(entry.getKeyData());
+        }
+        return keys;
+    }
+
+    private static MapServiceContext mapServiceContext(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext();
+    }
+
+    private static List<RecordStore<Record>> recordStores(HazelcastInstance instance) {
+        MapServiceContext mapServiceContext = mapServiceContext(instance);
+        int partitionCount = getNodeEngineImpl(instance).getPartitionService().getPartitionCount();
+        List<RecordStore<Record>> recordStores = new ArrayList<>();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            RecordStore<Record> recordStore = mapServiceContext.getExistingRecordStore(partitionId, "persons");
+            if (recordStore != null && recordStore.size() > 0) {
+                recordStores.add(recordStore);
+            }
+        }
+        return recordStores;
+    }
+
+    /**
+     * Collects the runs the way the migration source does, passes them through
+     * serialization and attaches the keys the way the destination does.
+     */
+    private static IndexKeyRuns shipAndStage(HazelcastInstance instance, RecordStore<Record> recordStore,
+                                             MapContainer mapContainer) throws IOException {
+        IndexKeyRuns.Builder builder = new IndexKeyRuns.Builder(mapContainer, mapContainer.getIndexes().getIndexes());
+        List<Object> keyRecords = new ArrayList<>();
+        recordStore.forEach((key, record) -> {
+            builder.add(key, record.getValue());
+            keyRecords.add(key);
+            keyRecords.add(record);
+        }, false, true);
+        IndexKeyRuns runs = builder.build();
+        if (runs == null) {
+            return null;
+        }
+
+        InternalSerializationService ss = getSerializationService(instance);
+        BufferObjectDataOutput out = ss.createObjectDataOutput(1024);
+        runs.writeData(out);
+        BufferObjectDataInput in = ss.createObjectDataInput(out.toByteArray());
+        IndexKeyRuns shipped = IndexKeyRuns.readData(in);
+        shipped.attachKeys(keyRecords);
+        return shipped;
+    }
+
+    private static class Person implements Serializable {
+
+        private final Integer age;
+        private final String name;
+        private final double score;
+        private final Address address = new Address();
+
+        Person(Integer age, String name, double score) {
+            this.age = age;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    private static class Address implements Serializable, Comparable<Address> {
+
+        @Override
+        public int compareTo(Address o) {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Address;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
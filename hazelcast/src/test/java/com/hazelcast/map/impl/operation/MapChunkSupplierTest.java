@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.ChunkedMigrationAwareService.ChunkSupplier;
+import com.hazelcast.internal.partition.PartitionReplicationEvent;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.services.DistributedObjectNamespace;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_CHUNK_MAX_BYTES;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapChunkSupplierTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 1000;
+    private static final int MAX_CHUNK_BYTES = 4 * 1024;
+
+    @Test
+    public void testChunks() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig().setProperty(PARTITION_COUNT.getName(), "1"));
+        IMap<Integer, byte[]> map = instance.getMap("map");
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new byte[100]);
+        }
+
+        ChunkSupplier supplier = newChunkSupplier(instance, "map");
+        assertNotNull(supplier);
+
+        List<Operation> operations = new ArrayList<>();
+        while (supplier.hasNext()) {
+            operations.add(supplier.next());
+        }
+
+        assertTrue(operations.get(0) instanceof MapReplicationOperation);
+        assertTrue(operations.size() > COUNT * 100 / MAX_CHUNK_BYTES);
+        InternalSerializationService ss = getSerializationService(instance);
+        for (Operation operation : operations.subList(1, operations.size())) {
+            assertTrue(operation instanceof MapChunkOperation);
+            // a chunk may exceed the limit by one entry and the record metadata
+            assertTrue(ss.toData(operation).totalSize() < 2 * MAX_CHUNK_BYTES);
+        }
+        assertFalse(supplier.hasNext());
+    }
+
+    @Test
+    public void testNoChunks_whenNoRecordStore() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+
+        assertNull(newChunkSupplier(instance, "map"));
+    }
+
+    @Test
+    public void testMigration() {
+        Config config = smallInstanceConfig().setProperty(PARTITION_MIGRATION_CHUNK_MAX_BYTES.getName(),
+                String.valueOf(MAX_CHUNK_BYTES));
+        config.getMapConfig("map").addIndexConfig(new IndexConfig(IndexType.SORTED, "this"));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance1.getMap("map");
+        for (int i = 0; i < COUNT * 10; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance3 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2, instance3);
+        instance1.getLifecycleService().terminate();
+        waitAllForSafeState(instance2, instance3);
+
+        IMap<Integer, Integer> migrated = instance2.getMap("map");
+        assertEquals(COUNT * 10, migrated.size());
+        for (int i = 0; i < COUNT * 10; i++) {
+            assertEquals(Integer.valueOf(i), migrated.get(i));
+        }
+        assertEquals(COUNT, migrated.keySet(lessThan("this", COUNT)).size());
+    }
+
+    private static ChunkSupplier newChunkSupplier(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        PartitionReplicationEvent event = new PartitionReplicationEvent(0, 1);
+        return mapService.newChunkSupplier(event, new DistributedObjectNamespace(MapService.SERVICE_NAME, mapName),
+                MAX_CHUNK_BYTES);
+    }
+}
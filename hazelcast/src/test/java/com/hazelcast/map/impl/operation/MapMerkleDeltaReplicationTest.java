@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MerkleTreeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.services.DistributedObjectNamespace;
+import com.hazelcast.internal.services.ServiceNamespace;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapMerkleDeltaReplicationTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 200;
+
+    private HazelcastInstance owner;
+    private HazelcastInstance backup;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig().setProperty(PARTITION_COUNT.getName(), "1");
+        config.getMapConfig("map").setMerkleTreeConfig(new MerkleTreeConfig().setEnabled(true).setDepth(4));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(instances);
+
+        InternalPartitionService partitionService = getPartitionService(instances[0]);
+        boolean firstIsOwner = partitionService.getPartition(0).isLocal();
+        owner = firstIsOwner ? instances[0] : instances[1];
+        backup = firstIsOwner ? instances[1] : instances[0];
+
+        map = owner.getMap("map");
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testMerkleTreesMatch_afterMutations() {
+        for (int i = 0; i < COUNT; i += 3) {
+            map.remove(i);
+        }
+        for (int i = 1; i < COUNT; i += 3) {
+            map.put(i, -i);
+        }
+
+        assertTrueEventually(() -> {
+            Collection<Integer> deltaLeaves = onPartitionThread(owner, () -> {
+                MerkleTree ownerTree = getRecordStore(owner).getMerkleTree();
+                MerkleTree backupTree = getRecordStore(backup).getMerkleTree();
+                return MerkleTreeUtil.compareTrees(ownerTree, backupTree);
+            });
+            assertTrue(deltaLeaves.isEmpty());
+        });
+    }
+
+    @Test
+    public void testDeltaReplication_repairsStaleBackup() {
+        InternalSerializationService ss = getSerializationService(backup);
+        Data removedKey = ss.toData(1);
+        Data updatedKey = ss.toData(2);
+        Data addedKey = ss.toData(COUNT);
+
+        // corrupt the backup and remember the records of the leaves which still match the owner
+        Map<Data, Record> untouchedRecords = onPartitionThread(backup, () -> {
+            RecordStore recordStore = getRecordStore(backup);
+            recordStore.removeBackup(removedKey, CallerProvenance.NOT_WAN);
+            recordStore.putBackup(updatedKey, -2, CallerProvenance.NOT_WAN);
+            recordStore.putBackup(addedKey, COUNT, CallerProvenance.NOT_WAN);
+
+            MerkleTree backupTree = recordStore.getMerkleTree();
+            Collection<Integer> deltaLeaves = MerkleTreeUtil.compareTrees(getRecordStore(owner).getMerkleTree(), backupTree);
+            assertFalse(deltaLeaves.isEmpty());
+
+            Map<Data, Record> records = new HashMap<>();
+            recordStore.forEach((key, record) -> records.put((Data) key, (Record) record), true);
+            for (int leafOrder : deltaLeaves) {
+                backupTree.forEachKeyOfNode(leafOrder, records::remove);
+            }
+            assertFalse(records.isEmpty());
+            return records;
+        });
+
+        onPartitionThread(backup, () -> {
+            ServiceNamespace namespace = new DistributedObjectNamespace(MapService.SERVICE_NAME, "map");
+            InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+            partitionService.getReplicaManager().triggerPartitionReplicaSync(0, singleton(namespace), 1);
+            return null;
+        });
+
+        assertTrueEventually(() -> {
+            Map<Data, Record> records = onPartitionThread(backup, () -> {
+                Map<Data, Record> result = new HashMap<>();
+                getRecordStore(backup).forEach((key, record) -> result.put((Data) key, (Record) record), true);
+                return result;
+            });
+            assertEquals(COUNT, records.size());
+            assertNotNull(records.get(removedKey));
+            assertEquals(2, (int) ss.toObject(records.get(updatedKey).getValue()));
+            // the records of the matching leaves were not replicated again
+            for (Map.Entry<Data, Record> entry : untouchedRecords.entrySet()) {
+                assertSame(entry.getValue(), records.get(entry.getKey()));
+            }
+        });
+    }
+
+    @Test
+    public void testMerkleTreesCost_includesEntryHashes() {
+        long treeFootprint = onPartitionThread(owner, () -> getRecordStore(owner).getMerkleTree().footprint());
+
+        assertTrue(map.getLocalMapStats().getMerkleTreesCost() > treeFootprint);
+    }
+
+    private static RecordStore getRecordStore(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getPartitionContainer(0).getExistingRecordStore("map");
+    }
+
+    private static <T> T onPartitionThread(HazelcastInstance instance, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        getOperationService(instance).execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 0;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    future.complete(supplier.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future.join();
+    }
+}
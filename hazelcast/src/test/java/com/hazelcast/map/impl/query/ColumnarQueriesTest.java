@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarQueriesTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 5000;
+
+    private long seed;
+    private Random random;
+    private HazelcastInstance instance;
+
+    private IMap<Integer, Record> expected;
+    private IMap<Integer, Record> actual;
+
+    @Parameterized.Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}});
+    }
+
+    @Parameterized.Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    @Before
+    public void before() {
+        seed = System.nanoTime();
+        random = new Random(seed);
+
+        Config config = smallInstanceConfig();
+        config.getMapConfig("expected").setInMemoryFormat(inMemoryFormat);
+        config.getMapConfig("actual").setInMemoryFormat(inMemoryFormat)
+                .setColumnarAttributes(asList("age", "salary", "score", "bonus"));
+
+        instance = createHazelcastInstance(config);
+        expected = instance.getMap("expected");
+        actual = instance.getMap("actual");
+
+        for (int i = 0; i < COUNT; i++) {
+            put(i, randomRecord());
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        assertQuery(Predicates.alwaysTrue());
+        assertQuery(equal("age", 42));
+        assertQuery(equal("age", "42"));
+        assertQuery(greaterThan("age", 90));
+        assertQuery(lessThan("salary", 1000L));
+        assertQuery(between("score", -0.5, 0.5));
+        assertQuery(greaterEqual("bonus", 50));
+        assertQuery(and(greaterThan("age", 20), lessThan("score", 0.0), between("salary", 100, 5000)));
+        // not supported by columnar scans
+        assertQuery(Predicates.notEqual("age", 42));
+        assertQuery(greaterThan("age", 42.5));
+    }
+
+    @Test
+    public void testAggregations() {
+        Predicate predicate = between("age", 10, 60);
+
+        assertAggregation(predicate, () -> Aggregators.count());
+        assertAggregation(predicate, () -> Aggregators.count("age"));
+        assertAggregation(predicate, () -> Aggregators.integerSum("age"));
+        assertAggregation(predicate, () -> Aggregators.integerAvg("age"));
+        assertAggregation(predicate, () -> Aggregators.integerMax("age"));
+        assertAggregation(predicate, () -> Aggregators.longSum("salary"));
+        assertAggregation(predicate, () -> Aggregators.longAvg("salary"));
+        assertAggregation(predicate, () -> Aggregators.longMin("salary"));
+        assertAggregation(predicate, () -> Aggregators.fixedPointSum("salary"));
+        assertAggregation(predicate, () -> Aggregators.doubleMin("score"));
+        assertAggregation(predicate, () -> Aggregators.doubleMax("score"));
+        assertAggregation(predicate, () -> Aggregators.distinct("age"));
+        // the bonus attribute has null values
+        assertAggregation(predicate, () -> Aggregators.integerMin("bonus"));
+        assertAggregation(Predicates.alwaysTrue(), () -> Aggregators.longSum("salary"));
+    }
+
+    @Test
+    public void testMutations() {
+        for (int i = 0; i < COUNT / 2; i++) {
+            int key = random.nextInt(COUNT);
+            switch (random.nextInt(3)) {
+                case 0:
+                    expected.remove(key);
+                    actual.remove(key);
+                    break;
+                case 1:
+                    expected.delete(key);
+                    actual.delete(key);
+                    break;
+                default:
+                    put(key, randomRecord());
+            }
+        }
+
+        assertQuery(between("age", 10, 60));
+        assertEquals("seed=" + seed, actual.size(), columnarRowCount());
+        assertAggregation(greaterThan("score", 0.0), () -> Aggregators.longSum("salary"));
+
+        expected.clear();
+        actual.clear();
+        assertAggregation(Predicates.alwaysTrue(), () -> Aggregators.count());
+
+        put(1, randomRecord());
+        assertQuery(Predicates.alwaysTrue());
+        assertEquals(1, columnarRowCount());
+    }
+
+    private int columnarRowCount() {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        int rows = 0;
+        int partitionCount = getPartitionService(instance).getPartitionCount();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, "actual");
+            if (recordStore != null) {
+                rows += recordStore.getColumnarStore().size();
+            }
+        }
+        return rows;
+    }
+
+    private void put(int key, Record record) {
+        expected.put(key, record);
+        actual.put(key, record);
+    }
+
+    private Record randomRecord() {
+        return new Record(random.nextInt(100), random.nextInt(10000), random.nextDouble() * 2 - 1,
+                random.nextBoolean() ? random.nextInt(100) : null);
+    }
+
+    private void assertQuery(Predicate<Integer, Record> predicate) {
+        String message = predicate + ", seed=" + seed;
+        assertEquals(message, new HashSet<>(expected.keySet(predicate)), new HashSet<>(actual.keySet(predicate)));
+        assertEquals(message, new HashSet<>(expected.values(predicate)), new HashSet<>(actual.values(predicate)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> void assertAggregation(Predicate<Integer, Record> predicate, Supplier<Aggregator<?, R>> aggregator) {
+        R expectedResult = expected.aggregate((Aggregator<Map.Entry<Integer, Record>, R>) aggregator.get(), predicate);
+        R actualResult = actual.aggregate((Aggregator<Map.Entry<Integer, Record>, R>) aggregator.get(), predicate);
+        String message = predicate + ", seed=" + seed;
+        if (expectedResult instanceof Double) {
+            assertEquals(message, (Double) expectedResult, (Double) actualResult, 1e-9);
+        } else {
+            assertEquals(message, expectedResult, actualResult);
+        }
+    }
+
+    public static class Record implements Serializable {
+
+        private final int age;
+        private final long salary;
+        private final double score;
+        private final Integer bonus;
+
+        public Record(int age, long salary, double score, Integer bonus) {
+            this.age = age;
+            this.salary = salary;
+            this.score = score;
+            this.bonus = bonus;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Record that = (Record) o;
+            return age == that.age && salary == that.salary && Double.compare(score, that.score) == 0
+                    && (bonus == null ? that.bonus == null : bonus.equals(that.bonus));
+        }
+
+        @Override
+        public int hashCode() {
+            return age;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarScanTest {
+
+    private static final int COUNT = 3 * ColumnarScan.BATCH_SIZE + 17;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+    private final ColumnarStore store = new ColumnarStore(asList("age", "this.score", "bonus"));
+
+    @Test
+    public void testRangePredicates() {
+        fill();
+
+        assertKeys(Predicates.equal("age", 42), 42);
+        assertKeys(Predicates.equal("age", 42L), 42);
+        assertKeys(Predicates.greaterThan("age", COUNT - 3), COUNT - 2, COUNT - 1);
+        assertKeys(Predicates.greaterEqual("age", COUNT - 2), COUNT - 2, COUNT - 1);
+        assertKeys(Predicates.lessThan("age", 2), 0, 1);
+        assertKeys(Predicates.lessEqual("age", "1"), 0, 1);
+        assertKeys(Predicates.between("age", 1030, 1032), 1030, 1031, 1032);
+        assertKeys(Predicates.and(Predicates.greaterThan("age", 10), Predicates.lessThan("score", 3.0)), 11);
+        assertKeys(Predicates.between("score", 1.0, 1.25), 4, 5);
+        assertKeys(Predicates.between("age", 5, 3));
+    }
+
+    @Test
+    public void testAllRowsMatchTruePredicate() {
+        fill();
+
+        List<Data> keys = ColumnarScan.selectKeys(store, Predicates.alwaysTrue());
+        assertEquals(COUNT, keys.size());
+    }
+
+    @Test
+    public void testUnsupportedPredicates() {
+        fill();
+
+        assertNull(ColumnarScan.selectKeys(store, Predicates.notEqual("age", 42)));
+        assertNull(ColumnarScan.selectKeys(store, Predicates.like("name", "a%")));
+        assertNull(ColumnarScan.selectKeys(store, Predicates.equal("name", "a")));
+        assertNull(ColumnarScan.selectKeys(store, Predicates.equal("age", null)));
+        assertNull(ColumnarScan.selectKeys(store, Predicates.or(Predicates.equal("age", 1), Predicates.equal("age", 2))));
+        // fractional bounds of integral attributes are left to the predicates
+        assertNull(ColumnarScan.selectKeys(store, Predicates.greaterThan("age", 5.5)));
+    }
+
+    @Test
+    public void testAggregations() {
+        fill();
+        Predicate predicate = Predicates.between("age", 100, 1999);
+        long sum = 0;
+        for (int i = 100; i <= 1999; i++) {
+            sum += i;
+        }
+
+        assertEquals(1900L, (long) aggregate(predicate, Aggregators.count()));
+        assertEquals(1900L, (long) aggregate(predicate, Aggregators.count("age")));
+        assertEquals(sum, (long) aggregate(predicate, Aggregators.longSum("age")));
+        assertEquals(sum, (long) aggregate(predicate, Aggregators.integerSum("age")));
+        assertEquals(sum, (long) aggregate(predicate, Aggregators.fixedPointSum("age")));
+        assertEquals((double) sum / 1900, aggregate(predicate, Aggregators.integerAvg("age")), 0.0);
+        assertEquals(100, (int) aggregate(predicate, Aggregators.integerMin("age")));
+        assertEquals(1999, (int) aggregate(predicate, Aggregators.integerMax("age")));
+        assertEquals(sum * 0.25, aggregate(predicate, Aggregators.doubleSum("score")), 0.0);
+        assertEquals(sum * 0.25, aggregate(predicate, Aggregators.floatingPointSum("score")), 0.0);
+        assertEquals(25.0, aggregate(predicate, Aggregators.doubleMin("score")), 0.0);
+        assertEquals(Double.class, aggregate(predicate, Aggregators.doubleMax("score")).getClass());
+    }
+
+    @Test
+    public void testUnsupportedAggregations() {
+        fill();
+
+        // long sums don't accept floating-point values
+        assertFalse(ColumnarScan.aggregate(store, Predicates.alwaysTrue(), Aggregators.longSum("score")));
+        // the bonus column has null values
+        assertFalse(ColumnarScan.aggregate(store, Predicates.alwaysTrue(), Aggregators.integerSum("bonus")));
+        // not a columnar attribute
+        assertFalse(ColumnarScan.aggregate(store, Predicates.alwaysTrue(), Aggregators.count("name")));
+        assertFalse(ColumnarScan.aggregate(store, Predicates.alwaysTrue(), Aggregators.distinct("age")));
+    }
+
+    @Test
+    public void testNullValuesNeverMatch() {
+        fill();
+
+        assertKeys(Predicates.lessThan("bonus", 3), 0, 2);
+        assertKeys(Predicates.equal("bonus", 0), 0);
+    }
+
+    @Test
+    public void testFloatingPointOrdering() {
+        put(1, new Person(1, -0.0, null));
+        put(2, new Person(2, 0.0, null));
+        put(3, new Person(3, Double.NaN, null));
+        put(4, new Person(4, Double.POSITIVE_INFINITY, null));
+
+        assertKeys(Predicates.equal("score", 0.0), 2);
+        assertKeys(Predicates.equal("score", -0.0), 1);
+        assertKeys(Predicates.equal("score", Double.NaN), 3);
+        assertKeys(Predicates.greaterThan("score", -0.0), 2, 3, 4);
+        assertKeys(Predicates.lessThan("score", 0.0), 1);
+        assertEquals(Double.NaN, aggregate(Predicates.alwaysTrue(), Aggregators.doubleMax("score")), 0.0);
+        assertEquals(-0.0, aggregate(Predicates.alwaysTrue(), Aggregators.doubleMin("score")), 0.0);
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        fill();
+
+        put(42, new Person(4200, 0.5, 1));
+        assertKeys(Predicates.equal("age", 42));
+        assertKeys(Predicates.equal("age", 4200), 42);
+
+        for (int i = 0; i < COUNT; i += 2) {
+            store.remove(key(i));
+        }
+        assertEquals(COUNT / 2, store.size());
+        assertKeys(Predicates.between("age", 10, 15), 11, 13, 15);
+        assertKeys(Predicates.equal("age", 4200));
+        assertEquals((long) COUNT / 2, (long) aggregate(Predicates.alwaysTrue(), Aggregators.count("age")));
+
+        store.remove(key(0));
+        assertEquals(COUNT / 2, store.size());
+    }
+
+    @Test
+    public void testMixedTypesDisableColumn() {
+        fill();
+        put(COUNT, new MixedPerson(COUNT, 1.0f));
+
+        assertNull(ColumnarScan.selectKeys(store, Predicates.equal("age", 42)));
+        assertNull(ColumnarScan.selectKeys(store, Predicates.equal("score", 1.0)));
+        assertFalse(ColumnarScan.aggregate(store, Predicates.alwaysTrue(), Aggregators.longSum("age")));
+
+        store.clear();
+        assertEquals(0, store.size());
+        fill();
+        assertKeys(Predicates.equal("age", 42), 42);
+    }
+
+    private void fill() {
+        for (int i = 0; i < COUNT; i++) {
+            put(i, new Person(i, i * 0.25, i % 2 == 0 ? i : null));
+        }
+    }
+
+    private void put(int key, Object value) {
+        Data keyData = key(key);
+        store.put(keyData, new QueryEntry(ss, keyData, value, extractors));
+    }
+
+    private Data key(int key) {
+        return ss.toData(key);
+    }
+
+    private <R> R aggregate(Predicate predicate, Aggregator<?, R> aggregator) {
+        assertTrue(ColumnarScan.aggregate(store, predicate, aggregator));
+        return aggregator.aggregate();
+    }
+
+    private void assertKeys(Predicate predicate, Integer... expected) {
+        List<Data> keys = ColumnarScan.selectKeys(store, predicate);
+        Set<Integer> actual = new HashSet<>();
+        for (Data key : keys) {
+            actual.add(ss.toObject(key));
+        }
+        assertEquals(new HashSet<>(asList(expected)), actual);
+    }
+
+    private static class Person implements Serializable {
+
+        final int age;
+        final double score;
+        final Integer bonus;
+        final String name = "a";
+
+        Person(int age, double score, Integer bonus) {
+            this.age = age;
+            this.score = score;
+            this.bonus = bonus;
+        }
+    }
+
+    private static class MixedPerson implements Serializable {
+
+        final long age;
+        final float score;
+
+        MixedPerson(long age, float score) {
+            this.age = age;
+            this.score = score;
+        }
+    }
+}
@@ -76,11 +76,14 @@ public class MultiValueBitmapIndexTest extends HazelcastTestSupport {
     public static Collection<Object[]> parameters() {
         // @formatter:off
         return asList(new Object[][]{
-                {makeConfig(null, null)},
-                {makeConfig("stringId", null)},
-                {makeConfig("stringId", OBJECT)},
-                {makeConfig(null, RAW)},
-                {makeConfig(null, LONG)}
+                {makeConfig(null, null, false)},
+                {makeConfig("stringId", null, false)},
+                {makeConfig("stringId", OBJECT, false)},
+                {makeConfig(null, RAW, false)},
+                {makeConfig(null, LONG, false)},
+                {makeConfig(null, null, true)},
+                {makeConfig("stringId", OBJECT, true)},
+                {makeConfig(null, LONG, true)}
         });
         // @formatter:on
     }
@@ -364,7 +367,8 @@ public class MultiValueBitmapIndexTest extends HazelcastTestSupport {
 
     }
 
-    private static IndexConfig makeConfig(String uniqueKey, UniqueKeyTransformation uniqueKeyTransformation) {
+    private static IndexConfig makeConfig(String uniqueKey, UniqueKeyTransformation uniqueKeyTransformation,
+                                          boolean compressed) {
         IndexConfig config = new IndexConfig(IndexType.BITMAP, "habits[any]");
         if (uniqueKey != null) {
             config.getBitmapIndexOptions().setUniqueKey(uniqueKey);
@@ -372,6 +376,7 @@ public class MultiValueBitmapIndexTest extends HazelcastTestSupport {
         if (uniqueKeyTransformation != null) {
             config.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
         }
+        config.getBitmapIndexOptions().setCompressed(compressed);
         return config;
     }
 
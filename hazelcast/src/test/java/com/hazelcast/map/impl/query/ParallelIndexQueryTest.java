@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.internal.util.executor.ManagedExecutorService;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.QUERY_EXECUTOR;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getSerializationService;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ParallelIndexQueryTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 20000;
+
+    private HazelcastInstance instance;
+    private IMap<Integer, Person> expected;
+    private IMap<Integer, Person> actual;
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.QUERY_INDEX_PARALLELISM.getName(), "4");
+        instance = createHazelcastInstance(config);
+
+        expected = instance.getMap("expected");
+        actual = instance.getMap("actual");
+        actual.addIndex(IndexType.SORTED, "age");
+        actual.addIndex(IndexType.HASH, "city");
+
+        Map<Integer, Person> persons = new HashMap<>();
+        for (int i = 0; i < COUNT; i++) {
+            persons.put(i, new Person(i % 100, "city" + i % 7));
+        }
+        expected.putAll(persons);
+        actual.putAll(persons);
+    }
+
+    @Test
+    public void testRangeQuery() {
+        assertQuery(greaterThan("age", 10));
+        assertQuery(between("age", 20, 30));
+    }
+
+    @Test
+    public void testUnion() {
+        assertQuery(or(lessThan("age", 40), equal("city", "city3")));
+        assertQuery(or(greaterThan("age", 50), lessThan("age", 60), equal("city", "city1")));
+    }
+
+    @Test
+    public void testIntersection() {
+        assertQuery(and(greaterThan("age", 10), equal("city", "city2")));
+        assertQuery(and(greaterThan("age", 10), new OddKeyPredicate()));
+        assertQuery(and(lessThan("age", 90), or(equal("city", "city1"), equal("city", "city4")), new OddKeyPredicate()));
+    }
+
+    @Test
+    public void testProjection() {
+        Predicate<Integer, Person> predicate = or(lessThan("age", 40), equal("city", "city3"));
+
+        Collection<String> expectedCities = expected.project(Projections.singleAttribute("city"), predicate);
+        Collection<String> actualCities = actual.project(Projections.singleAttribute("city"), predicate);
+
+        assertEquals(expectedCities.size(), actualCities.size());
+        assertEquals(new HashSet<>(expectedCities), new HashSet<>(actualCities));
+    }
+
+    @Test(expected = QueryResultSizeExceededException.class)
+    public void testResultSizeLimit() {
+        InternalSerializationService ss = getSerializationService(instance);
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        List<QueryableEntry> entries = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            entries.add(new CachedQueryEntry(ss, ss.toData(i), i, extractors));
+        }
+        ManagedExecutorService executor = getNodeEngineImpl(instance).getExecutionService().getExecutor(QUERY_EXECUTOR);
+        ParallelIndexResultExecutor resultExecutor = new ParallelIndexResultExecutor(executor, 4, 60000);
+
+        resultExecutor.populate(new QueryResult(IterationType.KEY, null, ss, COUNT - 1, false), entries);
+    }
+
+    private void assertQuery(Predicate<Integer, Person> predicate) {
+        Collection<Integer> expectedKeys = expected.keySet(predicate);
+        Collection<Integer> actualKeys = actual.keySet(predicate);
+        assertEquals(expectedKeys.size(), actualKeys.size());
+        assertEquals(new HashSet<>(expectedKeys), new HashSet<>(actualKeys));
+        assertEquals(new HashSet<>(expected.entrySet(predicate)), new HashSet<>(actual.entrySet(predicate)));
+    }
+
+    private static class OddKeyPredicate implements Predicate<Integer, Person> {
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Person> mapEntry) {
+            return mapEntry.getKey() % 2 == 1;
+        }
+    }
+
+    public static class Person implements Serializable {
+
+        private final int age;
+        private final String city;
+
+        public Person(int age, String city) {
+            this.age = age;
+            this.city = city;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Person that = (Person) o;
+            return age == that.age && city.equals(that.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * age + city.hashCode();
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.IndexConfig;
@@ -76,11 +77,14 @@ public class SingleValueBitmapIndexTest extends HazelcastTestSupport {
     public static Collection<Object[]> parameters() {
         // @formatter:off
         return asList(new Object[][]{
-                {makeConfig(null, null)},
-                {makeConfig("stringId", null)},
-                {makeConfig("stringId", OBJECT)},
-                {makeConfig(null, RAW)},
-                {makeConfig(null, LONG)}
+                {makeConfig(null, null, false)},
+                {makeConfig("stringId", null, false)},
+                {makeConfig("stringId", OBJECT, false)},
+                {makeConfig(null, RAW, false)},
+                {makeConfig(null, LONG, false)},
+                {makeConfig(null, null, true)},
+                {makeConfig("stringId", OBJECT, true)},
+                {makeConfig(null, LONG, true)}
         });
         // @formatter:on
     }
@@ -236,6 +240,7 @@ public class SingleValueBitmapIndexTest extends HazelcastTestSupport {
             long after = persons.getLocalMapStats().getIndexStats().values().iterator().next().getQueryCount();
             assertEquals(1, after - before);
             expectedQuery.verify(entries);
+            assertEquals(entries.size(), (long) persons.aggregate(Aggregators.count(), actualQuery));
         }
     }
 
@@ -378,7 +383,8 @@ public class SingleValueBitmapIndexTest extends HazelcastTestSupport {
 
     }
 
-    private static IndexConfig makeConfig(String uniqueKey, UniqueKeyTransformation uniqueKeyTransformation) {
+    private static IndexConfig makeConfig(String uniqueKey, UniqueKeyTransformation uniqueKeyTransformation,
+                                          boolean compressed) {
         IndexConfig config = new IndexConfig(IndexType.BITMAP, "age");
         if (uniqueKey != null) {
             config.getBitmapIndexOptions().setUniqueKey(uniqueKey);
@@ -386,6 +392,7 @@ public class SingleValueBitmapIndexTest extends HazelcastTestSupport {
         if (uniqueKeyTransformation != null) {
             config.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
         }
+        config.getBitmapIndexOptions().setCompressed(compressed);
         return config;
     }
 
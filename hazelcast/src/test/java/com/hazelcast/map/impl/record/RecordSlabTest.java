@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.Metadata;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RecordSlabTest {
+
+    private SerializationService ss;
+    private CompactDataRecordFactory factory;
+    private CompactDataRecordFactory statsFactory;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        factory = new CompactDataRecordFactory(new MapConfig().setStatisticsEnabled(false), ss);
+        statsFactory = new CompactDataRecordFactory(new MapConfig().setStatisticsEnabled(true), ss);
+    }
+
+    @Test
+    public void testNewRecord_hasSameDefaultsAsDataRecord() {
+        Record<Data> compact = factory.newRecord("value");
+        Record<Data> dataRecord = new DataRecord(ss.toData("value"));
+
+        assertEquals(dataRecord.getRawTtl(), compact.getRawTtl());
+        assertEquals(dataRecord.getRawMaxIdle(), compact.getRawMaxIdle());
+        assertEquals(dataRecord.getRawCreationTime(), compact.getRawCreationTime());
+        assertEquals(dataRecord.getRawLastAccessTime(), compact.getRawLastAccessTime());
+        assertEquals(dataRecord.getRawLastUpdateTime(), compact.getRawLastUpdateTime());
+        assertEquals(dataRecord.getHits(), compact.getHits());
+        assertEquals(dataRecord.getVersion(), compact.getVersion());
+        assertEquals(dataRecord.getExpirationTime(), compact.getExpirationTime());
+        assertEquals(dataRecord.getLastStoredTime(), compact.getLastStoredTime());
+        assertNull(compact.getMetadata());
+        assertEquals(ss.toData("value"), compact.getValue());
+    }
+
+    @Test
+    public void testNewRecordWithStats_hasSameDefaultsAsDataRecordWithStats() {
+        Record<Data> compact = statsFactory.newRecord("value");
+        Record<Data> dataRecord = new DataRecordWithStats(ss.toData("value"));
+
+        assertEquals(dataRecord.getRawExpirationTime(), compact.getRawExpirationTime());
+        assertEquals(dataRecord.getRawLastStoredTime(), compact.getRawLastStoredTime());
+        assertEquals(dataRecord.getExpirationTime(), compact.getExpirationTime());
+        assertEquals(dataRecord.getLastStoredTime(), compact.getLastStoredTime());
+        assertSame(dataRecord.getMatchingRecordReaderWriter(), compact.getMatchingRecordReaderWriter());
+    }
+
+    @Test
+    public void testAttach_keepsFieldValues() {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        CompactDataRecordWithStats record = (CompactDataRecordWithStats) statsFactory.newRecord("value");
+        Metadata metadata = new Metadata();
+        record.setRawTtl(0);
+        record.setRawMaxIdle(5);
+        record.setCreationTime(Record.EPOCH_TIME + 1000);
+        record.setLastAccessTime(Record.EPOCH_TIME + 2000);
+        record.setLastUpdateTime(Record.EPOCH_TIME + 3000);
+        record.setLastStoredTime(Record.EPOCH_TIME + 4000);
+        record.setExpirationTime(Long.MAX_VALUE);
+        record.setHits(7);
+        record.setVersion(11);
+        record.setMetadata(metadata);
+
+        assertTrue(record.attach(slab));
+        assertFalse(record.attach(slab));
+
+        assertSame(slab, record.getSlab());
+        assertEquals(0, record.getRawTtl());
+        assertEquals(5, record.getRawMaxIdle());
+        assertEquals(Record.EPOCH_TIME + 1000, record.getCreationTime());
+        assertEquals(Record.EPOCH_TIME + 2000, record.getLastAccessTime());
+        assertEquals(Record.EPOCH_TIME + 3000, record.getLastUpdateTime());
+        assertEquals(Record.EPOCH_TIME + 4000, record.getLastStoredTime());
+        assertEquals(Long.MAX_VALUE, record.getExpirationTime());
+        assertEquals(7, record.getHits());
+        assertEquals(11, record.getVersion());
+        assertSame(metadata, record.getMetadata());
+    }
+
+    @Test
+    public void testColumns_areAllocatedOnlyForNonDefaultValues() {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        for (int i = 0; i < 100; i++) {
+            CompactDataRecord record = (CompactDataRecord) factory.newRecord(i);
+            record.setRawTtl(Integer.MAX_VALUE);
+            record.setRawMaxIdle(Integer.MAX_VALUE);
+            record.attach(slab);
+        }
+        // only the slot generations are allocated
+        long capacity = 128;
+        assertEquals(capacity * INT_SIZE_IN_BYTES, slab.getCost());
+
+        CompactDataRecord record = (CompactDataRecord) factory.newRecord("value");
+        record.setRawTtl(Integer.MAX_VALUE);
+        record.setRawMaxIdle(Integer.MAX_VALUE);
+        record.setHits(1);
+        record.attach(slab);
+        assertEquals(2 * capacity * INT_SIZE_IN_BYTES, slab.getCost());
+        assertEquals(1, record.getHits());
+    }
+
+    @Test
+    public void testGrow_keepsValuesOfExistingSlots() {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        CompactDataRecord[] records = new CompactDataRecord[1000];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = (CompactDataRecord) factory.newRecord(i);
+            records[i].attach(slab);
+            records[i].setVersion(i);
+            records[i].setHits(i);
+        }
+
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(i, records[i].getVersion());
+            assertEquals(i, records[i].getHits());
+            assertEquals(UNSET, records[i].getRawCreationTime());
+            assertEquals(0, records[i].getRawTtl());
+        }
+    }
+
+    @Test
+    public void testReleasedSlot_isReusedOnlyAfterReleaseDeferred() {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        CompactDataRecord first = (CompactDataRecord) factory.newRecord("first");
+        first.attach(slab);
+        first.setMetadata(new Metadata());
+        int slot = first.getSlot();
+
+        first.release();
+        CompactDataRecord second = (CompactDataRecord) factory.newRecord("second");
+        second.attach(slab);
+        assertNotEquals(slot, second.getSlot());
+
+        slab.releaseDeferred();
+        CompactDataRecord third = (CompactDataRecord) factory.newRecord("third");
+        third.attach(slab);
+        assertEquals(slot, third.getSlot());
+        assertNull(third.getMetadata());
+    }
+
+    @Test
+    public void testReleasedRecord_keepsItsFieldsAfterSlotReuse() {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        CompactDataRecord first = (CompactDataRecord) factory.newRecord("first");
+        first.attach(slab);
+        Metadata metadata = new Metadata();
+        first.setMetadata(metadata);
+        first.setHits(5);
+        first.setVersion(3);
+        int slot = first.getSlot();
+        int generation = slab.getGeneration(slot);
+
+        first.release();
+        slab.releaseDeferred();
+        assertFalse(slab.isLive(slot, generation));
+
+        CompactDataRecord second = (CompactDataRecord) factory.newRecord("second");
+        second.attach(slab);
+        second.setHits(9);
+        second.setVersion(7);
+        assertEquals(slot, second.getSlot());
+
+        assertEquals(5, first.getHits());
+        assertEquals(3, first.getVersion());
+        assertSame(metadata, first.getMetadata());
+        assertEquals(9, second.getHits());
+        assertEquals(7, second.getVersion());
+        assertNull(second.getMetadata());
+    }
+
+    @Test
+    public void testConcurrentReader_neverSeesFieldsOfOtherRecords() throws Exception {
+        RecordSlab slab = RecordSlab.newPartitionSlab();
+        AtomicReferenceArray<CompactDataRecord> records = new AtomicReferenceArray<>(64);
+        for (int i = 0; i < records.length(); i++) {
+            records.set(i, newRecordWithHits(slab, i));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                for (int i = 0; i < records.length(); i++) {
+                    CompactDataRecord record = records.get(i);
+                    int hits = record.getHits();
+                    if (hits % records.length() != i || record.getVersion() != hits) {
+                        failure.set("index=" + i + ", hits=" + hits + ", version=" + record.getVersion());
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        // replace the records over and over, the new records reuse the released slots
+        for (int round = 1; round < 2000 && failure.get() == null; round++) {
+            for (int i = 0; i < records.length(); i++) {
+                records.get(i).release();
+                slab.releaseDeferred();
+                records.set(i, newRecordWithHits(slab, round * records.length() + i));
+            }
+        }
+        stop.set(true);
+        reader.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void testEquals() {
+        Record<Data> record = factory.newRecord("value");
+        Record<Data> other = factory.newRecord("value");
+        assertEquals(record, other);
+        assertEquals(record.hashCode(), other.hashCode());
+
+        other.setHits(3);
+        assertNotEquals(record, other);
+        assertNotEquals(record, statsFactory.newRecord("value"));
+    }
+
+    private CompactDataRecord newRecordWithHits(RecordSlab slab, int hits) {
+        CompactDataRecord record = (CompactDataRecord) factory.newRecord(hits);
+        record.attach(slab);
+        record.setHits(hits);
+        record.setVersion(hits);
+        return record;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Compares {@link StorageImpl} holding one {@code DataRecord} per entry with
+ * {@link CompactRecordStorage}. The {@code ·gc.alloc.rate.norm} reported by the
+ * GC profiler for {@link #put()} shows the allocated bytes per entry.
+ */
+@State(Scope.Benchmark)
+public class CompactRecordStorageBenchmark {
+
+    private static final int ENTRY_COUNT = 100_000;
+
+    @Param({"DATA", "COMPACT"})
+    public String layout;
+
+    private SerializationService ss;
+    private RecordFactory<Data> recordFactory;
+    private StorageImpl<Record> storage;
+    private Data[] keys;
+    private Data value;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig().setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        if ("COMPACT".equals(layout)) {
+            recordFactory = new CompactDataRecordFactory(mapConfig, ss);
+            storage = new CompactRecordStorage(ss);
+        } else {
+            recordFactory = new DataRecordFactory(mapConfig, ss);
+            storage = new StorageImpl<>(InMemoryFormat.BINARY, ss);
+        }
+        keys = new Data[ENTRY_COUNT];
+        value = ss.toData("value");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            keys[i] = ss.toData(i);
+            storage.put(keys[i], newRecord());
+        }
+        storage.disposeDeferredBlocks();
+    }
+
+    @Benchmark
+    public void put() {
+        storage.put(nextKey(), newRecord());
+        storage.disposeDeferredBlocks();
+    }
+
+    @Benchmark
+    public Record get() {
+        Record record = storage.get(nextKey());
+        record.onAccess(System.currentTimeMillis());
+        return record;
+    }
+
+    @Benchmark
+    public void evictAndPut() {
+        Data key = nextKey();
+        storage.removeRecord(key, storage.get(key));
+        storage.disposeDeferredBlocks();
+        storage.put(key, newRecord());
+    }
+
+    private Record newRecord() {
+        Record record = recordFactory.newRecord(value);
+        record.setTtl(Long.MAX_VALUE);
+        record.setMaxIdle(Long.MAX_VALUE);
+        record.setCreationTime(System.currentTimeMillis());
+        return record;
+    }
+
+    private Data nextKey() {
+        Data key = keys[index];
+        index = index + 1 == ENTRY_COUNT ? 0 : index + 1;
+        return key;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(CompactRecordStorageBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .threads(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.record.CompactDataRecord;
+import com.hazelcast.map.impl.record.CompactDataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactRecordStorageTest {
+
+    private SerializationService ss;
+    private CompactDataRecordFactory recordFactory;
+    private CompactRecordStorage storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        recordFactory = new CompactDataRecordFactory(new MapConfig().setStatisticsEnabled(false), ss);
+        storage = new CompactRecordStorage(ss);
+    }
+
+    @Test
+    public void test_put_attachesRecordToPartitionSlab() {
+        Data key = ss.toData(1);
+        Record record = recordFactory.newRecord("value");
+        record.setVersion(5);
+
+        storage.put(key, record);
+
+        CompactDataRecord stored = (CompactDataRecord) storage.get(key);
+        assertSame(record, stored);
+        assertSame(storage.getSlab(), stored.getSlab());
+        assertEquals(5, stored.getVersion());
+        assertEquals("value", ss.toObject(stored.getValue()));
+    }
+
+    @Test
+    public void test_put_recordFromAnotherStorage_isCopied() {
+        CompactRecordStorage other = new CompactRecordStorage(ss);
+        Data key = ss.toData(1);
+        Record record = recordFactory.newRecord("value");
+        record.setHits(3);
+        other.put(key, record);
+
+        storage.put(key, record);
+
+        assertSame(storage.getSlab(), ((CompactDataRecord) storage.get(key)).getSlab());
+        assertEquals(3, storage.get(key).getHits());
+    }
+
+    @Test
+    public void test_removedRecords_costIsReturned() {
+        for (int i = 0; i < 100; i++) {
+            Record record = recordFactory.newRecord(i);
+            record.setVersion(i + 1);
+            storage.put(ss.toData(i), record);
+        }
+        for (int i = 0; i < 100; i++) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(0, storage.size());
+        assertNull(storage.get(ss.toData(0)));
+        // the slab keeps its capacity, so only its columns remain accounted
+        assertEquals(storage.getSlab().getCost(), storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void test_replacedRecord_slotIsRecycled() {
+        Data key = ss.toData(1);
+        CompactDataRecord first = (CompactDataRecord) recordFactory.newRecord("first");
+        storage.put(key, first);
+        CompactDataRecord second = (CompactDataRecord) recordFactory.newRecord("second");
+        storage.put(key, second);
+        storage.disposeDeferredBlocks();
+
+        CompactDataRecord third = (CompactDataRecord) recordFactory.newRecord("third");
+        storage.put(ss.toData(2), third);
+
+        assertNotSame(first, storage.get(key));
+        assertEquals("second", ss.toObject(storage.get(key).getValue()));
+        assertEquals("third", ss.toObject(storage.get(ss.toData(2)).getValue()));
+    }
+
+    @Test
+    public void test_clear_resetsEstimate() {
+        long emptyCost = storage.getEntryCostEstimator().getEstimate();
+        for (int i = 0; i < 10; i++) {
+            storage.put(ss.toData(i), recordFactory.newRecord(i));
+        }
+
+        storage.clear(false);
+
+        assertEquals(0, storage.size());
+        assertEquals(emptyCost, storage.getEntryCostEstimator().getEstimate());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.query.impl.Metadata;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeStorageTest {
+
+    private SerializationService ss;
+    private StandardMemoryManager memoryManager;
+    private NativeRecordFactory recordFactory;
+    private NativeStorage storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new StandardMemoryManager(new MemorySize(16, MemoryUnit.MEGABYTES));
+        recordFactory = new NativeRecordFactory(ss);
+        storage = new NativeStorage(memoryManager, ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        memoryManager.dispose();
+    }
+
+    @Test
+    public void test_putAndGet() {
+        Record record = recordFactory.newRecord("value");
+        record.setVersion(3);
+        record.setHits(7);
+        storage.put(key(1), record);
+
+        Record stored = storage.get(key(1));
+        assertEquals(ss.toData("value"), stored.getValue());
+        assertEquals(3, stored.getVersion());
+        assertEquals(7, stored.getHits());
+        assertTrue(storage.containsKey(key(1)));
+        assertFalse(storage.containsKey(key(2)));
+        assertNull(storage.get(key(2)));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void test_put_attachesRecord() {
+        Record record = recordFactory.newRecord("value");
+        storage.put(key(1), record);
+
+        record.setHits(42);
+
+        assertEquals(42, storage.get(key(1)).getHits());
+        assertEquals(record, storage.get(key(1)));
+    }
+
+    @Test
+    public void test_put_replacesExistingEntry() {
+        storage.put(key(1), recordFactory.newRecord("value1"));
+        storage.put(key(1), recordFactory.newRecord("value2"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals(ss.toData("value2"), storage.get(key(1)).getValue());
+    }
+
+    @Test
+    public void test_updateRecordValue() {
+        storage.put(key(1), recordFactory.newRecord("value1"));
+        long costBefore = storage.getEntryCostEstimator().getEstimate();
+
+        storage.updateRecordValue(key(1), storage.get(key(1)), "a-much-longer-value");
+
+        assertEquals(ss.toData("a-much-longer-value"), storage.get(key(1)).getValue());
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > costBefore);
+    }
+
+    @Test
+    public void test_metadata() {
+        Metadata metadata = new Metadata();
+        Record record = recordFactory.newRecord("value");
+        record.setMetadata(metadata);
+        storage.put(key(1), record);
+
+        assertSame(metadata, storage.get(key(1)).getMetadata());
+
+        storage.removeRecord(key(1), storage.get(key(1)));
+        storage.put(key(1), recordFactory.newRecord("value"));
+        assertNull(storage.get(key(1)).getMetadata());
+    }
+
+    @Test
+    public void test_removeRecord() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+        for (int i = 0; i < count; i += 2) {
+            storage.removeRecord(key(i), storage.get(key(i)));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(count / 2, storage.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(key(i)));
+        }
+    }
+
+    @Test
+    public void test_removedRecord_isReadableUntilDeferredBlocksAreDisposed() {
+        storage.put(key(1), recordFactory.newRecord("value"));
+        Record record = storage.get(key(1));
+
+        storage.removeRecord(key(1), record);
+
+        assertFalse(storage.containsKey(key(1)));
+        assertEquals(ss.toData("value"), record.getValue());
+        storage.disposeDeferredBlocks();
+    }
+
+    @Test
+    public void test_mutationTolerantIterator() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+
+        Set<Object> values = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            storage.removeRecord(entry.getKey(), entry.getValue());
+            values.add(ss.toObject(entry.getValue().getValue()));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(count, values.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void test_fetchKeys_whileIndexIsResized() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+
+        Set<Data> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        int next = 100;
+        do {
+            MapKeysWithCursor batch = storage.fetchKeys(pointers, 10);
+            pointers = batch.getIterationPointers();
+            for (Data key : batch.getBatch()) {
+                assertTrue("Key seen twice: " + key, keys.add(key));
+            }
+            // grow the index while iterating
+            for (int i = 0; i < 50; i++) {
+                storage.put(key(next++), recordFactory.newRecord(next));
+            }
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(keys.contains(key(i)));
+        }
+    }
+
+    @Test
+    public void test_getRandomSamples() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+
+        int sampleCount = 0;
+        for (Object sample : storage.getRandomSamples(15)) {
+            Data key = storage.extractDataKeyFromLazy((EntryView) sample);
+            assertTrue(storage.containsKey(key));
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void test_clear_releasesNativeMemory() {
+        long usedBefore = memoryManager.getUsedNative();
+        for (int i = 0; i < 1000; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+
+        storage.clear(true);
+
+        assertEquals(0, storage.size());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+        assertTrue(memoryManager.getUsedNative() <= usedBefore);
+    }
+
+    @Test
+    public void test_destroy_releasesNativeMemory() {
+        for (int i = 0; i < 1000; i++) {
+            storage.put(key(i), recordFactory.newRecord(i));
+        }
+        storage.removeRecord(key(0), storage.get(key(0)));
+
+        storage.destroy(false);
+
+        assertEquals(0, memoryManager.getUsedNative());
+    }
+
+    @Test
+    public void test_put_whenOutOfNativeMemory() {
+        StandardMemoryManager smallMemoryManager = new StandardMemoryManager(new MemorySize(1, MemoryUnit.KILOBYTES));
+        try {
+            NativeStorage smallStorage = new NativeStorage(smallMemoryManager, ss);
+            try {
+                smallStorage.put(key(1), recordFactory.newRecord(new byte[2048]));
+                fail("Expected NativeOutOfMemoryError");
+            } catch (NativeOutOfMemoryError expected) {
+                assertEquals(0, smallStorage.size());
+            }
+            smallStorage.destroy(false);
+            assertEquals(0, smallMemoryManager.getUsedNative());
+        } finally {
+            smallMemoryManager.dispose();
+        }
+    }
+
+    private Data key(int i) {
+        return ss.toData("key-" + i);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PojoSerializer} with Java serialization and a hand-written
+ * {@link DataSerializable} for the same domain object. The serialized sizes
+ * are compared by {@code PojoSerializerTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class PojoSerializerBenchmark {
+
+    private SerializationService javaSerializationService;
+    private SerializationService pojoSerializationService;
+    private Order serializableOrder;
+    private PojoOrder pojoOrder;
+    private DataSerializableOrder dataSerializableOrder;
+    private Data javaData;
+    private Data pojoData;
+    private Data dataSerializableData;
+
+    @Setup
+    public void setUp() {
+        javaSerializationService = new DefaultSerializationServiceBuilder().build();
+        pojoSerializationService = newPojoSerializationService();
+        serializableOrder = new Order();
+        pojoOrder = new PojoOrder();
+        dataSerializableOrder = new DataSerializableOrder();
+        javaData = javaSerializationService.toData(serializableOrder);
+        pojoData = pojoSerializationService.toData(pojoOrder);
+        dataSerializableData = javaSerializationService.toData(dataSerializableOrder);
+    }
+
+    @Benchmark
+    public Data toData_javaSerialization() {
+        return javaSerializationService.toData(serializableOrder);
+    }
+
+    @Benchmark
+    public Data toData_dataSerializable() {
+        return javaSerializationService.toData(dataSerializableOrder);
+    }
+
+    @Benchmark
+    public Data toData_pojoSerializer() {
+        return pojoSerializationService.toData(pojoOrder);
+    }
+
+    @Benchmark
+    public Object toObject_javaSerialization() {
+        return javaSerializationService.toObject(javaData);
+    }
+
+    @Benchmark
+    public Object toObject_dataSerializable() {
+        return javaSerializationService.toObject(dataSerializableData);
+    }
+
+    @Benchmark
+    public Object toObject_pojoSerializer() {
+        return pojoSerializationService.toObject(pojoData);
+    }
+
+    private static SerializationService newPojoSerializationService() {
+        SerializationConfig config = new SerializationConfig();
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(PojoOrder.class).setImplementation(new PojoSerializer<>(PojoOrder.class)));
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    public static class Order implements Serializable {
+
+        long id = 1234567890L;
+        int customerId = 42;
+        int quantity = 7;
+        double price = 99.95;
+        boolean express = true;
+        String product = "hazelcast-enterprise";
+        String currency = "EUR";
+        long[] history = {1, 2, 3, 4};
+    }
+
+    public static class PojoOrder extends Order {
+    }
+
+    public static class DataSerializableOrder extends Order implements DataSerializable {
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeInt(customerId);
+            out.writeInt(quantity);
+            out.writeDouble(price);
+            out.writeBoolean(express);
+            out.writeUTF(product);
+            out.writeUTF(currency);
+            out.writeLongArray(history);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            customerId = in.readInt();
+            quantity = in.readInt();
+            price = in.readDouble();
+            express = in.readBoolean();
+            product = in.readUTF();
+            currency = in.readUTF();
+            history = in.readLongArray();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PojoSerializerBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PojoSerializerTest {
+
+    @Test
+    public void testRoundTrip() {
+        testRoundTrip(ByteOrder.BIG_ENDIAN, false);
+    }
+
+    @Test
+    public void testRoundTrip_littleEndianUsingUnsafe() {
+        testRoundTrip(ByteOrder.LITTLE_ENDIAN, true);
+    }
+
+    private void testRoundTrip(ByteOrder order, boolean allowUnsafe) {
+        SerializationConfig config = new SerializationConfig().setByteOrder(order).setAllowUnsafe(allowUnsafe);
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(Person.class).setImplementation(new PojoSerializer<>(Person.class)));
+        SerializationService ss = new DefaultSerializationServiceBuilder().setConfig(config).build();
+        Person person = newPerson();
+
+        Person deserialized = ss.toObject(ss.toData(person));
+
+        assertEquals(person, deserialized);
+        assertEquals(0, deserialized.cached);
+    }
+
+    @Test
+    public void testRoundTrip_withNullFields() {
+        SerializationService ss = newSerializationService();
+        Person person = new Person(1, null, null, null);
+
+        assertEquals(person, ss.toObject(ss.toData(person)));
+    }
+
+    @Test
+    public void testRegisteredByClassName_throughSerializerConfig() {
+        SerializationService ss = newSerializationService();
+
+        Data data = ss.toData(newPerson());
+
+        assertEquals(new PojoSerializer<>(Person.class).getTypeId(), data.getType());
+        assertEquals(newPerson(), ss.toObject(data));
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        SerializationService ss = newSerializationService();
+        Person person = newPerson();
+
+        int pojoSize = ss.toData(person).totalSize();
+        int javaSize = new DefaultSerializationServiceBuilder().build().toData(person).totalSize();
+
+        assertTrue("pojo: " + pojoSize + ", java: " + javaSize, pojoSize < javaSize / 2);
+    }
+
+    @Test
+    public void testTypeId() {
+        assertEquals(42, new PojoSerializer<>(Person.class, 42).getTypeId());
+        assertTrue(new PojoSerializer<>(Person.class).getTypeId() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeId_whenNotPositive() {
+        new PojoSerializer<>(Person.class, -1);
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testSubclassOfRegisteredType() {
+        SerializationConfig config = new SerializationConfig();
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClass(Named.class).setImplementation(new PojoSerializer<>(Named.class)));
+        SerializationService ss = new DefaultSerializationServiceBuilder().setConfig(config).build();
+
+        ss.toData(newPerson());
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testNoDefaultConstructor() {
+        new PojoSerializer<>(NoDefaultConstructor.class);
+    }
+
+    private static SerializationService newSerializationService() {
+        SerializationConfig config = new SerializationConfig();
+        config.addSerializerConfig(new SerializerConfig()
+                .setTypeClassName(Person.class.getName()).setClassName(PojoSerializer.class.getName()));
+        return new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    private static Person newPerson() {
+        return new Person(42, "Joe", new int[]{1, 2, 3}, singletonList("tag"));
+    }
+
+    static class Named implements Serializable {
+
+        protected String name;
+    }
+
+    static class Person extends Named {
+
+        private final long id;
+        private boolean active = true;
+        private byte b = 1;
+        private char c = 'c';
+        private short s = 2;
+        private int i = 3;
+        private float f = 4.5f;
+        private double d = 6.7;
+        private byte[] bytes = {8, 9};
+        private long[] longs = {10, 11};
+        private double[] doubles = {12.5};
+        private int[] scores;
+        private Object tags;
+        private transient int cached;
+
+        @SuppressWarnings("unused")
+        private Person() {
+            this.id = 0;
+        }
+
+        Person(long id, String name, int[] scores, Object tags) {
+            this.id = id;
+            this.name = name;
+            this.scores = scores;
+            this.tags = tags;
+            this.cached = 13;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Person that = (Person) o;
+            return id == that.id && active == that.active && b == that.b && c == that.c && s == that.s && i == that.i
+                    && f == that.f && d == that.d && Objects.equals(name, that.name) && Arrays.equals(bytes, that.bytes)
+                    && Arrays.equals(longs, that.longs) && Arrays.equals(doubles, that.doubles)
+                    && Arrays.equals(scores, that.scores) && Objects.equals(tags, that.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) id;
+        }
+    }
+
+    static class NoDefaultConstructor {
+
+        private final int value;
+
+        NoDefaultConstructor(int value) {
+            this.value = value;
+        }
+    }
+}
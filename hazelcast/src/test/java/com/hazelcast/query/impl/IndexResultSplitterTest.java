@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexResultSplitterTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    @Test
+    public void testPlainResult() {
+        Set<QueryableEntry> entries = entries(0, 1000);
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(entries, 7);
+
+        assertEquals(7, chunks.size());
+        assertEquals(entries, union(chunks));
+    }
+
+    @Test
+    public void testSingleChunk() {
+        Set<QueryableEntry> entries = entries(0, 10);
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(entries, 1);
+
+        assertEquals(1, chunks.size());
+        assertEquals(entries, new HashSet<>(chunks.get(0)));
+    }
+
+    @Test
+    public void testAndResultSet() {
+        Set<QueryableEntry> smallest = entries(0, 500);
+        Set<QueryableEntry> other = entries(250, 1000);
+        AndResultSet resultSet = new AndResultSet(smallest, singletonList(other), singletonList(new EvenKeyPredicate()));
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(resultSet, 4);
+
+        assertEquals(4, chunks.size());
+        Set<QueryableEntry> union = union(chunks);
+        assertEquals(new HashSet<>(resultSet), union);
+        assertEquals(125, union.size());
+    }
+
+    @Test
+    public void testAndResultSet_withoutNoIndexPredicates() {
+        AndResultSet resultSet = new AndResultSet(entries(0, 500), singletonList(entries(400, 1000)), null);
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(resultSet, 3);
+
+        assertEquals(entries(400, 500), union(chunks));
+    }
+
+    @Test
+    public void testOrResultSet_skipsDuplicates() {
+        List<Set<QueryableEntry>> indexedResults = asList(entries(0, 600), entries(400, 1000), entries(500, 700));
+        OrResultSet resultSet = new OrResultSet(indexedResults);
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(resultSet, 8);
+
+        assertEquals(8, chunks.size());
+        assertEquals(entries(0, 1000), union(chunks));
+    }
+
+    @Test
+    public void testOrResultSet_groupsEntriesByPartitionHash() {
+        List<Set<QueryableEntry>> indexedResults = asList(entries(0, 600), entries(400, 1000));
+
+        List<Collection<QueryableEntry>> chunks = IndexResultSplitter.split(new OrResultSet(indexedResults), 5);
+
+        for (int i = 0; i < chunks.size(); i++) {
+            for (int j = i + 1; j < chunks.size(); j++) {
+                Set<QueryableEntry> intersection = new HashSet<>(chunks.get(i));
+                intersection.retainAll(chunks.get(j));
+                assertTrue(intersection.isEmpty());
+            }
+        }
+    }
+
+    private Set<QueryableEntry> entries(int from, int to) {
+        Set<QueryableEntry> entries = new HashSet<>();
+        for (int i = from; i < to; i++) {
+            entries.add(new CachedQueryEntry(ss, ss.toData(i), i, extractors));
+        }
+        return entries;
+    }
+
+    private static Set<QueryableEntry> union(List<Collection<QueryableEntry>> chunks) {
+        Set<QueryableEntry> union = new HashSet<>();
+        int total = 0;
+        for (Collection<QueryableEntry> chunk : chunks) {
+            List<QueryableEntry> iterated = new ArrayList<>(chunk);
+            assertEquals(chunk.size(), iterated.size());
+            total += iterated.size();
+            union.addAll(iterated);
+        }
+        // the chunks must be disjoint
+        assertEquals(union.size(), total);
+        return union;
+    }
+
+    private static class EvenKeyPredicate implements Predicate<Integer, Integer> {
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getKey() % 2 == 0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexValueStatisticsTest {
+
+    @Test
+    public void testEntryCount() {
+        IndexValueStatistics statistics = new IndexValueStatistics(false);
+        for (int i = 0; i < 100; ++i) {
+            statistics.onInsert(i);
+        }
+        statistics.onUpdate(1000);
+        statistics.onRemove();
+
+        assertEquals(99, statistics.getEntryCount());
+
+        statistics.clear();
+        assertEquals(0, statistics.getEntryCount());
+        assertEquals(0, statistics.getDistinctValueCount());
+        statistics.onRemove();
+        assertEquals(0, statistics.getEntryCount());
+    }
+
+    @Test
+    public void testDistinctValueCount() {
+        IndexValueStatistics statistics = new IndexValueStatistics(false);
+        for (int i = 0; i < 10000; ++i) {
+            statistics.onInsert(i % 10);
+        }
+        assertEquals(10, statistics.getDistinctValueCount());
+        assertEquals(0.1, statistics.estimateEqualSelectivity(), 0.0);
+
+        statistics.clear();
+        for (int i = 0; i < 10000; ++i) {
+            statistics.onInsert(i);
+        }
+        assertEquals(10000, statistics.getDistinctValueCount(), 500);
+    }
+
+    @Test
+    public void testDistinctValueCountNeverExceedsEntryCount() {
+        IndexValueStatistics statistics = new IndexValueStatistics(false);
+        for (int i = 0; i < 100; ++i) {
+            statistics.onInsert(i);
+        }
+        for (int i = 0; i < 90; ++i) {
+            statistics.onRemove();
+        }
+        assertEquals(10, statistics.getDistinctValueCount());
+    }
+
+    @Test
+    public void testRangeSelectivity() {
+        IndexValueStatistics statistics = new IndexValueStatistics(true);
+        for (int i = 0; i < 10000; ++i) {
+            statistics.onInsert(i);
+        }
+
+        assertEquals(1.0, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, null, false, null, false), 0.0);
+        assertEquals(0.1, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, 9000, true, null, false), 0.05);
+        assertEquals(0.5, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, null, false, 5000, false), 0.1);
+        assertEquals(0.2, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, "1000", true, "3000", true), 0.1);
+        assertEquals(0.0, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, 20000, true, null, false), 0.0);
+        assertEquals(0.0, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, 3000, true, 1000, true), 0.0);
+    }
+
+    @Test
+    public void testRangeSelectivityIgnoresNulls() {
+        IndexValueStatistics statistics = new IndexValueStatistics(true);
+        for (int i = 0; i < 100; ++i) {
+            statistics.onInsert(i % 2 == 0 ? null : i);
+        }
+
+        assertEquals(0.5, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, null, false, null, false), 0.0);
+    }
+
+    @Test
+    public void testRangeSelectivityUnknown() {
+        IndexValueStatistics unordered = new IndexValueStatistics(false);
+        unordered.onInsert(1);
+        assertTrue(unordered.estimateRangeSelectivity(INTEGER_CONVERTER, 0, true, null, false) < 0);
+
+        IndexValueStatistics empty = new IndexValueStatistics(true);
+        assertTrue(empty.estimateRangeSelectivity(INTEGER_CONVERTER, 0, true, null, false) < 0);
+    }
+
+    @Test
+    public void testStripesAreCombined() throws Exception {
+        IndexValueStatistics statistics = new IndexValueStatistics(true, 4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; ++t) {
+            int offset = t * 2500;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2500; ++i) {
+                    statistics.onInsert(offset + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // removals might be performed by a thread other than the inserting one
+        for (int i = 0; i < 100; ++i) {
+            statistics.onRemove();
+        }
+
+        assertEquals(9900, statistics.getEntryCount());
+        assertEquals(9900, statistics.getDistinctValueCount(), 500);
+        assertEquals(0.5, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, null, false, 5000, false), 0.1);
+        assertEquals(0.1, statistics.estimateRangeSelectivity(INTEGER_CONVERTER, 9000, true, null, false), 0.05);
+    }
+
+}
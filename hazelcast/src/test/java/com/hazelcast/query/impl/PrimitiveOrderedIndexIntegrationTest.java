@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveOrderedIndexIntegrationTest extends HazelcastTestSupport {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrimitiveKeys_rejectedForHashIndex() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        instance.getMap(randomMapName()).addIndex(new IndexConfig(IndexType.HASH, "age").setPrimitiveKeys(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrimitiveKeys_rejectedForCompositeIndex() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        instance.getMap(randomMapName())
+                .addIndex(new IndexConfig(IndexType.SORTED, "age", "salary").setPrimitiveKeys(true));
+    }
+
+    @Test
+    public void testQueries_matchSortedIndex() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("primitive*")
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age").setPrimitiveKeys(true))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "salary").setPrimitiveKeys(true));
+        config.getMapConfig("sorted*")
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age"))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "salary"));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Employee> primitiveMap = instance.getMap("primitive");
+        IMap<Integer, Employee> sortedMap = instance.getMap("sorted");
+
+        for (int i = 0; i < 1000; i++) {
+            Employee employee = new Employee(i % 70, i % 3 == 0 ? null : i * 10.5);
+            primitiveMap.put(i, employee);
+            sortedMap.put(i, employee);
+        }
+        for (int i = 0; i < 1000; i += 7) {
+            primitiveMap.remove(i);
+            sortedMap.remove(i);
+        }
+        for (int i = 1; i < 1000; i += 11) {
+            Employee employee = new Employee(i % 13, i * 2.0);
+            primitiveMap.put(i, employee);
+            sortedMap.put(i, employee);
+        }
+
+        List<Predicate<Integer, Employee>> predicates = Arrays.asList(
+                Predicates.equal("age", 42),
+                Predicates.equal("age", 42.0),
+                Predicates.between("age", 10, 20),
+                Predicates.between("age", 10.5, 20.5),
+                Predicates.greaterThan("age", 60),
+                Predicates.lessEqual("age", 5),
+                Predicates.in("age", 1, 2, 3, 1000),
+                Predicates.between("salary", 100, 2000),
+                Predicates.greaterEqual("salary", 5000.5),
+                Predicates.equal("salary", null),
+                Predicates.and(Predicates.greaterThan("age", 30), Predicates.lessThan("salary", 4000)));
+        for (Predicate<Integer, Employee> predicate : predicates) {
+            assertEquals(predicate.toString(), new HashSet<>(sortedMap.keySet(predicate)),
+                    new HashSet<>(primitiveMap.keySet(predicate)));
+        }
+    }
+
+    @Test
+    public void testMixedValues_matchSortedIndex() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("primitive*").addIndexConfig(new IndexConfig(IndexType.SORTED, "value").setPrimitiveKeys(true));
+        config.getMapConfig("sorted*").addIndexConfig(new IndexConfig(IndexType.SORTED, "value"));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Measurement> primitiveMap = instance.getMap("primitive");
+        IMap<Integer, Measurement> sortedMap = instance.getMap("sorted");
+
+        // integral values first, then fractional ones and finally values not representable as doubles
+        for (int i = 0; i < 300; i++) {
+            Number value = i < 100 ? (Number) i : i < 200 ? (Number) (i + 0.5) : (Number) (Long.MAX_VALUE - i);
+            primitiveMap.put(i, new Measurement(value));
+            sortedMap.put(i, new Measurement(value));
+        }
+
+        List<Predicate<Integer, Measurement>> predicates = Arrays.asList(
+                Predicates.equal("value", 42),
+                Predicates.in("value", 1, 2, 3),
+                Predicates.between("value", 10, 150),
+                Predicates.greaterThan("value", 190),
+                Predicates.lessEqual("value", 5));
+        for (Predicate<Integer, Measurement> predicate : predicates) {
+            assertEquals(predicate.toString(), new HashSet<>(sortedMap.keySet(predicate)),
+                    new HashSet<>(primitiveMap.keySet(predicate)));
+        }
+    }
+
+    public static class Measurement implements Serializable {
+
+        private final Number value;
+
+        public Measurement(Number value) {
+            this.value = value;
+        }
+
+        public Number getValue() {
+            return value;
+        }
+    }
+
+    public static class Employee implements Serializable {
+
+        private final int age;
+        private final Double salary;
+
+        public Employee(int age, Double salary) {
+            this.age = age;
+            this.salary = salary;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Double getSalary() {
+            return salary;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+
+/**
+ * Compares range scans of {@link OrderedIndexStore} and {@link PrimitiveOrderedIndexStore}
+ * over long attribute values.
+ */
+@State(Scope.Benchmark)
+public class PrimitiveOrderedIndexStoreBenchmark {
+
+    private static final int ENTRY_COUNT = 1_000_000;
+    private static final int RANGE_WIDTH = 1000;
+
+    @Param({"ORDERED", "PRIMITIVE"})
+    public String store;
+
+    private IndexStore indexStore;
+    private final Random random = new Random(404);
+
+    @Setup
+    public void setUp() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        indexStore = "PRIMITIVE".equals(store)
+                ? new PrimitiveOrderedIndexStore(IndexCopyBehavior.NEVER)
+                : new OrderedIndexStore(IndexCopyBehavior.NEVER);
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            QueryableEntry entry = new QueryEntry(ss, ss.toData(i), i, extractors);
+            indexStore.insert(i, entry, IndexOperationStats.EMPTY);
+        }
+    }
+
+    @Benchmark
+    public void between(Blackhole blackhole) {
+        long from = random.nextInt(ENTRY_COUNT - RANGE_WIDTH);
+        for (QueryableEntry entry : indexStore.getRecords(from, true, from + RANGE_WIDTH, false)) {
+            blackhole.consume(entry);
+        }
+    }
+
+    @Benchmark
+    public void equal(Blackhole blackhole) {
+        for (QueryableEntry entry : indexStore.getRecords((long) random.nextInt(ENTRY_COUNT))) {
+            blackhole.consume(entry);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // @formatter:off
+        Options opt = new OptionsBuilder()
+                .include(PrimitiveOrderedIndexStoreBenchmark.class.getSimpleName())
+                .warmupIterations(5)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .threads(1)
+                .build();
+        // @formatter:on
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.query.impl.predicates.AndPredicate;
+import com.hazelcast.query.impl.predicates.EqualPredicate;
+import com.hazelcast.query.impl.predicates.InPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveOrderedIndexStoreTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final PrimitiveOrderedIndexStore store = new PrimitiveOrderedIndexStore(IndexCopyBehavior.COPY_ON_READ);
+
+    @Test
+    public void testIntegralValues() {
+        for (int i = 0; i < 100; i++) {
+            insert(i, i);
+        }
+
+        assertKeys(store.getRecords(42), 42);
+        assertKeys(store.getRecords(42L), 42);
+        assertKeys(store.getRecords(42.0), 42);
+        assertKeys(store.getRecords(42.5));
+        assertKeys(store.getRecords(10, true, 12, true), 10, 11, 12);
+        assertKeys(store.getRecords(10, false, 12, false), 11);
+        assertKeys(store.getRecords(9.5, true, 12.5, false), 10, 11, 12);
+        assertKeys(store.getRecords(Comparison.LESS, 2), 0, 1);
+        assertKeys(store.getRecords(Comparison.LESS_OR_EQUAL, 2), 0, 1, 2);
+        assertKeys(store.getRecords(Comparison.GREATER, 97), 98, 99);
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, 97.5), 98, 99);
+        assertKeys(store.getRecords(new HashSet<>(asList(1, 3, 1000))), 1, 3);
+        assertKeys(store.getRecords("42"));
+    }
+
+    @Test
+    public void testFloatingPointValues() {
+        insert(1, -1.5);
+        insert(2, -0.5);
+        insert(3, 0.0);
+        insert(4, 2.25);
+        insert(5, 7L);
+
+        assertKeys(store.getRecords(2.25), 4);
+        assertKeys(store.getRecords(7), 5);
+        assertKeys(store.getRecords(-1.0, true, 2.25, false), 2, 3);
+        assertKeys(store.getRecords(Comparison.LESS, 0.0), 1, 2);
+        assertKeys(store.getRecords(Comparison.GREATER, 0), 4, 5);
+    }
+
+    @Test
+    public void testDates() {
+        insert(1, new Date(1000));
+        insert(2, new Date(2000));
+        insert(3, new Date(3000));
+
+        assertKeys(store.getRecords(new Date(2000)), 2);
+        assertKeys(store.getRecords(new Date(1500), true, new Date(3000), true), 2, 3);
+    }
+
+    @Test
+    public void testTimestamps() {
+        insert(1, new Timestamp(1000));
+        insert(2, new Timestamp(2000));
+
+        assertFalse(store.usesFallback());
+        assertKeys(store.getRecords(new Timestamp(2000)), 2);
+        assertKeys(store.getRecords(timestamp(1000, 1)));
+        assertKeys(store.getRecords(timestamp(1000, 1), true, new Timestamp(2000), true), 2);
+        assertKeys(store.getRecords(new Timestamp(1000), false, timestamp(2000, 1), false), 2);
+        assertKeys(store.getRecords(Comparison.LESS_OR_EQUAL, timestamp(1000, 1)), 1);
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, timestamp(1000, 1)), 2);
+
+        insert(3, timestamp(1000, 1));
+
+        assertTrue(store.usesFallback());
+        assertKeys(store.getRecords(new Timestamp(1000)), 1);
+        assertKeys(store.getRecords(timestamp(1000, 1)), 3);
+        assertKeys(store.getRecords(Comparison.GREATER, new Timestamp(1000)), 2, 3);
+    }
+
+    @Test
+    public void testNullValues() {
+        insert(1, NULL);
+        insert(2, 5);
+
+        assertKeys(store.getRecords(NULL), 1);
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, 0), 2);
+        assertKeys(store.getRecords(new HashSet<>(Arrays.<Comparable>asList(NULL, 5))), 1, 2);
+
+        remove(1, NULL);
+        assertKeys(store.getRecords(NULL));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        insert(1, 10);
+        insert(2, 20);
+
+        QueryableEntry entry = entry(1);
+        store.update(10, 30, entry, IndexOperationStats.EMPTY);
+        assertKeys(store.getRecords(10));
+        assertKeys(store.getRecords(30), 1);
+
+        remove(2, 20);
+        remove(2, 20);
+        assertKeys(store.getRecords(Comparison.GREATER, 0), 1);
+
+        // the id of the removed entry is reused
+        insert(3, 20);
+        assertKeys(store.getRecords(Comparison.GREATER, 0), 1, 3);
+    }
+
+    @Test
+    public void testMultiValueAttributes_areDeduplicated() {
+        MultiResult<Object> values = new MultiResult<>();
+        values.add(1);
+        values.add(2);
+        values.add(3);
+        store.insert(values, entry(1), IndexOperationStats.EMPTY);
+        insert(2, 2);
+
+        assertKeys(store.getRecords(1, true, 3, true), 1, 2);
+        assertKeys(store.getRecords(new HashSet<>(asList(1, 2))), 1, 2);
+
+        store.remove(values, key(1), null, IndexOperationStats.EMPTY);
+        assertKeys(store.getRecords(1, true, 3, true), 2);
+    }
+
+    @Test
+    public void testClear() {
+        insert(1, 1.5);
+        store.clear();
+        assertKeys(store.getRecords(Comparison.GREATER, 0));
+
+        // the encoding is chosen again after clear
+        insert(1, 1);
+        insert(2, 2);
+        assertKeys(store.getRecords(Comparison.GREATER, 0), 1, 2);
+    }
+
+    @Test
+    public void testNonIntegralValue_widensIntegralStore() {
+        insert(1, 1);
+        insert(2, 2L);
+        insert(3, 1.5);
+
+        assertFalse(store.usesFallback());
+        assertKeys(store.getRecords(1.5), 3);
+        assertKeys(store.getRecords(2), 2);
+        assertKeys(store.getRecords(1, true, 2, false), 1, 3);
+        assertKeys(store.getRecords(Comparison.GREATER, 1), 2, 3);
+
+        remove(1, 1);
+        assertKeys(store.getRecords(Comparison.LESS, 2), 3);
+    }
+
+    @Test
+    public void testNonIntegralValue_fallsBackIfValuesNotExactDoubles() {
+        insert(1, Long.MAX_VALUE);
+        insert(2, Long.MAX_VALUE - 1);
+        insert(3, 1.5);
+
+        assertTrue(store.usesFallback());
+        assertKeys(store.getRecords(Long.MAX_VALUE), 1);
+        assertKeys(store.getRecords(1.5), 3);
+        assertKeys(store.getRecords(Comparison.GREATER, 1), 1, 2, 3);
+
+        remove(1, Long.MAX_VALUE);
+        assertKeys(store.getRecords(Comparison.GREATER, 1), 2, 3);
+    }
+
+    @Test
+    public void testIntegralValue_fallsBackIfNotExactDouble() {
+        insert(1, 1.5);
+        insert(2, NULL);
+        insert(3, Long.MAX_VALUE);
+
+        assertTrue(store.usesFallback());
+        assertKeys(store.getRecords(Long.MAX_VALUE), 3);
+        assertKeys(store.getRecords(Long.MAX_VALUE - 1));
+        assertKeys(store.getRecords(NULL), 2);
+        assertKeys(store.getRecords(Comparison.GREATER, 0), 1, 3);
+    }
+
+    @Test
+    public void testUnsupportedValue_fallsBack() {
+        insert(1, "b");
+        insert(2, "a");
+        insert(3, NULL);
+
+        assertTrue(store.usesFallback());
+        assertKeys(store.getRecords("a"), 2);
+        assertKeys(store.getRecords("a", true, "b", true), 1, 2);
+
+        List<Object> visited = new ArrayList<>();
+        assertTrue(store.visitOrdered(null, false, entry -> visited.add(entry.getKey())));
+        assertEquals(asList(3, 2, 1), visited);
+
+        // the primitive encoding is used again after clear
+        store.clear();
+        insert(1, 1);
+        assertFalse(store.usesFallback());
+        assertKeys(store.getRecords(1), 1);
+    }
+
+    @Test
+    public void testMultiValueAttributes_areDeduplicatedAfterFallback() {
+        MultiResult<Object> values = new MultiResult<>();
+        values.add(1);
+        values.add(2);
+        store.insert(values, entry(1), IndexOperationStats.EMPTY);
+        insert(2, Long.MAX_VALUE);
+        insert(3, 1.5);
+
+        assertTrue(store.usesFallback());
+        assertKeys(store.getRecords(1, true, 2, true), 1, 3);
+    }
+
+    @Test
+    public void testEvaluate() {
+        for (int i = 0; i < 10; i++) {
+            insert(i, i);
+        }
+
+        assertTrue(store.canEvaluate(EqualPredicate.class));
+        assertTrue(store.canEvaluate(InPredicate.class));
+        assertFalse(store.canEvaluate(AndPredicate.class));
+        assertKeys(store.evaluate(new EqualPredicate("a", "5"), TypeConverters.INTEGER_CONVERTER), 5);
+        assertKeys(store.evaluate(new InPredicate("a", 1, 3L, "7", 100), TypeConverters.INTEGER_CONVERTER), 1, 3, 7);
+    }
+
+    @Test
+    public void testUnsupportedValue_removalIsIgnored() {
+        insert(1, 1);
+        remove(1, "value");
+        assertKeys(store.getRecords(1), 1);
+    }
+
+    @Test
+    public void testContains() {
+        insert(1, 1);
+        insert(2, 2);
+
+        Set<QueryableEntry> result = store.getRecords(Comparison.GREATER, 0);
+        assertTrue(result.contains(entry(1)));
+        assertFalse(result.contains(entry(3)));
+    }
+
+    private void insert(int key, Object value) {
+        store.insert(value, entry(key), IndexOperationStats.EMPTY);
+    }
+
+    private void remove(int key, Object value) {
+        store.remove(value, key(key), null, IndexOperationStats.EMPTY);
+    }
+
+    private Data key(int key) {
+        return ss.toData(key);
+    }
+
+    private QueryableEntry entry(int key) {
+        QueryableEntry entry = mock(QueryableEntry.class);
+        when(entry.getKeyData()).thenReturn(key(key));
+        when(entry.getKey()).thenReturn(key);
+        return entry;
+    }
+
+    private static Timestamp timestamp(long millis, int subMillisNanos) {
+        Timestamp timestamp = new Timestamp(millis);
+        timestamp.setNanos(timestamp.getNanos() + subMillisNanos);
+        return timestamp;
+    }
+
+    private static void assertKeys(Set<QueryableEntry> result, Integer... expectedKeys) {
+        Set<Object> actualKeys = new HashSet<>();
+        for (QueryableEntry entry : result) {
+            actualKeys.add(entry.getKey());
+        }
+        assertEquals(expectedKeys.length, result.size());
+        assertEquals(new HashSet<>(asList(expectedKeys)), actualKeys);
+    }
+}
@@ -25,6 +25,7 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -49,6 +50,9 @@ public class BitmapIndexInsertBenchmark {
 
     private final Random random = new Random(303);
 
+    @Param({"false", "true"})
+    public boolean compressed;
+
     private HazelcastInstance instance;
     private IMap<Integer, Person> personsBitmap;
     private IMap<Integer, Person> personsHash;
@@ -63,6 +67,7 @@ public class BitmapIndexInsertBenchmark {
         personsBitmapConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
         IndexConfig indexConfig = new IndexConfig(IndexType.BITMAP, "habits[any]");
         indexConfig.getBitmapIndexOptions().setUniqueKeyTransformation(RAW);
+        indexConfig.getBitmapIndexOptions().setCompressed(compressed);
         personsBitmapConfig.addIndexConfig(indexConfig);
 
         MapConfig personsHashConfig = config.getMapConfig("personsHash");
@@ -16,6 +16,7 @@
 
 package com.hazelcast.query.impl.bitmap;
 
+import com.hazelcast.aggregation.Aggregators;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.IndexConfig;
@@ -26,6 +27,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
 import com.hazelcast.query.Predicates;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -53,6 +55,9 @@ public class BitmapIndexQueriesBenchmark {
     private static final int DOMAIN = 25000;
 
     private final Random random = new Random(303);
+
+    @Param({"false", "true"})
+    public boolean compressed;
     private HazelcastInstance instance;
     private IMap<Integer, Person> personsBitmap;
     private IMap<Integer, Person> personsHash;
@@ -65,6 +70,7 @@ public class BitmapIndexQueriesBenchmark {
         personsBitmapConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
         IndexConfig indexConfig = new IndexConfig(IndexType.BITMAP, "habits[any]");
         indexConfig.getBitmapIndexOptions().setUniqueKeyTransformation(RAW);
+        indexConfig.getBitmapIndexOptions().setCompressed(compressed);
         personsBitmapConfig.addIndexConfig(indexConfig);
 
         MapConfig personsHashConfig = config.getMapConfig("personsHash");
@@ -97,6 +103,11 @@ public class BitmapIndexQueriesBenchmark {
         personsBitmap.entrySet(equal("habits[any]", random.nextInt(DOMAIN)));
     }
 
+    @Benchmark
+    public long bitmapCountEqual() {
+        return personsBitmap.aggregate(Aggregators.count(), equal("habits[any]", random.nextInt(DOMAIN)));
+    }
+
     @Benchmark
     public void hashQueriesEqual() {
         personsHash.entrySet(Predicates.equal("habits[any]", random.nextInt(DOMAIN)));
@@ -18,14 +18,17 @@ package com.hazelcast.query.impl.bitmap;
 
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
-import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.SortedSet;
@@ -38,10 +41,12 @@ import static com.hazelcast.query.Predicates.not;
 import static com.hazelcast.query.Predicates.notEqual;
 import static com.hazelcast.query.Predicates.or;
 import static com.hazelcast.query.impl.TypeConverters.INTEGER_CONVERTER;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
-@RunWith(HazelcastParallelClassRunner.class)
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
 public class BitmapTest {
 
@@ -87,7 +92,20 @@ public class BitmapTest {
         expectedQueries[9] = new ExpectedQuery(value -> bit(1, value));
     }
 
-    private final Bitmap<String> bitmap = new Bitmap<>();
+    @Parameterized.Parameters(name = "compressed:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{false}, {true}});
+    }
+
+    @Parameterized.Parameter
+    public boolean compressed;
+
+    private Bitmap<String> bitmap;
+
+    @Before
+    public void before() {
+        bitmap = new Bitmap<>(compressed);
+    }
 
     @Test
     public void testInsertUpdateRemove() {
@@ -181,6 +199,7 @@ public class BitmapTest {
 
             Iterator<String> actualResult = bitmap.evaluate(actualQuery, INTEGER_CONVERTER);
             expectedQuery.verify(actualResult);
+            assertEquals(expectedQuery.result.size(), bitmap.count(actualQuery, INTEGER_CONVERTER));
         }
     }
 
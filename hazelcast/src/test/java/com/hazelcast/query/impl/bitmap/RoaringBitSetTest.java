@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.bitmap;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static com.hazelcast.query.impl.bitmap.AscendingLongIterator.END;
+import static com.hazelcast.query.impl.bitmap.RoaringBitSet.ARRAY_CONTAINER_MAX_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RoaringBitSetTest {
+
+    private static final int CONTAINER_SIZE = 1 << 16;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testAddRemoveSparse() {
+        NavigableSet<Long> expected = new TreeSet<>();
+        RoaringBitSet actual = new RoaringBitSet();
+        verify(expected, actual);
+
+        for (long i = 0; i < 1000; ++i) {
+            add(expected, actual, i * i * 37);
+        }
+        verify(expected, actual);
+
+        for (long i = 0; i < 1000; i += 2) {
+            remove(expected, actual, i * i * 37);
+        }
+        verify(expected, actual);
+    }
+
+    @Test
+    public void testAddRemoveDense() {
+        NavigableSet<Long> expected = new TreeSet<>();
+        RoaringBitSet actual = new RoaringBitSet();
+
+        // crosses the array container limit
+        for (long i = 0; i < CONTAINER_SIZE; i += 3) {
+            add(expected, actual, i);
+        }
+        verify(expected, actual);
+
+        // converts back to an array container
+        for (long i = 0; i < CONTAINER_SIZE; i += 6) {
+            remove(expected, actual, i);
+        }
+        verify(expected, actual);
+
+        for (long i = 0; i < CONTAINER_SIZE; ++i) {
+            remove(expected, actual, i);
+        }
+        verify(expected, actual);
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void testAddRemoveRuns() {
+        NavigableSet<Long> expected = new TreeSet<>();
+        RoaringBitSet actual = new RoaringBitSet();
+
+        // long runs spanning several containers
+        for (long i = 10; i < 3 * CONTAINER_SIZE + 5; ++i) {
+            add(expected, actual, i);
+        }
+        verify(expected, actual);
+
+        // split the runs
+        for (long i = 100; i < 3 * CONTAINER_SIZE; i += 1000) {
+            remove(expected, actual, i);
+        }
+        verify(expected, actual);
+
+        // merge them back
+        for (long i = 100; i < 3 * CONTAINER_SIZE; i += 1000) {
+            add(expected, actual, i);
+        }
+        verify(expected, actual);
+
+        // remove run boundaries
+        remove(expected, actual, 10);
+        remove(expected, actual, 3 * CONTAINER_SIZE + 4);
+        verify(expected, actual);
+
+        // fragment a run container into many runs
+        for (long i = 0; i < CONTAINER_SIZE; i += 2) {
+            remove(expected, actual, i);
+        }
+        verify(expected, actual);
+    }
+
+    @Test
+    public void testRandom() {
+        NavigableSet<Long> expected = new TreeSet<>();
+        RoaringBitSet actual = new RoaringBitSet();
+        for (int i = 0; i < 50000; ++i) {
+            long member = randomMember();
+            if (random.nextInt(3) == 0) {
+                remove(expected, actual, member);
+            } else {
+                add(expected, actual, member);
+            }
+        }
+        verify(expected, actual);
+    }
+
+    @Test
+    public void testRemoveReportsEmptiness() {
+        RoaringBitSet actual = new RoaringBitSet();
+        assertFalse(actual.remove(1));
+
+        actual.add(1);
+        actual.add(CONTAINER_SIZE * 10L);
+        assertFalse(actual.remove(2));
+        assertFalse(actual.remove(1));
+        assertTrue(actual.remove(CONTAINER_SIZE * 10L));
+    }
+
+    @Test
+    public void testSetOperations() {
+        for (int round = 0; round < 20; ++round) {
+            NavigableSet<Long> leftExpected = new TreeSet<>();
+            NavigableSet<Long> rightExpected = new TreeSet<>();
+            RoaringBitSet left = new RoaringBitSet();
+            RoaringBitSet right = new RoaringBitSet();
+            fill(leftExpected, left);
+            fill(rightExpected, right);
+
+            NavigableSet<Long> and = new TreeSet<>(leftExpected);
+            and.retainAll(rightExpected);
+            verify(and, RoaringBitSet.and(left, right));
+
+            NavigableSet<Long> or = new TreeSet<>(leftExpected);
+            or.addAll(rightExpected);
+            verify(or, RoaringBitSet.or(left, right));
+
+            NavigableSet<Long> andNot = new TreeSet<>(leftExpected);
+            andNot.removeAll(rightExpected);
+            verify(andNot, RoaringBitSet.andNot(left, right));
+
+            // the operands are not affected
+            verify(leftExpected, left);
+            verify(rightExpected, right);
+        }
+    }
+
+    @Test
+    public void testOperationResultsAreIndependent() {
+        RoaringBitSet left = new RoaringBitSet();
+        RoaringBitSet right = new RoaringBitSet();
+        left.add(1);
+        right.add(CONTAINER_SIZE);
+
+        RoaringBitSet or = RoaringBitSet.or(left, right);
+        or.add(2);
+        or.remove(CONTAINER_SIZE);
+
+        assertFalse(left.contains(2));
+        assertTrue(right.contains(CONTAINER_SIZE));
+    }
+
+    private void fill(NavigableSet<Long> expected, RoaringBitSet actual) {
+        switch (random.nextInt(3)) {
+            case 0:
+                // sparse
+                for (int i = 0; i < 2000; ++i) {
+                    add(expected, actual, randomMember());
+                }
+                break;
+            case 1:
+                // dense
+                for (int i = 0; i < 3 * ARRAY_CONTAINER_MAX_SIZE; ++i) {
+                    add(expected, actual, random.nextInt(2 * CONTAINER_SIZE));
+                }
+                break;
+            default:
+                // clustered
+                for (int i = 0; i < 10; ++i) {
+                    long start = random.nextInt(3 * CONTAINER_SIZE);
+                    long length = random.nextInt(10000);
+                    for (long member = start; member < start + length; ++member) {
+                        add(expected, actual, member);
+                    }
+                }
+        }
+    }
+
+    private long randomMember() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return random.nextInt(1000);
+            case 1:
+                return random.nextInt(3 * CONTAINER_SIZE);
+            default:
+                return random.nextLong() & Long.MAX_VALUE;
+        }
+    }
+
+    private static void add(NavigableSet<Long> expected, RoaringBitSet actual, long member) {
+        expected.add(member);
+        actual.add(member);
+    }
+
+    private static void remove(NavigableSet<Long> expected, RoaringBitSet actual, long member) {
+        boolean wasLast = expected.size() == 1 && expected.contains(member);
+        expected.remove(member);
+        assertEquals(wasLast, actual.remove(member));
+    }
+
+    private void verify(NavigableSet<Long> expected, RoaringBitSet actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        AscendingLongIterator iterator = actual.iterator();
+        for (long member : expected) {
+            assertEquals(member, iterator.getIndex());
+            assertTrue(actual.contains(member));
+            assertEquals(member, iterator.advance());
+        }
+        assertEquals(END, iterator.getIndex());
+        assertEquals(END, iterator.advance());
+
+        // advance through random members
+        iterator = actual.iterator();
+        long member = 0;
+        while (true) {
+            member += random.nextInt(random.nextBoolean() ? 100 : CONTAINER_SIZE * 2);
+            Long expectedMember = expected.ceiling(member);
+            long actualMember = iterator.advanceAtLeastTo(member);
+            if (expectedMember == null) {
+                assertEquals(END, actualMember);
+                break;
+            }
+            assertEquals((long) expectedMember, actualMember);
+            assertEquals(actualMember, iterator.getIndex());
+            member = expectedMember;
+        }
+    }
+
+}
@@ -38,9 +38,11 @@ public class SparseBitSetIterateBenchmark {
     private static final long MEMBER_MASK = 0x00000000000FFFFFL;
 
     private final SparseBitSet bitSet = new SparseBitSet();
+    private final RoaringBitSet compressedBitSet = new RoaringBitSet();
     private final Roaring64NavigableMap roaringBitmap = new Roaring64NavigableMap();
 
     private AscendingLongIterator iterator;
+    private AscendingLongIterator compressedIterator;
     private LongIterator iteratorRoaring;
 
     @Setup
@@ -49,8 +51,10 @@ public class SparseBitSetIterateBenchmark {
         for (int i = 0; i < SIZE; ++i) {
             long v = random.nextLong() & MEMBER_MASK;
             bitSet.add(v);
+            compressedBitSet.add(v);
         }
         iterator = bitSet.iterator();
+        compressedIterator = compressedBitSet.iterator();
 
         random = new Random(404);
         for (int i = 0; i < SIZE; ++i) {
@@ -73,6 +77,16 @@ public class SparseBitSetIterateBenchmark {
         return member;
     }
 
+    @Benchmark
+    public long iterateCompressed() {
+        long member = compressedIterator.advance();
+        if (member == AscendingLongIterator.END) {
+            compressedIterator = compressedBitSet.iterator();
+            member = compressedIterator.advance();
+        }
+        return member;
+    }
+
     @Benchmark
     public long iterateRoaring() {
         if (!iteratorRoaring.hasNext()) {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Compact;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactGetterTest {
+
+    private static final AtomicInteger INSTANCES_CREATED = new AtomicInteger();
+
+    private InternalSerializationService ss;
+    private CompactGetter getter;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().setByteOrder(ByteOrder.LITTLE_ENDIAN).build();
+        getter = new CompactGetter(ss);
+    }
+
+    @Test
+    public void getValue_readsFieldsWithoutDeserialization() throws Exception {
+        Data data = ss.toData(new Car("Volvo", 2017, 1.5f, 199_999L, (short) 7, (byte) 3, 'V', true,
+                new Engine("diesel", 190.5), new Owner("Ann")));
+        int instancesCreated = INSTANCES_CREATED.get();
+
+        assertEquals("Volvo", getter.getValue(data, "brand"));
+        assertEquals(2017, getter.getValue(data, "year"));
+        assertEquals(1.5f, getter.getValue(data, "weight"));
+        assertEquals(199_999L, getter.getValue(data, "price"));
+        assertEquals((short) 7, getter.getValue(data, "seats"));
+        assertEquals((byte) 3, getter.getValue(data, "doors"));
+        assertEquals('V', getter.getValue(data, "grade"));
+        assertEquals(true, getter.getValue(data, "electric"));
+        assertEquals("diesel", getter.getValue(data, "engine.fuel"));
+        assertEquals(190.5, getter.getValue(data, "engine.power"));
+        assertEquals(instancesCreated, INSTANCES_CREATED.get());
+    }
+
+    @Test
+    public void getValue_whenNestedObjectNotCompact() throws Exception {
+        Data data = ss.toData(new Car("Volvo", 2017, 1.5f, 1, (short) 1, (byte) 1, 'V', false, null, new Owner("Ann")));
+
+        assertEquals("Ann", getter.getValue(data, "owner.name"));
+        assertEquals(new Owner("Ann").name, ((Owner) getter.getValue(data, "owner")).name);
+    }
+
+    @Test
+    public void getValue_whenNull() throws Exception {
+        Data data = ss.toData(new Car(null, 2017, 1.5f, 1, (short) 1, (byte) 1, 'V', false, null, null));
+
+        assertNull(getter.getValue(data, "brand"));
+        assertNull(getter.getValue(data, "engine"));
+        assertNull(getter.getValue(data, "engine.fuel"));
+        assertNull(getter.getValue(data, "unknown"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValue_whenPathIntoFixedSizeField() throws Exception {
+        Data data = ss.toData(new Car("Volvo", 2017, 1.5f, 1, (short) 1, (byte) 1, 'V', false, null, null));
+
+        getter.getValue(data, "year.value");
+    }
+
+    @Test
+    public void extractors_useCompactGetterForObjectAndData() {
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        Car car = new Car("Volvo", 2017, 1.5f, 1, (short) 1, (byte) 1, 'V', false, new Engine("petrol", 100), null);
+
+        Data data = ss.toData(car);
+
+        assertEquals(CompactGetter.class, extractors.getGetter(data, "year").getClass());
+        for (Object target : asList(car, data)) {
+            assertEquals(2017, extractors.extract(target, "year", null));
+            assertEquals("petrol", extractors.extract(target, "engine.fuel", null));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValue_pathAgnostic() throws Exception {
+        getter.getValue("input");
+    }
+
+    @Test
+    public void isCacheable() {
+        assertFalse("Compact getter shouldn't be cacheable!", getter.isCacheable());
+    }
+
+    static class Car implements Compact {
+
+        private String brand;
+        private int year;
+        private float weight;
+        private long price;
+        private short seats;
+        private byte doors;
+        private char grade;
+        private boolean electric;
+        private Engine engine;
+        private Owner owner;
+
+        Car() {
+            INSTANCES_CREATED.incrementAndGet();
+        }
+
+        @SuppressWarnings("checkstyle:parameternumber")
+        Car(String brand, int year, float weight, long price, short seats, byte doors, char grade, boolean electric,
+            Engine engine, Owner owner) {
+            this.brand = brand;
+            this.year = year;
+            this.weight = weight;
+            this.price = price;
+            this.seats = seats;
+            this.doors = doors;
+            this.grade = grade;
+            this.electric = electric;
+            this.engine = engine;
+            this.owner = owner;
+        }
+    }
+
+    static class Engine implements Compact {
+
+        private String fuel;
+        private double power;
+
+        Engine() {
+            INSTANCES_CREATED.incrementAndGet();
+        }
+
+        Engine(String fuel, double power) {
+            this.fuel = fuel;
+            this.power = power;
+        }
+    }
+
+    static class Owner implements Serializable {
+
+        private final String name;
+
+        Owner(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.predicates.QueryPlan.Access;
+import com.hazelcast.query.impl.predicates.QueryPlan.Node;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.HashSet;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.or;
+import static com.hazelcast.test.Accessors.getAllIndexes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CostBasedQueryOptimizerTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 2000;
+
+    private IMap<Integer, Employee> indexed;
+    private IMap<Integer, Employee> plain;
+
+    @Before
+    public void before() {
+        Config config = smallInstanceConfig();
+        config.setProperty(ClusterProperty.QUERY_OPTIMIZER_TYPE.getName(), QueryOptimizerFactory.Type.COST.name());
+        config.getMapConfig("indexed")
+                .addIndexConfig(new IndexConfig(IndexType.HASH, "active").setName("active"))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "id").setName("id"))
+                .addIndexConfig(new IndexConfig(IndexType.SORTED, "age").setName("age"));
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        indexed = instance.getMap("indexed");
+        plain = instance.getMap("plain");
+        for (int i = 0; i < COUNT; ++i) {
+            Employee employee = new Employee(i, i % 2 == 0, i % 100);
+            indexed.put(i, employee);
+            plain.put(i, employee);
+        }
+    }
+
+    @Test
+    public void testValueStatisticsMaintained() {
+        for (Indexes indexes : getAllIndexes(indexed)) {
+            for (InternalIndex index : indexes.getIndexes()) {
+                assertNotNull(index.getValueStatistics());
+            }
+        }
+    }
+
+    @Test
+    public void testSelectiveIndexDrivesConjunction() {
+        Predicate<Integer, Employee> predicate = and(equal("active", true), equal("id", 42));
+
+        Node root = explain(predicate).getRoot();
+        assertEquals(Access.AND, root.getAccess());
+        assertEquals(Access.FILTER, root.getChildren().get(0).getAccess());
+        Node driving = root.getChildren().get(1);
+        assertEquals(Access.INDEX, driving.getAccess());
+        assertEquals("id", driving.getIndexName());
+        assertEquals(1, driving.getEstimatedRows());
+
+        assertQuery(predicate);
+    }
+
+    @Test
+    public void testSimilarIndexesAreIntersected() {
+        Predicate<Integer, Employee> predicate = and(between("id", 100, 120), equal("age", 10));
+
+        Node root = explain(predicate).getRoot();
+        assertEquals(Access.AND, root.getAccess());
+        assertEquals(Access.INDEX, root.getChildren().get(0).getAccess());
+        assertEquals(Access.INDEX, root.getChildren().get(1).getAccess());
+
+        assertQuery(predicate);
+    }
+
+    @Test
+    public void testNonSelectivePredicateScans() {
+        assertTrue(explain(equal("active", true)).isFullScan());
+        assertTrue(explain(greaterEqual("id", 100)).isFullScan());
+        assertTrue(explain(and(equal("active", false), greaterEqual("age", 10))).isFullScan());
+
+        assertQuery(equal("active", true));
+        assertQuery(greaterEqual("id", 100));
+        assertQuery(and(equal("active", false), greaterEqual("age", 10)));
+    }
+
+    @Test
+    public void testSelectivePredicateUsesIndex() {
+        QueryPlan plan = explain(in("id", 1, 2, 3));
+        assertFalse(plan.isFullScan());
+        assertEquals("id", plan.getRoot().getIndexName());
+        assertEquals(3, plan.getRoot().getEstimatedRows());
+
+        assertQuery(in("id", 1, 2, 3));
+        assertQuery(or(equal("id", 5), equal("age", 7)));
+        assertQuery(greaterEqual("id", COUNT - 10));
+    }
+
+    @Test
+    public void testPlanRendering() {
+        String plan = explain(and(equal("active", true), equal("id", 42))).toString();
+
+        assertTrue(plan, plan.startsWith("AND"));
+        assertTrue(plan, plan.contains("INDEX(id) rows=1"));
+        assertTrue(plan, plan.contains("FILTER"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryPlan explain(Predicate<Integer, Employee> predicate) {
+        return ((MapProxyImpl<Integer, Employee>) indexed).explain(predicate);
+    }
+
+    private void assertQuery(Predicate<Integer, Employee> predicate) {
+        assertEquals(new HashSet<>(plain.keySet(predicate)), new HashSet<>(indexed.keySet(predicate)));
+    }
+
+    public static class Employee implements Serializable {
+
+        private final int id;
+        private final boolean active;
+        private final int age;
+
+        public Employee(int id, boolean active, int age) {
+            this.id = id;
+            this.active = active;
+            this.age = age;
+        }
+    }
+
+}
@@ -27,7 +27,9 @@ import org.junit.runner.RunWith;
 
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_OPTIMIZER_TYPE;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +51,14 @@ public class QueryOptimizerFactoryTest {
         assertThat(queryOptimizer, instanceOf(RuleBasedQueryOptimizer.class));
     }
 
+    @Test
+    public void newOptimizer_whenPropertyContainsCost_thenCreateCostBasedOptimizer() {
+        HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "COST");
+        QueryOptimizer queryOptimizer = QueryOptimizerFactory.newOptimizer(hazelcastProperties);
+
+        assertThat(queryOptimizer, instanceOf(CostBasedQueryOptimizer.class));
+    }
+
     @Test
     public void newOptimizer_whenPropertyContainsNone_thenCreateEmptyOptimizer() {
         HazelcastProperties hazelcastProperties = createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "NONE");
@@ -57,6 +67,13 @@ public class QueryOptimizerFactoryTest {
         assertThat(queryOptimizer, instanceOf(EmptyOptimizer.class));
     }
 
+    @Test
+    public void isCostBased() {
+        assertTrue(QueryOptimizerFactory.isCostBased(createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "COST")));
+        assertFalse(QueryOptimizerFactory.isCostBased(createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "RULES")));
+        assertFalse(QueryOptimizerFactory.isCostBased(createMockHazelcastProperties(QUERY_OPTIMIZER_TYPE, "NONE")));
+    }
+
     private HazelcastProperties createMockHazelcastProperties(HazelcastProperty property, String stringValue) {
         HazelcastProperties properties = mock(HazelcastProperties.class);
         when(properties.getString(property)).thenReturn(stringValue);
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.executionservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.util.executor.CachedExecutorServiceDelegate;
+import com.hazelcast.internal.util.executor.ManagedExecutorService;
+import com.hazelcast.internal.util.executor.VirtualThreads;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_LOADER_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_EXECUTORS;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExecutionServiceImpl_VirtualThreadsTest extends HazelcastTestSupport {
+
+    @Test
+    public void whenVirtualThreadsEnabled_thenBlockingTasksNotLimitedByPoolSize() {
+        assumeTrue(VirtualThreads.isSupported());
+        Config config = smallInstanceConfig().setProperty(EXECUTOR_VIRTUAL_THREADS_ENABLED.getName(), "true");
+        config.getExecutorConfig(MAP_LOADER_EXECUTOR).setPoolSize(2);
+        ExecutionService executionService = getNodeEngineImpl(createHazelcastInstance(config)).getExecutionService();
+
+        int taskCount = 100;
+        CountDownLatch started = new CountDownLatch(taskCount);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int k = 0; k < taskCount; k++) {
+                executionService.execute(MAP_LOADER_EXECUTOR, () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertOpenEventually(started);
+            assertEquals(taskCount, executionService.getExecutor(MAP_LOADER_EXECUTOR).getPoolSize());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void whenVirtualThreadsEnabled_thenOnlyListedExecutorsUseVirtualThreads() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(EXECUTOR_VIRTUAL_THREADS_ENABLED.getName(), "true")
+                .setProperty(EXECUTOR_VIRTUAL_THREADS_EXECUTORS.getName(), "user-executor");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        ExecutionService executionService = getNodeEngineImpl(instance).getExecutionService();
+
+        Thread userThread = executionService.submit("user-executor", Thread::currentThread).get();
+        Thread mapLoadThread = executionService.submit(MAP_LOADER_EXECUTOR, Thread::currentThread).get();
+
+        assertEquals(VirtualThreads.isSupported(), isVirtual(userThread));
+        assertFalse(isVirtual(mapLoadThread));
+
+        // the executor of an IExecutorService is backed by the same executor
+        assertEquals(VirtualThreads.isSupported(),
+                instance.getExecutorService("user-executor").submit(new CurrentThreadIsVirtual()).get());
+    }
+
+    @Test
+    public void whenVirtualThreadsDisabled() throws Exception {
+        ExecutionService executionService = getNodeEngineImpl(createHazelcastInstance(smallInstanceConfig()))
+                .getExecutionService();
+
+        ManagedExecutorService executor = executionService.getExecutor(MAP_LOADER_EXECUTOR);
+        Thread thread = executionService.submit(MAP_LOADER_EXECUTOR, Thread::currentThread).get();
+
+        assertTrue(executor instanceof CachedExecutorServiceDelegate);
+        assertFalse(isVirtual(thread));
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        if (!VirtualThreads.isSupported()) {
+            return false;
+        }
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    public static class CurrentThreadIsVirtual implements Callable<Boolean>, Serializable {
+
+        @Override
+        public Boolean call() throws Exception {
+            return isVirtual(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.THREAD_PER_CORE_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests the {@link OperationExecutorImpl} in thread-per-core mode.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_ThreadPerCoreTest extends OperationExecutorImpl_AbstractTest {
+
+    private NioThread[] nioThreads;
+
+    @Before
+    public void setupThreadPerCore() {
+        config.setProperty(THREAD_PER_CORE_ENABLED.getName(), "true");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        initExecutor();
+
+        nioThreads = new NioThread[executor.hostThreadCount()];
+        for (int i = 0; i < nioThreads.length; i++) {
+            nioThreads[i] = new NioThread("in-" + i, Logger.getLogger(NioThread.class), mock(ChannelErrorHandler.class));
+            executor.host(i, nioThreads[i]);
+        }
+    }
+
+    @After
+    public void shutdownNioThreads() {
+        for (NioThread nioThread : nioThreads) {
+            nioThread.shutdown();
+        }
+    }
+
+    @Test
+    public void testHostThreadCount() {
+        assertEquals(2, executor.hostThreadCount());
+    }
+
+    @Test
+    public void testNioThreadRunsOnPartitionThread() throws Exception {
+        CompletableFuture<Thread> carrier = new CompletableFuture<>();
+        nioThreads[1].addTaskAndWakeup(() -> carrier.complete(Thread.currentThread()));
+
+        Thread thread = carrier.get();
+        assertSame(PartitionOperationThread.class, thread.getClass());
+        assertEquals(1, ((PartitionOperationThread) thread).getThreadId());
+        assertFalse(nioThreads[1].isAlive());
+    }
+
+    @Test
+    public void testPacketOfOwnedPartition_isExecutedInline() throws Exception {
+        Packet packet = newPacket(0);
+        DummyOperationRunner runner = (DummyOperationRunner) executor.getPartitionOperationRunners()[0];
+
+        CompletableFuture<Boolean> executedInline = new CompletableFuture<>();
+        nioThreads[0].addTaskAndWakeup(() -> {
+            executor.accept(packet);
+            executedInline.complete(runner.packets.contains(packet));
+        });
+
+        assertTrue(executedInline.get());
+    }
+
+    @Test
+    public void testPacketOfOtherPartitionThread_isQueued() throws Exception {
+        Packet packet = newPacket(1);
+        DummyOperationRunner runner = (DummyOperationRunner) executor.getPartitionOperationRunners()[1];
+        CountDownLatch blockThread = new CountDownLatch(1);
+        // keep partition thread 1 busy so the packet can't be processed before it is checked
+        executor.execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return 1;
+            }
+
+            @Override
+            public void run() {
+                assertOpenEventually(blockThread);
+            }
+        });
+
+        CompletableFuture<Boolean> executedInline = new CompletableFuture<>();
+        nioThreads[0].addTaskAndWakeup(() -> {
+            executor.accept(packet);
+            executedInline.complete(runner.packets.contains(packet));
+        });
+
+        assertFalse(executedInline.get());
+        blockThread.countDown();
+        assertTrueEventually(() -> assertTrue(runner.packets.contains(packet)));
+    }
+
+    @Test
+    public void testPacketFromOtherThread_isQueued() {
+        Packet packet = newPacket(0);
+        DummyOperationRunner runner = (DummyOperationRunner) executor.getPartitionOperationRunners()[0];
+
+        executor.accept(packet);
+
+        assertTrueEventually(() -> assertTrue(runner.packets.contains(packet)));
+    }
+
+    @Test
+    public void testOperationsAreExecuted_afterNioThreadShutdown() {
+        for (NioThread nioThread : nioThreads) {
+            nioThread.shutdown();
+        }
+        assertTrueEventually(() -> {
+            for (NioThread nioThread : nioThreads) {
+                assertFalse(nioThread.getSelector().isOpen());
+            }
+        });
+
+        Packet packet = newPacket(1);
+        DummyOperationRunner runner = (DummyOperationRunner) executor.getPartitionOperationRunners()[1];
+        executor.accept(packet);
+
+        assertTrueEventually(() -> assertTrue(runner.packets.contains(packet)));
+    }
+
+    @Test
+    public void testNioThreadIsClosed_whenExecutorShutdown() {
+        executor.shutdown();
+        executor = null;
+
+        for (NioThread nioThread : nioThreads) {
+            assertFalse(nioThread.getSelector().isOpen());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHost_whenThreadPerCoreDisabled() {
+        executor.shutdown();
+        config.setProperty(THREAD_PER_CORE_ENABLED.getName(), "false");
+        initExecutor();
+
+        executor.host(0, nioThreads[0]);
+    }
+
+    private Packet newPacket(int partitionId) {
+        DummyOperation operation = new DummyPartitionOperation(partitionId);
+        return new Packet(serializationService.toBytes(operation), partitionId)
+                .setPacketType(Packet.Type.OPERATION);
+    }
+}
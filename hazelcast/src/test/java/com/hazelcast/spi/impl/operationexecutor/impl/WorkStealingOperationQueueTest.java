@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class WorkStealingOperationQueueTest extends HazelcastTestSupport {
+
+    private WorkStealingOperationQueue operationQueue;
+
+    @Before
+    public void setup() {
+        operationQueue = new WorkStealingOperationQueue(2);
+    }
+
+    // ================== add =====================
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        operationQueue.add(null, false);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        operationQueue.add("task", true);
+
+        assertEquals(1, operationQueue.prioritySize());
+        assertEquals(0, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenNormal() {
+        operationQueue.add("task", false);
+
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+        assertEquals(1, operationQueue.size());
+    }
+
+    @Test
+    public void add_whenWorkerAddsToItsOwnQueue() throws Exception {
+        OperationQueue workerQueue = operationQueue.workerQueue(0);
+        operationQueue.add("task1", false);
+
+        Future future = spawn(() -> {
+            assertSame("task1", workerQueue.take(false));
+            workerQueue.add("task2", false);
+            return null;
+        });
+        future.get();
+
+        assertEquals(1, workerQueue.normalSize());
+        assertEquals(0, operationQueue.workerQueue(1).normalSize());
+    }
+
+    // ================== take =====================
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void take_whenNotPriorityOnly_andNotWorkerQueue() throws InterruptedException {
+        operationQueue.take(false);
+    }
+
+    @Test
+    public void take_whenPriorityOnly() throws InterruptedException {
+        operationQueue.add("normal", false);
+        operationQueue.add("priority", true);
+
+        assertSame("priority", operationQueue.take(true));
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(1, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_priorityIsRetrievedFirst() throws InterruptedException {
+        OperationQueue workerQueue = operationQueue.workerQueue(0);
+        operationQueue.add("normal1", false);
+        operationQueue.add("priority1", true);
+        operationQueue.add("normal2", false);
+        operationQueue.add("priority2", true);
+
+        assertSame("priority1", workerQueue.take(false));
+        assertSame("priority2", workerQueue.take(false));
+        assertEquals(0, operationQueue.prioritySize());
+        assertEquals(2, operationQueue.normalSize());
+    }
+
+    @Test
+    public void take_whenOtherWorkerHasTasks_thenStolen() throws InterruptedException {
+        for (int k = 0; k < 10; k++) {
+            operationQueue.add("task" + k, false);
+        }
+
+        // whatever the worker the tasks were added to, a single worker can take all of them
+        OperationQueue workerQueue = operationQueue.workerQueue(1);
+        for (int k = 0; k < 10; k++) {
+            workerQueue.take(false);
+        }
+
+        assertEquals(0, operationQueue.size());
+    }
+
+    @Test
+    public void take_whenNoItemAvailable_thenBlockTillItemAvailable() throws Exception {
+        OperationQueue workerQueue = operationQueue.workerQueue(0);
+        Future<Object> future = spawn(() -> workerQueue.take(false));
+
+        sleepSeconds(1);
+        operationQueue.add("task", false);
+
+        assertSame("task", future.get());
+    }
+
+    @Test
+    public void take_whenPriorityItemAdded_thenBlockedWorkerWokenUp() throws Exception {
+        OperationQueue workerQueue = operationQueue.workerQueue(1);
+        Future<Object> future = spawn(() -> workerQueue.take(false));
+
+        sleepSeconds(1);
+        operationQueue.add("task", true);
+
+        assertSame("task", future.get());
+    }
+
+    @Test
+    public void take_whenManyProducersAndWorkers_thenEveryTaskTakenOnce() throws Exception {
+        int workerCount = 3;
+        int producerCount = 3;
+        int tasksPerProducer = 100000;
+        operationQueue = new WorkStealingOperationQueue(workerCount);
+        Set<Object> taken = ConcurrentHashMap.newKeySet();
+
+        Future[] consumers = new Future[workerCount + 1];
+        for (int k = 0; k < workerCount; k++) {
+            OperationQueue workerQueue = operationQueue.workerQueue(k);
+            consumers[k] = spawn(() -> consume(workerQueue, false, taken));
+        }
+        consumers[workerCount] = spawn(() -> consume(operationQueue, true, taken));
+
+        Future[] producers = new Future[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            producers[p] = spawn(() -> {
+                for (int k = 0; k < tasksPerProducer; k++) {
+                    operationQueue.add(producer + "-" + k, k % 10 == 0);
+                }
+            });
+        }
+        for (Future producer : producers) {
+            producer.get();
+        }
+
+        assertTrueEventually(() -> assertEquals(producerCount * tasksPerProducer, taken.size()));
+        assertEquals(0, operationQueue.size());
+
+        for (Future consumer : consumers) {
+            consumer.cancel(true);
+        }
+    }
+
+    private static Object consume(OperationQueue queue, boolean priorityOnly, Set<Object> taken) throws InterruptedException {
+        while (!Thread.currentThread().isInterrupted()) {
+            Object task = queue.take(priorityOnly);
+            if (!taken.add(task)) {
+                throw new AssertionError("Task taken twice: " + task);
+            }
+        }
+        return null;
+    }
+}
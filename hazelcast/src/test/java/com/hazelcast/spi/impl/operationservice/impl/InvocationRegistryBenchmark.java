@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.spi.impl.sequence.CallIdSequence;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.deactivate;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+
+/**
+ * Measures the cost of registering, looking up and deregistering an invocation
+ * when many threads invoke at the same time. The {@code concurrentHashMap}
+ * benchmark is the baseline of a registry that stores the invocations in a
+ * {@link ConcurrentHashMap} keyed by the boxed call ID.
+ * <p>
+ * Run it on a machine with at least as many cores as benchmark threads; the
+ * difference is in the contention and allocations, not in the single threaded cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(64)
+@SuppressWarnings("unused")
+public class InvocationRegistryBenchmark {
+
+    private static final ILogger LOGGER = Logger.getLogger(InvocationRegistryBenchmark.class);
+
+    @State(Scope.Benchmark)
+    public static class RegistryState {
+        final InvocationRegistry registry = new InvocationRegistry(LOGGER, new CallIdSequenceWithoutBackpressure());
+        final ConcurrentMap<Long, Invocation> map = new ConcurrentHashMap<>(1000, 0.75f, 64);
+        final CallIdSequence callIdSequence = new CallIdSequenceWithoutBackpressure();
+    }
+
+    @State(Scope.Thread)
+    public static class InvocationState {
+        Invocation invocation;
+
+        @Setup
+        public void setup(RegistryState state) {
+            Context context = new Context(null, null, null, null, null, 1000, state.registry, null, LOGGER,
+                    null, null, null, null, null, null, null, null, null, null);
+            invocation = new PartitionInvocation(context, new DummyOperation(), 0, 0, 0, false, false);
+        }
+    }
+
+    @Benchmark
+    public Invocation invocationRegistry(RegistryState state, InvocationState invocationState) {
+        Invocation invocation = invocationState.invocation;
+        InvocationRegistry registry = state.registry;
+        registry.register(invocation);
+        Invocation found = registry.get(invocation.op.getCallId());
+        registry.deregister(invocation);
+        return found;
+    }
+
+    @Benchmark
+    public Invocation concurrentHashMap(RegistryState state, InvocationState invocationState) {
+        Invocation invocation = invocationState.invocation;
+        long callId = state.callIdSequence.next();
+        setCallId(invocation.op, callId);
+        state.map.put(callId, invocation);
+        Invocation found = state.map.get(callId);
+        deactivate(invocation.op);
+        state.map.remove(callId);
+        state.callIdSequence.complete();
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InvocationRegistryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
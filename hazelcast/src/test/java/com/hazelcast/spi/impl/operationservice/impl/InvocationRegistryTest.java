@@ -23,6 +23,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
 import com.hazelcast.spi.impl.sequence.CallIdSequenceWithBackpressure;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -32,6 +33,11 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -151,6 +157,69 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
     }
 
 
+    // ===================== slot collisions ============================
+
+    @Test
+    public void whenCallIdsWrapAroundTable_thenInvocationsFound() {
+        invocationRegistry = new InvocationRegistry(logger, new CallIdSequenceWithoutBackpressure());
+        // more invocations than slots, so some of them collide
+        int count = 40000;
+        List<Invocation> invocations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            invocations.add(invocation);
+        }
+
+        assertEquals(count, invocationRegistry.size());
+        for (Invocation invocation : invocations) {
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+        }
+        Set<Invocation> iterated = new HashSet<>();
+        for (Invocation invocation : invocationRegistry) {
+            iterated.add(invocation);
+        }
+        assertEquals(new HashSet<>(invocations), iterated);
+
+        for (Invocation invocation : invocations) {
+            long callId = invocation.op.getCallId();
+            invocationRegistry.deregister(invocation);
+            assertNull(invocationRegistry.get(callId));
+        }
+        assertEquals(0, invocationRegistry.size());
+        assertFalse(invocationRegistry.iterator().hasNext());
+    }
+
+    @Test
+    public void whenOldInvocationPending_thenSlotReused() {
+        invocationRegistry = new InvocationRegistry(logger, new CallIdSequenceWithoutBackpressure());
+        Invocation pending = newInvocation();
+        invocationRegistry.register(pending);
+
+        for (int i = 0; i < 40000; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+            invocationRegistry.deregister(invocation);
+        }
+
+        assertSame(pending, invocationRegistry.get(pending.op.getCallId()));
+        assertEquals(1, invocationRegistry.size());
+    }
+
+    @Test
+    public void entrySet_containsCallIds() {
+        Invocation invocation = newInvocation();
+        invocationRegistry.register(invocation);
+
+        Set<Map.Entry<Long, Invocation>> entries = invocationRegistry.entrySet();
+
+        assertEquals(1, entries.size());
+        Map.Entry<Long, Invocation> entry = entries.iterator().next();
+        assertEquals(invocation.op.getCallId(), (long) entry.getKey());
+        assertSame(invocation, entry.getValue());
+    }
+
     // ===================== reset ============================
 
     @Test
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_BATCH;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_WINDOW_MICROS;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BATCH_WINDOW_MICROS;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationBatcherTest extends HazelcastTestSupport {
+
+    private Connection connection;
+    private OperationBatcher batcher;
+
+    @Before
+    public void setup() {
+        connection = mock(Connection.class);
+        when(connection.isAlive()).thenReturn(true);
+        when(connection.write(any())).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void toBatchPacket_thenForEachPacket() {
+        Packet operation = new Packet(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, 10).setPacketType(Packet.Type.OPERATION);
+        Packet response = new Packet(new byte[]{9, 8, 7, 6, 5, 4, 3, 2, 1}, -1).setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+        Packet empty = new Packet(new byte[0], 5).setPacketType(Packet.Type.OPERATION);
+
+        Packet batch = OperationBatcher.toBatchPacket(asList(operation, response, empty));
+        batch.setConn(connection);
+
+        assertEquals(Packet.Type.OPERATION, batch.getPacketType());
+        assertTrue(batch.isFlagRaised(FLAG_OP_BATCH));
+
+        List<Packet> packets = new ArrayList<>();
+        OperationBatcher.forEachPacket(batch, packets::add);
+
+        assertEquals(asList(operation, response, empty), packets);
+        for (Packet packet : packets) {
+            assertSame(connection, packet.getConn());
+        }
+    }
+
+    @Test
+    public void offer_whenUrgent() {
+        batcher = newBatcher(Integer.MAX_VALUE);
+        Packet packet = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_URGENT);
+
+        assertFalse(batcher.offer(packet, connection));
+    }
+
+    @Test
+    public void offer_whenNoConnection() {
+        batcher = newBatcher(Integer.MAX_VALUE);
+        Packet packet = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION);
+
+        assertFalse(batcher.offer(packet, null));
+    }
+
+    @Test
+    public void offer_whenConnectionNotAlive() {
+        batcher = newBatcher(Integer.MAX_VALUE);
+        when(connection.isAlive()).thenReturn(false);
+        Packet packet = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION);
+
+        assertFalse(batcher.offer(packet, connection));
+    }
+
+    @Test
+    public void offer_whenBackupsOnly() {
+        batcher = new OperationBatcher("hz", Logger.getLogger(OperationBatcher.class), 10, Integer.MAX_VALUE, true,
+                () -> true);
+        Packet packet = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION);
+
+        assertFalse(batcher.offer(packet, connection));
+        assertTrue(batcher.offerBackup(packet, connection));
+    }
+
+    @Test
+    public void offer_whenClusterVersionDoesNotSupportBatches() {
+        batcher = new OperationBatcher("hz", Logger.getLogger(OperationBatcher.class), 10, Integer.MAX_VALUE, false,
+                () -> false);
+        Packet packet = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION);
+
+        assertFalse(batcher.offer(packet, connection));
+        assertFalse(batcher.offerBackup(packet, connection));
+    }
+
+    @Test
+    public void offer_thenPacketsWrittenInOrder() {
+        batcher = newBatcher(200);
+        List<Packet> offered = new ArrayList<>();
+        for (int k = 0; k < 20; k++) {
+            Packet packet = new Packet(new byte[16 + k], k).setPacketType(Packet.Type.OPERATION);
+            offered.add(packet);
+            assertTrue(batcher.offer(packet, connection));
+        }
+        batcher.start();
+
+        ArgumentCaptor<Packet> captor = ArgumentCaptor.forClass(Packet.class);
+        List<Packet> written = new ArrayList<>();
+        assertTrueEventually(() -> {
+            verify(connection, atLeastOnce()).write(captor.capture());
+            written.clear();
+            for (Packet packet : captor.getAllValues()) {
+                if (packet.isFlagRaised(FLAG_OP_BATCH)) {
+                    assertTrue(packet.totalSize() <= 200);
+                    OperationBatcher.forEachPacket(packet, written::add);
+                } else {
+                    written.add(packet);
+                }
+            }
+            assertEquals(offered, written);
+        });
+    }
+
+    @Test
+    public void whenBatchingEnabled_thenOperationsSucceed() throws Exception {
+        Config config = smallInstanceConfig().setProperty(OPERATION_BATCH_WINDOW_MICROS.getName(), "100");
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(instances);
+
+        IMap<Integer, Integer> map = instances[0].getMap(randomMapName());
+        List<CompletionStage<Integer>> futures = new ArrayList<>();
+        for (int k = 0; k < 1000; k++) {
+            futures.add(map.putAsync(k, k));
+        }
+        for (CompletionStage<Integer> future : futures) {
+            future.toCompletableFuture().get();
+        }
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Integer.valueOf(k), map.getAsync(k).toCompletableFuture().get());
+        }
+
+        OperationBatcher operationBatcher = getOperationService(instances[0]).getOperationBatcher();
+        assertTrue(operationBatcher.batchesSent() > 0);
+    }
+
+    @Test
+    public void whenBackupBatchingEnabled_thenBackupsApplied() throws Exception {
+        Config config = smallInstanceConfig().setProperty(OPERATION_BACKUP_BATCH_WINDOW_MICROS.getName(), "100");
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setBackupCount(2);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(3).newInstances(config);
+        warmUpPartitions(instances);
+
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        List<CompletionStage<Integer>> futures = new ArrayList<>();
+        for (int k = 0; k < 1000; k++) {
+            futures.add(map.putAsync(k, k));
+        }
+        for (CompletionStage<Integer> future : futures) {
+            future.toCompletableFuture().get();
+        }
+
+        long batchesSent = 0;
+        for (HazelcastInstance instance : instances) {
+            batchesSent += getOperationService(instance).getOperationBatcher().batchesSent();
+        }
+        assertTrue(batchesSent > 0);
+
+        instances[0].getLifecycleService().terminate();
+        instances[1].getLifecycleService().terminate();
+        IMap<Integer, Integer> survivor = instances[2].getMap(mapName);
+        assertEquals(1000, survivor.size());
+        for (int k = 0; k < 1000; k++) {
+            assertEquals(Integer.valueOf(k), survivor.get(k));
+        }
+    }
+
+    private OperationBatcher newBatcher(int maxBatchBytes) {
+        return new OperationBatcher("hz", Logger.getLogger(OperationBatcher.class), 10, maxBatchBytes, false, () -> true);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionStateManager;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.exception.PartitionMigratingException;
+import com.hazelcast.spi.impl.operationservice.LiveOperations;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
+import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MIGRATION_PARKED_OPERATIONS_MAX;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationRunnerImpl_MigrationParkingTest extends HazelcastTestSupport {
+
+    private OperationRunnerImpl operationRunner;
+    private PartitionStateManager partitionStateManager;
+    private OperationResponseHandler responseHandler;
+
+    private void setup(int maxParkedOperations) {
+        Config config = smallInstanceConfig()
+                .setProperty(PARTITION_MIGRATION_PARKED_OPERATIONS_MAX.getName(), String.valueOf(maxParkedOperations));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        warmUpPartitions(instance);
+        partitionStateManager = ((InternalPartitionServiceImpl) getPartitionService(instance)).getPartitionStateManager();
+        operationRunner = new OperationRunnerImpl(getOperationService(instance), 0, 0, newSwCounter());
+        responseHandler = mock(OperationResponseHandler.class);
+    }
+
+    @Test
+    public void whenMigrating_thenOperationParkedUntilMigrationFinished() {
+        setup(10);
+        AtomicInteger counter = new AtomicInteger();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        Operation op = newOperation(counter, 1);
+        operationRunner.run(op);
+        assertEquals(0, counter.get());
+
+        LiveOperations liveOperations = mock(LiveOperations.class);
+        operationRunner.populateMigrationParkedOperations(liveOperations);
+        verify(liveOperations).add(any(), eq(1L));
+
+        partitionStateManager.clearMigratingFlag(0);
+        operationRunner.run(() -> { });
+        assertEquals(1, counter.get());
+        verify(responseHandler).sendResponse(op, "response");
+    }
+
+    @Test
+    public void whenMigrating_thenParkedOperationsReplayedInOrder() {
+        setup(10);
+        List<Integer> order = new ArrayList<>();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        for (int i = 1; i <= 3; i++) {
+            int index = i;
+            Operation op = new Operation() {
+                @Override
+                public void run() {
+                    order.add(index);
+                }
+            };
+            op.setPartitionId(0).setOperationResponseHandler(responseHandler);
+            setCallId(op, i);
+            operationRunner.run(op);
+        }
+        assertEquals(0, order.size());
+
+        partitionStateManager.clearMigratingFlag(0);
+        Operation op = newOperation(new AtomicInteger(), 4);
+        operationRunner.run(op);
+        assertEquals(3, order.size());
+        assertEquals(Integer.valueOf(1), order.get(0));
+        assertEquals(Integer.valueOf(3), order.get(2));
+    }
+
+    @Test
+    public void whenReadonly_thenOperationRunsDuringMigration() {
+        setup(10);
+        AtomicInteger counter = new AtomicInteger();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        Operation op = new ReadonlyTestOperation(counter);
+        op.setPartitionId(0).setOperationResponseHandler(responseHandler);
+        setCallId(op, 1);
+        operationRunner.run(op);
+
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void whenLimitReached_thenPartitionMigratingException() {
+        setup(1);
+        AtomicInteger counter = new AtomicInteger();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        operationRunner.run(newOperation(counter, 1));
+        Operation rejected = newOperation(counter, 2);
+        operationRunner.run(rejected);
+
+        verify(responseHandler).sendResponse(same(rejected), any(PartitionMigratingException.class));
+        partitionStateManager.clearMigratingFlag(0);
+        operationRunner.run(() -> { });
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void whenDisabled_thenPartitionMigratingException() {
+        setup(0);
+        AtomicInteger counter = new AtomicInteger();
+        partitionStateManager.trySetMigratingFlag(0);
+
+        Operation op = newOperation(counter, 1);
+        operationRunner.run(op);
+
+        verify(responseHandler).sendResponse(same(op), any(PartitionMigratingException.class));
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void whenClusterScalesOut_thenOperationsSucceed() throws Exception {
+        Config config = smallInstanceConfig().setProperty(PARTITION_MIGRATION_PARKED_OPERATIONS_MAX.getName(), "1000");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("map");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        factory.newHazelcastInstance(config);
+        List<CompletionStage<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(map.putAsync(i, i + 1));
+        }
+        factory.newHazelcastInstance(config);
+        for (CompletionStage<Integer> future : futures) {
+            future.toCompletableFuture().get();
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i + 1), map.get(i));
+        }
+    }
+
+    private Operation newOperation(AtomicInteger counter, long callId) {
+        Operation op = new Operation() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public Object getResponse() {
+                return "response";
+            }
+        };
+        op.setPartitionId(0).setOperationResponseHandler(responseHandler);
+        setCallId(op, callId);
+        return op;
+    }
+
+    private static class ReadonlyTestOperation extends Operation implements ReadonlyOperation {
+
+        private final AtomicInteger counter;
+
+        ReadonlyTestOperation(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void run() {
+            counter.incrementAndGet();
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.spi.impl.PacketDispatcher;
+import com.hazelcast.spi.impl.operationservice.impl.OperationBatcher;
 import com.hazelcast.test.ExpectedRuntimeException;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -28,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import java.util.function.Consumer;
@@ -35,6 +37,8 @@ import java.util.function.Consumer;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -125,6 +129,22 @@ public class PacketDispatcherTest extends HazelcastTestSupport {
     }
 
 
+    @Test
+    public void whenOperationBatchPacket() {
+        Packet operation1 = new Packet(new byte[16], 1).setPacketType(Packet.Type.OPERATION);
+        Packet response = new Packet(new byte[12], -1).setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+        Packet operation2 = new Packet(new byte[20], 2).setPacketType(Packet.Type.OPERATION);
+        Packet batch = OperationBatcher.toBatchPacket(asList(operation1, response, operation2));
+
+        dispatcher.accept(batch);
+
+        InOrder inOrder = inOrder(operationExecutor);
+        inOrder.verify(operationExecutor).accept(operation1);
+        inOrder.verify(operationExecutor).accept(operation2);
+        verify(responseHandler).accept(response);
+        verifyZeroInteractions(eventService, invocationMonitor, jetService);
+    }
+
     @Test
     public void whenEventPacket() {
         Packet packet = new Packet().setPacketType(Packet.Type.EVENT);
@@ -20,6 +20,7 @@ import com.hazelcast.core.ManagedContext;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.PortableContext;
+import com.hazelcast.internal.serialization.impl.compact.SchemaRegistry;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
@@ -174,6 +175,11 @@ public class SamplingSerializationService implements InternalSerializationServic
         return delegate.getPortableContext();
     }
 
+    @Override
+    public SchemaRegistry getCompactSchemaRegistry() {
+        return delegate.getCompactSchemaRegistry();
+    }
+
     @Override
     public void disposeData(Data data) {
         delegate.disposeData(data);